@@ -0,0 +1,82 @@
+package io.storedmapper;
+
+import java.util.List;
+
+/**
+ * OUTPUTパラメータを持つストアドプロシージャのバッチ実行結果。
+ *
+ * <p>実行した要素ごとの{@link ExecuteResult}を入力リストと同じ順序で保持します。
+ * 最初のエラーで停止した場合、停止した要素までの結果のみを含みます。</p>
+ *
+ * <pre>{@code
+ * BatchCallResult result = executor.executeBatchWithOutputs(params, true);
+ * if (result.hasError()) {
+ *     var failed = params.get(result.getExecutedCount() - 1);
+ *     log.error("Error: {}", failed.getProgressMessage());
+ * }
+ * }</pre>
+ *
+ * @since 1.1.0
+ */
+public class BatchCallResult {
+
+    /** 要素ごとの実行結果 */
+    private final List<ExecuteResult> results;
+
+    /** エラーになった要素数 */
+    private final int errorCount;
+
+    /** エラーにより途中で停止したかどうか */
+    private final boolean stopped;
+
+    public BatchCallResult(List<ExecuteResult> results, int errorCount, boolean stopped) {
+        this.results = List.copyOf(results);
+        this.errorCount = errorCount;
+        this.stopped = stopped;
+    }
+
+    /**
+     * 実行した要素ごとの結果を返します。
+     *
+     * @return 実行結果のリスト（入力リストと同じ順序）
+     */
+    public List<ExecuteResult> getResults() {
+        return results;
+    }
+
+    /**
+     * 実行した要素数を返します。
+     *
+     * @return 実行した要素数
+     */
+    public int getExecutedCount() {
+        return results.size();
+    }
+
+    /**
+     * エラーになった要素数を返します。
+     *
+     * @return エラー件数
+     */
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * エラーにより途中で停止したかどうかを返します。
+     *
+     * @return 停止した場合は{@code true}
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * エラーになった要素があるかどうかを返します。
+     *
+     * @return エラーがある場合は{@code true}
+     */
+    public boolean hasError() {
+        return errorCount > 0;
+    }
+}
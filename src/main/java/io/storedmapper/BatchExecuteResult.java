@@ -0,0 +1,72 @@
+package io.storedmapper;
+
+import java.sql.Statement;
+
+/**
+ * ストアドプロシージャのバッチ実行結果。
+ *
+ * <p>影響を受けた行数を入力リストと同じ順序で保持します。
+ * ドライバが件数を返さない場合、要素は{@link Statement#SUCCESS_NO_INFO}になります。</p>
+ *
+ * <pre>{@code
+ * BatchExecuteResult result = executor.executeBatch(params);
+ * log.info("imported {} rows", result.getTotalAffectedRows());
+ * }</pre>
+ *
+ * @since 1.1.0
+ */
+public class BatchExecuteResult {
+
+    /** 要素ごとの影響を受けた行数 */
+    private final int[] affectedRows;
+
+    public BatchExecuteResult(int[] affectedRows) {
+        this.affectedRows = affectedRows;
+    }
+
+    /**
+     * 要素ごとの影響を受けた行数を返します。
+     *
+     * <p>返される配列は内部の配列そのものです。変更しないでください。</p>
+     *
+     * @return 影響を受けた行数の配列（入力リストと同じ順序）
+     */
+    public int[] getAffectedRows() {
+        return affectedRows;
+    }
+
+    /**
+     * 指定した要素の影響を受けた行数を返します。
+     *
+     * @param index 入力リストのインデックス
+     * @return 影響を受けた行数
+     */
+    public int getAffectedRows(int index) {
+        return affectedRows[index];
+    }
+
+    /**
+     * 実行した要素数を返します。
+     *
+     * @return 要素数
+     */
+    public int size() {
+        return affectedRows.length;
+    }
+
+    /**
+     * 影響を受けた行数の合計を返します。
+     * 件数が不明な要素（{@link Statement#SUCCESS_NO_INFO}）は含みません。
+     *
+     * @return 影響を受けた行数の合計
+     */
+    public long getTotalAffectedRows() {
+        long total = 0;
+        for (int count : affectedRows) {
+            if (count > 0) {
+                total += count;
+            }
+        }
+        return total;
+    }
+}
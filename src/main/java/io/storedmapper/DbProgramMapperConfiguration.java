@@ -14,6 +14,13 @@ public class DbProgramMapperConfiguration {
     private DbDialect dialect;
     private String defaultSchema;
     private DbErrorCodes errorCodes;
+    private Integer sqlCacheMaxSize;
+    private Integer sqlCacheMaxOrderByVariants;
+    private Integer streamFetchSize;
+    private Integer batchSize;
+    private Integer batchLoaderMaxKeys;
+    private Integer asyncMaxConcurrency;
+    private DbRetryPolicy retryPolicy;
 
     public DbDialect getDialect() {
         return dialect;
@@ -38,4 +45,60 @@ public class DbProgramMapperConfiguration {
     public void setErrorCodes(DbErrorCodes errorCodes) {
         this.errorCodes = errorCodes;
     }
+
+    public Integer getSqlCacheMaxSize() {
+        return sqlCacheMaxSize;
+    }
+
+    public void setSqlCacheMaxSize(Integer sqlCacheMaxSize) {
+        this.sqlCacheMaxSize = sqlCacheMaxSize;
+    }
+
+    public Integer getSqlCacheMaxOrderByVariants() {
+        return sqlCacheMaxOrderByVariants;
+    }
+
+    public void setSqlCacheMaxOrderByVariants(Integer sqlCacheMaxOrderByVariants) {
+        this.sqlCacheMaxOrderByVariants = sqlCacheMaxOrderByVariants;
+    }
+
+    public Integer getStreamFetchSize() {
+        return streamFetchSize;
+    }
+
+    public void setStreamFetchSize(Integer streamFetchSize) {
+        this.streamFetchSize = streamFetchSize;
+    }
+
+    public Integer getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(Integer batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Integer getBatchLoaderMaxKeys() {
+        return batchLoaderMaxKeys;
+    }
+
+    public void setBatchLoaderMaxKeys(Integer batchLoaderMaxKeys) {
+        this.batchLoaderMaxKeys = batchLoaderMaxKeys;
+    }
+
+    public Integer getAsyncMaxConcurrency() {
+        return asyncMaxConcurrency;
+    }
+
+    public void setAsyncMaxConcurrency(Integer asyncMaxConcurrency) {
+        this.asyncMaxConcurrency = asyncMaxConcurrency;
+    }
+
+    public DbRetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    public void setRetryPolicy(DbRetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
 }
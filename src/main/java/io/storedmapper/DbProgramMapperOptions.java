@@ -2,6 +2,11 @@ package io.storedmapper;
 
 import io.storedmapper.dialect.DbDialect;
 import io.storedmapper.dialect.SqlServerDialect;
+import io.storedmapper.internal.InFlightCalls;
+import io.storedmapper.internal.ProgramRetry;
+import io.storedmapper.internal.ResultCache;
+import io.storedmapper.internal.SqlCache;
+import io.storedmapper.internal.StatementSettings;
 
 import java.util.function.Consumer;
 
@@ -21,9 +26,31 @@ import java.util.function.Consumer;
  */
 public final class DbProgramMapperOptions {
 
+    /** SQLキャッシュの最大エントリ数のデフォルト値 */
+    public static final int DEFAULT_SQL_CACHE_MAX_SIZE = 10_000;
+
+    /** プログラムごとにキャッシュするORDER BY句のバリエーション数のデフォルト値 */
+    public static final int DEFAULT_SQL_CACHE_MAX_ORDER_BY_VARIANTS = 16;
+
+    /** ストリーミングクエリのフェッチサイズのデフォルト値 */
+    public static final int DEFAULT_STREAM_FETCH_SIZE = 1_000;
+
+    /** バッチ実行で1回の executeBatch に含める要素数のデフォルト値 */
+    public static final int DEFAULT_BATCH_SIZE = 1_000;
+
+    /** {@code BatchLoader}が1回の呼び出しで渡すキー数のデフォルト値 */
+    public static final int DEFAULT_BATCH_LOADER_MAX_KEYS = 1_000;
+
     private static DbDialect dialect = new SqlServerDialect();
     private static String defaultSchema = "dbo";
     private static DbErrorCodes errorCodes = new DbErrorCodes();
+    private static int sqlCacheMaxSize = DEFAULT_SQL_CACHE_MAX_SIZE;
+    private static int sqlCacheMaxOrderByVariants = DEFAULT_SQL_CACHE_MAX_ORDER_BY_VARIANTS;
+    private static int streamFetchSize = DEFAULT_STREAM_FETCH_SIZE;
+    private static int batchSize = DEFAULT_BATCH_SIZE;
+    private static int batchLoaderMaxKeys = DEFAULT_BATCH_LOADER_MAX_KEYS;
+    private static int asyncMaxConcurrency = 0;
+    private static DbRetryPolicy retryPolicy = new DbRetryPolicy();
 
     private DbProgramMapperOptions() {
     }
@@ -55,6 +82,73 @@ public final class DbProgramMapperOptions {
         return errorCodes;
     }
 
+    /**
+     * SQLキャッシュの最大エントリ数を返します。
+     *
+     * @return 最大エントリ数
+     */
+    public static int getSqlCacheMaxSize() {
+        return sqlCacheMaxSize;
+    }
+
+    /**
+     * プログラムごとにキャッシュするORDER BY句のバリエーション数を返します。
+     *
+     * @return ORDER BY句のバリエーション数の上限
+     */
+    public static int getSqlCacheMaxOrderByVariants() {
+        return sqlCacheMaxOrderByVariants;
+    }
+
+    /**
+     * ストリーミングクエリのフェッチサイズを返します。
+     *
+     * @return フェッチサイズ
+     */
+    public static int getStreamFetchSize() {
+        return streamFetchSize;
+    }
+
+    /**
+     * バッチ実行で1回の{@code executeBatch}に含める要素数を返します。
+     *
+     * @return バッチサイズ
+     */
+    public static int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * {@code BatchLoader}が1回の呼び出しで渡すキーの最大数を返します。
+     *
+     * <p>未実行のキーがこの数に達すると、待機時間を待たずに実行されます。</p>
+     *
+     * @return キーの最大数
+     */
+    public static int getBatchLoaderMaxKeys() {
+        return batchLoaderMaxKeys;
+    }
+
+    /**
+     * 非同期実行でDataSourceごとに同時実行できる呼び出し数を返します。
+     *
+     * <p>{@code 0}の場合はコネクションプールの最大サイズから決定します。</p>
+     *
+     * @return 同時実行数の上限（{@code 0}は自動）
+     */
+    public static int getAsyncMaxConcurrency() {
+        return asyncMaxConcurrency;
+    }
+
+    /**
+     * デッドロック・タイムアウト時の再実行設定を返します。
+     *
+     * @return 再実行設定
+     */
+    public static DbRetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
     /**
      * 設定を構成します。
      *
@@ -73,6 +167,53 @@ public final class DbProgramMapperOptions {
         if (config.getErrorCodes() != null) {
             errorCodes = config.getErrorCodes();
         }
+        if (config.getSqlCacheMaxSize() != null) {
+            sqlCacheMaxSize = config.getSqlCacheMaxSize();
+        }
+        if (config.getSqlCacheMaxOrderByVariants() != null) {
+            sqlCacheMaxOrderByVariants = config.getSqlCacheMaxOrderByVariants();
+        }
+        if (config.getStreamFetchSize() != null) {
+            if (config.getStreamFetchSize() <= 0) {
+                throw new IllegalArgumentException("streamFetchSize must be positive.");
+            }
+            streamFetchSize = config.getStreamFetchSize();
+        }
+        if (config.getBatchSize() != null) {
+            if (config.getBatchSize() <= 0) {
+                throw new IllegalArgumentException("batchSize must be positive.");
+            }
+            batchSize = config.getBatchSize();
+        }
+        if (config.getBatchLoaderMaxKeys() != null) {
+            if (config.getBatchLoaderMaxKeys() <= 0) {
+                throw new IllegalArgumentException("batchLoaderMaxKeys must be positive.");
+            }
+            batchLoaderMaxKeys = config.getBatchLoaderMaxKeys();
+        }
+        if (config.getAsyncMaxConcurrency() != null) {
+            if (config.getAsyncMaxConcurrency() < 0) {
+                throw new IllegalArgumentException("asyncMaxConcurrency must not be negative.");
+            }
+            asyncMaxConcurrency = config.getAsyncMaxConcurrency();
+        }
+        if (config.getRetryPolicy() != null) {
+            var policy = config.getRetryPolicy();
+            if (policy.getMaxAttempts() < 1) {
+                throw new IllegalArgumentException("retryPolicy.maxAttempts must be positive.");
+            }
+            if (policy.getInitialBackoff() == null || policy.getInitialBackoff().isNegative()
+                    || policy.getMaxBackoff() == null || policy.getMaxBackoff().isNegative()) {
+                throw new IllegalArgumentException("retryPolicy backoff must not be null or negative.");
+            }
+            if (!(policy.getMultiplier() >= 1.0)) {
+                throw new IllegalArgumentException("retryPolicy.multiplier must be at least 1.");
+            }
+            retryPolicy = policy;
+        }
+        // 方言・スキーマの変更で不要になったSQL文と結果を破棄
+        SqlCache.clear();
+        ResultCache.clear();
     }
 
     /**
@@ -82,5 +223,17 @@ public final class DbProgramMapperOptions {
         dialect = new SqlServerDialect();
         defaultSchema = "dbo";
         errorCodes = new DbErrorCodes();
+        sqlCacheMaxSize = DEFAULT_SQL_CACHE_MAX_SIZE;
+        sqlCacheMaxOrderByVariants = DEFAULT_SQL_CACHE_MAX_ORDER_BY_VARIANTS;
+        streamFetchSize = DEFAULT_STREAM_FETCH_SIZE;
+        batchSize = DEFAULT_BATCH_SIZE;
+        batchLoaderMaxKeys = DEFAULT_BATCH_LOADER_MAX_KEYS;
+        asyncMaxConcurrency = 0;
+        retryPolicy = new DbRetryPolicy();
+        SqlCache.clear();
+        ResultCache.clear();
+        InFlightCalls.clear();
+        StatementSettings.clear();
+        ProgramRetry.clear();
     }
 }
@@ -0,0 +1,80 @@
+package io.storedmapper;
+
+import java.time.Duration;
+
+/**
+ * デッドロック・タイムアウト時の再実行設定。
+ *
+ * <p>{@link io.storedmapper.annotation.DbProgramRetry}が付与されたプログラム（冪等であることを宣言したプログラム）は、
+ * デッドロックまたはタイムアウトで失敗した場合に、ジッター付きの指数バックオフで再実行されます。
+ * {@link #setRetryFunctions(boolean)}を有効にすると、テーブル値関数・スカラー値関数はアノテーションなしで再実行されます。</p>
+ *
+ * <pre>{@code
+ * DbProgramMapperOptions.configure(config -> {
+ *     var retryPolicy = new DbRetryPolicy();
+ *     retryPolicy.setMaxAttempts(5);
+ *     retryPolicy.setInitialBackoff(Duration.ofMillis(20));
+ *     retryPolicy.setRetryFunctions(true);
+ *     config.setRetryPolicy(retryPolicy);
+ * });
+ * }</pre>
+ *
+ * @since 1.1.0
+ */
+public class DbRetryPolicy {
+
+    /** 最初の実行を含む最大実行回数（デフォルト: 3） */
+    private int maxAttempts = 3;
+
+    /** 1回目の再実行前の待機時間の上限（デフォルト: 50ミリ秒） */
+    private Duration initialBackoff = Duration.ofMillis(50);
+
+    /** 待機時間の上限（デフォルト: 1秒） */
+    private Duration maxBackoff = Duration.ofSeconds(1);
+
+    /** 再実行ごとの待機時間の倍率（デフォルト: 2.0） */
+    private double multiplier = 2.0;
+
+    /** テーブル値関数・スカラー値関数をアノテーションなしで再実行するかどうか（デフォルト: false） */
+    private boolean retryFunctions;
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    public void setInitialBackoff(Duration initialBackoff) {
+        this.initialBackoff = initialBackoff;
+    }
+
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public void setMaxBackoff(Duration maxBackoff) {
+        this.maxBackoff = maxBackoff;
+    }
+
+    public double getMultiplier() {
+        return multiplier;
+    }
+
+    public void setMultiplier(double multiplier) {
+        this.multiplier = multiplier;
+    }
+
+    public boolean isRetryFunctions() {
+        return retryFunctions;
+    }
+
+    public void setRetryFunctions(boolean retryFunctions) {
+        this.retryFunctions = retryFunctions;
+    }
+}
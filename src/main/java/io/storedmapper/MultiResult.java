@@ -0,0 +1,58 @@
+package io.storedmapper;
+
+import java.util.List;
+
+/**
+ * 複数の結果セットを返すストアドプロシージャの実行結果。
+ *
+ * <p>{@link ExecuteResult}の影響行数・RETURN値に加えて、結果セットを呼び出し時に指定した
+ * RowMapperの順序で保持します。</p>
+ *
+ * <pre>{@code
+ * MultiResult result = executor.executeMulti(param, SummaryDto.class, TaskDto.class);
+ * List<SummaryDto> summary = result.getResultSet(0);
+ * List<TaskDto> tasks = result.getResultSet(1);
+ * }</pre>
+ *
+ * @since 1.1.0
+ */
+public class MultiResult extends ExecuteResult {
+
+    /** 結果セットごとの行のリスト */
+    private final List<List<?>> resultSets;
+
+    public MultiResult(int affectedRows, Integer returnCode, List<List<?>> resultSets) {
+        super(affectedRows, returnCode);
+        this.resultSets = List.copyOf(resultSets);
+    }
+
+    /**
+     * 指定した位置の結果セットを返します。
+     *
+     * @param <T> 行の型（RowMapperの型と一致させてください）
+     * @param index 結果セットの位置（0始まり）
+     * @return 行のリスト
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> getResultSet(int index) {
+        return (List<T>) resultSets.get(index);
+    }
+
+    /**
+     * すべての結果セットを返します。
+     *
+     * @return 結果セットのリスト
+     */
+    public List<List<?>> getResultSets() {
+        return resultSets;
+    }
+
+    /**
+     * 結果セットの数を返します。
+     *
+     * @return 結果セットの数
+     */
+    public int getResultSetCount() {
+        return resultSets.size();
+    }
+}
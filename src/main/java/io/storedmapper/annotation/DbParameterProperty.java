@@ -20,6 +20,10 @@ import java.lang.annotation.Target;
  * // サイズ指定付きOUTPUTパラメータ
  * @DbParameterProperty(sqlType = Types.VARCHAR, direction = ParameterDirection.OUTPUT, size = 4000)
  * private String message;
+ *
+ * // コレクションパラメータ（SQL Server: テーブル値パラメータ、PostgreSQL: 配列、MySQL: JSON）
+ * @DbParameterProperty(typeName = "dbo.IdList")
+ * private List<Integer> ids;
  * }</pre>
  *
  * @since 1.0.0
@@ -36,4 +40,13 @@ public @interface DbParameterProperty {
 
     /** パラメータサイズ（-1は未指定） */
     int size() default -1;
+
+    /**
+     * コレクションパラメータのデータベース型名。
+     *
+     * <p>SQL Serverではテーブル型名（例: {@code dbo.IdList}）、PostgreSQLでは配列の要素型名
+     * （例: {@code integer}、複合型名）を指定します。MySQLでは使用しません。
+     * 未指定の場合、PostgreSQLでは要素の型から推定します。</p>
+     */
+    String typeName() default "";
 }
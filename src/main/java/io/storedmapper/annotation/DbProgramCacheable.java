@@ -0,0 +1,42 @@
+package io.storedmapper.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * テーブル値関数・スカラー値関数の結果をキャッシュするアノテーション。
+ *
+ * <p>{@code DbProgramExecutor}の{@code query}、{@code queryFirstOrDefault}、{@code executeScalar}の結果を、
+ * プログラムクラスと入力パラメータの値をキーとしてキャッシュします。
+ * エントリ数が{@link #maxEntries()}を超えると、最も長く参照されていないエントリから削除されます。</p>
+ *
+ * <pre>{@code
+ * @DbProgramName("fn_get_prefectures")
+ * @DbProgramCacheable(ttl = 10, unit = TimeUnit.MINUTES, maxEntries = 100)
+ * public class GetPrefecturesParam extends DbProgramBase { ... }
+ * }</pre>
+ *
+ * <p>キャッシュされたリストは変更できません。行オブジェクトは呼び出し間で共有されるため、
+ * 結果の型は不変の型（コンポーネントがすべて不変の型であるレコード、{@code String}や数値・
+ * {@code java.time}の型、列挙型）に限ります。POJOなどの可変の結果クラスは、SQLを実行する前に
+ * {@link IllegalArgumentException}で拒否されます（カスタムRowMapperの結果はキャッシュへの登録時に検証されます）。</p>
+ *
+ * @since 1.1.0
+ * @see io.storedmapper.internal.ResultCache
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DbProgramCacheable {
+
+    /** 有効期間（0の場合は期限なし） */
+    long ttl() default 60;
+
+    /** 有効期間の単位 */
+    TimeUnit unit() default TimeUnit.SECONDS;
+
+    /** プログラムごとの最大エントリ数 */
+    int maxEntries() default 1_000;
+}
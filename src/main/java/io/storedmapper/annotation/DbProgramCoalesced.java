@@ -0,0 +1,31 @@
+package io.storedmapper.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 同時に実行された同一の関数呼び出しを1回の実行にまとめるアノテーション。
+ *
+ * <p>{@code DbProgramExecutor}の{@code query}、{@code queryFirstOrDefault}、{@code executeScalar}で、
+ * 同じプログラムクラス・同じ入力パラメータの値の呼び出しが実行中の場合、後続の呼び出しはデータベースに
+ * 問い合わせず、実行中の呼び出しの結果（または例外）を受け取ります。
+ * 実行が完了すると結果は保持されないため、{@link DbProgramCacheable}と異なり古い値を返すことはありません。</p>
+ *
+ * <pre>{@code
+ * @DbProgramName("fn_get_stock")
+ * @DbProgramCoalesced
+ * public class GetStockParam extends DbProgramBase { ... }
+ * }</pre>
+ *
+ * <p>結果のリストと行オブジェクトは同時に呼び出したスレッド間で共有されるため、リストは変更できません。
+ * トランザクション内の呼び出しは、未コミットの変更が他のスレッドに見えないようにまとめずに実行します。</p>
+ *
+ * @since 1.1.0
+ * @see io.storedmapper.internal.InFlightCalls
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DbProgramCoalesced {
+}
@@ -0,0 +1,51 @@
+package io.storedmapper.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * ストアドプロシージャの実行後に削除するキャッシュを指定するアノテーション。
+ *
+ * <p>{@code DbProgramExecutor}でプロシージャが正常に実行されると、{@link #value()}に指定した
+ * {@link DbProgramCacheable}プログラムのキャッシュエントリを削除します。{@link #match()}を指定した場合は、
+ * 指定したパラメータの値が一致するエントリのみを削除します。</p>
+ *
+ * <pre>{@code
+ * @DbProgramName("sp_update_order")
+ * @DbProgramInvalidates(value = GetOrderParam.class, match = "orderId")
+ * @DbProgramInvalidates(value = GetCustomerOrdersParam.class, match = "customerId=customerCd")
+ * @DbProgramInvalidates(GetOrderSummaryParam.class)
+ * public class UpdateOrderParam extends DbProgramWithErrorBase { ... }
+ * }</pre>
+ *
+ * @since 1.1.0
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Repeatable(DbProgramInvalidates.List.class)
+public @interface DbProgramInvalidates {
+
+    /** キャッシュを削除するプログラムクラス */
+    Class<?> value();
+
+    /**
+     * 一致させるパラメータ名（空の場合はプログラムのすべてのエントリを削除）。
+     *
+     * <p>{@code "name"}は両方のクラスの同名のパラメータを、{@code "target=source"}は
+     * 削除対象のパラメータ{@code target}とこのクラスのパラメータ{@code source}を比較します。
+     * パラメータ名は{@code @DbParameterName}の値またはフィールド名です。</p>
+     */
+    String[] match() default {};
+
+    /**
+     * {@link DbProgramInvalidates}を複数指定するためのコンテナ。
+     */
+    @Target(ElementType.TYPE)
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface List {
+        DbProgramInvalidates[] value();
+    }
+}
@@ -17,6 +17,9 @@ import java.lang.annotation.Target;
  *
  * // スキーマを明示的に指定
  * @DbProgramName(value = "sp_get_users", schema = "sales")
+ *
+ * // 更新直後の値を読み取る関数はプライマリで実行
+ * @DbProgramName(value = "fn_get_balance", readOnly = false)
  * }</pre>
  *
  * @since 1.0.0
@@ -30,4 +33,11 @@ public @interface DbProgramName {
 
     /** スキーマ名（空文字の場合はデフォルトスキーマを使用） */
     String schema() default "";
+
+    /**
+     * 読み取りレプリカで実行できるかどうか。
+     *
+     * <p>テーブル値関数・スカラー値関数の呼び出しにのみ適用され、ストアドプロシージャは常にプライマリで実行されます。</p>
+     */
+    boolean readOnly() default true;
 }
@@ -0,0 +1,49 @@
+package io.storedmapper.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * プログラムが冪等であることを宣言し、デッドロック・タイムアウト時の再実行を有効にするアノテーション。
+ *
+ * <p>{@code DbProgramExecutor}の{@code execute}・{@code executeMulti}・{@code query}・{@code queryFirstOrDefault}・
+ * {@code querySingle}・{@code executeScalar}で、次のいずれかの場合にジッター付きの指数バックオフで再実行します。</p>
+ * <ul>
+ *   <li>RETURN値または{@code sqlErrorCd}がデッドロック・タイムアウトのエラーコード（{@code DbErrorCodes}）に一致した場合</li>
+ *   <li>デッドロック・ロック待ちタイムアウト・クエリタイムアウトの例外が発生した場合</li>
+ * </ul>
+ *
+ * <p>トランザクション内の呼び出しは再実行しません（デッドロックの犠牲となったトランザクションは
+ * ロールバックされており、トランザクション全体の再実行が必要なため）。
+ * {@code -1}の属性は{@code DbProgramMapperOptions.getRetryPolicy()}の値を使用します。</p>
+ *
+ * <pre>{@code
+ * @DbProgramName("sp_upsert_stock")
+ * @DbProgramRetry(maxAttempts = 5)
+ * public class UpsertStockParam extends DbProgramWithErrorBase { ... }
+ * }</pre>
+ *
+ * @since 1.1.0
+ * @see io.storedmapper.internal.ProgramRetry
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DbProgramRetry {
+
+    /** 最初の実行を含む最大実行回数 */
+    int maxAttempts() default -1;
+
+    /** 1回目の再実行前の待機時間の上限（ミリ秒） */
+    long initialBackoffMillis() default -1;
+
+    /** 待機時間の上限（ミリ秒） */
+    long maxBackoffMillis() default -1;
+
+    /** デッドロック時に再実行するかどうか */
+    boolean onDeadlock() default true;
+
+    /** タイムアウト時に再実行するかどうか */
+    boolean onTimeout() default true;
+}
@@ -0,0 +1,49 @@
+package io.storedmapper.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * DBプログラムごとのJDBCステートメント設定を指定するアノテーション。
+ *
+ * <p>{@code DbProgramExecutor}は、{@code JdbcTemplate}のフェッチサイズ・最大行数・クエリタイムアウトより
+ * このアノテーションの値を優先してステートメントに設定します。{@code -1}の属性は{@code JdbcTemplate}の設定を使用します。</p>
+ *
+ * <pre>{@code
+ * // 少量の参照：1往復で読み取り、短いタイムアウト
+ * @DbProgramName("fn_get_status")
+ * @DbProgramStatement(fetchSize = 10, queryTimeout = 2)
+ * public class GetStatusParam extends DbProgramBase { ... }
+ *
+ * // 大量の出力：実績の行数からフェッチサイズを決定（最大5000）
+ * @DbProgramName("fn_export_orders")
+ * @DbProgramStatement(fetchSize = 5000, queryTimeout = 300, adaptiveFetchSize = true)
+ * public class ExportOrdersParam extends DbProgramBase { ... }
+ * }</pre>
+ *
+ * @since 1.1.0
+ * @see io.storedmapper.internal.StatementSettings
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DbProgramStatement {
+
+    /** フェッチサイズ（{@link #adaptiveFetchSize()}が有効な場合は上限） */
+    int fetchSize() default -1;
+
+    /** 最大行数（0の場合は無制限） */
+    int maxRows() default -1;
+
+    /** クエリタイムアウト（秒、0の場合は無制限）。トランザクションのタイムアウトが設定されている場合はそちらを優先します */
+    int queryTimeout() default -1;
+
+    /**
+     * テーブル値関数の実績の行数からフェッチサイズを決定するかどうか。
+     *
+     * <p>{@code query}で取得した行数の移動平均を記録し、次回以降のフェッチサイズを
+     * 平均行数を1往復で読み取れる値（{@link #fetchSize()}を上限）に設定します。</p>
+     */
+    boolean adaptiveFetchSize() default false;
+}
@@ -1,5 +1,9 @@
 package io.storedmapper.dialect;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -31,6 +35,23 @@ public interface DbDialect {
      */
     String createTableFunctionQuery(String fullName, List<String> parameters, String orderByExpression);
 
+    /**
+     * 取得行数を制限したテーブル値関数のSELECTクエリを生成します。
+     *
+     * <p>デフォルトでは制限なしのクエリを返し、行数の制限は
+     * {@link java.sql.Statement#setMaxRows(int)}のみに依存します。</p>
+     *
+     * @param fullName 完全修飾名
+     * @param parameters パラメータプレースホルダのリスト
+     * @param orderByExpression ORDER BY句（nullまたは空の場合は省略）
+     * @param maxRows 最大行数
+     * @return SQL文
+     */
+    default String createLimitedTableFunctionQuery(String fullName, List<String> parameters,
+                                                   String orderByExpression, int maxRows) {
+        return createTableFunctionQuery(fullName, parameters, orderByExpression);
+    }
+
     /**
      * スカラー値関数のSELECTクエリを生成します。
      *
@@ -48,4 +69,109 @@ public interface DbDialect {
      * @return SQL文
      */
     String createStoredProcedureCall(String fullName, List<String> parameters);
+
+    /**
+     * ストアドプロシージャがRETURN値を返すかどうかを返します。
+     *
+     * <p>{@code true}の場合、{@link #createCallableStatementCall(String, List)}は
+     * 先頭にRETURN値用のプレースホルダ（{@code ? =}）を含むCALL文を生成する必要があります。</p>
+     *
+     * @return RETURN値をサポートする場合は{@code true}
+     */
+    default boolean supportsReturnValue() {
+        return false;
+    }
+
+    /**
+     * {@link java.sql.CallableStatement}用のCALL文を生成します。
+     *
+     * <p>{@code parameters}にはOUTPUTパラメータを含むすべてのパラメータのプレースホルダが渡されます。</p>
+     *
+     * @param fullName 完全修飾名
+     * @param parameters パラメータプレースホルダのリスト
+     * @return SQL文
+     */
+    default String createCallableStatementCall(String fullName, List<String> parameters) {
+        return createStoredProcedureCall(fullName, parameters);
+    }
+
+    /**
+     * ストリーミングクエリ用にステートメントを設定します。
+     *
+     * <p>デフォルトでは{@link PreparedStatement#setFetchSize(int)}を設定します。
+     * ドライバが結果セット全体をメモリに読み込まないよう、方言ごとに上書きします。</p>
+     *
+     * @param ps プリペアドステートメント
+     * @param fetchSize フェッチサイズ
+     * @throws SQLException 設定に失敗した場合
+     */
+    default void configureStreaming(PreparedStatement ps, int fetchSize) throws SQLException {
+        ps.setFetchSize(fetchSize);
+    }
+
+    /**
+     * ストリーミングクエリ・カーソルの読み取りで自動コミットを無効にする必要があるかどうかを返します。
+     *
+     * <p>{@code true}の場合、トランザクション外で実行されるストリーミングクエリとカーソルの読み取りは
+     * 結果セットを閉じるまで自動コミットを無効にします。</p>
+     *
+     * @return 自動コミットの無効化が必要な場合は{@code true}
+     */
+    default boolean requiresManualCommitForStreaming() {
+        return false;
+    }
+
+    /**
+     * カーソル型のOUTPUTパラメータを登録する際のSQLタイプを返します。
+     *
+     * @return {@link java.sql.Types}の定数（デフォルト: {@link java.sql.Types#REF_CURSOR}）
+     */
+    default int getRefCursorSqlType() {
+        return java.sql.Types.REF_CURSOR;
+    }
+
+    /**
+     * カーソル型のOUTPUTパラメータをカーソル名として受け取るかどうかを返します。
+     *
+     * <p>{@code true}の場合、カーソルを返すプログラムは{@link java.sql.CallableStatement}ではなく
+     * 通常の問い合わせとして実行し（OUTPUTのみのパラメータにはNULLを渡します）、結果行から
+     * カーソル名とOUTPUTパラメータを読み取ります。カーソルは{@link #createCursorFetchQuery(String, int)}の
+     * クエリでフェッチサイズごとに読み取ります。</p>
+     *
+     * @return カーソル名で読み取る場合は{@code true}
+     */
+    default boolean fetchesCursorsByName() {
+        return false;
+    }
+
+    /**
+     * カーソルから指定行数を取得するクエリを生成します。
+     *
+     * <p>{@code null}を返す場合、カーソルはドライバが返す{@link java.sql.ResultSet}から
+     * フェッチサイズを指定して読み取ります。</p>
+     *
+     * @param cursorName カーソル名
+     * @param fetchSize 1回に取得する行数
+     * @return SQL文（サポートしない場合は{@code null}）
+     */
+    default String createCursorFetchQuery(String cursorName, int fetchSize) {
+        return null;
+    }
+
+    /**
+     * コレクション型のパラメータをバインドします。
+     *
+     * <p>要素は単純型（数値、文字列、UUID、日付など）、または行を表すレコード・POJO・{@link java.util.Map}です。
+     * デフォルトではサポートしません。</p>
+     *
+     * @param ps プリペアドステートメント
+     * @param index パラメータインデックス（1始まり）
+     * @param values バインドする値（{@code null}の場合あり）
+     * @param typeName {@code @DbParameterProperty#typeName()}の値（未指定の場合は空文字列）
+     * @throws SQLException バインドに失敗した場合
+     */
+    default void bindCollection(PreparedStatement ps, int index, Collection<?> values, String typeName)
+            throws SQLException {
+        throw new SQLFeatureNotSupportedException(getClass().getSimpleName() + " does not support collection parameters.");
+    }
 }
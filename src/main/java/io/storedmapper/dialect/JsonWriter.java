@@ -0,0 +1,97 @@
+package io.storedmapper.dialect;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * コレクションパラメータをJSON文字列に変換する最小限のライター。
+ *
+ * <p>単純型の要素はJSON配列の値に、行（レコード・POJO・Map）はJSONオブジェクトに変換します。
+ * 数値と真偽値以外の値は{@link Object#toString()}の結果を文字列として出力します。</p>
+ */
+final class JsonWriter {
+
+    private JsonWriter() {
+    }
+
+    /**
+     * コレクションをJSON配列に変換します。
+     *
+     * @param values コレクション
+     * @return JSON文字列
+     */
+    static String write(Collection<?> values) {
+        var sb = new StringBuilder(values.size() * 16 + 2);
+        sb.append('[');
+        var first = true;
+        for (var element : values) {
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+            if (element == null || RowValues.isScalar(element)) {
+                writeValue(sb, element);
+            } else {
+                writeObject(sb, RowValues.toColumns(element));
+            }
+        }
+        return sb.append(']').toString();
+    }
+
+    private static void writeObject(StringBuilder sb, Map<String, Object> columns) {
+        sb.append('{');
+        var first = true;
+        for (var entry : columns.entrySet()) {
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+            writeString(sb, entry.getKey());
+            sb.append(':');
+            writeValue(sb, entry.getValue());
+        }
+        sb.append('}');
+    }
+
+    private static void writeValue(StringBuilder sb, Object value) {
+        if (value == null) {
+            sb.append("null");
+        } else if (value instanceof Boolean || isFiniteNumber(value)) {
+            sb.append(value);
+        } else {
+            writeString(sb, value.toString());
+        }
+    }
+
+    private static boolean isFiniteNumber(Object value) {
+        if (value instanceof Double d) {
+            return Double.isFinite(d);
+        }
+        if (value instanceof Float f) {
+            return Float.isFinite(f);
+        }
+        return value instanceof Number;
+    }
+
+    private static void writeString(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+}
@@ -1,5 +1,9 @@
 package io.storedmapper.dialect;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -7,6 +11,12 @@ import java.util.List;
  *
  * <p>識別子を {@code `schema`.`name`} 形式でクォートします。</p>
  *
+ * <p>ストリーミングクエリでは{@code fetchSize = Integer.MIN_VALUE}を設定し、
+ * Connector/Jの行単位のストリーミングモードを使用します。</p>
+ *
+ * <p>コレクションパラメータはJSON配列の文字列としてバインドします。
+ * プロシージャ側では{@code JSON_TABLE}などで展開してください。</p>
+ *
  * @since 1.0.0
  */
 public class MySqlDialect implements DbDialect {
@@ -25,6 +35,12 @@ public class MySqlDialect implements DbDialect {
         return sql;
     }
 
+    @Override
+    public String createLimitedTableFunctionQuery(String fullName, List<String> parameters,
+                                                  String orderByExpression, int maxRows) {
+        return createTableFunctionQuery(fullName, parameters, orderByExpression) + " LIMIT " + maxRows;
+    }
+
     @Override
     public String createScalarFunctionQuery(String fullName, List<String> parameters) {
         return "SELECT " + fullName + "(" + String.join(",", parameters) + ")";
@@ -34,4 +50,20 @@ public class MySqlDialect implements DbDialect {
     public String createStoredProcedureCall(String fullName, List<String> parameters) {
         return "CALL " + fullName + "(" + String.join(",", parameters) + ")";
     }
+
+    @Override
+    public void configureStreaming(PreparedStatement ps, int fetchSize) throws SQLException {
+        // Connector/Jは Integer.MIN_VALUE の場合のみ行単位でストリーミングする
+        ps.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    @Override
+    public void bindCollection(PreparedStatement ps, int index, Collection<?> values, String typeName)
+            throws SQLException {
+        if (values == null) {
+            ps.setNull(index, Types.VARCHAR);
+        } else {
+            ps.setString(index, JsonWriter.write(values));
+        }
+    }
 }
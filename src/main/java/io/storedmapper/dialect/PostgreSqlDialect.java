@@ -1,12 +1,31 @@
 package io.storedmapper.dialect;
 
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * PostgreSQL方言。
  *
  * <p>識別子を {@code "schema"."name"} 形式でクォートします。</p>
  *
+ * <p>PostgreSQL JDBCドライバは自動コミットが無効な場合のみカーソルでフェッチするため、
+ * ストリーミングクエリでは自動コミットを無効にします。</p>
+ *
+ * <p>コレクションパラメータは配列としてバインドします。要素型は{@code typeName}で指定し、
+ * 未指定の場合は最初の非NULL要素の型から推定します。行（レコード・POJO・Map）の要素は
+ * 複合型のリテラルに変換するため、{@code typeName}に複合型名の指定が必要です。</p>
+ *
+ * <p>PostgreSQL JDBCドライバは{@code CallableStatement}のrefcursorを実行時に{@code FETCH ALL}で
+ * すべて読み込むため、カーソルを返すプログラムは問い合わせとして実行してカーソル名を受け取り、
+ * {@code FETCH FORWARD}でフェッチサイズごとに読み取ります。</p>
+ *
  * @since 1.0.0
  */
 public class PostgreSqlDialect implements DbDialect {
@@ -25,6 +44,12 @@ public class PostgreSqlDialect implements DbDialect {
         return sql;
     }
 
+    @Override
+    public String createLimitedTableFunctionQuery(String fullName, List<String> parameters,
+                                                  String orderByExpression, int maxRows) {
+        return createTableFunctionQuery(fullName, parameters, orderByExpression) + " LIMIT " + maxRows;
+    }
+
     @Override
     public String createScalarFunctionQuery(String fullName, List<String> parameters) {
         return "SELECT " + fullName + "(" + String.join(",", parameters) + ")";
@@ -34,4 +59,94 @@ public class PostgreSqlDialect implements DbDialect {
     public String createStoredProcedureCall(String fullName, List<String> parameters) {
         return "CALL " + fullName + "(" + String.join(",", parameters) + ")";
     }
+
+    @Override
+    public boolean requiresManualCommitForStreaming() {
+        return true;
+    }
+
+    @Override
+    public int getRefCursorSqlType() {
+        return Types.OTHER;
+    }
+
+    @Override
+    public boolean fetchesCursorsByName() {
+        return true;
+    }
+
+    @Override
+    public String createCursorFetchQuery(String cursorName, int fetchSize) {
+        return "FETCH FORWARD " + fetchSize + " FROM \"" + cursorName.replace("\"", "\"\"") + "\"";
+    }
+
+    @Override
+    public void bindCollection(PreparedStatement ps, int index, Collection<?> values, String typeName)
+            throws SQLException {
+        if (values == null) {
+            ps.setNull(index, Types.ARRAY);
+            return;
+        }
+        var elements = new Object[values.size()];
+        var composite = false;
+        int i = 0;
+        for (var element : values) {
+            if (element != null && !RowValues.isScalar(element)) {
+                element = toRowLiteral(element);
+                composite = true;
+            } else if (element instanceof Enum<?> e) {
+                element = e.name();
+            }
+            elements[i++] = element;
+        }
+        var elementType = typeName != null && !typeName.isEmpty() ? typeName : null;
+        if (elementType == null) {
+            if (composite) {
+                throw new IllegalArgumentException(
+                        "typeName of @DbParameterProperty is required for PostgreSQL composite arrays.");
+            }
+            elementType = inferElementType(values);
+        }
+        ps.setArray(index, ps.getConnection().createArrayOf(elementType, elements));
+    }
+
+    private static String inferElementType(Collection<?> values) {
+        for (var element : values) {
+            if (element != null) {
+                return switch (element) {
+                    case Integer v -> "int4";
+                    case Long v -> "int8";
+                    case Short v -> "int2";
+                    case Boolean v -> "bool";
+                    case BigDecimal v -> "numeric";
+                    case Double v -> "float8";
+                    case Float v -> "float4";
+                    case UUID v -> "uuid";
+                    case LocalDate v -> "date";
+                    case LocalDateTime v -> "timestamp";
+                    default -> "text";
+                };
+            }
+        }
+        return "text";
+    }
+
+    /**
+     * 行を複合型の入力リテラル（{@code (1,"name")}）に変換します。
+     */
+    private static String toRowLiteral(Object row) {
+        var sb = new StringBuilder("(");
+        var first = true;
+        for (var value : RowValues.toColumns(row).values()) {
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+            if (value != null) {
+                var text = value instanceof Enum<?> e ? e.name() : value.toString();
+                sb.append('"').append(text.replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+            }
+        }
+        return sb.append(')').toString();
+    }
 }
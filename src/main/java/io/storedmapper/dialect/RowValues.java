@@ -0,0 +1,105 @@
+package io.storedmapper.dialect;
+
+import org.springframework.beans.BeanUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * コレクションパラメータの要素を列に分解するユーティリティ。
+ *
+ * <p>レコードはコンポーネント順、POJOはフィールドの宣言順（スーパークラス優先）、
+ * {@link Map}はキーの反復順で列を並べます。テーブル値パラメータでは列の位置が意味を持つため、
+ * テーブル型の定義と同じ順序でコンポーネント・フィールドを宣言してください。</p>
+ */
+final class RowValues {
+
+    private static final ClassValue<List<Column>> COLUMNS = new ClassValue<>() {
+        @Override
+        protected List<Column> computeValue(Class<?> type) {
+            return resolveColumns(type);
+        }
+    };
+
+    private RowValues() {
+    }
+
+    /**
+     * 要素が単純型（1列として扱う値）かどうかを返します。
+     *
+     * @param element 要素
+     * @return 単純型の場合は{@code true}
+     */
+    static boolean isScalar(Object element) {
+        return !(element instanceof Map) && BeanUtils.isSimpleValueType(element.getClass());
+    }
+
+    /**
+     * 行を列名と値のマップに分解します。
+     *
+     * @param row レコード、POJO、またはMap
+     * @return 列名と値（列の順序を保持）
+     */
+    static Map<String, Object> toColumns(Object row) {
+        var values = new LinkedHashMap<String, Object>();
+        if (row instanceof Map<?, ?> map) {
+            map.forEach((key, value) -> values.put(String.valueOf(key), value));
+            return values;
+        }
+        for (var column : COLUMNS.get(row.getClass())) {
+            try {
+                values.put(column.name(), column.getter().invoke(row));
+            } catch (Throwable e) {
+                throw new IllegalStateException("Cannot read " + column.name() + " of " + row.getClass().getName(), e);
+            }
+        }
+        return values;
+    }
+
+    private static List<Column> resolveColumns(Class<?> type) {
+        MethodHandles.Lookup lookup;
+        try {
+            lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot access collection element type " + type.getName(), e);
+        }
+        var columns = new ArrayList<Column>();
+        try {
+            if (type.isRecord()) {
+                for (var component : type.getRecordComponents()) {
+                    columns.add(new Column(component.getName(), adapt(lookup.unreflect(component.getAccessor()))));
+                }
+                return columns;
+            }
+            var hierarchy = new ArrayList<Class<?>>();
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                hierarchy.addFirst(current);
+            }
+            for (var declaring : hierarchy) {
+                var declaringLookup = MethodHandles.privateLookupIn(declaring, MethodHandles.lookup());
+                for (var field : declaring.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                        continue;
+                    }
+                    columns.add(new Column(field.getName(), adapt(declaringLookup.unreflectGetter(field))));
+                }
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot access collection element type " + type.getName(), e);
+        }
+        return columns;
+    }
+
+    private static MethodHandle adapt(MethodHandle getter) {
+        return getter.asType(MethodType.methodType(Object.class, Object.class));
+    }
+
+    private record Column(String name, MethodHandle getter) {
+    }
+}
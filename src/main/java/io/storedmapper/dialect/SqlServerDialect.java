@@ -1,5 +1,8 @@
 package io.storedmapper.dialect;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -7,6 +10,8 @@ import java.util.List;
  *
  * <p>識別子を {@code [schema].[name]} 形式でクォートします。</p>
  *
+ * <p>コレクションパラメータはテーブル値パラメータとしてバインドします（mssql-jdbcが必要）。</p>
+ *
  * @since 1.0.0
  */
 public class SqlServerDialect implements DbDialect {
@@ -25,6 +30,16 @@ public class SqlServerDialect implements DbDialect {
         return sql;
     }
 
+    @Override
+    public String createLimitedTableFunctionQuery(String fullName, List<String> parameters,
+                                                  String orderByExpression, int maxRows) {
+        var sql = "SELECT TOP (" + maxRows + ") * FROM " + fullName + "(" + String.join(",", parameters) + ")";
+        if (orderByExpression != null && !orderByExpression.isBlank()) {
+            sql += " ORDER BY " + orderByExpression;
+        }
+        return sql;
+    }
+
     @Override
     public String createScalarFunctionQuery(String fullName, List<String> parameters) {
         return "SELECT " + fullName + "(" + String.join(",", parameters) + ")";
@@ -34,4 +49,20 @@ public class SqlServerDialect implements DbDialect {
     public String createStoredProcedureCall(String fullName, List<String> parameters) {
         return "{call " + fullName + "(" + String.join(",", parameters) + ")}";
     }
+
+    @Override
+    public boolean supportsReturnValue() {
+        return true;
+    }
+
+    @Override
+    public String createCallableStatementCall(String fullName, List<String> parameters) {
+        return "{? = call " + fullName + "(" + String.join(",", parameters) + ")}";
+    }
+
+    @Override
+    public void bindCollection(PreparedStatement ps, int index, Collection<?> values, String typeName)
+            throws SQLException {
+        SqlServerTableValues.bind(ps, index, values, typeName);
+    }
 }
@@ -0,0 +1,131 @@
+package io.storedmapper.dialect;
+
+import com.microsoft.sqlserver.jdbc.ISQLServerPreparedStatement;
+import com.microsoft.sqlserver.jdbc.SQLServerDataTable;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * コレクションをSQL Serverのテーブル値パラメータとしてバインドします。
+ *
+ * <p>mssql-jdbcのクラスを参照するため、{@link SqlServerDialect}からコレクションをバインドする場合のみ
+ * 読み込まれます。列のSQLタイプは各列の最初の非NULL値から決定します。</p>
+ */
+final class SqlServerTableValues {
+
+    /** 単純型の要素を格納する列名 */
+    private static final String SCALAR_COLUMN = "value";
+
+    private SqlServerTableValues() {
+    }
+
+    static void bind(PreparedStatement ps, int index, Collection<?> values, String typeName) throws SQLException {
+        if (typeName == null || typeName.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "typeName of @DbParameterProperty is required for SQL Server table-valued parameters.");
+        }
+        var statement = ps.unwrap(ISQLServerPreparedStatement.class);
+        var rows = toRows(values);
+        if (rows.isEmpty()) {
+            // テーブル値パラメータはNULLを受け付けないため、ドライバが空のテーブルとして送信する
+            statement.setStructured(index, typeName, (SQLServerDataTable) null);
+            return;
+        }
+        var table = new SQLServerDataTable();
+        var names = rows.getFirst().names();
+        for (int column = 0; column < names.size(); column++) {
+            table.addColumnMetadata(names.get(column), sqlTypeOf(rows, column));
+        }
+        for (var row : rows) {
+            var columns = row.values();
+            for (int i = 0; i < columns.length; i++) {
+                if (columns[i] instanceof UUID uuid) {
+                    columns[i] = uuid.toString();
+                }
+            }
+            table.addRow(columns);
+        }
+        statement.setStructured(index, typeName, table);
+    }
+
+    private static List<Row> toRows(Collection<?> values) {
+        var rows = new ArrayList<Row>(values == null ? 0 : values.size());
+        if (values == null) {
+            return rows;
+        }
+        for (var element : values) {
+            if (element == null || RowValues.isScalar(element)) {
+                rows.add(new Row(List.of(SCALAR_COLUMN), new Object[]{convert(element)}));
+            } else {
+                var columns = RowValues.toColumns(element);
+                var converted = columns.values().stream().map(SqlServerTableValues::convert).toArray();
+                rows.add(new Row(List.copyOf(columns.keySet()), converted));
+            }
+        }
+        return rows;
+    }
+
+    private static int sqlTypeOf(List<Row> rows, int column) {
+        for (var row : rows) {
+            var value = row.values()[column];
+            if (value != null) {
+                return switch (value) {
+                    case Integer i -> Types.INTEGER;
+                    case Long l -> Types.BIGINT;
+                    case Short s -> Types.SMALLINT;
+                    case Byte b -> Types.TINYINT;
+                    case Boolean b -> Types.BIT;
+                    case BigDecimal d -> Types.DECIMAL;
+                    case Double d -> Types.DOUBLE;
+                    case Float f -> Types.REAL;
+                    case java.sql.Date d -> Types.DATE;
+                    case java.sql.Time t -> Types.TIME;
+                    case Timestamp t -> Types.TIMESTAMP;
+                    case byte[] bytes -> Types.VARBINARY;
+                    // TVPはGUID型の列メタデータをサポートしないため、文字列としてuniqueidentifierに変換させる
+                    case UUID uuid -> Types.CHAR;
+                    default -> Types.NVARCHAR;
+                };
+            }
+        }
+        return Types.NVARCHAR;
+    }
+
+    private static Object convert(Object value) {
+        return switch (value) {
+            case null -> null;
+            case LocalDate date -> java.sql.Date.valueOf(date);
+            case LocalDateTime dateTime -> Timestamp.valueOf(dateTime);
+            case LocalTime time -> java.sql.Time.valueOf(time);
+            case UUID uuid -> uuid;
+            case Enum<?> e -> e.name();
+            case Integer i -> i;
+            case Long l -> l;
+            case Short s -> s;
+            case Byte b -> b;
+            case Boolean b -> b;
+            case BigDecimal d -> d;
+            case Double d -> d;
+            case Float f -> f;
+            case java.sql.Date d -> d;
+            case java.sql.Time t -> t;
+            case Timestamp t -> t;
+            case byte[] bytes -> bytes;
+            default -> value.toString();
+        };
+    }
+
+    private record Row(List<String> names, Object[] values) {
+    }
+}
@@ -0,0 +1,324 @@
+package io.storedmapper.executor;
+
+import io.storedmapper.DbProgram;
+import io.storedmapper.DbProgramMapperOptions;
+import io.storedmapper.ExecuteResult;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * DBプログラムを仮想スレッドで非同期に実行するコンポーネント。
+ *
+ * <p>各呼び出しは仮想スレッド上で{@link DbProgramExecutor}により実行されます。
+ * DataSourceごとの同時実行数はセマフォで制限され（{@link DbProgramMapperOptions#getAsyncMaxConcurrency()}、
+ * 未指定の場合はコネクションプールの最大サイズ）、上限を超えた呼び出しはコネクションプールではなく
+ * 仮想スレッド上で待機します。{@link ReadReplicas}を指定した場合は、{@link DbProgramExecutor}と同様に
+ * 読み取り専用の関数呼び出しをレプリカで実行します。</p>
+ *
+ * <p>返された{@link CompletableFuture}がキャンセルされた場合や、{@code orTimeout}などにより
+ * 実行中に完了した場合は、実行中のステートメントに{@link java.sql.Statement#cancel()}を送信します。</p>
+ *
+ * <pre>{@code
+ * CompletableFuture<List<TaskDto>> tasks = asyncExecutor.query(taskParam, TaskDto.class)
+ *         .orTimeout(3, TimeUnit.SECONDS);
+ * CompletableFuture<Integer> count = asyncExecutor.executeScalar(countParam, Integer.class);
+ * CompletableFuture.allOf(tasks, count).join();
+ * }</pre>
+ *
+ * @since 1.1.0
+ */
+@Component
+public class AsyncDbProgramExecutor {
+
+    private static final int WAITING = 0;
+    private static final int RUNNING = 1;
+    private static final int DONE = 2;
+
+    private final DbProgramExecutor executor;
+    private final Semaphore permits;
+    private final ThreadFactory threadFactory;
+
+    public AsyncDbProgramExecutor(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, null);
+    }
+
+    /**
+     * 読み取り専用の関数呼び出しを実行する読み取りレプリカを指定して作成します。
+     *
+     * @param jdbcTemplate プライマリのJdbcTemplate
+     * @param readReplicas 読み取りレプリカ（{@code null}の場合はすべてプライマリで実行）
+     */
+    @Autowired
+    public AsyncDbProgramExecutor(JdbcTemplate jdbcTemplate, @Nullable ReadReplicas readReplicas) {
+        this(jdbcTemplate, DbProgramMapperOptions.getAsyncMaxConcurrency(), readReplicas);
+    }
+
+    /**
+     * 同時実行数の上限を指定して作成します。
+     *
+     * <p>同じDataSourceの上限は最初に作成された実行コンポーネントの値が使用されます。
+     * 異なる上限を指定した場合は例外を送出します（{@code 0}は設定済みの上限に従います）。</p>
+     *
+     * @param jdbcTemplate JdbcTemplate
+     * @param maxConcurrency DataSourceごとの同時実行数の上限（{@code 0}の場合はプールサイズから決定）
+     * @throws IllegalArgumentException 上限が負の値、またはDataSourceに設定済みの上限と異なる場合
+     */
+    public AsyncDbProgramExecutor(JdbcTemplate jdbcTemplate, int maxConcurrency) {
+        this(jdbcTemplate, maxConcurrency, null);
+    }
+
+    /**
+     * 同時実行数の上限と読み取りレプリカを指定して作成します。
+     *
+     * <p>同時実行数の上限はプライマリのDataSourceに設定され、レプリカで実行される呼び出しも枠を使用します。</p>
+     *
+     * @param jdbcTemplate プライマリのJdbcTemplate
+     * @param maxConcurrency DataSourceごとの同時実行数の上限（{@code 0}の場合はプールサイズから決定）
+     * @param readReplicas 読み取りレプリカ（{@code null}の場合はすべてプライマリで実行）
+     * @throws IllegalArgumentException 上限が負の値、またはDataSourceに設定済みの上限と異なる場合
+     */
+    public AsyncDbProgramExecutor(JdbcTemplate jdbcTemplate, int maxConcurrency, @Nullable ReadReplicas readReplicas) {
+        if (maxConcurrency < 0) {
+            throw new IllegalArgumentException("maxConcurrency must not be negative.");
+        }
+        var dataSource = Objects.requireNonNull(jdbcTemplate.getDataSource(), "DataSource is not set on JdbcTemplate");
+        this.executor = new DbProgramExecutor(new CancellableJdbcTemplate(jdbcTemplate), readReplicas);
+        this.permits = ConnectionLimits.of(dataSource, maxConcurrency);
+        this.threadFactory = Thread.ofVirtual().name("db-program-", 0).factory();
+    }
+
+    // --- ストアドプロシージャ実行 ---
+
+    /**
+     * ストアドプロシージャを非同期に実行します。
+     *
+     * @param param パラメータオブジェクト
+     * @return 実行結果
+     * @see DbProgramExecutor#execute(DbProgram)
+     */
+    public CompletableFuture<ExecuteResult> execute(DbProgram param) {
+        return submit(executor -> executor.execute(param));
+    }
+
+    // --- テーブル値関数 ---
+
+    /**
+     * テーブル値関数を非同期に実行し、結果リストを取得します。
+     *
+     * @param <T> 結果の型
+     * @param param パラメータオブジェクト
+     * @param resultType 結果クラス
+     * @return 結果リスト
+     * @see DbProgramExecutor#query(DbProgram, Class)
+     */
+    public <T> CompletableFuture<List<T>> query(DbProgram param, Class<T> resultType) {
+        return submit(executor -> executor.query(param, resultType));
+    }
+
+    /**
+     * テーブル値関数をカスタムRowMapperで非同期に実行します。
+     *
+     * @param <T> 結果の型
+     * @param param パラメータオブジェクト
+     * @param rowMapper カスタムRowMapper
+     * @return 結果リスト
+     * @see DbProgramExecutor#query(DbProgram, RowMapper)
+     */
+    public <T> CompletableFuture<List<T>> query(DbProgram param, RowMapper<T> rowMapper) {
+        return submit(executor -> executor.query(param, rowMapper));
+    }
+
+    /**
+     * テーブル値関数を非同期に実行し、最初の1件を取得します。
+     *
+     * @param <T> 結果の型
+     * @param param パラメータオブジェクト
+     * @param resultType 結果クラス
+     * @return 最初の1件（存在しない場合はnullで完了）
+     * @see DbProgramExecutor#queryFirstOrDefault(DbProgram, Class)
+     */
+    public <T> CompletableFuture<T> queryFirstOrDefault(DbProgram param, Class<T> resultType) {
+        return submit(executor -> executor.queryFirstOrDefault(param, resultType));
+    }
+
+    // --- スカラー値関数 ---
+
+    /**
+     * スカラー値関数を非同期に実行します。
+     *
+     * @param <T> 結果の型
+     * @param param パラメータオブジェクト
+     * @param resultType 結果クラス
+     * @return スカラー値
+     * @see DbProgramExecutor#executeScalar(DbProgram, Class)
+     */
+    public <T> CompletableFuture<T> executeScalar(DbProgram param, Class<T> resultType) {
+        return submit(executor -> executor.executeScalar(param, resultType));
+    }
+
+    // --- 並行実行 ---
+
+    /**
+     * 互いに独立したDBプログラムを並行して実行するスコープを開始します。
+     *
+     * @return スコープ（try-with-resourcesで閉じてください）
+     * @see ParallelScope
+     */
+    public ParallelScope parallel() {
+        return new ParallelScope(this);
+    }
+
+    /**
+     * 複数の処理を並行して実行し、すべての結果を引数の順序で返します。
+     *
+     * <p>いずれかの処理が失敗した場合は残りの処理をキャンセルし、最初の失敗を送出します。</p>
+     *
+     * <pre>{@code
+     * List<List<?>> results = asyncExecutor.all(
+     *         executor -> executor.query(taskParam, TaskDto.class),
+     *         executor -> executor.query(userParam, UserDto.class));
+     * }</pre>
+     *
+     * @param <T> 結果の型
+     * @param actions 実行する処理
+     * @return 結果のリスト（要素はnullの場合があります）
+     */
+    @SafeVarargs
+    public final <T> List<T> all(Function<DbProgramExecutor, ? extends T>... actions) {
+        // 可変長引数の配列は外部に渡さず、要素をリストへコピーする
+        var list = new ArrayList<Function<DbProgramExecutor, ? extends T>>(actions.length);
+        for (var action : actions) {
+            list.add(action);
+        }
+        return all(list, null);
+    }
+
+    /**
+     * 複数の処理を並行して実行し、指定した時間を上限にすべての結果を待機します。
+     *
+     * @param <T> 結果の型
+     * @param actions 実行する処理
+     * @param timeout 待機時間の上限（{@code null}の場合は無制限）
+     * @return 結果のリスト（要素はnullの場合があります）
+     * @throws org.springframework.dao.QueryTimeoutException 時間内に完了しなかった場合
+     */
+    public <T> List<T> all(List<? extends Function<DbProgramExecutor, ? extends T>> actions, Duration timeout) {
+        try (var scope = parallel()) {
+            var calls = new ArrayList<ParallelScope.Call<? extends T>>(actions.size());
+            for (var action : actions) {
+                calls.add(scope.fork(action));
+            }
+            scope.join(timeout);
+            var results = new ArrayList<T>(calls.size());
+            for (var call : calls) {
+                results.add(call.get());
+            }
+            return Collections.unmodifiableList(results);
+        }
+    }
+
+    // --- 任意の処理 ---
+
+    /**
+     * {@link DbProgramExecutor}を使用する任意の処理を非同期に実行します。
+     *
+     * <p>処理全体で1つの同時実行枠を使用します。キャンセル時は処理中に作成された
+     * ステートメントに{@link java.sql.Statement#cancel()}を送信します。
+     * 呼び出し元のスレッドに{@link Deadline}が設定されている場合は、枠の待機と処理に同じ期限が適用されます。</p>
+     *
+     * @param <T> 結果の型
+     * @param action 実行する処理
+     * @return 処理の結果
+     */
+    public <T> CompletableFuture<T> submit(Function<DbProgramExecutor, ? extends T> action) {
+        Objects.requireNonNull(action, "action must not be null");
+        var future = new CompletableFuture<T>();
+        var cancellation = new StatementCancellation();
+        var phase = new AtomicInteger(WAITING);
+        var deadline = Deadline.current();
+        var thread = threadFactory.newThread(() -> run(action, future, cancellation, phase, deadline));
+
+        // 実行中に外部から完了された（キャンセル・タイムアウト）場合はステートメントを中断する
+        future.whenComplete((result, error) -> {
+            if (phase.compareAndSet(WAITING, DONE)) {
+                // 同時実行枠の待機中のみ割り込む（実行中の割り込みは接続を閉じる可能性がある）
+                thread.interrupt();
+            } else if (phase.get() == RUNNING) {
+                cancellation.cancel();
+            }
+        });
+        thread.start();
+        return future;
+    }
+
+    private <T> void run(Function<DbProgramExecutor, ? extends T> action, CompletableFuture<T> future,
+                         StatementCancellation cancellation, AtomicInteger phase, Deadline deadline) {
+        try {
+            if (deadline == null) {
+                permits.acquire();
+            } else if (!permits.tryAcquire(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS)) {
+                future.completeExceptionally(
+                        new QueryTimeoutException("Deadline exceeded while waiting for a connection slot."));
+                return;
+            }
+        } catch (InterruptedException e) {
+            // キャンセルにより待機を中断した
+            return;
+        }
+        T result = null;
+        Throwable error = null;
+        try {
+            if (!phase.compareAndSet(WAITING, RUNNING)) {
+                return;
+            }
+            cancellation.attach();
+            // 呼び出し元の期限を実行スレッドに引き継ぐ
+            var inherited = deadline != null ? Deadline.inherit(deadline) : null;
+            try {
+                result = action.apply(executor);
+            } finally {
+                if (inherited != null) {
+                    inherited.close();
+                }
+                StatementCancellation.detach();
+                phase.set(DONE);
+            }
+        } catch (Throwable t) {
+            error = t;
+        } finally {
+            // 完了を通知する前に枠を返却する（完了直後の呼び出しが枠を待たないように）
+            permits.release();
+        }
+        if (error != null) {
+            future.completeExceptionally(error);
+        } else {
+            future.complete(result);
+        }
+    }
+
+    /**
+     * 現在使用できる同時実行枠の数を返します。
+     *
+     * @return 空き枠の数
+     */
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+}
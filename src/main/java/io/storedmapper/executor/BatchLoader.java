@@ -0,0 +1,335 @@
+package io.storedmapper.executor;
+
+import io.storedmapper.DbProgram;
+import io.storedmapper.internal.ParameterSlot;
+import io.storedmapper.internal.ProgramDescriptor;
+
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 個別に要求されたキーをまとめ、キーの集合を受け取るテーブル値関数を1回だけ実行するローダー。
+ *
+ * <p>ループ内で{@code queryFirstOrDefault}を呼び出す代わりに{@link #load(Object)}でキーを登録し、
+ * まとめて実行された結果をキーごとに受け取ります（N+1問題の解消）。
+ * キーを渡すパラメータは、プログラムクラスの唯一のコレクション型の入力パラメータです
+ * （SQL Serverはテーブル値パラメータ、PostgreSQLは配列、MySQLはJSON配列としてバインドされます）。</p>
+ *
+ * <p>登録されたキーは次のいずれかで実行されます。</p>
+ * <ul>
+ *   <li>最初のキーの登録から待機時間が経過したとき（待機時間を指定した場合）</li>
+ *   <li>未実行のキーが最大数（{@code DbProgramMapperOptions.getBatchLoaderMaxKeys()}）に達したとき</li>
+ *   <li>{@link #dispatch()}または{@link #close()}を呼び出したとき（リクエスト単位で使用する場合）</li>
+ * </ul>
+ *
+ * <p>待機時間の経過やキーの最大数への到達で実行されるバッチは仮想スレッドで実行され、
+ * {@link AsyncDbProgramExecutor}と同じDataSourceごとの同時実行数の上限を共有します。
+ * キーを登録したスレッドに{@link Deadline}が設定されている場合は、登録したスレッドの中で
+ * 最も遅い期限（期限のないスレッドがあれば期限なし）が枠の待機と実行に適用されます。</p>
+ *
+ * <pre>{@code
+ * @DbProgramName("fn_get_tasks_by_ids")
+ * public class GetTasksByIdsParam extends DbProgramBase {
+ *     @DbParameterOrder(1)
+ *     @DbParameterProperty(typeName = "dbo.IdList")
+ *     private List<Integer> taskIds;
+ * }
+ *
+ * try (var loader = executor.batchLoader(GetTasksByIdsParam::new, TaskDto.class, TaskDto::id)) {
+ *     var futures = comments.stream().map(c -> loader.load(c.taskId())).toList();
+ *     loader.dispatch();
+ *     ...
+ * }
+ * }</pre>
+ *
+ * <p>同じキーは1回のみ渡され、結果の行は{@code keyOf}で取り出したキーで対応付けられます。
+ * 該当する行がない場合の結果は{@code null}、同じキーの行が複数ある場合は最初の行です。
+ * 実行に失敗した場合は、そのバッチのすべての呼び出しが同じ例外で完了します。</p>
+ *
+ * @param <K> キーの型
+ * @param <T> 結果の型
+ * @since 1.1.0
+ */
+public final class BatchLoader<K, T> implements AutoCloseable {
+
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(task -> {
+        var thread = new Thread(task, "stored-mapper-batch-loader-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final DbProgramExecutor executor;
+    private final Supplier<? extends DbProgram> paramFactory;
+    private final RowMapper<T> rowMapper;
+    private final Function<? super T, ? extends K> keyOf;
+    private final Duration window;
+    private final int maxKeys;
+    private final Semaphore permits;
+    private volatile ParameterSlot keySlot;
+
+    private final Object lock = new Object();
+    private Batch pending;
+    private boolean closed;
+
+    BatchLoader(DbProgramExecutor executor, Supplier<? extends DbProgram> paramFactory, RowMapper<T> rowMapper,
+                Function<? super T, ? extends K> keyOf, Duration window, int maxKeys, Semaphore permits) {
+        if (window == null || window.isNegative()) {
+            throw new IllegalArgumentException("window must not be negative.");
+        }
+        this.executor = executor;
+        this.paramFactory = paramFactory;
+        this.rowMapper = rowMapper;
+        this.keyOf = keyOf;
+        this.window = window;
+        this.maxKeys = maxKeys;
+        this.permits = permits;
+    }
+
+    /**
+     * キーを登録し、結果を受け取るFutureを返します。
+     *
+     * @param key キー
+     * @return 結果（該当する行がない場合は{@code null}）で完了するFuture
+     * @throws IllegalArgumentException プログラムクラスにキーを渡すコレクション型のパラメータが1つだけ存在しない場合
+     * @throws IllegalStateException ローダーが閉じられている場合
+     */
+    public CompletableFuture<T> load(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("key must not be null.");
+        }
+        if (keySlot == null) {
+            // パラメータオブジェクトの生成処理は最初のキーの登録まで呼び出さない
+            keySlot = resolveKeySlot(paramFactory.get().getClass());
+        }
+        var deadline = Deadline.current();
+        Batch full = null;
+        CompletableFuture<T> future;
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("BatchLoader is already closed.");
+            }
+            if (pending == null) {
+                pending = new Batch(deadline);
+                if (!window.isZero()) {
+                    var batch = pending;
+                    batch.timer = TIMER.schedule(() -> dispatchScheduled(batch), window.toNanos(),
+                            TimeUnit.NANOSECONDS);
+                }
+            } else {
+                pending.deadline = Deadline.later(pending.deadline, deadline);
+            }
+            future = pending.futures.computeIfAbsent(key, k -> new CompletableFuture<>());
+            if (pending.futures.size() >= maxKeys) {
+                full = takePending();
+            }
+        }
+        if (full != null) {
+            runAsync(full);
+        }
+        return future;
+    }
+
+    /**
+     * 複数のキーを登録し、キーの順序で結果を受け取るFutureを返します。
+     *
+     * @param keys キー
+     * @return キーと同じ順序の結果（該当する行がない要素は{@code null}）で完了するFuture
+     */
+    public CompletableFuture<List<T>> loadAll(Collection<? extends K> keys) {
+        var futures = new ArrayList<CompletableFuture<T>>(keys.size());
+        for (var key : keys) {
+            futures.add(load(key));
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    var results = new ArrayList<T>(futures.size());
+                    for (var future : futures) {
+                        results.add(future.join());
+                    }
+                    return results;
+                });
+    }
+
+    /**
+     * 未実行のキーを現在のスレッドで直ちに実行します。
+     *
+     * <p>実行の失敗は各Futureに通知され、このメソッドからはスローされません。</p>
+     */
+    public void dispatch() {
+        Batch batch;
+        synchronized (lock) {
+            batch = takePending();
+        }
+        if (batch != null) {
+            run(batch.futures);
+        }
+    }
+
+    /**
+     * 未実行のキーを実行してローダーを閉じます。
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+        }
+        dispatch();
+    }
+
+    // --- private methods ---
+
+    private Batch takePending() {
+        var batch = pending;
+        pending = null;
+        if (batch != null && batch.timer != null) {
+            // 実行済みのバッチのタイマーが次のバッチを早く実行しないように取り消す
+            batch.timer.cancel(false);
+        }
+        return batch;
+    }
+
+    private void dispatchScheduled(Batch batch) {
+        synchronized (lock) {
+            if (pending != batch) {
+                // キーの最大数への到達または明示的な実行で実行済み
+                return;
+            }
+            pending = null;
+        }
+        runAsync(batch);
+    }
+
+    private void runAsync(Batch batch) {
+        Thread.ofVirtual().name("stored-mapper-batch-loader").start(() -> runBounded(batch));
+    }
+
+    private void runBounded(Batch batch) {
+        var deadline = batch.deadline;
+        if (permits != null) {
+            try {
+                if (deadline == null) {
+                    permits.acquire();
+                } else if (!permits.tryAcquire(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS)) {
+                    fail(batch.futures,
+                            new QueryTimeoutException("Deadline exceeded while waiting for a connection slot."));
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(batch.futures, new CancellationException("Interrupted while waiting for a connection slot."));
+                return;
+            }
+        }
+        Map<K, T> rows = null;
+        Throwable error = null;
+        try {
+            // キーを登録したスレッドの期限を実行スレッドに引き継ぐ
+            var inherited = deadline != null ? Deadline.inherit(deadline) : null;
+            try {
+                rows = query(batch.futures.keySet());
+            } finally {
+                if (inherited != null) {
+                    inherited.close();
+                }
+            }
+        } catch (Throwable t) {
+            error = t;
+        } finally {
+            // 完了を通知する前に枠を返却する（完了直後の呼び出しが枠を待たないように）
+            if (permits != null) {
+                permits.release();
+            }
+        }
+        complete(batch.futures, rows, error);
+    }
+
+    private void run(Map<K, CompletableFuture<T>> batch) {
+        Map<K, T> rows = null;
+        Throwable error = null;
+        try {
+            rows = query(batch.keySet());
+        } catch (Throwable t) {
+            error = t;
+        }
+        complete(batch, rows, error);
+    }
+
+    private Map<K, T> query(Set<K> keys) {
+        var param = paramFactory.get();
+        keySlot.setValue(param, toCollection(keys));
+        var rows = new HashMap<K, T>();
+        for (var row : executor.query(param, rowMapper)) {
+            rows.putIfAbsent(keyOf.apply(row), row);
+        }
+        return rows;
+    }
+
+    private void complete(Map<K, CompletableFuture<T>> batch, Map<K, T> rows, Throwable error) {
+        if (error != null) {
+            fail(batch, error);
+            return;
+        }
+        batch.forEach((key, future) -> future.complete(rows.get(key)));
+    }
+
+    private void fail(Map<K, CompletableFuture<T>> batch, Throwable error) {
+        batch.values().forEach(future -> future.completeExceptionally(error));
+    }
+
+    private Collection<K> toCollection(Set<K> keys) {
+        var fieldType = keySlot.getField().getType();
+        if (fieldType.isAssignableFrom(ArrayList.class)) {
+            return new ArrayList<>(keys);
+        }
+        return new LinkedHashSet<>(keys);
+    }
+
+    private static ParameterSlot resolveKeySlot(Class<?> programType) {
+        var keySlots = ProgramDescriptor.of(programType).getInputParameters().stream()
+                .filter(ParameterSlot::isCollection)
+                .toList();
+        if (keySlots.size() != 1) {
+            throw new IllegalArgumentException("Program " + programType.getName()
+                    + " must have exactly one collection parameter for keys, but has " + keySlots.size() + ".");
+        }
+        var fieldType = keySlots.getFirst().getField().getType();
+        if (!fieldType.isAssignableFrom(ArrayList.class) && !fieldType.isAssignableFrom(LinkedHashSet.class)) {
+            throw new IllegalArgumentException("Key parameter " + programType.getName() + "."
+                    + keySlots.getFirst().getField().getName() + " must be declared as List, Set or Collection.");
+        }
+        return keySlots.getFirst();
+    }
+
+    /**
+     * 未実行のキーと、その実行に適用するタイマーと期限。
+     */
+    private final class Batch {
+
+        private final Map<K, CompletableFuture<T>> futures = new LinkedHashMap<>();
+        private Deadline deadline;
+        private ScheduledFuture<?> timer;
+
+        private Batch(Deadline deadline) {
+            this.deadline = deadline;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package io.storedmapper.executor;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 作成したステートメントを{@link StatementCancellation}に登録するJdbcTemplate。
+ *
+ * <p>元のJdbcTemplateのDataSource・例外変換・ステートメント設定を引き継ぎます。</p>
+ */
+final class CancellableJdbcTemplate extends JdbcTemplate {
+
+    CancellableJdbcTemplate(JdbcTemplate source) {
+        super(source.getDataSource(), true);
+        setExceptionTranslator(source.getExceptionTranslator());
+        setFetchSize(source.getFetchSize());
+        setMaxRows(source.getMaxRows());
+        setQueryTimeout(source.getQueryTimeout());
+        setIgnoreWarnings(source.isIgnoreWarnings());
+        setSkipResultsProcessing(source.isSkipResultsProcessing());
+        setSkipUndeclaredResults(source.isSkipUndeclaredResults());
+        setResultsMapCaseInsensitive(source.isResultsMapCaseInsensitive());
+    }
+
+    @Override
+    protected void applyStatementSettings(Statement stmt) throws SQLException {
+        super.applyStatementSettings(stmt);
+        StatementCancellation.register(stmt);
+    }
+}
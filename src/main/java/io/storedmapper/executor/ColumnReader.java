@@ -0,0 +1,138 @@
+package io.storedmapper.executor;
+
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.dao.TypeMismatchDataAccessException;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.util.ClassUtils;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 結果の型ごとの列読み取り方法。
+ *
+ * <p>マッピング先のプロパティ型から一度だけ選択され、型付きの{@link ResultSet}ゲッターで値を読み取ります。
+ * 該当しない型は{@link JdbcUtils#getResultSetValue(ResultSet, int, Class)}
+ * （{@code getObject(index, type)}）にフォールバックし、列挙型の文字列や{@code LocalDateTime}に対する
+ * {@code Timestamp}など型が一致しない値は、{@code BeanPropertyRowMapper}と同じく
+ * {@link DefaultConversionService}で変換します。</p>
+ */
+enum ColumnReader {
+
+    STRING {
+        @Override
+        Object read(ResultSet rs, int index, Class<?> type) throws SQLException {
+            return rs.getString(index);
+        }
+    },
+
+    INT {
+        @Override
+        Object read(ResultSet rs, int index, Class<?> type) throws SQLException {
+            int value = rs.getInt(index);
+            return rs.wasNull() ? null : value;
+        }
+    },
+
+    LONG {
+        @Override
+        Object read(ResultSet rs, int index, Class<?> type) throws SQLException {
+            long value = rs.getLong(index);
+            return rs.wasNull() ? null : value;
+        }
+    },
+
+    SHORT {
+        @Override
+        Object read(ResultSet rs, int index, Class<?> type) throws SQLException {
+            short value = rs.getShort(index);
+            return rs.wasNull() ? null : value;
+        }
+    },
+
+    DOUBLE {
+        @Override
+        Object read(ResultSet rs, int index, Class<?> type) throws SQLException {
+            double value = rs.getDouble(index);
+            return rs.wasNull() ? null : value;
+        }
+    },
+
+    FLOAT {
+        @Override
+        Object read(ResultSet rs, int index, Class<?> type) throws SQLException {
+            float value = rs.getFloat(index);
+            return rs.wasNull() ? null : value;
+        }
+    },
+
+    BOOLEAN {
+        @Override
+        Object read(ResultSet rs, int index, Class<?> type) throws SQLException {
+            boolean value = rs.getBoolean(index);
+            return rs.wasNull() ? null : value;
+        }
+    },
+
+    BIG_DECIMAL {
+        @Override
+        Object read(ResultSet rs, int index, Class<?> type) throws SQLException {
+            return rs.getBigDecimal(index);
+        }
+    },
+
+    BYTES {
+        @Override
+        Object read(ResultSet rs, int index, Class<?> type) throws SQLException {
+            return rs.getBytes(index);
+        }
+    },
+
+    TYPED_OBJECT {
+        @Override
+        Object read(ResultSet rs, int index, Class<?> type) throws SQLException {
+            var value = JdbcUtils.getResultSetValue(rs, index, type);
+            if (value == null || ClassUtils.isAssignableValue(type, value)) {
+                return value;
+            }
+            try {
+                return DefaultConversionService.getSharedInstance().convert(value, type);
+            } catch (ConversionException e) {
+                throw new TypeMismatchDataAccessException("Failed to convert column " + index + " of type ["
+                        + value.getClass().getName() + "] to " + type.getName(), e);
+            }
+        }
+    };
+
+    /**
+     * 列の値を読み取ります。
+     *
+     * @param rs 結果セット
+     * @param index 列インデックス（1始まり）
+     * @param type マッピング先の型
+     * @return 列の値（SQL NULLの場合は{@code null}）
+     * @throws SQLException 読み取りに失敗した場合
+     */
+    abstract Object read(ResultSet rs, int index, Class<?> type) throws SQLException;
+
+    /**
+     * マッピング先の型に対応する読み取り方法を返します。
+     *
+     * @param type マッピング先の型
+     * @return 読み取り方法
+     */
+    static ColumnReader forType(Class<?> type) {
+        if (type == String.class) return STRING;
+        if (type == int.class || type == Integer.class) return INT;
+        if (type == long.class || type == Long.class) return LONG;
+        if (type == short.class || type == Short.class) return SHORT;
+        if (type == double.class || type == Double.class) return DOUBLE;
+        if (type == float.class || type == Float.class) return FLOAT;
+        if (type == boolean.class || type == Boolean.class) return BOOLEAN;
+        if (type == BigDecimal.class) return BIG_DECIMAL;
+        if (type == byte[].class) return BYTES;
+        return TYPED_OBJECT;
+    }
+}
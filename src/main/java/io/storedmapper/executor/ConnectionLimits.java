@@ -0,0 +1,73 @@
+package io.storedmapper.executor;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * DataSourceごとの同時実行数を制限するセマフォのレジストリ。
+ *
+ * <p>同じDataSourceを使用する非同期実行はすべて1つのセマフォを共有します。
+ * 上限を指定しない場合は、コネクションプールの最大サイズ（HikariCPの{@code getMaximumPoolSize}、
+ * Commons DBCP2の{@code getMaxTotal}、Tomcat JDBCの{@code getMaxActive}）を使用し、
+ * 取得できない場合は{@link #DEFAULT_MAX_CONCURRENCY}を使用します。</p>
+ */
+final class ConnectionLimits {
+
+    /** プールサイズを取得できない場合の上限（HikariCPのデフォルトのプールサイズ） */
+    static final int DEFAULT_MAX_CONCURRENCY = 10;
+
+    private static final String[] POOL_SIZE_METHODS = {"getMaximumPoolSize", "getMaxTotal", "getMaxActive"};
+
+    private static final Map<DataSource, Limit> LIMITS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private ConnectionLimits() {
+    }
+
+    /**
+     * DataSourceのセマフォを返します。
+     *
+     * <p>最初に取得した時点の上限で作成され、以降は同じセマフォを返します。</p>
+     *
+     * @param dataSource DataSource
+     * @param maxConcurrency 同時実行数の上限（{@code 0}の場合はプールサイズから決定）
+     * @return セマフォ
+     * @throws IllegalArgumentException DataSourceに異なる上限が設定済みの場合
+     */
+    static Semaphore of(DataSource dataSource, int maxConcurrency) {
+        var limit = LIMITS.computeIfAbsent(dataSource, ds -> {
+            var size = maxConcurrency > 0 ? maxConcurrency : detectPoolSize(ds);
+            return new Limit(new Semaphore(size, true), size);
+        });
+        if (maxConcurrency > 0 && maxConcurrency != limit.maxConcurrency()) {
+            throw new IllegalArgumentException("maxConcurrency " + maxConcurrency
+                    + " conflicts with the limit " + limit.maxConcurrency() + " already set for this DataSource.");
+        }
+        return limit.permits();
+    }
+
+    /**
+     * コネクションプールの最大サイズを返します。
+     *
+     * @param dataSource DataSource
+     * @return 最大サイズ（取得できない場合は{@link #DEFAULT_MAX_CONCURRENCY}）
+     */
+    static int detectPoolSize(DataSource dataSource) {
+        for (var name : POOL_SIZE_METHODS) {
+            try {
+                var method = dataSource.getClass().getMethod(name);
+                if (method.invoke(dataSource) instanceof Integer size && size > 0) {
+                    return size;
+                }
+            } catch (ReflectiveOperationException | RuntimeException ignored) {
+                // このプール実装のメソッドではない
+            }
+        }
+        return DEFAULT_MAX_CONCURRENCY;
+    }
+
+    private record Limit(Semaphore permits, int maxConcurrency) {
+    }
+}
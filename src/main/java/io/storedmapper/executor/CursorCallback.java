@@ -0,0 +1,25 @@
+package io.storedmapper.executor;
+
+import java.sql.SQLException;
+
+/**
+ * カーソル型のOUTPUTパラメータを読み取るコールバック。
+ *
+ * <p>{@link CursorResults}から取得したストリームは、このコールバックの実行中のみ有効です。</p>
+ *
+ * @param <R> コールバックの戻り値の型
+ * @since 1.1.0
+ * @see DbProgramExecutor#executeWithCursors(io.storedmapper.DbProgram, CursorCallback)
+ */
+@FunctionalInterface
+public interface CursorCallback<R> {
+
+    /**
+     * カーソルを読み取ります。
+     *
+     * @param cursors 実行結果とカーソル
+     * @return 任意の戻り値
+     * @throws SQLException 読み取りに失敗した場合
+     */
+    R doWithCursors(CursorResults cursors) throws SQLException;
+}
@@ -0,0 +1,227 @@
+package io.storedmapper.executor;
+
+import io.storedmapper.ExecuteResult;
+import io.storedmapper.dialect.DbDialect;
+import io.storedmapper.internal.ParameterSlot;
+
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 実行済みのストアドプロシージャのカーソル型OUTPUTパラメータ。
+ *
+ * <p>各カーソルはフェッチサイズごとに遅延して読み取る{@link Stream}として取得できます。
+ * カーソル名で読み取る方言（{@link DbDialect#fetchesCursorsByName()}、PostgreSQL）は
+ * {@link DbDialect#createCursorFetchQuery(String, int)}のクエリを繰り返し実行し、それ以外は
+ * ドライバが返す{@link ResultSet}を読み進めます。
+ * ストリームは{@link CursorCallback}の終了時にすべて閉じられます。</p>
+ *
+ * @since 1.1.0
+ */
+public final class CursorResults {
+
+    private final Connection connection;
+    private final CursorSource source;
+    private final ProgramCall call;
+    private final ExecuteResult executeResult;
+    private final DbDialect dialect;
+    private final int fetchSize;
+    private final SQLExceptionTranslator exceptionTranslator;
+    private final List<CursorSpliterator<?>> opened = new ArrayList<>();
+
+    CursorResults(Connection connection, CursorSource source, ProgramCall call, ExecuteResult executeResult,
+                  DbDialect dialect, int fetchSize, SQLExceptionTranslator exceptionTranslator) {
+        this.connection = connection;
+        this.source = source;
+        this.call = call;
+        this.executeResult = executeResult;
+        this.dialect = dialect;
+        this.fetchSize = fetchSize;
+        this.exceptionTranslator = exceptionTranslator;
+    }
+
+    /**
+     * 実行結果（影響行数・RETURN値）を返します。
+     *
+     * @return 実行結果
+     */
+    public ExecuteResult getExecuteResult() {
+        return executeResult;
+    }
+
+    /**
+     * カーソルを結果クラスのストリームとして取得します。
+     *
+     * @param <T> 結果の型
+     * @param parameterName パラメータ名（{@code @DbParameterName}の値またはフィールド名）
+     * @param resultType 結果クラス
+     * @return 結果ストリーム
+     * @throws SQLException カーソルの取得に失敗した場合
+     */
+    public <T> Stream<T> stream(String parameterName, Class<T> resultType) throws SQLException {
+        return stream(parameterName, IndexedRowMapperFactory.forType(resultType));
+    }
+
+    /**
+     * カーソルをカスタムRowMapperでストリームとして取得します。
+     *
+     * @param <T> 結果の型
+     * @param parameterName パラメータ名（{@code @DbParameterName}の値またはフィールド名）
+     * @param rowMapper カスタムRowMapper
+     * @return 結果ストリーム
+     * @throws SQLException カーソルの取得に失敗した場合
+     */
+    public <T> Stream<T> stream(String parameterName, RowMapper<T> rowMapper) throws SQLException {
+        return stream(findCursor(parameterName), rowMapper);
+    }
+
+    /**
+     * 最初のカーソルをストリームとして取得します。
+     *
+     * @param <T> 結果の型
+     * @param rowMapper カスタムRowMapper
+     * @return 結果ストリーム
+     * @throws SQLException カーソルの取得に失敗した場合
+     */
+    public <T> Stream<T> stream(RowMapper<T> rowMapper) throws SQLException {
+        var cursor = call.getDescriptor().getOutputParameters().stream()
+                .filter(ParameterSlot::isCursor)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "No cursor parameter in " + call.getDescriptor().getProgramType().getName()));
+        return stream(cursor, rowMapper);
+    }
+
+    private <T> Stream<T> stream(ParameterSlot cursor, RowMapper<T> mapper) throws SQLException {
+        var rowMapper = DbProgramExecutor.perExecution(mapper);
+        var value = source.get(cursor);
+        CursorSpliterator<T> spliterator;
+        if (value instanceof ResultSet rs) {
+            rs.setFetchSize(fetchSize);
+            spliterator = new CursorSpliterator<>(rowMapper, null, rs);
+        } else if (value instanceof String cursorName && dialect.createCursorFetchQuery(cursorName, fetchSize) != null) {
+            // カーソル名が返された場合は、FETCHでフェッチサイズずつ読み取る
+            spliterator = new CursorSpliterator<>(rowMapper, dialect.createCursorFetchQuery(cursorName, fetchSize), null);
+        } else if (value == null) {
+            return Stream.empty();
+        } else {
+            throw new IllegalStateException("Unsupported cursor value for " + cursor.getName() + ": "
+                    + value.getClass().getName());
+        }
+        opened.add(spliterator);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
+    private ParameterSlot findCursor(String parameterName) {
+        for (var slot : call.getDescriptor().getOutputParameters()) {
+            if (slot.isCursor() && (slot.getName().equals(parameterName) || slot.getField().getName().equals(parameterName))) {
+                return slot;
+            }
+        }
+        throw new IllegalArgumentException(parameterName + " is not a cursor parameter of "
+                + call.getDescriptor().getProgramType().getName());
+    }
+
+    /**
+     * カーソルパラメータの値（{@link ResultSet}またはカーソル名）の取得方法。
+     */
+    @FunctionalInterface
+    interface CursorSource {
+        Object get(ParameterSlot cursor) throws SQLException;
+    }
+
+    /**
+     * 取得したすべてのストリームを閉じます。
+     */
+    void close() {
+        for (var spliterator : opened) {
+            spliterator.close();
+        }
+        opened.clear();
+    }
+
+    /**
+     * カーソルを1行ずつ読み進めるSpliterator。
+     *
+     * <p>{@code fetchQuery}が指定された場合は、読み終えた行数がフェッチサイズに満たなくなるまで
+     * クエリを繰り返し実行します。</p>
+     */
+    private final class CursorSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+        private final RowMapper<T> rowMapper;
+        private final String fetchQuery;
+        private Statement fetchStatement;
+        private ResultSet resultSet;
+        private int rowNum;
+        private int chunkRows;
+        private boolean exhausted;
+
+        CursorSpliterator(RowMapper<T> rowMapper, String fetchQuery, ResultSet resultSet) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED);
+            this.rowMapper = rowMapper;
+            this.fetchQuery = fetchQuery;
+            this.resultSet = resultSet;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (exhausted) {
+                return false;
+            }
+            try {
+                if (!nextRow()) {
+                    close();
+                    return false;
+                }
+                action.accept(rowMapper.mapRow(resultSet, rowNum++));
+                return true;
+            } catch (SQLException e) {
+                var translated = exceptionTranslator.translate("CursorResults", fetchQuery, e);
+                throw translated != null ? translated : new UncategorizedSQLException("CursorResults", fetchQuery, e);
+            }
+        }
+
+        private boolean nextRow() throws SQLException {
+            if (resultSet != null && resultSet.next()) {
+                chunkRows++;
+                return true;
+            }
+            if (fetchQuery == null || (resultSet != null && chunkRows < fetchSize)) {
+                return false;
+            }
+            // 次のチャンクを取得する
+            JdbcUtils.closeResultSet(resultSet);
+            if (fetchStatement == null) {
+                fetchStatement = connection.createStatement();
+            }
+            resultSet = fetchStatement.executeQuery(fetchQuery);
+            chunkRows = 0;
+            if (resultSet.next()) {
+                chunkRows++;
+                return true;
+            }
+            return false;
+        }
+
+        void close() {
+            exhausted = true;
+            JdbcUtils.closeResultSet(resultSet);
+            JdbcUtils.closeStatement(fetchStatement);
+            resultSet = null;
+            fetchStatement = null;
+        }
+    }
+}
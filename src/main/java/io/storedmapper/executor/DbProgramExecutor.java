@@ -1,26 +1,51 @@
 package io.storedmapper.executor;
 
+import io.storedmapper.BatchCallResult;
+import io.storedmapper.BatchExecuteResult;
 import io.storedmapper.DbProgram;
+import io.storedmapper.DbProgramMapperOptions;
+import io.storedmapper.DbProgramWithErrorBase;
 import io.storedmapper.ExecuteResult;
-import io.storedmapper.ParameterDirection;
-import io.storedmapper.annotation.DbParameterProperty;
-import io.storedmapper.annotation.DbProgramName;
+import io.storedmapper.MultiResult;
 import io.storedmapper.internal.DbProgramHelper;
-
-import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import io.storedmapper.internal.InFlightCalls;
+import io.storedmapper.internal.ProgramDescriptor;
+import io.storedmapper.internal.ProgramRetry;
+import io.storedmapper.internal.ResultCache;
+import io.storedmapper.internal.SqlCache;
+import io.storedmapper.internal.StatementSettings;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.support.DataAccessUtils;
+import org.springframework.jdbc.core.CallableStatementCallback;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
-import org.springframework.jdbc.core.SqlOutParameter;
-import org.springframework.jdbc.core.SqlParameter;
-import org.springframework.jdbc.core.SqlInOutParameter;
-import org.springframework.jdbc.core.simple.SimpleJdbcCall;
+import org.springframework.jdbc.core.RowMapperResultSetExtractor;
+import org.springframework.jdbc.core.SingleColumnRowMapper;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.lang.reflect.Field;
-import java.sql.Types;
+import java.sql.CallableStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * DBプログラム統一実行コンポーネント。
@@ -28,6 +53,22 @@ import java.util.Map;
  * <p>ストアドプロシージャ、テーブル値関数、スカラー値関数の実行を
  * 統一的なAPIで提供します。</p>
  *
+ * <p>{@link io.storedmapper.annotation.DbProgramCacheable}が付与されたプログラムの
+ * {@code query}・{@code queryFirstOrDefault}・{@code executeScalar}の結果は
+ * {@link ResultCache}にキャッシュされ、{@link io.storedmapper.annotation.DbProgramInvalidates}が
+ * 付与されたプロシージャの正常な実行後に削除されます。
+ * {@link io.storedmapper.annotation.DbProgramCoalesced}が付与されたプログラムは、
+ * 同時に実行された同一の呼び出しが{@link InFlightCalls}で1回の実行にまとめられます。</p>
+ *
+ * <p>{@link io.storedmapper.annotation.DbProgramStatement}が付与されたプログラムは、
+ * {@code JdbcTemplate}の設定より優先してフェッチサイズ・最大行数・クエリタイムアウトが設定されます。</p>
+ *
+ * <p>{@link io.storedmapper.annotation.DbProgramRetry}が付与されたプログラムは、トランザクション外で
+ * デッドロック・タイムアウトにより失敗した場合に{@link ProgramRetry}で再実行されます。</p>
+ *
+ * <p>{@link ReadReplicas}を指定した場合、{@code readOnly}のテーブル値関数・スカラー値関数の呼び出しは
+ * トランザクション外であれば読み取りレプリカで実行され、ストアドプロシージャはプライマリで実行されます。</p>
+ *
  * <pre>{@code
  * @Autowired
  * private DbProgramExecutor executor;
@@ -48,9 +89,26 @@ import java.util.Map;
 public class DbProgramExecutor {
 
     private final JdbcTemplate jdbcTemplate;
+    private final ReadReplicas readReplicas;
 
     public DbProgramExecutor(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, null);
+    }
+
+    /**
+     * 読み取り専用の関数呼び出しを実行する読み取りレプリカを指定して作成します。
+     *
+     * @param jdbcTemplate プライマリのJdbcTemplate
+     * @param readReplicas 読み取りレプリカ（{@code null}の場合はすべてプライマリで実行）
+     * @throws IllegalStateException 読み取りレプリカの設定が不正な場合
+     */
+    @Autowired
+    public DbProgramExecutor(JdbcTemplate jdbcTemplate, @Nullable ReadReplicas readReplicas) {
+        if (readReplicas != null) {
+            readReplicas.validate();
+        }
         this.jdbcTemplate = jdbcTemplate;
+        this.readReplicas = readReplicas;
     }
 
     // --- ストアドプロシージャ実行 ---
@@ -62,56 +120,250 @@ public class DbProgramExecutor {
      * @return 実行結果
      */
     public ExecuteResult execute(DbProgram param) {
-        var annotation = requireDbProgramName(param);
-        var outputFields = DbProgramHelper.getOutputFields(param);
-
-        if (outputFields.isEmpty()) {
-            // OUTPUT パラメータなし: シンプルな実行
-            var sql = DbProgramHelper.createStoredProcedureCall(annotation, param);
-            var args = DbProgramHelper.buildParameterArray(param);
-            var affectedRows = jdbcTemplate.update(sql, args);
-            return new ExecuteResult(affectedRows, null);
-        }
-
-        // OUTPUT パラメータあり: SimpleJdbcCall を使用
-        return executeWithOutputParameters(param, annotation, outputFields);
+        var descriptor = requireDescriptor(param);
+        var call = ProgramCall.of(param, descriptor);
+
+        // OUTPUT パラメータ・RETURN値はインデックスで直接書き戻す
+        var result = retry(descriptor, param, false,
+                () -> jdbcTemplate.execute(call.getSql(), (CallableStatementCallback<ExecuteResult>) cs -> {
+                    configure(cs, jdbcTemplate, descriptor, true);
+                    call.bind(cs, param);
+                    return call.execute(cs, param);
+                }));
+        invalidateCaches(descriptor, param, result);
+        return result;
     }
 
-    private ExecuteResult executeWithOutputParameters(DbProgram param, DbProgramName annotation, List<Field> outputFields) {
-        var schema = annotation.schema();
-        if (schema == null || schema.isEmpty()) {
-            schema = io.storedmapper.DbProgramMapperOptions.getDefaultSchema();
+    /**
+     * 複数の結果セットを返すストアドプロシージャを実行します。
+     *
+     * <p>すべての結果セット、OUTPUTパラメータ、RETURN値を1回の呼び出しで取得します。
+     * n番目の結果セットはn番目の結果クラスでマッピングされます。</p>
+     *
+     * @param param パラメータオブジェクト
+     * @param resultTypes 結果セットごとの結果クラス
+     * @return 実行結果
+     */
+    public MultiResult executeMulti(DbProgram param, Class<?>... resultTypes) {
+        var rowMappers = new RowMapper<?>[resultTypes.length];
+        for (int i = 0; i < resultTypes.length; i++) {
+            rowMappers[i] = IndexedRowMapperFactory.forType(resultTypes[i]);
         }
+        return executeMulti(param, rowMappers);
+    }
 
-        var call = new SimpleJdbcCall(jdbcTemplate)
-                .withSchemaName(schema)
-                .withProcedureName(annotation.value());
+    /**
+     * 複数の結果セットを返すストアドプロシージャを、結果セットごとのRowMapperで実行します。
+     *
+     * <p>RowMapperより多い結果セットは読み捨て、結果セットが足りない場合は空のリストになります。</p>
+     *
+     * @param param パラメータオブジェクト
+     * @param rowMappers 結果セットごとのRowMapper
+     * @return 実行結果
+     */
+    public MultiResult executeMulti(DbProgram param, RowMapper<?>... rowMappers) {
+        var descriptor = requireDescriptor(param);
+        var call = ProgramCall.of(param, descriptor);
+        var mappers = Stream.of(rowMappers).<RowMapper<?>>map(DbProgramExecutor::perExecution).toList();
+        var result = retry(descriptor, param, false,
+                () -> jdbcTemplate.execute(call.getSql(), (CallableStatementCallback<MultiResult>) cs -> {
+                    configure(cs, jdbcTemplate, descriptor, true);
+                    call.bind(cs, param);
+                    return call.executeMulti(cs, param, mappers);
+                }));
+        invalidateCaches(descriptor, param, result);
+        return result;
+    }
 
-        // パラメータ宣言を構築
-        var sqlParams = buildSqlParameters(param);
-        call.declareParameters(sqlParams.toArray(new SqlParameter[0]));
+    /**
+     * カーソル型のOUTPUTパラメータ（{@code java.sql.ResultSet}型のフィールド）を返す
+     * ストアドプロシージャを実行し、カーソルをストリームとして読み取ります。
+     *
+     * <p>カーソルはトランザクション内でのみ有効なため、自動コミットが有効な接続では
+     * コールバックの終了まで自動コミットを無効にします。フェッチサイズは
+     * {@link io.storedmapper.annotation.DbProgramStatement}の値、未指定の場合は
+     * {@link DbProgramMapperOptions#getStreamFetchSize()}を使用します。</p>
+     *
+     * <pre>{@code
+     * long count = executor.executeWithCursors(param, cursors -> {
+     *     try (Stream<TaskDto> tasks = cursors.stream("tasks", TaskDto.class)) {
+     *         return tasks.filter(TaskDto::isOpen).count();
+     *     }
+     * });
+     * }</pre>
+     *
+     * @param <R> コールバックの戻り値の型
+     * @param param パラメータオブジェクト
+     * @param callback カーソルを読み取るコールバック
+     * @return コールバックの戻り値
+     */
+    public <R> R executeWithCursors(DbProgram param, CursorCallback<R> callback) {
+        return executeWithCursors(param, streamFetchSize(param), callback);
+    }
 
-        // 入力パラメータ値を構築
-        var inputValues = buildInputParameterMap(param);
+    /**
+     * カーソル型のOUTPUTパラメータを返すストアドプロシージャを、フェッチサイズを指定して実行します。
+     *
+     * @param <R> コールバックの戻り値の型
+     * @param param パラメータオブジェクト
+     * @param fetchSize 1回に取得する行数
+     * @param callback カーソルを読み取るコールバック
+     * @return コールバックの戻り値
+     */
+    public <R> R executeWithCursors(DbProgram param, int fetchSize, CursorCallback<R> callback) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("fetchSize must be positive.");
+        }
+        Objects.requireNonNull(callback, "callback must not be null");
+        var descriptor = requireDescriptor(param);
+        var call = ProgramCall.of(param, descriptor);
+        var dialect = DbProgramMapperOptions.getDialect();
+
+        return jdbcTemplate.execute((ConnectionCallback<R>) con -> {
+            // 外部トランザクションがない場合のみ、コールバックの間トランザクションを開始する
+            boolean manualCommit = dialect.requiresManualCommitForStreaming() && con.getAutoCommit();
+            if (manualCommit) {
+                con.setAutoCommit(false);
+            }
+            // カーソル名で読み取る方言では、ドライバがカーソルを読み込まないよう問い合わせとして実行する
+            boolean byName = dialect.fetchesCursorsByName();
+            var statement = byName ? con.prepareStatement(call.getSql()) : con.prepareCall(call.getSql());
+            CursorResults cursors = null;
+            boolean completed = false;
+            try {
+                DataSourceUtils.applyTimeout(statement, jdbcTemplate.getDataSource(), jdbcTemplate.getQueryTimeout());
+                configure(statement, jdbcTemplate, descriptor, false);
+                StatementCancellation.register(statement);
+                ExecuteResult result;
+                CursorResults.CursorSource source;
+                if (byName) {
+                    var cursorNames = call.executeForCursorNames(statement, param);
+                    result = new ExecuteResult();
+                    source = cursorNames::get;
+                } else {
+                    var cs = (CallableStatement) statement;
+                    call.bind(cs, param);
+                    result = call.execute(cs, param);
+                    source = cursor -> cs.getObject(call.indexOf(cursor));
+                }
+                cursors = new CursorResults(con, source, call, result, dialect, fetchSize,
+                        jdbcTemplate.getExceptionTranslator());
+                var value = callback.doWithCursors(cursors);
+                completed = true;
+                return value;
+            } finally {
+                if (cursors != null) {
+                    cursors.close();
+                }
+                JdbcUtils.closeStatement(statement);
+                if (manualCommit) {
+                    try {
+                        if (completed) {
+                            con.commit();
+                        } else {
+                            con.rollback();
+                        }
+                    } finally {
+                        con.setAutoCommit(true);
+                    }
+                }
+            }
+        });
+    }
 
-        // 実行
-        var result = call.execute(inputValues);
+    /**
+     * 最初のカーソル型OUTPUTパラメータをストリームとして読み取ります。
+     *
+     * @param <T> 結果の型
+     * @param <R> 戻り値の型
+     * @param param パラメータオブジェクト
+     * @param rowMapper カスタムRowMapper
+     * @param function ストリームを集計する関数（ストリームは関数の終了後に閉じられます）
+     * @return 関数の戻り値
+     */
+    public <T, R> R executeWithCursor(DbProgram param, RowMapper<T> rowMapper, Function<Stream<T>, R> function) {
+        Objects.requireNonNull(function, "function must not be null");
+        return executeWithCursors(param, cursors -> {
+            try (var stream = cursors.stream(rowMapper)) {
+                return function.apply(stream);
+            }
+        });
+    }
 
-        // OUTPUT パラメータの値をオブジェクトに設定
-        for (var field : outputFields) {
-            var paramName = DbProgramHelper.getParameterName(field);
-            var value = result.get(paramName);
-            DbProgramHelper.setOutputParameterValue(param, field, value);
+    /**
+     * 複数のストアドプロシージャをバッチ実行します。
+     *
+     * <p>パラメータはクラスごとにまとめられ、OUTPUTパラメータを持たないプロシージャは
+     * キャッシュ済みのCALL文でJDBCバッチとして実行されます
+     * （{@link DbProgramMapperOptions#getBatchSize()}件ごとに送信）。
+     * OUTPUTパラメータを持つプロシージャは{@link #executeBatchWithOutputs(List)}と同様に
+     * 1つの接続上で1件ずつ実行され、OUTPUT値が書き戻されます。
+     * RETURN値は取得しません。</p>
+     *
+     * @param params パラメータオブジェクトのリスト
+     * @return 入力リストと同じ順序の実行結果
+     */
+    public BatchExecuteResult executeBatch(List<? extends DbProgram> params) {
+        var affectedRows = new int[params.size()];
+        var outputIndexes = new ArrayList<Integer>();
+        for (var group : groupByProgramType(params).values()) {
+            var descriptor = requireDescriptor(params.get(group.getFirst()));
+            if (descriptor.hasOutputParameters()) {
+                outputIndexes.addAll(group);
+                continue;
+            }
+            var sql = DbProgramHelper.createStoredProcedureCall(descriptor.getProgramName(), params.get(group.getFirst()));
+            var items = group.stream().<DbProgram>map(params::get).toList();
+            var counts = jdbcTemplate.batchUpdate(sql, items, DbProgramMapperOptions.getBatchSize(), (ps, item) -> {
+                configure(ps, jdbcTemplate, descriptor, false);
+                descriptor.bindInputs(ps, item);
+            });
+            int position = 0;
+            for (var chunk : counts) {
+                for (int count : chunk) {
+                    affectedRows[group.get(position++)] = count;
+                }
+            }
+            for (var item : items) {
+                invalidateCaches(descriptor, item, null);
+            }
         }
-
-        // RETURN_VALUE の取得（あれば）
-        var returnValue = result.get("return");
-        Integer returnCode = null;
-        if (returnValue instanceof Number number) {
-            returnCode = number.intValue();
+        if (!outputIndexes.isEmpty()) {
+            outputIndexes.sort(null);
+            var results = callEach(outputIndexes.stream().<DbProgram>map(params::get).toList(), false).getResults();
+            for (int i = 0; i < results.size(); i++) {
+                affectedRows[outputIndexes.get(i)] = results.get(i).getAffectedRows();
+            }
         }
+        return new BatchExecuteResult(affectedRows);
+    }
 
-        return new ExecuteResult(0, returnCode);
+    /**
+     * OUTPUTパラメータを持つ複数のストアドプロシージャを実行します。
+     *
+     * <p>すべての呼び出しは1つの接続上で実行され、CallableStatementはプログラムクラスごとに
+     * 1つだけ準備して再利用されます。OUTPUTパラメータは各パラメータオブジェクトに書き戻されます。</p>
+     *
+     * @param params パラメータオブジェクトのリスト
+     * @return 要素ごとの実行結果
+     */
+    public BatchCallResult executeBatchWithOutputs(List<? extends DbProgram> params) {
+        return executeBatchWithOutputs(params, false);
+    }
+
+    /**
+     * OUTPUTパラメータを持つ複数のストアドプロシージャを実行します。
+     *
+     * <p>RETURN値がエラーの場合（{@link ExecuteResult#hasError()}）、または
+     * {@link DbProgramWithErrorBase#hasSqlError()}が{@code true}の場合にエラーとして数えます。
+     * {@code stopOnError}が{@code true}の場合は最初のエラーで停止し、残りの要素は実行しません。</p>
+     *
+     * @param params パラメータオブジェクトのリスト
+     * @param stopOnError 最初のエラーで停止する場合は{@code true}
+     * @return 要素ごとの実行結果
+     */
+    public BatchCallResult executeBatchWithOutputs(List<? extends DbProgram> params, boolean stopOnError) {
+        return callEach(params, stopOnError);
     }
 
     // --- テーブル値関数（リスト取得） ---
@@ -121,7 +373,7 @@ public class DbProgramExecutor {
      *
      * @param <T> 結果の型
      * @param param パラメータオブジェクト
-     * @param resultType 結果クラス（BeanPropertyRowMapperで自動マッピング）
+     * @param resultType 結果クラス（{@link IndexedRowMapper}で自動マッピング）
      * @return 結果リスト
      */
     public <T> List<T> query(DbProgram param, Class<T> resultType) {
@@ -138,7 +390,7 @@ public class DbProgramExecutor {
      * @return 結果リスト
      */
     public <T> List<T> query(DbProgram param, Class<T> resultType, String orderBy) {
-        return query(param, new BeanPropertyRowMapper<>(resultType), orderBy);
+        return queryTableFunction(param, orderBy, IndexedRowMapperFactory.forType(resultType));
     }
 
     /**
@@ -163,10 +415,96 @@ public class DbProgramExecutor {
      * @return 結果リスト
      */
     public <T> List<T> query(DbProgram param, RowMapper<T> rowMapper, String orderBy) {
-        var annotation = requireDbProgramName(param);
-        var sql = DbProgramHelper.createTableFunctionQuery(annotation, param, orderBy);
-        var args = DbProgramHelper.buildParameterArray(param);
-        return jdbcTemplate.query(sql, rowMapper, args);
+        return queryTableFunction(param, orderBy, rowMapper);
+    }
+
+    // --- テーブル値関数（ストリーミング） ---
+
+    /**
+     * テーブル値関数を実行し、結果をストリームとして取得します。
+     *
+     * <p>結果は1行ずつ読み込まれるため、大量の行を一定のメモリで処理できます。
+     * 接続はストリームを閉じるまで保持されるため、必ずtry-with-resourcesで閉じてください。
+     * フェッチサイズは{@link io.storedmapper.annotation.DbProgramStatement}の値、未指定の場合は
+     * {@link DbProgramMapperOptions#getStreamFetchSize()}を使用します。</p>
+     *
+     * <pre>{@code
+     * try (Stream<TaskDto> tasks = executor.queryForStream(param, TaskDto.class)) {
+     *     tasks.forEach(writer::write);
+     * }
+     * }</pre>
+     *
+     * @param <T> 結果の型
+     * @param param パラメータオブジェクト
+     * @param resultType 結果クラス
+     * @return 結果ストリーム（閉じる必要があります）
+     */
+    public <T> Stream<T> queryForStream(DbProgram param, Class<T> resultType) {
+        return queryForStream(param, IndexedRowMapperFactory.forType(resultType));
+    }
+
+    /**
+     * テーブル値関数を実行し、カスタムRowMapperで結果をストリームとして取得します。
+     *
+     * @param <T> 結果の型
+     * @param param パラメータオブジェクト
+     * @param rowMapper カスタムRowMapper
+     * @return 結果ストリーム（閉じる必要があります）
+     */
+    public <T> Stream<T> queryForStream(DbProgram param, RowMapper<T> rowMapper) {
+        return queryForStream(param, rowMapper, streamFetchSize(param));
+    }
+
+    /**
+     * テーブル値関数を実行し、指定したフェッチサイズで結果をストリームとして取得します。
+     *
+     * @param <T> 結果の型
+     * @param param パラメータオブジェクト
+     * @param rowMapper カスタムRowMapper
+     * @param fetchSize フェッチサイズ（方言によっては無視されます）
+     * @return 結果ストリーム（閉じる必要があります）
+     */
+    public <T> Stream<T> queryForStream(DbProgram param, RowMapper<T> rowMapper, int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("fetchSize must be positive.");
+        }
+        var descriptor = requireDescriptor(param);
+        var annotation = descriptor.getProgramName();
+        var sql = DbProgramHelper.createTableFunctionQuery(annotation, param, null);
+        return readStream(descriptor, template -> StreamingQuery.open(template, DbProgramMapperOptions.getDialect(), sql,
+                ps -> {
+                    configure(ps, template, descriptor, false);
+                    descriptor.bindInputs(ps, param);
+                }, perExecution(rowMapper), fetchSize));
+    }
+
+    /**
+     * テーブル値関数を実行し、結果を1行ずつコールバックに渡します。
+     *
+     * <p>コールバックの終了後（例外発生時を含む）に接続は解放されます。</p>
+     *
+     * @param <T> 結果の型
+     * @param param パラメータオブジェクト
+     * @param rowMapper カスタムRowMapper
+     * @param action 各行を処理するコールバック
+     */
+    public <T> void queryEach(DbProgram param, RowMapper<T> rowMapper, Consumer<? super T> action) {
+        queryEach(param, rowMapper, action, streamFetchSize(param));
+    }
+
+    /**
+     * テーブル値関数を実行し、指定したフェッチサイズで結果を1行ずつコールバックに渡します。
+     *
+     * @param <T> 結果の型
+     * @param param パラメータオブジェクト
+     * @param rowMapper カスタムRowMapper
+     * @param action 各行を処理するコールバック
+     * @param fetchSize フェッチサイズ（方言によっては無視されます）
+     */
+    public <T> void queryEach(DbProgram param, RowMapper<T> rowMapper, Consumer<? super T> action, int fetchSize) {
+        try (var stream = queryForStream(param, rowMapper, fetchSize)) {
+            stream.forEach(action);
+        }
     }
 
     // --- テーブル値関数（先頭1件） ---
@@ -175,13 +513,29 @@ public class DbProgramExecutor {
      * テーブル値関数を実行し、先頭1件を取得します。
      * 結果がない場合は{@code null}を返します。
      *
+     * <p>SQL文は方言により1行に制限され（{@code TOP (1)}、{@code LIMIT 1}）、
+     * ステートメントの最大行数とフェッチサイズも1に設定されます。</p>
+     *
      * @param <T> 結果の型
      * @param param パラメータオブジェクト
      * @param resultType 結果クラス
      * @return 先頭1件（結果がない場合は{@code null}）
      */
     public <T> T queryFirstOrDefault(DbProgram param, Class<T> resultType) {
-        return queryFirstOrDefault(param, new BeanPropertyRowMapper<>(resultType));
+        return queryFirstOrDefault(param, resultType, null);
+    }
+
+    /**
+     * テーブル値関数を実行し、ORDER BY付きで先頭1件を取得します。
+     *
+     * @param <T> 結果の型
+     * @param param パラメータオブジェクト
+     * @param resultType 結果クラス
+     * @param orderBy ORDER BY句
+     * @return 先頭1件（結果がない場合は{@code null}）
+     */
+    public <T> T queryFirstOrDefault(DbProgram param, Class<T> resultType, String orderBy) {
+        return queryFirstOrDefault(param, IndexedRowMapperFactory.forType(resultType), orderBy);
     }
 
     /**
@@ -193,11 +547,68 @@ public class DbProgramExecutor {
      * @return 先頭1件（結果がない場合は{@code null}）
      */
     public <T> T queryFirstOrDefault(DbProgram param, RowMapper<T> rowMapper) {
-        var annotation = requireDbProgramName(param);
-        var sql = DbProgramHelper.createTableFunctionQuery(annotation, param, null);
-        var args = DbProgramHelper.buildParameterArray(param);
-        var results = jdbcTemplate.query(sql, rowMapper, args);
-        return results.isEmpty() ? null : results.getFirst();
+        return queryFirstOrDefault(param, rowMapper, null);
+    }
+
+    /**
+     * テーブル値関数を実行し、カスタムRowMapperとORDER BY付きで先頭1件を取得します。
+     *
+     * @param <T> 結果の型
+     * @param param パラメータオブジェクト
+     * @param rowMapper カスタムRowMapper
+     * @param orderBy ORDER BY句
+     * @return 先頭1件（結果がない場合は{@code null}）
+     */
+    public <T> T queryFirstOrDefault(DbProgram param, RowMapper<T> rowMapper, String orderBy) {
+        var descriptor = requireDescriptor(param);
+        return load(descriptor, SqlCache.Kind.TABLE_FUNCTION_FIRST_ROW, rowMapper, orderBy, param, () -> {
+            var sql = DbProgramHelper.createFirstRowQuery(descriptor.getProgramName(), param, orderBy);
+            var results = read(descriptor, template -> queryLimited(template, sql, descriptor, param, rowMapper, 1));
+            return results.isEmpty() ? null : results.getFirst();
+        });
+    }
+
+    // --- テーブル値関数（1件） ---
+
+    /**
+     * テーブル値関数を実行し、ちょうど1件の結果を取得します。
+     *
+     * <p>SQL文とステートメントは2行に制限されるため、結果が複数件の場合も
+     * 2行目を読み取った時点で失敗します。</p>
+     *
+     * @param <T> 結果の型
+     * @param param パラメータオブジェクト
+     * @param resultType 結果クラス
+     * @return 結果（NULL列の単純型の場合は{@code null}）
+     * @throws EmptyResultDataAccessException 結果がない場合
+     * @throws IncorrectResultSizeDataAccessException 結果が2件以上の場合
+     */
+    public <T> T querySingle(DbProgram param, Class<T> resultType) {
+        return querySingle(param, IndexedRowMapperFactory.forType(resultType));
+    }
+
+    /**
+     * テーブル値関数を実行し、カスタムRowMapperでちょうど1件の結果を取得します。
+     *
+     * @param <T> 結果の型
+     * @param param パラメータオブジェクト
+     * @param rowMapper カスタムRowMapper
+     * @return 結果
+     * @throws EmptyResultDataAccessException 結果がない場合
+     * @throws IncorrectResultSizeDataAccessException 結果が2件以上の場合
+     */
+    public <T> T querySingle(DbProgram param, RowMapper<T> rowMapper) {
+        var descriptor = requireDescriptor(param);
+        var sql = DbProgramHelper.createSingleRowQuery(descriptor.getProgramName(), param);
+        var results = retry(descriptor, param, true,
+                () -> read(descriptor, template -> queryLimited(template, sql, descriptor, param, rowMapper, 2)));
+        if (results.isEmpty()) {
+            throw new EmptyResultDataAccessException(1);
+        }
+        if (results.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1, results.size());
+        }
+        return results.getFirst();
     }
 
     // --- スカラー値関数 ---
@@ -211,80 +622,273 @@ public class DbProgramExecutor {
      * @return スカラー値
      */
     public <T> T executeScalar(DbProgram param, Class<T> resultType) {
-        var annotation = requireDbProgramName(param);
-        var sql = DbProgramHelper.createScalarFunctionQuery(annotation, param);
-        var args = DbProgramHelper.buildParameterArray(param);
-        return jdbcTemplate.queryForObject(sql, resultType, args);
+        var descriptor = requireDescriptor(param);
+        return load(descriptor, SqlCache.Kind.SCALAR_FUNCTION, resultType, null, param, () -> {
+            var sql = DbProgramHelper.createScalarFunctionQuery(descriptor.getProgramName(), param);
+            var results = read(descriptor, template -> template.query(sql, ps -> {
+                configure(ps, template, descriptor, true);
+                descriptor.bindInputs(ps, param);
+            }, new SingleColumnRowMapper<>(resultType)));
+            return DataAccessUtils.nullableSingleResult(results);
+        });
+    }
+
+    // --- キーの一括読み込み ---
+
+    /**
+     * キーをまとめてテーブル値関数を実行する{@link BatchLoader}を作成します。
+     *
+     * <p>キーは{@link BatchLoader#dispatch()}または{@link BatchLoader#close()}の呼び出し時、
+     * またはバッチサイズに達した時点で実行されます。</p>
+     *
+     * @param <K> キーの型
+     * @param <T> 結果の型
+     * @param paramFactory パラメータオブジェクトの生成処理（キー以外のパラメータを設定できます）
+     * @param resultType 結果クラス
+     * @param keyOf 結果の行からキーを取り出す関数
+     * @return ローダー
+     */
+    public <K, T> BatchLoader<K, T> batchLoader(Supplier<? extends DbProgram> paramFactory, Class<T> resultType,
+                                                Function<? super T, ? extends K> keyOf) {
+        return batchLoader(paramFactory, resultType, keyOf, Duration.ZERO);
+    }
+
+    /**
+     * 最初のキーの登録から指定した時間内に登録されたキーをまとめて実行する{@link BatchLoader}を作成します。
+     *
+     * @param <K> キーの型
+     * @param <T> 結果の型
+     * @param paramFactory パラメータオブジェクトの生成処理
+     * @param resultType 結果クラス
+     * @param keyOf 結果の行からキーを取り出す関数
+     * @param window キーをまとめる時間（{@link Duration#ZERO}の場合は明示的な実行のみ）
+     * @return ローダー
+     */
+    public <K, T> BatchLoader<K, T> batchLoader(Supplier<? extends DbProgram> paramFactory, Class<T> resultType,
+                                                Function<? super T, ? extends K> keyOf, Duration window) {
+        return batchLoader(paramFactory, IndexedRowMapperFactory.forType(resultType), keyOf, window);
+    }
+
+    /**
+     * カスタムRowMapperで結果を読み取る{@link BatchLoader}を作成します。
+     *
+     * @param <K> キーの型
+     * @param <T> 結果の型
+     * @param paramFactory パラメータオブジェクトの生成処理
+     * @param rowMapper カスタムRowMapper
+     * @param keyOf 結果の行からキーを取り出す関数
+     * @param window キーをまとめる時間（{@link Duration#ZERO}の場合は明示的な実行のみ）
+     * @return ローダー
+     */
+    public <K, T> BatchLoader<K, T> batchLoader(Supplier<? extends DbProgram> paramFactory, RowMapper<T> rowMapper,
+                                                Function<? super T, ? extends K> keyOf, Duration window) {
+        // 待機時間・バッチサイズで実行されるバッチは非同期実行と同じ同時実行数の上限に従う
+        var dataSource = jdbcTemplate.getDataSource();
+        var permits = dataSource != null
+                ? ConnectionLimits.of(dataSource, DbProgramMapperOptions.getAsyncMaxConcurrency()) : null;
+        return new BatchLoader<>(this, paramFactory, rowMapper, keyOf, window,
+                DbProgramMapperOptions.getBatchLoaderMaxKeys(), permits);
     }
 
     // --- private methods ---
 
-    private DbProgramName requireDbProgramName(DbProgram param) {
-        var annotation = DbProgramHelper.getDbProgramNameAnnotation(param);
-        if (annotation == null) {
-            throw new IllegalArgumentException(
-                    "DbProgramName annotation is not set on " + param.getClass().getName()
-                            + ". Please add @DbProgramName to the class.");
-        }
-        return annotation;
+    private <T> T load(ProgramDescriptor descriptor, SqlCache.Kind kind, Object mapping, String orderBy,
+                       DbProgram param, Supplier<T> loader) {
+        // 結果クラスごとのRowMapperは1つのため結果クラスで識別し、キャッシュで読み込み前に検証できるようにする
+        var key = mapping instanceof IndexedRowMapper<?> indexed ? indexed.getResultType() : mapping;
+        // キャッシュにない場合のみ、実行中の同一の呼び出しと結果を共有する
+        return ResultCache.get(descriptor, kind, key, orderBy, param,
+                () -> InFlightCalls.get(descriptor, kind, key, orderBy, param, DbProgramExecutor::remainingNanos,
+                        () -> retry(descriptor, param, true, loader)));
     }
 
-    private List<SqlParameter> buildSqlParameters(DbProgram param) {
-        var sqlParams = new ArrayList<SqlParameter>();
-        var fields = DbProgramHelper.getAllOrderedFields(param);
+    private static <T> T retry(ProgramDescriptor descriptor, DbProgram param, boolean function, Supplier<T> call) {
+        // 再実行前の待機は期限の残り時間を超えない
+        return ProgramRetry.execute(descriptor, param, function, DbProgramExecutor::remainingNanos, call);
+    }
 
-        for (var field : fields) {
-            var paramName = DbProgramHelper.getParameterName(field);
-            var prop = field.getAnnotation(DbParameterProperty.class);
+    private static long remainingNanos() {
+        var deadline = Deadline.current();
+        return deadline != null ? deadline.remaining().toNanos() : Long.MAX_VALUE;
+    }
 
-            int sqlType = determineSqlType(field, prop);
-            var direction = prop != null ? prop.direction() : io.storedmapper.ParameterDirection.INPUT;
+    private <T> T read(ProgramDescriptor descriptor, Function<JdbcTemplate, T> call) {
+        // トランザクション内の読み取りは、同じトランザクションの更新が見えるプライマリで実行する
+        if (!isReplicaRead(descriptor)) {
+            return call.apply(jdbcTemplate);
+        }
+        return readReplicas.read(jdbcTemplate, call);
+    }
 
-            switch (direction) {
-                case OUTPUT -> sqlParams.add(new SqlOutParameter(paramName, sqlType));
-                case INPUT_OUTPUT -> sqlParams.add(new SqlInOutParameter(paramName, sqlType));
-                default -> sqlParams.add(new SqlParameter(paramName, sqlType));
-            }
+    private <T> Stream<T> readStream(ProgramDescriptor descriptor, Function<JdbcTemplate, Stream<T>> open) {
+        if (!isReplicaRead(descriptor)) {
+            return open.apply(jdbcTemplate);
         }
+        return readReplicas.readStream(jdbcTemplate, open);
+    }
 
-        return sqlParams;
+    private boolean isReplicaRead(ProgramDescriptor descriptor) {
+        if (readReplicas == null || !descriptor.getProgramName().readOnly()
+                || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return false;
+        }
+        if (descriptor.getCacheable() == null) {
+            return true;
+        }
+        // 削除後の再読み込みで遅延したレプリカの古い結果をキャッシュしないよう、
+        // 削除から反映されるまでの間はプライマリで読み取る
+        var bound = readReplicas.replicationBound();
+        if (bound == null) {
+            // 遅延の上限がない場合は古い結果をキャッシュしないことを保証できないため、常にプライマリで読み取る
+            readReplicas.recordFallback();
+            return false;
+        }
+        return !ResultCache.isInvalidatedWithin(descriptor.getProgramType(), bound);
     }
 
-    private Map<String, Object> buildInputParameterMap(DbProgram param) {
-        var map = new java.util.HashMap<String, Object>();
-        var fields = DbProgramHelper.getAllOrderedFields(param);
+    private static void configure(Statement stmt, JdbcTemplate template, ProgramDescriptor descriptor,
+                                  boolean fetchSize) throws SQLException {
+        // JdbcTemplateの設定より後に適用し、プログラムの設定と期限の残り時間で上書きする
+        if (fetchSize) {
+            StatementSettings.apply(stmt, descriptor, template.getDataSource());
+        } else {
+            StatementSettings.applyLimits(stmt, descriptor, template.getDataSource());
+        }
+        Deadline.enforce(stmt);
+        // レプリカのJdbcTemplateで作成したステートメントも非同期実行のキャンセル対象にする
+        StatementCancellation.register(stmt);
+    }
 
-        for (var field : fields) {
-            var prop = field.getAnnotation(DbParameterProperty.class);
-            var direction = prop != null ? prop.direction() : io.storedmapper.ParameterDirection.INPUT;
+    private int streamFetchSize(DbProgram param) {
+        var fetchSize = StatementSettings.fetchSizeFor(requireDescriptor(param));
+        return fetchSize > 0 ? fetchSize : DbProgramMapperOptions.getStreamFetchSize();
+    }
+
+    private <T> List<T> queryTableFunction(DbProgram param, String orderBy, RowMapper<T> rowMapper) {
+        var descriptor = requireDescriptor(param);
+        return load(descriptor, SqlCache.Kind.TABLE_FUNCTION, rowMapper, orderBy, param, () -> {
+            var sql = DbProgramHelper.createTableFunctionQuery(descriptor.getProgramName(), param, orderBy);
+            var results = read(descriptor, template -> template.query(sql, ps -> {
+                configure(ps, template, descriptor, true);
+                descriptor.bindInputs(ps, param);
+            }, perExecution(rowMapper)));
+            StatementSettings.recordRowCount(descriptor, results.size());
+            return results;
+        });
+    }
+
+    private static <T> List<T> queryLimited(JdbcTemplate template, String sql, ProgramDescriptor descriptor,
+                                            DbProgram param, RowMapper<T> rowMapper, int maxRows) {
+        // JdbcTemplateのステートメント設定より後に適用されるため、グローバル設定に関係なく行数を制限できる
+        return template.query(sql, ps -> {
+            configure(ps, template, descriptor, false);
+            ps.setMaxRows(maxRows);
+            ps.setFetchSize(maxRows);
+            descriptor.bindInputs(ps, param);
+        }, new RowMapperResultSetExtractor<>(perExecution(rowMapper), maxRows));
+    }
+
+    /**
+     * {@link IndexedRowMapper}の場合は、列構成の解決を1回の実行で共有するRowMapperに置き換えます。
+     */
+    static <T> RowMapper<T> perExecution(RowMapper<T> rowMapper) {
+        return rowMapper instanceof IndexedRowMapper<T> indexed ? indexed.forExecution() : rowMapper;
+    }
 
-            if (direction != ParameterDirection.OUTPUT) {
-                var paramName = DbProgramHelper.getParameterName(field);
-                field.setAccessible(true);
-                try {
-                    map.put(paramName, field.get(param));
-                } catch (IllegalAccessException e) {
-                    // skip
+    private BatchCallResult callEach(List<? extends DbProgram> params, boolean stopOnError) {
+        if (params.isEmpty()) {
+            return new BatchCallResult(List.of(), 0, false);
+        }
+        return jdbcTemplate.execute((ConnectionCallback<BatchCallResult>) con -> {
+            // プログラムクラスごとにステートメントを1つだけ準備する
+            var statements = new HashMap<Class<?>, PreparedCall>();
+            var results = new ArrayList<ExecuteResult>(params.size());
+            int errorCount = 0;
+            boolean stopped = false;
+            try {
+                for (var param : params) {
+                    Objects.requireNonNull(param, "params must not contain null");
+                    var prepared = statements.get(param.getClass());
+                    if (prepared == null) {
+                        var call = ProgramCall.of(param, requireDescriptor(param));
+                        var cs = con.prepareCall(call.getSql());
+                        prepared = new PreparedCall(call, cs);
+                        statements.put(param.getClass(), prepared);
+                        DataSourceUtils.applyTimeout(cs, jdbcTemplate.getDataSource(), jdbcTemplate.getQueryTimeout());
+                        StatementSettings.apply(cs, call.getDescriptor(), jdbcTemplate.getDataSource());
+                    }
+                    Deadline.enforce(prepared.statement());
+                    StatementCancellation.register(prepared.statement());
+                    prepared.statement().clearParameters();
+                    prepared.call().bind(prepared.statement(), param);
+                    var result = prepared.call().execute(prepared.statement(), param);
+                    results.add(result);
+                    invalidateCaches(prepared.call().getDescriptor(), param, result);
+                    if (result.hasError() || (param instanceof DbProgramWithErrorBase withError && withError.hasSqlError())) {
+                        errorCount++;
+                        if (stopOnError) {
+                            stopped = results.size() < params.size();
+                            break;
+                        }
+                    }
+                }
+            } finally {
+                for (var prepared : statements.values()) {
+                    JdbcUtils.closeStatement(prepared.statement());
                 }
             }
+            return new BatchCallResult(results, errorCount, stopped);
+        });
+    }
+
+    private record PreparedCall(ProgramCall call, CallableStatement statement) {
+    }
+
+    /**
+     * 正常に実行されたプロシージャの{@code @DbProgramInvalidates}に従ってキャッシュを削除します。
+     *
+     * <p>トランザクション内の場合は、コミット前に別のスレッドが古い結果を再びキャッシュする可能性があるため、
+     * トランザクションの終了後にも削除します。</p>
+     */
+    private static void invalidateCaches(ProgramDescriptor descriptor, DbProgram param, ExecuteResult result) {
+        if ((result != null && result.hasError())
+                || (param instanceof DbProgramWithErrorBase withError && withError.hasSqlError())) {
+            return;
+        }
+        var invalidation = ResultCache.invalidationFor(descriptor, param);
+        if (invalidation == null) {
+            return;
+        }
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidation.run();
+                }
+            });
         }
+    }
 
-        return map;
+    /**
+     * パラメータのインデックスをクラスごとに出現順でまとめます。
+     */
+    private static Map<Class<?>, List<Integer>> groupByProgramType(List<? extends DbProgram> params) {
+        var groups = new LinkedHashMap<Class<?>, List<Integer>>();
+        for (int i = 0; i < params.size(); i++) {
+            var param = Objects.requireNonNull(params.get(i), "params must not contain null");
+            groups.computeIfAbsent(param.getClass(), k -> new ArrayList<>()).add(i);
+        }
+        return groups;
     }
 
-    private int determineSqlType(Field field, DbParameterProperty prop) {
-        if (prop != null && prop.sqlType() != Integer.MIN_VALUE) {
-            return prop.sqlType();
+    private ProgramDescriptor requireDescriptor(DbProgram param) {
+        var descriptor = ProgramDescriptor.of(param);
+        if (descriptor.getProgramName() == null) {
+            throw new IllegalArgumentException(
+                    "DbProgramName annotation is not set on " + param.getClass().getName()
+                            + ". Please add @DbProgramName to the class.");
         }
-        // フィールド型からの推定
-        var type = field.getType();
-        if (type == String.class) return Types.VARCHAR;
-        if (type == Integer.class || type == int.class) return Types.INTEGER;
-        if (type == Long.class || type == long.class) return Types.BIGINT;
-        if (type == Boolean.class || type == boolean.class) return Types.BOOLEAN;
-        if (type == java.util.UUID.class) return Types.OTHER;
-        if (type == java.sql.Timestamp.class || type == java.time.LocalDateTime.class) return Types.TIMESTAMP;
-        if (type == java.sql.Date.class || type == java.time.LocalDate.class) return Types.DATE;
-        return Types.OTHER;
+        return descriptor;
     }
 }
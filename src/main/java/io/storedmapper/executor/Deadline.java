@@ -0,0 +1,278 @@
+package io.storedmapper.executor;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 現在のスレッドの呼び出しに適用する期限。
+ *
+ * <p>期限の範囲内で{@link DbProgramExecutor}が作成するステートメントには、残り時間（秒単位に切り上げ）が
+ * クエリタイムアウトとして設定されます（既存のタイムアウトの方が短い場合はそのまま）。
+ * さらに実行中のステートメントは監視され、期限を過ぎた場合、または期限を設定したスレッドが
+ * 割り込まれた場合は{@link Statement#cancel()}で中断されます。
+ * 期限を過ぎてから実行しようとしたステートメントは、実行せずに{@link QueryTimeoutException}をスローします。</p>
+ *
+ * <pre>{@code
+ * // リクエスト全体に期限を設定（サーブレットフィルターなど）
+ * try (var deadline = Deadline.start(Duration.ofSeconds(5))) {
+ *     chain.doFilter(request, response);
+ * }
+ *
+ * // 呼び出し単位で期限を設定
+ * List<TaskDto> tasks = Deadline.within(Duration.ofMillis(500), () -> executor.query(param, TaskDto.class));
+ * }</pre>
+ *
+ * <p>期限は入れ子にでき、内側の期限は外側の期限より後になりません。
+ * {@link AsyncDbProgramExecutor}で実行した呼び出しは、呼び出し元の期限を引き継ぎます。
+ * 期限は開始したスレッドで閉じる必要があります。</p>
+ *
+ * @since 1.1.0
+ */
+public final class Deadline implements AutoCloseable {
+
+    /** 実行中のステートメントを確認する間隔（ミリ秒） */
+    static final long WATCH_INTERVAL_MILLIS = 50;
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private static final Set<Deadline> ACTIVE = ConcurrentHashMap.newKeySet();
+
+    private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(task -> {
+        var thread = new Thread(task, "stored-mapper-deadline-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        WATCHDOG.scheduleWithFixedDelay(Deadline::watch, WATCH_INTERVAL_MILLIS, WATCH_INTERVAL_MILLIS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    private final long deadlineNanos;
+    private final Thread owner;
+    private final Deadline previous;
+    private Statement statement;
+    private boolean closed;
+
+    private Deadline(long deadlineNanos, Deadline previous) {
+        this.deadlineNanos = deadlineNanos;
+        this.owner = Thread.currentThread();
+        this.previous = previous;
+    }
+
+    /**
+     * 現在のスレッドに期限を設定します。
+     *
+     * @param timeout 現在からの時間
+     * @return 閉じると元の期限に戻る期限
+     */
+    public static Deadline start(Duration timeout) {
+        Objects.requireNonNull(timeout, "timeout must not be null");
+        if (timeout.isNegative()) {
+            throw new IllegalArgumentException("timeout must not be negative.");
+        }
+        return open(System.nanoTime() + saturatedNanos(timeout));
+    }
+
+    /**
+     * 期限を設定して処理を実行します。
+     *
+     * <p>期限を過ぎたことによりデータアクセス例外が発生した場合は、{@link QueryTimeoutException}をスローします。</p>
+     *
+     * @param <T> 戻り値の型
+     * @param timeout 現在からの時間
+     * @param action 実行する処理
+     * @return 処理の戻り値
+     * @throws QueryTimeoutException 期限を過ぎた場合
+     */
+    public static <T> T within(Duration timeout, Supplier<T> action) {
+        var deadline = start(timeout);
+        try {
+            return action.get();
+        } catch (DataAccessException e) {
+            if (deadline.isExpired() && !(e instanceof QueryTimeoutException)) {
+                throw new QueryTimeoutException("Deadline of " + timeout + " exceeded.", e);
+            }
+            throw e;
+        } finally {
+            deadline.close();
+        }
+    }
+
+    /**
+     * 期限を設定して処理を実行します。
+     *
+     * @param timeout 現在からの時間
+     * @param action 実行する処理
+     * @throws QueryTimeoutException 期限を過ぎた場合
+     */
+    public static void within(Duration timeout, Runnable action) {
+        within(timeout, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * 現在のスレッドの期限を返します。
+     *
+     * @return 期限（設定されていない場合は{@code null}）
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 期限までの残り時間を返します。
+     *
+     * @return 残り時間（期限を過ぎた場合は{@link Duration#ZERO}）
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, remainingNanos()));
+    }
+
+    /**
+     * 期限を過ぎたかどうかを返します。
+     *
+     * @return 期限を過ぎた場合は{@code true}
+     */
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    /**
+     * 期限を解除し、外側の期限に戻します。
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            statement = null;
+        }
+        ACTIVE.remove(this);
+        if (CURRENT.get() == this) {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    // --- package-private ---
+
+    /**
+     * 別スレッドの期限を現在のスレッドに引き継ぎます。
+     *
+     * @param source 引き継ぐ期限
+     * @return 閉じる必要がある期限
+     */
+    static Deadline inherit(Deadline source) {
+        return open(source.deadlineNanos);
+    }
+
+    /**
+     * 2つの期限のうち遅い方を返します。
+     *
+     * @param a 期限（期限なしの場合は{@code null}）
+     * @param b 期限（期限なしの場合は{@code null}）
+     * @return 遅い方の期限（いずれかが期限なしの場合は{@code null}）
+     */
+    static Deadline later(Deadline a, Deadline b) {
+        if (a == null || b == null) {
+            return null;
+        }
+        return a.deadlineNanos - b.deadlineNanos < 0 ? b : a;
+    }
+
+    /**
+     * 現在のスレッドの期限をステートメントに適用し、監視対象として登録します。
+     *
+     * @param stmt 実行前のステートメント
+     * @throws QueryTimeoutException 期限を過ぎている場合
+     * @throws SQLException タイムアウトの設定に失敗した場合
+     */
+    static void enforce(Statement stmt) throws SQLException {
+        var deadline = CURRENT.get();
+        if (deadline == null) {
+            return;
+        }
+        var remaining = deadline.remainingNanos();
+        if (remaining <= 0) {
+            throw new QueryTimeoutException("Deadline exceeded before executing the statement.");
+        }
+        // クエリタイムアウトは秒単位のため切り上げ、ミリ秒単位の期限は監視スレッドで補う
+        var seconds = (int) Math.min(Integer.MAX_VALUE, (remaining + 999_999_999L) / 1_000_000_000L);
+        var current = stmt.getQueryTimeout();
+        if (current <= 0 || seconds < current) {
+            stmt.setQueryTimeout(seconds);
+        }
+        synchronized (deadline) {
+            if (!deadline.closed) {
+                deadline.statement = stmt;
+            }
+        }
+    }
+
+    // --- private methods ---
+
+    private static Deadline open(long deadlineNanos) {
+        var previous = CURRENT.get();
+        if (previous != null && previous.deadlineNanos - deadlineNanos < 0) {
+            deadlineNanos = previous.deadlineNanos;
+        }
+        var deadline = new Deadline(deadlineNanos, previous);
+        CURRENT.set(deadline);
+        ACTIVE.add(deadline);
+        return deadline;
+    }
+
+    private long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    private static void watch() {
+        for (var deadline : ACTIVE) {
+            if (deadline.isExpired() || deadline.owner.isInterrupted()) {
+                deadline.cancelStatement();
+            }
+        }
+    }
+
+    private void cancelStatement() {
+        Statement target;
+        synchronized (this) {
+            target = statement;
+            statement = null;
+        }
+        if (target != null) {
+            try {
+                target.cancel();
+            } catch (SQLException ignored) {
+                // 実行が終了して閉じられたステートメントはキャンセルできない
+            }
+        }
+    }
+
+    private static long saturatedNanos(Duration timeout) {
+        try {
+            return timeout.toNanos();
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE / 2;
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package io.storedmapper.executor;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 列インデックスで値を読み取るRowMapper。
+ *
+ * <p>レコードはカノニカルコンストラクタ、POJOは引数なしコンストラクタとセッターで生成します。
+ * 列とコンポーネント/プロパティの対応は{@code BeanPropertyRowMapper}と同じ規則
+ * （大文字小文字の無視、スネークケースの変換）で、列構成ごとに一度だけ解決されます。
+ * 値は型付きの{@link ResultSet}ゲッターで読み取り、型が一致しない値（列挙型の文字列など）のみ
+ * {@code ConversionService}で変換します。{@code BeanWrapper}は使用しません。
+ * {@code Integer}や{@code String}などの単純型は先頭列を読み取ります。</p>
+ *
+ * <p>インスタンスはスレッドセーフで、{@link IndexedRowMapperFactory#forType(Class)}により
+ * 結果クラスごとに共有されます。共有インスタンスの{@link #mapRow(ResultSet, int)}は行ごとに
+ * 列構成から解決済みの組み立て方法を引きます。1つの結果セットを読み取る間は
+ * {@link #forExecution()}のRowMapperを使用すると、列構成の確認も最初の行の1回だけになります
+ * （{@code DbProgramExecutor}は実行ごとにこちらを使用します）。</p>
+ *
+ * @param <T> 結果の型
+ * @since 1.1.0
+ */
+public final class IndexedRowMapper<T> implements RowMapper<T> {
+
+    /** 結果クラスごとに保持する列構成の上限 */
+    private static final int MAX_PLANS = 64;
+
+    private final Class<T> resultType;
+    private final Target<T> target;
+    private final Map<List<String>, Plan<T>> plans = new ConcurrentHashMap<>();
+
+    IndexedRowMapper(Class<T> resultType) {
+        this.resultType = resultType;
+        if (BeanUtils.isSimpleValueType(resultType)) {
+            this.target = new ScalarTarget<>(resultType);
+        } else if (resultType.isRecord()) {
+            this.target = new RecordTarget<>(resultType);
+        } else {
+            this.target = new BeanTarget<>(resultType);
+        }
+    }
+
+    public Class<T> getResultType() {
+        return resultType;
+    }
+
+    @Override
+    public T mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return map(plan(rs.getMetaData()), rs);
+    }
+
+    /**
+     * 1回の実行専用のRowMapperを返します。
+     *
+     * <p>返されたRowMapperは結果セットが変わったときだけ列構成を確認するため、
+     * 同じ結果セットの2行目以降はメタデータを参照しません。スレッドセーフではないため、
+     * 1つのクエリの実行中のみ使用してください。</p>
+     *
+     * @return 1回の実行専用のRowMapper
+     */
+    public RowMapper<T> forExecution() {
+        return new RowMapper<>() {
+            private ResultSet resultSet;
+            private Plan<T> plan;
+
+            @Override
+            public T mapRow(ResultSet rs, int rowNum) throws SQLException {
+                if (rs != resultSet) {
+                    plan = plan(rs.getMetaData());
+                    resultSet = rs;
+                }
+                return map(plan, rs);
+            }
+        };
+    }
+
+    private T map(Plan<T> plan, ResultSet rs) throws SQLException {
+        try {
+            return plan.mapRow(rs);
+        } catch (SQLException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new DataRetrievalFailureException("Failed to map row to " + resultType.getName(), e);
+        }
+    }
+
+    private Plan<T> plan(ResultSetMetaData metaData) throws SQLException {
+        var labels = new String[metaData.getColumnCount()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = normalize(JdbcUtils.lookupColumnName(metaData, i + 1));
+        }
+        var shape = Arrays.asList(labels);
+        var plan = plans.get(shape);
+        if (plan == null) {
+            plan = target.plan(labels);
+            if (plans.size() < MAX_PLANS) {
+                plans.putIfAbsent(shape, plan);
+            }
+        }
+        return plan;
+    }
+
+    private static String normalize(String name) {
+        return name.replace(" ", "").toLowerCase(Locale.US);
+    }
+
+    private static String underscoreName(String name) {
+        var sb = new StringBuilder();
+        for (int i = 0; i < name.length(); i++) {
+            var c = name.charAt(i);
+            if (Character.isUpperCase(c)) {
+                sb.append('_').append(Character.toLowerCase(c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static MethodHandles.Lookup lookup(Class<?> type) {
+        try {
+            return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot access result type " + type.getName(), e);
+        }
+    }
+
+    private static int indexOf(String[] labels, String name) {
+        var normalized = normalize(name);
+        var underscored = normalize(underscoreName(name));
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i].equals(normalized) || labels[i].equals(underscored)) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 列構成に対する行の組み立て方法。
+     */
+    private interface Plan<T> {
+        T mapRow(ResultSet rs) throws Throwable;
+    }
+
+    /**
+     * 結果クラスの生成方法。列構成ごとに{@link Plan}を作成します。
+     */
+    private interface Target<T> {
+        Plan<T> plan(String[] labels);
+    }
+
+    /**
+     * 単純型: 先頭列を読み取ります。
+     */
+    private static final class ScalarTarget<T> implements Target<T> {
+        private final Class<T> type;
+        private final ColumnReader reader;
+
+        ScalarTarget(Class<T> type) {
+            this.type = type;
+            this.reader = ColumnReader.forType(type);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Plan<T> plan(String[] labels) {
+            return rs -> (T) reader.read(rs, 1, type);
+        }
+    }
+
+    /**
+     * レコード: カノニカルコンストラクタの引数をコンポーネント順に読み取ります。
+     */
+    private static final class RecordTarget<T> implements Target<T> {
+        private final String[] names;
+        private final Class<?>[] types;
+        private final ColumnReader[] readers;
+        private final Object[] defaults;
+        private final MethodHandle constructor;
+
+        RecordTarget(Class<T> type) {
+            var components = type.getRecordComponents();
+            this.names = new String[components.length];
+            this.types = new Class<?>[components.length];
+            this.readers = new ColumnReader[components.length];
+            this.defaults = new Object[components.length];
+            for (int i = 0; i < components.length; i++) {
+                names[i] = components[i].getName();
+                types[i] = components[i].getType();
+                readers[i] = ColumnReader.forType(types[i]);
+                // プリミティブ型のコンポーネントはNULL・列なしの場合にデフォルト値を使用する
+                defaults[i] = types[i].isPrimitive() ? Array.get(Array.newInstance(types[i], 1), 0) : null;
+            }
+            try {
+                var handle = lookup(type).findConstructor(type, MethodType.methodType(void.class, types));
+                this.constructor = handle.asSpreader(Object[].class, components.length)
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new IllegalArgumentException("Cannot access canonical constructor of " + type.getName(), e);
+            }
+        }
+
+        @Override
+        public Plan<T> plan(String[] labels) {
+            var columns = new int[names.length];
+            for (int i = 0; i < names.length; i++) {
+                columns[i] = indexOf(labels, names[i]);
+            }
+            return rs -> {
+                var args = new Object[columns.length];
+                for (int i = 0; i < columns.length; i++) {
+                    var value = columns[i] == 0 ? null : readers[i].read(rs, columns[i], types[i]);
+                    args[i] = value != null ? value : defaults[i];
+                }
+                @SuppressWarnings("unchecked")
+                var instance = (T) (Object) constructor.invokeExact(args);
+                return instance;
+            };
+        }
+    }
+
+    /**
+     * POJO: 引数なしコンストラクタで生成し、列ごとにセッターを呼び出します。
+     */
+    private static final class BeanTarget<T> implements Target<T> {
+        private final MethodHandle constructor;
+        private final Map<String, Property> properties = new HashMap<>();
+
+        BeanTarget(Class<T> type) {
+            var lookup = lookup(type);
+            try {
+                this.constructor = lookup.findConstructor(type, MethodType.methodType(void.class))
+                        .asType(MethodType.methodType(Object.class));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new IllegalArgumentException(
+                        type.getName() + " must have a no-argument constructor to be used as a result type.", e);
+            }
+            for (var pd : BeanUtils.getPropertyDescriptors(type)) {
+                var writeMethod = pd.getWriteMethod();
+                if (writeMethod == null) {
+                    continue;
+                }
+                MethodHandle setter;
+                try {
+                    setter = lookup.unreflect(writeMethod)
+                            .asType(MethodType.methodType(void.class, Object.class, Object.class));
+                } catch (IllegalAccessException e) {
+                    throw new IllegalArgumentException("Cannot access setter " + writeMethod, e);
+                }
+                var property = new Property(pd.getPropertyType(), ColumnReader.forType(pd.getPropertyType()), setter);
+                properties.put(normalize(pd.getName()), property);
+                properties.putIfAbsent(normalize(underscoreName(pd.getName())), property);
+            }
+        }
+
+        @Override
+        public Plan<T> plan(String[] labels) {
+            var columns = new Property[labels.length];
+            for (int i = 0; i < labels.length; i++) {
+                columns[i] = properties.get(labels[i]);
+            }
+            return rs -> {
+                @SuppressWarnings("unchecked")
+                var instance = (T) (Object) constructor.invokeExact();
+                for (int i = 0; i < columns.length; i++) {
+                    var property = columns[i];
+                    if (property == null) {
+                        continue;
+                    }
+                    var value = property.reader.read(rs, i + 1, property.type);
+                    if (value == null && property.type.isPrimitive()) {
+                        continue;
+                    }
+                    property.setter.invokeExact((Object) instance, value);
+                }
+                return instance;
+            };
+        }
+
+        private record Property(Class<?> type, ColumnReader reader, MethodHandle setter) {
+        }
+    }
+}
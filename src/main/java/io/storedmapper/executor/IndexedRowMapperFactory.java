@@ -0,0 +1,40 @@
+package io.storedmapper.executor;
+
+/**
+ * {@link IndexedRowMapper}のファクトリ。
+ *
+ * <p>RowMapperは結果クラスごとに一度だけ生成され、以降は同じインスタンスを返します。
+ * {@link DbProgramExecutor#query(io.storedmapper.DbProgram, Class)}などの
+ * 結果クラスを指定するメソッドは内部でこのファクトリを使用します。</p>
+ *
+ * <pre>{@code
+ * RowMapper<TaskDto> mapper = IndexedRowMapperFactory.forType(TaskDto.class);
+ * List<TaskDto> tasks = executor.query(param, mapper, "created_at DESC");
+ * }</pre>
+ *
+ * @since 1.1.0
+ */
+public final class IndexedRowMapperFactory {
+
+    private static final ClassValue<IndexedRowMapper<?>> MAPPERS = new ClassValue<>() {
+        @Override
+        protected IndexedRowMapper<?> computeValue(Class<?> type) {
+            return new IndexedRowMapper<>(type);
+        }
+    };
+
+    private IndexedRowMapperFactory() {
+    }
+
+    /**
+     * 結果クラスに対応するRowMapperを返します。
+     *
+     * @param <T> 結果の型
+     * @param resultType 結果クラス（レコード、POJO、または単純型）
+     * @return RowMapper
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> IndexedRowMapper<T> forType(Class<T> resultType) {
+        return (IndexedRowMapper<T>) MAPPERS.get(resultType);
+    }
+}
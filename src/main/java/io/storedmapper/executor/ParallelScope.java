@@ -0,0 +1,231 @@
+package io.storedmapper.executor;
+
+import io.storedmapper.DbProgram;
+import io.storedmapper.ExecuteResult;
+
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * 互いに独立したDBプログラムを並行して実行し、まとめて待機するスコープ。
+ *
+ * <p>{@link #fork(Function)}で開始した呼び出しはそれぞれ別の仮想スレッド・別の接続で実行されます。
+ * いずれかの呼び出しが失敗すると残りの呼び出しをキャンセルし、{@link #join()}は最初の失敗を送出します。
+ * スコープを閉じると、完了していない呼び出しはすべてキャンセルされます。</p>
+ *
+ * <pre>{@code
+ * try (var scope = asyncExecutor.parallel()) {
+ *     var tasks = scope.query(taskParam, TaskDto.class);
+ *     var count = scope.executeScalar(countParam, Integer.class);
+ *     scope.join();
+ *     return new PageDto(tasks.get(), count.get());
+ * }
+ * }</pre>
+ *
+ * <p>呼び出しは呼び出し元のスレッドで開始されたトランザクションには参加しません。</p>
+ *
+ * @since 1.1.0
+ * @see AsyncDbProgramExecutor#parallel()
+ */
+public final class ParallelScope implements AutoCloseable {
+
+    private final AsyncDbProgramExecutor executor;
+    private final List<CompletableFuture<?>> futures = new CopyOnWriteArrayList<>();
+    private final CompletableFuture<Void> failure = new CompletableFuture<>();
+    private boolean closed;
+
+    ParallelScope(AsyncDbProgramExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * {@link DbProgramExecutor}を使用する処理を開始します。
+     *
+     * @param <T> 結果の型
+     * @param action 実行する処理
+     * @return 呼び出し
+     */
+    public <T> Call<T> fork(Function<DbProgramExecutor, ? extends T> action) {
+        if (closed) {
+            throw new IllegalStateException("ParallelScope is already closed.");
+        }
+        CompletableFuture<T> future = executor.submit(action);
+        futures.add(future);
+        future.whenComplete((result, error) -> {
+            if (error != null && failure.completeExceptionally(unwrap(error))) {
+                cancelAll();
+            }
+        });
+        return new Call<>(future);
+    }
+
+    /**
+     * ストアドプロシージャの実行を開始します。
+     *
+     * @param param パラメータオブジェクト
+     * @return 呼び出し
+     */
+    public Call<ExecuteResult> execute(DbProgram param) {
+        return fork(executor -> executor.execute(param));
+    }
+
+    /**
+     * テーブル値関数の実行を開始します。
+     *
+     * @param <T> 結果の型
+     * @param param パラメータオブジェクト
+     * @param resultType 結果クラス
+     * @return 呼び出し
+     */
+    public <T> Call<List<T>> query(DbProgram param, Class<T> resultType) {
+        return fork(executor -> executor.query(param, resultType));
+    }
+
+    /**
+     * テーブル値関数の実行を開始し、最初の1件を取得します。
+     *
+     * @param <T> 結果の型
+     * @param param パラメータオブジェクト
+     * @param resultType 結果クラス
+     * @return 呼び出し
+     */
+    public <T> Call<T> queryFirstOrDefault(DbProgram param, Class<T> resultType) {
+        return fork(executor -> executor.queryFirstOrDefault(param, resultType));
+    }
+
+    /**
+     * スカラー値関数の実行を開始します。
+     *
+     * @param <T> 結果の型
+     * @param param パラメータオブジェクト
+     * @param resultType 結果クラス
+     * @return 呼び出し
+     */
+    public <T> Call<T> executeScalar(DbProgram param, Class<T> resultType) {
+        return fork(executor -> executor.executeScalar(param, resultType));
+    }
+
+    /**
+     * すべての呼び出しの完了、または最初の失敗まで待機します。
+     *
+     * @throws RuntimeException 最初に失敗した呼び出しの例外
+     */
+    public void join() {
+        join(null);
+    }
+
+    /**
+     * すべての呼び出しの完了、または最初の失敗まで、指定した時間を上限に待機します。
+     *
+     * @param timeout 待機時間の上限（{@code null}の場合は無制限）
+     * @throws QueryTimeoutException 時間内に完了しなかった場合（残りの呼び出しはキャンセルされます）
+     * @throws RuntimeException 最初に失敗した呼び出しの例外
+     */
+    public void join(Duration timeout) {
+        var all = CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+        var first = CompletableFuture.anyOf(all, failure);
+        try {
+            if (timeout == null) {
+                first.get();
+            } else {
+                first.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        } catch (TimeoutException e) {
+            cancelAll();
+            throw new QueryTimeoutException("Parallel calls did not complete within " + timeout, e);
+        } catch (InterruptedException e) {
+            cancelAll();
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for parallel calls.");
+        } catch (ExecutionException e) {
+            // 兄弟のキャンセルにより allOf 側が先に完了する場合があるため、最初の失敗を優先する
+            cancelAll();
+            throw rethrow(failure.isCompletedExceptionally() ? failure.exceptionNow() : e.getCause());
+        }
+    }
+
+    /**
+     * 完了していない呼び出しをキャンセルしてスコープを閉じます。
+     */
+    @Override
+    public void close() {
+        closed = true;
+        cancelAll();
+    }
+
+    private void cancelAll() {
+        for (var future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static RuntimeException rethrow(Throwable error) {
+        if (error instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (error instanceof Error e) {
+            throw e;
+        }
+        return new CompletionException(error);
+    }
+
+    /**
+     * スコープ内で開始した1件の呼び出し。
+     *
+     * @param <T> 結果の型
+     */
+    public static final class Call<T> {
+
+        private final CompletableFuture<T> future;
+
+        private Call(CompletableFuture<T> future) {
+            this.future = future;
+        }
+
+        /**
+         * 呼び出しの結果を返します。
+         *
+         * @return 結果
+         * @throws IllegalStateException 呼び出しが正常に完了していない場合
+         */
+        public T get() {
+            if (!future.isDone() || future.isCompletedExceptionally()) {
+                throw new IllegalStateException("Call has not completed successfully. Call join() first.");
+            }
+            return future.join();
+        }
+
+        /**
+         * 呼び出しが完了（成功・失敗・キャンセル）したかどうかを返します。
+         *
+         * @return 完了した場合は{@code true}
+         */
+        public boolean isDone() {
+            return future.isDone();
+        }
+
+        /**
+         * 呼び出しのFutureを返します。
+         *
+         * @return Future
+         */
+        public CompletableFuture<T> toFuture() {
+            return future;
+        }
+    }
+}
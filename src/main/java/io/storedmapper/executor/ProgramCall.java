@@ -0,0 +1,241 @@
+package io.storedmapper.executor;
+
+import io.storedmapper.DbProgram;
+import io.storedmapper.DbProgramMapperOptions;
+import io.storedmapper.ExecuteResult;
+import io.storedmapper.MultiResult;
+import io.storedmapper.internal.DbProgramHelper;
+import io.storedmapper.internal.ParameterSlot;
+import io.storedmapper.internal.ProgramDescriptor;
+
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.RowMapperResultSetExtractor;
+import org.springframework.jdbc.support.JdbcUtils;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link CallableStatement}によるストアドプロシージャ呼び出し。
+ *
+ * <p>パラメータは{@link ProgramDescriptor}の順序どおりにインデックスで登録し、
+ * OUTPUTパラメータとRETURN値はパラメータオブジェクトと{@link ExecuteResult}へ直接書き戻します。
+ * RETURN値は方言が{@link io.storedmapper.dialect.DbDialect#supportsReturnValue()}を
+ * サポートする場合のみ取得します。</p>
+ */
+final class ProgramCall {
+
+    private final ProgramDescriptor descriptor;
+    private final String sql;
+    private final boolean returnValue;
+    private final int refCursorSqlType;
+
+    private ProgramCall(ProgramDescriptor descriptor, String sql, boolean returnValue, int refCursorSqlType) {
+        this.descriptor = descriptor;
+        this.sql = sql;
+        this.returnValue = returnValue;
+        this.refCursorSqlType = refCursorSqlType;
+    }
+
+    /**
+     * 現在の方言設定でパラメータオブジェクトの呼び出しを構築します。
+     *
+     * @param param パラメータオブジェクト
+     * @param descriptor ディスクリプタ
+     * @return 呼び出し
+     */
+    static ProgramCall of(DbProgram param, ProgramDescriptor descriptor) {
+        var dialect = DbProgramMapperOptions.getDialect();
+        var sql = DbProgramHelper.createCallableStatementCall(descriptor.getProgramName(), param);
+        return new ProgramCall(descriptor, sql, dialect.supportsReturnValue(), dialect.getRefCursorSqlType());
+    }
+
+    String getSql() {
+        return sql;
+    }
+
+    ProgramDescriptor getDescriptor() {
+        return descriptor;
+    }
+
+    /**
+     * パラメータのCallableStatement上のインデックスを返します。
+     *
+     * @param slot パラメータ
+     * @return パラメータインデックス（1始まり）
+     */
+    int indexOf(ParameterSlot slot) {
+        int index = descriptor.getParameters().indexOf(slot);
+        if (index < 0) {
+            throw new IllegalArgumentException(slot.getName() + " is not a parameter of " + descriptor.getProgramType().getName());
+        }
+        return index + (returnValue ? 2 : 1);
+    }
+
+    /**
+     * パラメータを登録し、入力値をバインドします。
+     *
+     * @param cs CallableStatement
+     * @param param パラメータオブジェクト
+     * @throws SQLException バインドに失敗した場合
+     */
+    void bind(CallableStatement cs, DbProgram param) throws SQLException {
+        int index = 1;
+        if (returnValue) {
+            cs.registerOutParameter(index++, Types.INTEGER);
+        }
+        for (var slot : descriptor.getParameters()) {
+            if (slot.isInput()) {
+                slot.bind(cs, index, param);
+            }
+            if (slot.isOutput()) {
+                cs.registerOutParameter(index, slot.isCursor() ? refCursorSqlType : slot.getSqlType());
+            }
+            index++;
+        }
+    }
+
+    /**
+     * 文を実行し、OUTPUTパラメータとRETURN値を書き戻します。
+     *
+     * @param cs パラメータをバインド済みのCallableStatement
+     * @param param パラメータオブジェクト
+     * @return 実行結果
+     * @throws SQLException 実行に失敗した場合
+     */
+    ExecuteResult execute(CallableStatement cs, DbProgram param) throws SQLException {
+        var affectedRows = readResults(cs, cs.execute(), List.of(), null);
+        var returnCode = readOutputs(cs, param);
+        return new ExecuteResult(affectedRows, returnCode);
+    }
+
+    /**
+     * 呼び出しを問い合わせとして実行し、OUTPUTパラメータを結果行から読み取ります。
+     *
+     * <p>{@link io.storedmapper.dialect.DbDialect#fetchesCursorsByName()}の方言で使用します。
+     * OUTPUTのみのパラメータにはNULLを渡し、結果行のOUTPUTパラメータの列から、
+     * カーソルは名前を、それ以外はフィールドの値を読み取ります。</p>
+     *
+     * @param ps 呼び出し文のPreparedStatement
+     * @param param パラメータオブジェクト
+     * @return カーソルパラメータごとのカーソル名
+     * @throws SQLException 実行に失敗した場合
+     */
+    Map<ParameterSlot, String> executeForCursorNames(PreparedStatement ps, DbProgram param) throws SQLException {
+        int index = 1;
+        for (var slot : descriptor.getParameters()) {
+            if (slot.isInput()) {
+                slot.bind(ps, index, param);
+            } else {
+                ps.setNull(index, slot.isCursor() ? refCursorSqlType : slot.getSqlType());
+            }
+            index++;
+        }
+        var cursorNames = new HashMap<ParameterSlot, String>();
+        try (var rs = ps.executeQuery()) {
+            if (!rs.next()) {
+                return cursorNames;
+            }
+            int column = 1;
+            for (var slot : descriptor.getParameters()) {
+                if (!slot.isOutput()) {
+                    continue;
+                }
+                if (slot.isCursor()) {
+                    cursorNames.put(slot, rs.getString(column));
+                } else {
+                    var type = slot.getField().getType();
+                    var value = JdbcUtils.getResultSetValue(rs, column, type);
+                    if (value != null || !type.isPrimitive()) {
+                        slot.setValue(param, DefaultConversionService.getSharedInstance().convert(value, type));
+                    }
+                }
+                column++;
+            }
+        }
+        return cursorNames;
+    }
+
+    /**
+     * 文を実行し、すべての結果セットをRowMapperで読み取ってから、OUTPUTパラメータとRETURN値を書き戻します。
+     *
+     * <p>n番目の結果セットはn番目のRowMapperで読み取ります。RowMapperより多い結果セットは読み捨て、
+     * 結果セットが足りない場合は空のリストを返します。</p>
+     *
+     * @param cs パラメータをバインド済みのCallableStatement
+     * @param param パラメータオブジェクト
+     * @param rowMappers 結果セットごとのRowMapper
+     * @return 実行結果
+     * @throws SQLException 実行に失敗した場合
+     */
+    MultiResult executeMulti(CallableStatement cs, DbProgram param, List<RowMapper<?>> rowMappers) throws SQLException {
+        var resultSets = new ArrayList<List<?>>(rowMappers.size());
+        var affectedRows = readResults(cs, cs.execute(), rowMappers, resultSets);
+        while (resultSets.size() < rowMappers.size()) {
+            resultSets.add(List.of());
+        }
+        var returnCode = readOutputs(cs, param);
+        return new MultiResult(affectedRows, returnCode, resultSets);
+    }
+
+    /**
+     * OUTPUTパラメータをパラメータオブジェクトに書き戻し、RETURN値を返します。
+     *
+     * <p>SQL Serverでは結果セットと更新件数をすべて読み終えてから呼び出す必要があります。</p>
+     *
+     * @param cs 実行済みのCallableStatement
+     * @param param パラメータオブジェクト
+     * @return RETURN値（RETURN値がない場合は{@code null}）
+     * @throws SQLException 読み取りに失敗した場合
+     */
+    Integer readOutputs(CallableStatement cs, DbProgram param) throws SQLException {
+        int index = 1;
+        Integer returnCode = null;
+        if (returnValue) {
+            int value = cs.getInt(index++);
+            returnCode = cs.wasNull() ? null : value;
+        }
+        for (var slot : descriptor.getParameters()) {
+            // カーソルはexecuteWithCursorsのコールバック内で読み取る
+            if (slot.isOutput() && !slot.isCursor()) {
+                slot.read(cs, index, param);
+            }
+            index++;
+        }
+        return returnCode;
+    }
+
+    /**
+     * 結果セットと更新件数をすべて読み進め、更新件数の合計を返します。
+     * RowMapperが割り当てられていない結果セットは読み捨てます。
+     */
+    private static int readResults(CallableStatement cs, boolean hasResultSet, List<RowMapper<?>> rowMappers,
+                                   List<List<?>> resultSets) throws SQLException {
+        int affectedRows = 0;
+        int resultSetIndex = 0;
+        while (true) {
+            if (hasResultSet) {
+                try (var rs = cs.getResultSet()) {
+                    if (resultSetIndex < rowMappers.size()) {
+                        resultSets.add(new RowMapperResultSetExtractor<>(rowMappers.get(resultSetIndex)).extractData(rs));
+                    }
+                }
+                resultSetIndex++;
+            } else {
+                int count = cs.getUpdateCount();
+                if (count == -1) {
+                    return affectedRows;
+                }
+                affectedRows += count;
+            }
+            hasResultSet = cs.getMoreResults();
+        }
+    }
+}
@@ -0,0 +1,471 @@
+package io.storedmapper.executor;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.SQLException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * 読み取り専用の関数呼び出しを振り分ける読み取りレプリカ。
+ *
+ * <p>{@link DbProgramExecutor}に指定すると、{@code readOnly}（デフォルト）のテーブル値関数・スカラー値関数の
+ * {@code query}・{@code queryForStream}・{@code queryEach}・{@code queryFirstOrDefault}・{@code querySingle}・
+ * {@code executeScalar}がレプリカで実行されます。ストアドプロシージャの実行とトランザクション内の呼び出しは
+ * プライマリで実行されます。</p>
+ *
+ * <p>レプリカは{@link LoadBalancing}で選択し、接続障害が発生したレプリカは{@link #setFailureCooldown(Duration)}の間、
+ * 遅延が{@link #setMaxLag(Duration)}を超えたレプリカは遅延が回復するまで選択しません。
+ * 選択できるレプリカがない場合や、レプリカで接続障害が発生した場合は、
+ * {@link #setFallbackToPrimary(boolean)}に従ってプライマリで実行します。</p>
+ *
+ * <p>遅延は{@link #setLagCheckInterval(Duration)}ごとに仮想スレッドで確認し、呼び出しは最後に確認した遅延で
+ * レプリカを選択します（呼び出し元のスレッドは確認を待ちません。最初の確認が終わるまでは遅延が不明として扱います）。
+ * 遅延の確認で接続障害が発生したレプリカは、呼び出しでの接続障害と同様に選択しません。</p>
+ *
+ * <pre>{@code
+ * @Bean
+ * public ReadReplicas readReplicas(DataSource replica1, DataSource replica2) {
+ *     var replicas = new ReadReplicas(List.of(new JdbcTemplate(replica1), new JdbcTemplate(replica2)));
+ *     replicas.setLoadBalancing(ReadReplicas.LoadBalancing.LEAST_OUTSTANDING);
+ *     replicas.setMaxLag(Duration.ofSeconds(5));
+ *     replicas.setLagProbe(ReplicaLagProbe.query("SELECT EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())"));
+ *     return replicas;
+ * }
+ * }</pre>
+ *
+ * @since 1.1.0
+ */
+public final class ReadReplicas {
+
+    /**
+     * レプリカの選択方法。
+     */
+    public enum LoadBalancing {
+        /** 順番に選択 */
+        ROUND_ROBIN,
+        /** 実行中の呼び出しが最も少ないレプリカを選択 */
+        LEAST_OUTSTANDING
+    }
+
+    private final List<Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder fallbackCount = new LongAdder();
+
+    private volatile LoadBalancing loadBalancing = LoadBalancing.ROUND_ROBIN;
+    private volatile Duration maxLag;
+    private volatile ReplicaLagProbe lagProbe;
+    private volatile Duration lagCheckInterval = Duration.ofSeconds(1);
+    private volatile Duration failureCooldown = Duration.ofSeconds(5);
+    private volatile boolean fallbackToPrimary = true;
+
+    /**
+     * レプリカを指定して作成します。
+     *
+     * @param replicas レプリカのJdbcTemplate
+     */
+    public ReadReplicas(List<JdbcTemplate> replicas) {
+        Objects.requireNonNull(replicas, "replicas must not be null");
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("replicas must not be empty.");
+        }
+        var list = new ArrayList<Replica>(replicas.size());
+        for (var template : replicas) {
+            Objects.requireNonNull(template.getDataSource(), "DataSource is not set on JdbcTemplate");
+            list.add(new Replica(template));
+        }
+        this.replicas = List.copyOf(list);
+    }
+
+    public LoadBalancing getLoadBalancing() {
+        return loadBalancing;
+    }
+
+    public void setLoadBalancing(LoadBalancing loadBalancing) {
+        this.loadBalancing = Objects.requireNonNull(loadBalancing, "loadBalancing must not be null");
+    }
+
+    /**
+     * 許容する遅延を返します。
+     *
+     * @return 許容する遅延（{@code null}の場合は遅延を確認しない）
+     */
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+
+    /**
+     * 許容する遅延を設定します。{@link #setLagProbe(ReplicaLagProbe)}も設定する必要があります
+     * （{@link DbProgramExecutor}の作成時に確認し、作成後に取り除かれた場合は遅延が不明なレプリカとして扱います）。
+     *
+     * @param maxLag 許容する遅延（{@code null}の場合は遅延を確認しない）
+     */
+    public void setMaxLag(Duration maxLag) {
+        if (maxLag != null && maxLag.isNegative()) {
+            throw new IllegalArgumentException("maxLag must not be negative.");
+        }
+        this.maxLag = maxLag;
+    }
+
+    public ReplicaLagProbe getLagProbe() {
+        return lagProbe;
+    }
+
+    public void setLagProbe(ReplicaLagProbe lagProbe) {
+        this.lagProbe = lagProbe;
+    }
+
+    /**
+     * 遅延を確認する間隔を返します（デフォルト: 1秒）。
+     *
+     * @return 遅延を確認する間隔
+     */
+    public Duration getLagCheckInterval() {
+        return lagCheckInterval;
+    }
+
+    public void setLagCheckInterval(Duration lagCheckInterval) {
+        if (lagCheckInterval == null || lagCheckInterval.isNegative()) {
+            throw new IllegalArgumentException("lagCheckInterval must not be null or negative.");
+        }
+        this.lagCheckInterval = lagCheckInterval;
+    }
+
+    /**
+     * 接続障害が発生したレプリカを選択しない時間を返します（デフォルト: 5秒）。
+     *
+     * @return 選択しない時間
+     */
+    public Duration getFailureCooldown() {
+        return failureCooldown;
+    }
+
+    public void setFailureCooldown(Duration failureCooldown) {
+        if (failureCooldown == null || failureCooldown.isNegative()) {
+            throw new IllegalArgumentException("failureCooldown must not be null or negative.");
+        }
+        this.failureCooldown = failureCooldown;
+    }
+
+    /**
+     * レプリカを使用できない場合にプライマリで実行するかどうかを返します（デフォルト: {@code true}）。
+     *
+     * @return プライマリで実行する場合は{@code true}
+     */
+    public boolean isFallbackToPrimary() {
+        return fallbackToPrimary;
+    }
+
+    public void setFallbackToPrimary(boolean fallbackToPrimary) {
+        this.fallbackToPrimary = fallbackToPrimary;
+    }
+
+    /**
+     * レプリカを使用できずにプライマリで実行した呼び出し数を返します。
+     *
+     * @return プライマリで実行した呼び出し数
+     */
+    public long getFallbackCount() {
+        return fallbackCount.sum();
+    }
+
+    /**
+     * レプリカごとの統計情報を、指定された順序で返します。
+     *
+     * @return レプリカごとの統計情報
+     */
+    public List<Statistics> getStatistics() {
+        var now = System.nanoTime();
+        var result = new ArrayList<Statistics>(replicas.size());
+        for (var replica : replicas) {
+            var lag = replica.lagNanos;
+            result.add(new Statistics(replica.routed.sum(), replica.failures.sum(), replica.outstanding.get(),
+                    lag != Long.MAX_VALUE ? Duration.ofNanos(lag) : null, replica.failedUntil - now <= 0));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    // --- package-private ---
+
+    /**
+     * 設定の組み合わせを確認します。
+     *
+     * @throws IllegalStateException {@code maxLag}が設定され、{@code lagProbe}が設定されていない場合
+     */
+    void validate() {
+        if (maxLag != null && lagProbe == null) {
+            throw new IllegalStateException("lagProbe must be set when maxLag is set.");
+        }
+    }
+
+    /**
+     * レプリカを使用できずにプライマリで実行した呼び出しを記録します。
+     */
+    void recordFallback() {
+        fallbackCount.increment();
+    }
+
+    /**
+     * 書き込みがレプリカに反映されるまでの時間の上限を返します。
+     *
+     * <p>遅延は確認の間にも増える可能性があるため、{@code maxLag}に遅延を確認する間隔を加えた時間です。</p>
+     *
+     * @return 反映されるまでの時間の上限（{@code maxLag}が設定されていない場合は{@code null}）
+     */
+    Duration replicationBound() {
+        var lag = maxLag;
+        return lag != null ? lag.plus(lagCheckInterval) : null;
+    }
+
+    /**
+     * レプリカを選択して呼び出しを実行します。
+     *
+     * @param <T> 結果の型
+     * @param primary プライマリのJdbcTemplate
+     * @param call JdbcTemplateを受け取る呼び出し
+     * @return 呼び出しの結果
+     */
+    <T> T read(JdbcTemplate primary, Function<JdbcTemplate, T> call) {
+        var replica = select();
+        if (replica == null) {
+            return onPrimary(primary, call, null);
+        }
+        replica.outstanding.incrementAndGet();
+        replica.routed.increment();
+        DataAccessException failure;
+        try {
+            return call.apply(replica.template);
+        } catch (DataAccessException e) {
+            if (!isReplicaFailure(e)) {
+                throw e;
+            }
+            replica.fail(failureCooldown);
+            failure = e;
+        } finally {
+            replica.outstanding.decrementAndGet();
+        }
+        return onPrimary(primary, call, failure);
+    }
+
+    /**
+     * レプリカを選択してストリームを開きます。ストリームを閉じるまでレプリカの実行数に含めます。
+     *
+     * @param <T> 結果の型
+     * @param primary プライマリのJdbcTemplate
+     * @param open JdbcTemplateを受け取りストリームを開く処理
+     * @return 結果ストリーム
+     */
+    <T> Stream<T> readStream(JdbcTemplate primary, Function<JdbcTemplate, Stream<T>> open) {
+        var replica = select();
+        if (replica == null) {
+            return onPrimary(primary, open, null);
+        }
+        replica.outstanding.incrementAndGet();
+        replica.routed.increment();
+        Stream<T> stream;
+        try {
+            stream = open.apply(replica.template);
+        } catch (DataAccessException e) {
+            replica.outstanding.decrementAndGet();
+            if (!isReplicaFailure(e)) {
+                throw e;
+            }
+            replica.fail(failureCooldown);
+            return onPrimary(primary, open, e);
+        } catch (RuntimeException | Error e) {
+            replica.outstanding.decrementAndGet();
+            throw e;
+        }
+        return stream.onClose(replica.outstanding::decrementAndGet);
+    }
+
+    // --- private methods ---
+
+    private <T> T onPrimary(JdbcTemplate primary, Function<JdbcTemplate, T> call, DataAccessException failure) {
+        if (!fallbackToPrimary) {
+            if (failure != null) {
+                throw failure;
+            }
+            throw new DataAccessResourceFailureException("No read replica is available.");
+        }
+        fallbackCount.increment();
+        return call.apply(primary);
+    }
+
+    private Replica select() {
+        var maxLag = this.maxLag;
+        var checkLag = maxLag != null;
+        var now = System.nanoTime();
+        var size = replicas.size();
+        var start = Math.floorMod(next.getAndIncrement(), size);
+        var leastOutstanding = loadBalancing == LoadBalancing.LEAST_OUTSTANDING;
+        Replica selected = null;
+        for (int i = 0; i < size; i++) {
+            var replica = replicas.get((start + i) % size);
+            if (!replica.isAvailable(now) || (checkLag && !isWithinLag(replica, now, maxLag))) {
+                continue;
+            }
+            if (!leastOutstanding) {
+                return replica;
+            }
+            // 同数の場合は順番に選択されるよう、開始位置に近いレプリカを優先する
+            if (selected == null || replica.outstanding.get() < selected.outstanding.get()) {
+                selected = replica;
+            }
+        }
+        return selected;
+    }
+
+    private boolean isWithinLag(Replica replica, long now, Duration maxLag) {
+        var lagProbe = this.lagProbe;
+        if (lagProbe == null) {
+            // 遅延を確認できないレプリカは選択しない
+            return false;
+        }
+        if (now - replica.lagCheckedAt >= lagCheckInterval.toNanos() && replica.checking.compareAndSet(false, true)) {
+            // 停止したレプリカの確認で呼び出しが接続タイムアウトまで待たないよう、別スレッドで確認する
+            Thread.ofVirtual().name("stored-mapper-replica-lag-probe").start(() -> checkLag(replica, lagProbe));
+        }
+        // 確認中は前回の遅延を使用する
+        return replica.lagNanos <= maxLag.toNanos();
+    }
+
+    private void checkLag(Replica replica, ReplicaLagProbe lagProbe) {
+        try {
+            var lag = lagProbe.getLag(replica.template);
+            replica.lagNanos = lag != null ? lag.toNanos() : Long.MAX_VALUE;
+        } catch (DataAccessException e) {
+            replica.lagNanos = Long.MAX_VALUE;
+            if (isReplicaFailure(e)) {
+                replica.fail(failureCooldown);
+            }
+        } catch (RuntimeException e) {
+            replica.lagNanos = Long.MAX_VALUE;
+        } finally {
+            replica.lagCheckedAt = System.nanoTime();
+            replica.checking.set(false);
+        }
+    }
+
+    private static boolean isReplicaFailure(DataAccessException e) {
+        if (e instanceof CannotGetJdbcConnectionException || e instanceof RecoverableDataAccessException) {
+            return true;
+        }
+        // 接続障害（SQLSTATEクラス08）のみを対象とし、キャンセル・タイムアウト（57014など）は対象外とする
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException) {
+                var sqlState = sqlException.getSQLState();
+                return sqlState != null && sqlState.startsWith("08");
+            }
+        }
+        return false;
+    }
+
+    private static final class Replica {
+        final JdbcTemplate template;
+        final AtomicInteger outstanding = new AtomicInteger();
+        final AtomicBoolean checking = new AtomicBoolean();
+        final LongAdder routed = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        volatile long failedUntil = System.nanoTime();
+        // 確認前の遅延は不明として扱う
+        volatile long lagNanos = Long.MAX_VALUE;
+        volatile long lagCheckedAt = System.nanoTime() - Long.MAX_VALUE / 2;
+
+        Replica(JdbcTemplate template) {
+            this.template = template;
+        }
+
+        boolean isAvailable(long now) {
+            return now - failedUntil >= 0;
+        }
+
+        void fail(Duration cooldown) {
+            failures.increment();
+            failedUntil = System.nanoTime() + cooldown.toNanos();
+        }
+    }
+
+    /**
+     * レプリカの統計情報。
+     */
+    public static final class Statistics {
+        private final long routedCount;
+        private final long failureCount;
+        private final int outstanding;
+        private final Duration lag;
+        private final boolean available;
+
+        Statistics(long routedCount, long failureCount, int outstanding, Duration lag, boolean available) {
+            this.routedCount = routedCount;
+            this.failureCount = failureCount;
+            this.outstanding = outstanding;
+            this.lag = lag;
+            this.available = available;
+        }
+
+        /**
+         * レプリカで実行した呼び出し数を返します。
+         *
+         * @return 呼び出し数
+         */
+        public long getRoutedCount() {
+            return routedCount;
+        }
+
+        /**
+         * 接続障害の回数を返します。
+         *
+         * @return 接続障害の回数
+         */
+        public long getFailureCount() {
+            return failureCount;
+        }
+
+        /**
+         * 実行中の呼び出し数を返します。
+         *
+         * @return 実行中の呼び出し数
+         */
+        public int getOutstanding() {
+            return outstanding;
+        }
+
+        /**
+         * 最後に確認した遅延を返します。
+         *
+         * @return 遅延（未確認または不明の場合は{@code null}）
+         */
+        public Duration getLag() {
+            return lag;
+        }
+
+        /**
+         * 接続障害による除外期間中でないかを返します。
+         *
+         * @return 選択できる場合は{@code true}
+         */
+        public boolean isAvailable() {
+            return available;
+        }
+
+        @Override
+        public String toString() {
+            return "ReadReplica[routed=" + routedCount + ", failures=" + failureCount
+                    + ", outstanding=" + outstanding + ", lag=" + lag + ", available=" + available + "]";
+        }
+    }
+}
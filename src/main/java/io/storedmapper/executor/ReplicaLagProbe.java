@@ -0,0 +1,44 @@
+package io.storedmapper.executor;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+/**
+ * 読み取りレプリカの遅延を取得するコールバック。
+ *
+ * <pre>{@code
+ * // PostgreSQL
+ * ReplicaLagProbe.query("SELECT EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())");
+ *
+ * // MySQL（監視用のビューなどで遅延の秒数を返す）
+ * ReplicaLagProbe.query("SELECT lag_seconds FROM monitoring.replica_lag");
+ * }</pre>
+ *
+ * @since 1.1.0
+ * @see ReadReplicas#setLagProbe(ReplicaLagProbe)
+ */
+@FunctionalInterface
+public interface ReplicaLagProbe {
+
+    /**
+     * レプリカの遅延を返します。
+     *
+     * @param replica レプリカのJdbcTemplate
+     * @return 遅延（不明な場合は{@code null}）
+     */
+    Duration getLag(JdbcTemplate replica);
+
+    /**
+     * 遅延の秒数を1行1列で返すSQL文で遅延を取得します。
+     *
+     * @param sql 遅延の秒数を返すSQL文（NULLは遅延が不明であることを表します）
+     * @return 遅延を取得するコールバック
+     */
+    static ReplicaLagProbe query(String sql) {
+        return replica -> {
+            var seconds = replica.queryForObject(sql, Double.class);
+            return seconds != null ? Duration.ofNanos((long) (Math.max(0, seconds) * 1_000_000_000L)) : null;
+        };
+    }
+}
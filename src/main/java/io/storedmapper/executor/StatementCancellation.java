@@ -0,0 +1,92 @@
+package io.storedmapper.executor;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 実行中のステートメントを別スレッドからキャンセルするためのハンドル。
+ *
+ * <p>{@link #attach()}で実行スレッドにハンドルを関連付けると、{@link CancellableJdbcTemplate}が
+ * 作成したステートメントと、{@link DbProgramExecutor}が読み取りレプリカで作成したステートメントが登録されます。{@link #cancel()}は登録中のステートメントに
+ * {@link Statement#cancel()}を送信し、以降に登録されるステートメントも即座にキャンセルします。</p>
+ */
+final class StatementCancellation {
+
+    private static final ThreadLocal<StatementCancellation> CURRENT = new ThreadLocal<>();
+
+    private Statement statement;
+    private boolean cancelled;
+
+    /**
+     * 現在のスレッドにこのハンドルを関連付けます。
+     */
+    void attach() {
+        CURRENT.set(this);
+    }
+
+    /**
+     * 現在のスレッドのハンドルを解除します。
+     */
+    static void detach() {
+        var handle = CURRENT.get();
+        CURRENT.remove();
+        if (handle != null) {
+            handle.clear();
+        }
+    }
+
+    /**
+     * 現在のスレッドで作成されたステートメントを登録します。
+     *
+     * @param statement ステートメント
+     * @throws SQLException キャンセル済みのハンドルでキャンセルに失敗した場合
+     */
+    static void register(Statement statement) throws SQLException {
+        var handle = CURRENT.get();
+        if (handle != null) {
+            handle.track(statement);
+        }
+    }
+
+    /**
+     * 実行中のステートメントをキャンセルします。
+     *
+     * @return キャンセル済みでなかった場合は{@code true}
+     */
+    boolean cancel() {
+        Statement target;
+        synchronized (this) {
+            if (cancelled) {
+                return false;
+            }
+            cancelled = true;
+            target = statement;
+        }
+        if (target != null) {
+            try {
+                target.cancel();
+            } catch (SQLException ignored) {
+                // 実行が終了して閉じられたステートメントはキャンセルできない
+            }
+        }
+        return true;
+    }
+
+    synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    private void track(Statement statement) throws SQLException {
+        synchronized (this) {
+            if (!cancelled) {
+                this.statement = statement;
+                return;
+            }
+        }
+        statement.cancel();
+    }
+
+    private synchronized void clear() {
+        statement = null;
+    }
+}
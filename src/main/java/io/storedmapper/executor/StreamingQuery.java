@@ -0,0 +1,139 @@
+package io.storedmapper.executor;
+
+import io.storedmapper.dialect.DbDialect;
+
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.JdbcUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 結果セットを1行ずつ読み進めるクエリ。
+ *
+ * <p>接続・ステートメント・結果セットは{@link Stream#close()}まで開いたままになります。
+ * フェッチサイズと自動コミットの扱いは{@link DbDialect}が決定し、
+ * 自動コミットを無効にした場合はクローズ時にコミットして元に戻します。</p>
+ */
+final class StreamingQuery<T> extends Spliterators.AbstractSpliterator<T> {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String sql;
+    private final RowMapper<T> rowMapper;
+    private final Connection connection;
+    private final boolean restoreAutoCommit;
+    private PreparedStatement statement;
+    private ResultSet resultSet;
+    private int rowNum;
+    private boolean closed;
+
+    private StreamingQuery(JdbcTemplate jdbcTemplate, String sql, RowMapper<T> rowMapper,
+                           Connection connection, boolean restoreAutoCommit) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.jdbcTemplate = jdbcTemplate;
+        this.sql = sql;
+        this.rowMapper = rowMapper;
+        this.connection = connection;
+        this.restoreAutoCommit = restoreAutoCommit;
+    }
+
+    /**
+     * クエリを実行し、結果をストリームとして返します。
+     *
+     * @param jdbcTemplate JdbcTemplate（DataSource・タイムアウト・例外変換に使用）
+     * @param dialect データベース方言
+     * @param sql SQL文
+     * @param setter パラメータ設定
+     * @param rowMapper RowMapper
+     * @param fetchSize フェッチサイズ
+     * @return 閉じる必要があるストリーム
+     */
+    static <T> Stream<T> open(JdbcTemplate jdbcTemplate, DbDialect dialect, String sql,
+                              PreparedStatementSetter setter, RowMapper<T> rowMapper, int fetchSize) {
+        var dataSource = Objects.requireNonNull(jdbcTemplate.getDataSource(), "No DataSource set");
+        var connection = DataSourceUtils.getConnection(dataSource);
+        StreamingQuery<T> query = null;
+        try {
+            // トランザクション外の場合のみ自動コミットを切り替える
+            var restoreAutoCommit = dialect.requiresManualCommitForStreaming() && connection.getAutoCommit();
+            if (restoreAutoCommit) {
+                connection.setAutoCommit(false);
+            }
+            query = new StreamingQuery<>(jdbcTemplate, sql, rowMapper, connection, restoreAutoCommit);
+            query.statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            DataSourceUtils.applyTimeout(query.statement, dataSource, jdbcTemplate.getQueryTimeout());
+            dialect.configureStreaming(query.statement, fetchSize);
+            setter.setValues(query.statement);
+            query.resultSet = query.statement.executeQuery();
+        } catch (SQLException e) {
+            if (query != null) {
+                query.close();
+            } else {
+                DataSourceUtils.releaseConnection(connection, dataSource);
+            }
+            throw translate(jdbcTemplate, sql, e);
+        } catch (RuntimeException | Error e) {
+            if (query != null) {
+                query.close();
+            } else {
+                DataSourceUtils.releaseConnection(connection, dataSource);
+            }
+            throw e;
+        }
+        var stream = StreamSupport.stream(query, false);
+        return stream.onClose(query::close);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (closed) {
+            return false;
+        }
+        try {
+            if (!resultSet.next()) {
+                return false;
+            }
+            action.accept(rowMapper.mapRow(resultSet, rowNum++));
+            return true;
+        } catch (SQLException e) {
+            throw translate(jdbcTemplate, sql, e);
+        }
+    }
+
+    private void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        JdbcUtils.closeResultSet(resultSet);
+        JdbcUtils.closeStatement(statement);
+        try {
+            if (restoreAutoCommit) {
+                // 自動コミットと同じ結果になるようコミットしてから戻す
+                connection.commit();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw translate(jdbcTemplate, sql, e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, jdbcTemplate.getDataSource());
+        }
+    }
+
+    private static RuntimeException translate(JdbcTemplate jdbcTemplate, String sql, SQLException e) {
+        var translated = jdbcTemplate.getExceptionTranslator().translate("StreamingQuery", sql, e);
+        return translated != null ? translated : new UncategorizedSQLException("StreamingQuery", sql, e);
+    }
+}
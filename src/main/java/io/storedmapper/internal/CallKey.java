@@ -0,0 +1,64 @@
+package io.storedmapper.internal;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * 関数呼び出しを識別するキー。{@link ResultCache}と{@link InFlightCalls}で使用します。
+ *
+ * <p>プログラムクラス・SQL種別・結果のマッピング・ORDER BY句・入力パラメータの値で構成され、
+ * 入力パラメータの値は配列の内容で比較します。</p>
+ */
+final class CallKey {
+    private final Class<?> programType;
+    private final SqlCache.Kind kind;
+    private final Object mapping;
+    private final String orderBy;
+    private final Object[] values;
+    private final int hash;
+
+    CallKey(Class<?> programType, SqlCache.Kind kind, Object mapping, String orderBy, Object[] values) {
+        this.programType = programType;
+        this.kind = kind;
+        this.mapping = mapping;
+        this.orderBy = orderBy;
+        this.values = values;
+        this.hash = Objects.hash(programType, kind, mapping, orderBy, Arrays.deepHashCode(values));
+    }
+
+    Class<?> getProgramType() {
+        return programType;
+    }
+
+    /**
+     * 指定した位置の入力パラメータの値がすべて一致するかを判定します。
+     *
+     * @param indexes 入力パラメータの位置
+     * @param expected 比較する値
+     * @return すべて一致する場合は{@code true}
+     */
+    boolean matches(int[] indexes, Object[] expected) {
+        for (int i = 0; i < indexes.length; i++) {
+            if (!Objects.deepEquals(values[indexes[i]], expected[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof CallKey other
+                && hash == other.hash
+                && programType == other.programType
+                && kind == other.kind
+                && mapping.equals(other.mapping)
+                && Objects.equals(orderBy, other.orderBy)
+                && Arrays.deepEquals(values, other.values));
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -2,22 +2,18 @@ package io.storedmapper.internal;
 
 import io.storedmapper.DbProgram;
 import io.storedmapper.DbProgramMapperOptions;
-import io.storedmapper.ParameterDirection;
 import io.storedmapper.annotation.DbParameterName;
-import io.storedmapper.annotation.DbParameterOrder;
-import io.storedmapper.annotation.DbParameterProperty;
 import io.storedmapper.annotation.DbProgramName;
 
 import java.lang.reflect.Field;
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 
 /**
  * DBプログラム関連のヘルパーメソッド。
  *
- * <p>パッケージプライベート。リフレクションによるフィールド解析、SQL生成、
- * パラメータ構築を担当します。</p>
+ * <p>パッケージプライベート。SQL生成とパラメータ構築を担当します。
+ * フィールド解析の結果は{@link ProgramDescriptor}に、生成したSQL文は{@link SqlCache}に
+ * キャッシュされます。</p>
  */
 public final class DbProgramHelper {
 
@@ -34,7 +30,7 @@ public final class DbProgramHelper {
         if (param == null) {
             return null;
         }
-        return param.getClass().getAnnotation(DbProgramName.class);
+        return ProgramDescriptor.of(param).getProgramName();
     }
 
     /**
@@ -44,11 +40,7 @@ public final class DbProgramHelper {
      * @return 完全修飾名
      */
     public static String getFullName(DbProgramName annotation) {
-        var schema = annotation.schema();
-        if (schema == null || schema.isEmpty()) {
-            schema = DbProgramMapperOptions.getDefaultSchema();
-        }
-        return DbProgramMapperOptions.getDialect().formatFullName(schema, annotation.value());
+        return DbProgramMapperOptions.getDialect().formatFullName(resolveSchema(annotation), annotation.value());
     }
 
     /**
@@ -60,9 +52,35 @@ public final class DbProgramHelper {
      * @return SQL文
      */
     public static String createTableFunctionQuery(DbProgramName annotation, DbProgram param, String orderByExpression) {
-        var fullName = getFullName(annotation);
-        var placeholders = getParameterPlaceholders(param);
-        return DbProgramMapperOptions.getDialect().createTableFunctionQuery(fullName, placeholders, orderByExpression);
+        return SqlCache.get(param.getClass(), SqlCache.Kind.TABLE_FUNCTION, resolveSchema(annotation), orderByExpression, () -> {
+            var fullName = getFullName(annotation);
+            var placeholders = getParameterPlaceholders(param);
+            return DbProgramMapperOptions.getDialect().createTableFunctionQuery(fullName, placeholders, orderByExpression);
+        });
+    }
+
+    /**
+     * 先頭1行を取得するテーブル値関数のクエリを生成します。
+     *
+     * @param annotation DbProgramNameアノテーション
+     * @param param パラメータオブジェクト
+     * @param orderByExpression ORDER BY句（nullの場合は省略）
+     * @return SQL文
+     */
+    public static String createFirstRowQuery(DbProgramName annotation, DbProgram param, String orderByExpression) {
+        return createLimitedTableFunctionQuery(annotation, param, orderByExpression, SqlCache.Kind.TABLE_FUNCTION_FIRST_ROW, 1);
+    }
+
+    /**
+     * 結果が1行であることを確認するためのテーブル値関数のクエリを生成します。
+     * 2行目の有無を判定できるよう、取得行数を2行に制限します。
+     *
+     * @param annotation DbProgramNameアノテーション
+     * @param param パラメータオブジェクト
+     * @return SQL文
+     */
+    public static String createSingleRowQuery(DbProgramName annotation, DbProgram param) {
+        return createLimitedTableFunctionQuery(annotation, param, null, SqlCache.Kind.TABLE_FUNCTION_SINGLE_ROW, 2);
     }
 
     /**
@@ -73,9 +91,11 @@ public final class DbProgramHelper {
      * @return SQL文
      */
     public static String createScalarFunctionQuery(DbProgramName annotation, DbProgram param) {
-        var fullName = getFullName(annotation);
-        var placeholders = getParameterPlaceholders(param);
-        return DbProgramMapperOptions.getDialect().createScalarFunctionQuery(fullName, placeholders);
+        return SqlCache.get(param.getClass(), SqlCache.Kind.SCALAR_FUNCTION, resolveSchema(annotation), null, () -> {
+            var fullName = getFullName(annotation);
+            var placeholders = getParameterPlaceholders(param);
+            return DbProgramMapperOptions.getDialect().createScalarFunctionQuery(fullName, placeholders);
+        });
     }
 
     /**
@@ -86,9 +106,27 @@ public final class DbProgramHelper {
      * @return SQL文
      */
     public static String createStoredProcedureCall(DbProgramName annotation, DbProgram param) {
-        var fullName = getFullName(annotation);
-        var placeholders = getParameterPlaceholders(param);
-        return DbProgramMapperOptions.getDialect().createStoredProcedureCall(fullName, placeholders);
+        return SqlCache.get(param.getClass(), SqlCache.Kind.STORED_PROCEDURE, resolveSchema(annotation), null, () -> {
+            var fullName = getFullName(annotation);
+            var placeholders = getParameterPlaceholders(param);
+            return DbProgramMapperOptions.getDialect().createStoredProcedureCall(fullName, placeholders);
+        });
+    }
+
+    /**
+     * {@link java.sql.CallableStatement}用のCALL文を生成します。
+     * OUTPUTパラメータを含むすべてのパラメータのプレースホルダーが出力されます。
+     *
+     * @param annotation DbProgramNameアノテーション
+     * @param param パラメータオブジェクト
+     * @return SQL文
+     */
+    public static String createCallableStatementCall(DbProgramName annotation, DbProgram param) {
+        return SqlCache.get(param.getClass(), SqlCache.Kind.CALLABLE_STATEMENT, resolveSchema(annotation), null, () -> {
+            var fullName = getFullName(annotation);
+            var placeholders = ProgramDescriptor.of(param).getAllPlaceholders();
+            return DbProgramMapperOptions.getDialect().createCallableStatementCall(fullName, placeholders);
+        });
     }
 
     /**
@@ -99,17 +137,7 @@ public final class DbProgramHelper {
      * @return ソートされたフィールドリスト
      */
     public static List<Field> getOrderedInputFields(DbProgram param) {
-        var allFields = getAllFields(param);
-        return allFields.stream()
-                .filter(f -> {
-                    var prop = f.getAnnotation(DbParameterProperty.class);
-                    if (prop == null) {
-                        return true; // デフォルトはINPUT
-                    }
-                    return prop.direction() != ParameterDirection.OUTPUT;
-                })
-                .sorted(Comparator.comparingInt(f -> getParameterOrder(f)))
-                .toList();
+        return ProgramDescriptor.of(param).getInputFields();
     }
 
     /**
@@ -119,10 +147,7 @@ public final class DbProgramHelper {
      * @return ソートされたフィールドリスト
      */
     public static List<Field> getAllOrderedFields(DbProgram param) {
-        var allFields = getAllFields(param);
-        return allFields.stream()
-                .sorted(Comparator.comparingInt(f -> getParameterOrder(f)))
-                .toList();
+        return ProgramDescriptor.of(param).getAllFields();
     }
 
     /**
@@ -132,8 +157,7 @@ public final class DbProgramHelper {
      * @return プレースホルダーのリスト（各要素は"?"）
      */
     public static List<String> getParameterPlaceholders(DbProgram param) {
-        var fields = getOrderedInputFields(param);
-        return fields.stream().map(f -> "?").toList();
+        return ProgramDescriptor.of(param).getInputPlaceholders();
     }
 
     /**
@@ -143,18 +167,7 @@ public final class DbProgramHelper {
      * @return パラメータ値の配列
      */
     public static Object[] buildParameterArray(DbProgram param) {
-        var fields = getOrderedInputFields(param);
-        var values = new Object[fields.size()];
-        for (int i = 0; i < fields.size(); i++) {
-            var field = fields.get(i);
-            field.setAccessible(true);
-            try {
-                values[i] = field.get(param);
-            } catch (IllegalAccessException e) {
-                values[i] = null;
-            }
-        }
-        return values;
+        return ProgramDescriptor.of(param).getInputValues(param);
     }
 
     /**
@@ -164,14 +177,7 @@ public final class DbProgramHelper {
      * @return OUTPUT/INPUT_OUTPUTフィールドのリスト
      */
     public static List<Field> getOutputFields(DbProgram param) {
-        var allFields = getAllFields(param);
-        return allFields.stream()
-                .filter(f -> {
-                    var prop = f.getAnnotation(DbParameterProperty.class);
-                    return prop != null && (prop.direction() == ParameterDirection.OUTPUT
-                            || prop.direction() == ParameterDirection.INPUT_OUTPUT);
-                })
-                .toList();
+        return ProgramDescriptor.of(param).getOutputFields();
     }
 
     /**
@@ -195,37 +201,32 @@ public final class DbProgramHelper {
      * @param param パラメータオブジェクト
      * @param field 設定対象のフィールド
      * @param value 設定する値
+     * @throws IllegalArgumentException パラメータフィールドでない場合
      */
     public static void setOutputParameterValue(DbProgram param, Field field, Object value) {
-        field.setAccessible(true);
-        try {
-            field.set(param, value);
-        } catch (IllegalAccessException e) {
-            // フィールドへのアクセスに失敗した場合はスキップ
+        var slot = ProgramDescriptor.of(param).findParameter(field);
+        if (slot == null) {
+            throw new IllegalArgumentException(
+                    field.getName() + " is not a parameter field of " + param.getClass().getName());
         }
+        slot.setValue(param, value);
     }
 
-    private static List<Field> getAllFields(DbProgram param) {
-        var fields = new ArrayList<Field>();
-        Class<?> clazz = param.getClass();
-        while (clazz != null && clazz != Object.class) {
-            for (var field : clazz.getDeclaredFields()) {
-                // DbParameterOrderまたはDbParameterPropertyのアノテーションを持つフィールドのみ
-                if (field.isAnnotationPresent(DbParameterOrder.class)
-                        || field.isAnnotationPresent(DbParameterProperty.class)) {
-                    fields.add(field);
-                }
-            }
-            clazz = clazz.getSuperclass();
-        }
-        return fields;
+    private static String createLimitedTableFunctionQuery(DbProgramName annotation, DbProgram param,
+                                                          String orderByExpression, SqlCache.Kind kind, int maxRows) {
+        return SqlCache.get(param.getClass(), kind, resolveSchema(annotation), orderByExpression, () -> {
+            var fullName = getFullName(annotation);
+            var placeholders = getParameterPlaceholders(param);
+            return DbProgramMapperOptions.getDialect()
+                    .createLimitedTableFunctionQuery(fullName, placeholders, orderByExpression, maxRows);
+        });
     }
 
-    private static int getParameterOrder(Field field) {
-        var orderAnnotation = field.getAnnotation(DbParameterOrder.class);
-        if (orderAnnotation != null) {
-            return orderAnnotation.value();
+    private static String resolveSchema(DbProgramName annotation) {
+        var schema = annotation.schema();
+        if (schema == null || schema.isEmpty()) {
+            schema = DbProgramMapperOptions.getDefaultSchema();
         }
-        return Integer.MAX_VALUE;
+        return schema;
     }
 }
@@ -200,7 +200,13 @@ public final class DbProgramValidator {
         }
     }
 
-    private static boolean containsInvalidCharacters(String name) {
+    /**
+     * 名前にSQLインジェクションにつながる不正文字が含まれているかどうかを返します。
+     *
+     * @param name プログラム名またはスキーマ名
+     * @return 不正文字が含まれる場合は{@code true}
+     */
+    public static boolean containsInvalidCharacters(String name) {
         for (char c : name.toCharArray()) {
             for (char invalid : INVALID_CHARS) {
                 if (c == invalid) {
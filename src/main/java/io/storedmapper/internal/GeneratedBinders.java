@@ -0,0 +1,70 @@
+package io.storedmapper.internal;
+
+import io.storedmapper.spi.DbProgramBinder;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * {@link io.storedmapper.processor.DbProgramProcessor}が生成した{@link DbProgramBinder}のレジストリ。
+ *
+ * <p>バインダーはプログラムクラスと同じパッケージ・同じクラスローダーから生成クラス名
+ * （{@code Outer_Inner_DbProgramBinder}）で読み込み、{@link ClassValue}に保持します。
+ * クラスローダーを保持しないため、再デプロイされたアプリケーションのクラスローダーも解放されます。</p>
+ */
+final class GeneratedBinders {
+
+    /** 生成クラス名の接尾辞（{@code DbProgramProcessor.BINDER_SUFFIX}と同じ値） */
+    private static final String BINDER_SUFFIX = "_DbProgramBinder";
+
+    private static final ClassValue<DbProgramBinder> BINDERS = new ClassValue<>() {
+        @Override
+        protected DbProgramBinder computeValue(Class<?> type) {
+            return load(type);
+        }
+    };
+
+    private GeneratedBinders() {
+    }
+
+    /**
+     * 指定されたクラスの生成済みバインダーを返します。
+     *
+     * @param programType DBプログラムクラス
+     * @return バインダー（生成されていない場合は{@code null}）
+     */
+    static DbProgramBinder find(Class<?> programType) {
+        return BINDERS.get(programType);
+    }
+
+    private static DbProgramBinder load(Class<?> programType) {
+        var classLoader = programType.getClassLoader();
+        if (classLoader == null) {
+            return null;
+        }
+        Class<?> binderType;
+        try {
+            binderType = Class.forName(binderName(programType), false, classLoader);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        if (!DbProgramBinder.class.isAssignableFrom(binderType)) {
+            return null;
+        }
+        try {
+            var binder = (DbProgramBinder) binderType.getConstructor().newInstance();
+            return binder.programType() == programType ? binder : null;
+        } catch (NoSuchMethodException | InstantiationException | IllegalAccessException
+                 | InvocationTargetException e) {
+            throw new IllegalStateException("Failed to instantiate generated binder " + binderType.getName() + ".", e);
+        }
+    }
+
+    private static String binderName(Class<?> programType) {
+        var simpleName = new StringBuilder(programType.getSimpleName());
+        for (var outer = programType.getEnclosingClass(); outer != null; outer = outer.getEnclosingClass()) {
+            simpleName.insert(0, outer.getSimpleName() + "_");
+        }
+        var packageName = programType.getPackageName();
+        return packageName.isEmpty() ? simpleName + BINDER_SUFFIX : packageName + "." + simpleName + BINDER_SUFFIX;
+    }
+}
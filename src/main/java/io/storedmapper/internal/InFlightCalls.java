@@ -0,0 +1,155 @@
+package io.storedmapper.internal;
+
+import io.storedmapper.DbProgram;
+import io.storedmapper.annotation.DbProgramCoalesced;
+
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * {@link DbProgramCoalesced}が付与されたプログラムの実行中の呼び出し。
+ *
+ * <p>最初の呼び出しが読み込みを行い、完了までに到着した同一キーの呼び出しはその結果を共有します。
+ * 完了した呼び出しは直ちに削除されるため、完了後の呼び出しは新たに読み込みます。</p>
+ *
+ * @since 1.1.0
+ */
+public final class InFlightCalls {
+
+    private static final Map<CallKey, CompletableFuture<Object>> CALLS = new ConcurrentHashMap<>();
+
+    private static final Map<Class<?>, LongAdder> SHARED = new ConcurrentHashMap<>();
+
+    /** 最初の呼び出しの結果を共有せず、改めて待機または読み込みを行うことを表す値 */
+    private static final Object RETRY = new Object();
+
+    private InFlightCalls() {
+    }
+
+    /**
+     * 同一の呼び出しが実行中の場合はその結果を待ち、実行中でない場合は読み込みます。
+     *
+     * <p>プログラムに{@link DbProgramCoalesced}が付与されていない場合、
+     * または現在のスレッドでトランザクションが有効な場合は常に読み込みます。</p>
+     *
+     * <p>結果の待機は呼び出し元の期限の残り時間までとし、超えた場合は{@link QueryTimeoutException}、
+     * 割り込まれた場合は{@link CancellationException}をスローします。最初の呼び出しがタイムアウトまたは
+     * キャンセルで失敗した場合、その原因は最初の呼び出しの期限によるものであるため共有せず、
+     * 改めて実行中の呼び出しを待つか、自身で読み込みます。</p>
+     *
+     * @param <T> 結果の型
+     * @param descriptor プログラムのディスクリプタ
+     * @param kind SQL文の種別
+     * @param mapping 結果のマッピング（RowMapperまたは結果クラス）
+     * @param orderBy ORDER BY句（なしの場合は{@code null}）
+     * @param param パラメータオブジェクト
+     * @param remainingNanos 呼び出し元の期限までの残り時間（ナノ秒、期限がない場合は{@link Long#MAX_VALUE}）
+     * @param loader 結果の読み込み処理
+     * @return 結果
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T get(ProgramDescriptor descriptor, SqlCache.Kind kind, Object mapping, String orderBy,
+                            DbProgram param, LongSupplier remainingNanos, Supplier<T> loader) {
+        if (!descriptor.isCoalesced() || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loader.get();
+        }
+        var key = new CallKey(descriptor.getProgramType(), kind, mapping, orderBy,
+                descriptor.getInputValues(param));
+        while (true) {
+            var call = new CompletableFuture<Object>();
+            var running = CALLS.putIfAbsent(key, call);
+            if (running == null) {
+                return (T) lead(key, call, loader);
+            }
+            SHARED.computeIfAbsent(key.getProgramType(), type -> new LongAdder()).increment();
+            var value = await(running, remainingNanos);
+            if (value != RETRY) {
+                return (T) value;
+            }
+            // 完了済みの呼び出しを取り除き、次の呼び出しを待つか自身で読み込む
+            CALLS.remove(key, running);
+        }
+    }
+
+    private static Object lead(CallKey key, CompletableFuture<Object> call, Supplier<?> loader) {
+        try {
+            var value = ResultCache.freeze(loader.get());
+            call.complete(value);
+            return value;
+        } catch (Throwable t) {
+            call.completeExceptionally(t);
+            throw t;
+        } finally {
+            CALLS.remove(key, call);
+        }
+    }
+
+    /**
+     * 実行中の呼び出しの結果を共有した呼び出し数を返します。
+     *
+     * @param programType DBプログラムクラス
+     * @return 結果を共有した呼び出し数
+     */
+    public static long getSharedCount(Class<?> programType) {
+        var count = SHARED.get(programType);
+        return count != null ? count.sum() : 0;
+    }
+
+    /**
+     * プログラムの実行中の呼び出しを切り離し、以降の呼び出しが結果を共有しないようにします。
+     *
+     * <p>キャッシュの削除時に呼び出され、削除より前に開始した読み込みの結果が
+     * 削除後の呼び出しに共有されてキャッシュされることを防ぎます。
+     * 切り離した呼び出しを待機中の呼び出しには、引き続きその結果が返されます。</p>
+     *
+     * @param programType DBプログラムクラス
+     */
+    static void detach(Class<?> programType) {
+        CALLS.keySet().removeIf(key -> key.getProgramType() == programType);
+    }
+
+    /**
+     * 統計情報をクリアします。実行中の呼び出しには影響しません。
+     */
+    public static void clear() {
+        SHARED.clear();
+    }
+
+    private static Object await(CompletableFuture<Object> running, LongSupplier remainingNanos) {
+        try {
+            var remaining = remainingNanos.getAsLong();
+            return remaining == Long.MAX_VALUE ? running.get() : running.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("Deadline exceeded while waiting for a coalesced call.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for a coalesced call.");
+        } catch (CancellationException e) {
+            return RETRY;
+        } catch (ExecutionException e) {
+            // 最初の呼び出しのタイムアウト・キャンセルは共有せず、それ以外は同じ例外を再スローする
+            var cause = e.getCause();
+            if (cause instanceof QueryTimeoutException || cause instanceof CancellationException) {
+                return RETRY;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package io.storedmapper.internal;
+
+import io.storedmapper.DbProgram;
+import io.storedmapper.DbProgramMapperOptions;
+import io.storedmapper.ParameterDirection;
+
+import org.springframework.jdbc.core.StatementCreatorUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collection;
+
+/**
+ * DBプログラムの1パラメータ分のメタデータ。
+ *
+ * <p>{@link ProgramDescriptor}の構築時に一度だけ解決され、以降は不変です。
+ * フィールドへのアクセスは事前に解決した{@link VarHandle}から作成したゲッター/セッターを
+ * {@code invokeExact}で呼び出し、値はフィールド型に応じて選択した型付きのJDBCセッター/ゲッターで受け渡します。
+ * ゲッター/セッターは構築時に{@code DbProgram}を受け取る型へ変換しておくため、呼び出しごとの型の変換は発生しません。
+ * フィールド型から推定されるものと異なるSQLタイプが指定された入力パラメータは、そのSQLタイプでバインドします。
+ * コレクション型のフィールドは{@link io.storedmapper.dialect.DbDialect#bindCollection}でバインドします。</p>
+ *
+ * @since 1.1.0
+ */
+public final class ParameterSlot {
+
+    private final Field field;
+    private final String name;
+    private final int order;
+    private final int sqlType;
+    private final ParameterDirection direction;
+    private final int size;
+    private final String typeName;
+    private final boolean collection;
+    private final ValueBinder binder;
+    /** {@code (DbProgram)V}（Vは{@link ValueBinder#valueType()}） */
+    private final MethodHandle getter;
+    /** {@code (DbProgram,V)void} */
+    private final MethodHandle setter;
+    /** {@code (DbProgram)Object} */
+    private final MethodHandle objectGetter;
+    /** {@code (DbProgram,Object)void} */
+    private final MethodHandle objectSetter;
+    private final boolean declaredSqlType;
+
+    ParameterSlot(Field field, String name, int order, int sqlType, ParameterDirection direction, int size,
+                  String typeName) {
+        this.field = field;
+        this.name = name;
+        this.order = order;
+        this.sqlType = sqlType;
+        this.direction = direction;
+        this.size = size;
+        this.typeName = typeName;
+        this.collection = Collection.class.isAssignableFrom(field.getType());
+        if (collection && direction != ParameterDirection.INPUT) {
+            throw new IllegalArgumentException("Collection parameter " + field.getDeclaringClass().getName()
+                    + "." + field.getName() + " must be an INPUT parameter.");
+        }
+        this.binder = ValueBinder.forType(field.getType());
+        var handle = resolveHandle(field);
+        var valueType = binder.valueType();
+        this.getter = handle.toMethodHandle(VarHandle.AccessMode.GET)
+                .asType(MethodType.methodType(valueType, DbProgram.class));
+        this.setter = handle.toMethodHandle(VarHandle.AccessMode.SET)
+                .asType(MethodType.methodType(void.class, DbProgram.class, valueType));
+        this.objectGetter = getter.asType(MethodType.methodType(Object.class, DbProgram.class));
+        this.objectSetter = setter.asType(MethodType.methodType(void.class, DbProgram.class, Object.class));
+        // 型付きのセッターは推定されるSQLタイプでバインドするため、異なるSQLタイプの指定はそのまま渡す
+        this.declaredSqlType = binder == ValueBinder.OBJECT
+                ? sqlType != Types.OTHER
+                : sqlType != ProgramDescriptor.inferSqlType(field.getType().getName());
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * SQLパラメータ名を返します。
+     *
+     * @return {@code @DbParameterName}の値、未設定の場合はフィールド名
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * パラメータ順序を返します。
+     *
+     * @return {@code @DbParameterOrder}の値、未設定の場合は{@link Integer#MAX_VALUE}
+     */
+    public int getOrder() {
+        return order;
+    }
+
+    /**
+     * SQLタイプを返します。
+     *
+     * @return {@link java.sql.Types}の定数（未指定の場合はフィールド型から推定した値）
+     */
+    public int getSqlType() {
+        return sqlType;
+    }
+
+    public ParameterDirection getDirection() {
+        return direction;
+    }
+
+    /**
+     * パラメータサイズを返します。
+     *
+     * @return パラメータサイズ（-1は未指定）
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * コレクションパラメータのデータベース型名を返します。
+     *
+     * @return {@code @DbParameterProperty#typeName()}の値（未指定の場合は空文字列）
+     */
+    public String getTypeName() {
+        return typeName;
+    }
+
+    /**
+     * コレクション型のパラメータかどうかを返します。
+     *
+     * @return フィールド型が{@link Collection}の場合は{@code true}
+     */
+    public boolean isCollection() {
+        return collection;
+    }
+
+    /**
+     * カーソル型のOUTPUTパラメータかどうかを返します。
+     *
+     * <p>カーソルの値はフィールドに書き戻されず、
+     * {@code DbProgramExecutor#executeWithCursors}のコールバック内でのみ読み取れます。</p>
+     *
+     * @return SQLタイプが{@link java.sql.Types#REF_CURSOR}の場合は{@code true}
+     */
+    public boolean isCursor() {
+        return sqlType == java.sql.Types.REF_CURSOR;
+    }
+
+    /**
+     * INPUTまたはINPUT_OUTPUTパラメータかどうかを返します。
+     *
+     * @return 入力値を持つ場合は{@code true}
+     */
+    public boolean isInput() {
+        return direction != ParameterDirection.OUTPUT;
+    }
+
+    /**
+     * OUTPUTまたはINPUT_OUTPUTパラメータかどうかを返します。
+     *
+     * @return 出力値を持つ場合は{@code true}
+     */
+    public boolean isOutput() {
+        return direction == ParameterDirection.OUTPUT || direction == ParameterDirection.INPUT_OUTPUT;
+    }
+
+    /**
+     * パラメータオブジェクトからフィールド値を取得します。
+     *
+     * @param param パラメータオブジェクト
+     * @return フィールド値
+     */
+    public Object getValue(DbProgram param) {
+        try {
+            return (Object) objectGetter.invokeExact(param);
+        } catch (Throwable t) {
+            throw propagate(t);
+        }
+    }
+
+    /**
+     * パラメータオブジェクトのフィールドに値を設定します。
+     *
+     * @param param パラメータオブジェクト
+     * @param value 設定する値
+     */
+    public void setValue(DbProgram param, Object value) {
+        try {
+            objectSetter.invokeExact(param, value);
+        } catch (Throwable t) {
+            throw propagate(t);
+        }
+    }
+
+    /**
+     * フィールド値を型付きのセッター、または指定されたSQLタイプで文にバインドします。
+     *
+     * @param ps バインド先の文
+     * @param index パラメータインデックス（1始まり）
+     * @param param パラメータオブジェクト
+     * @throws SQLException バインドに失敗した場合
+     */
+    public void bind(PreparedStatement ps, int index, DbProgram param) throws SQLException {
+        if (collection) {
+            DbProgramMapperOptions.getDialect().bindCollection(ps, index, (Collection<?>) getValue(param), typeName);
+            return;
+        }
+        if (declaredSqlType) {
+            StatementCreatorUtils.setParameterValue(ps, index, sqlType, getValue(param));
+            return;
+        }
+        try {
+            binder.bind(getter, param, ps, index);
+        } catch (SQLException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw propagate(t);
+        }
+    }
+
+    /**
+     * OUTPUTパラメータの値を型付きのゲッターで読み取り、フィールドに設定します。
+     *
+     * @param cs 実行済みのCallableStatement
+     * @param index パラメータインデックス（1始まり）
+     * @param param パラメータオブジェクト
+     * @throws SQLException 読み取りに失敗した場合
+     */
+    public void read(CallableStatement cs, int index, DbProgram param) throws SQLException {
+        try {
+            binder.read(setter, param, cs, index);
+        } catch (SQLException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw propagate(t);
+        }
+    }
+
+    private static RuntimeException propagate(Throwable t) {
+        if (t instanceof Error error) {
+            throw error;
+        }
+        if (t instanceof RuntimeException e) {
+            return e;
+        }
+        // フィールドアクセスはチェック例外を投げないため到達しない
+        return new IllegalStateException(t);
+    }
+
+    private static VarHandle resolveHandle(Field field) {
+        try {
+            var lookup = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+            return lookup.unreflectVarHandle(field);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(
+                    "Cannot access parameter field " + field.getDeclaringClass().getName() + "." + field.getName(), e);
+        }
+    }
+}
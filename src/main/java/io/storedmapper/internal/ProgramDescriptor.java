@@ -0,0 +1,362 @@
+package io.storedmapper.internal;
+
+import io.storedmapper.DbProgram;
+import io.storedmapper.ParameterDirection;
+import io.storedmapper.annotation.DbParameterName;
+import io.storedmapper.annotation.DbParameterOrder;
+import io.storedmapper.annotation.DbParameterProperty;
+import io.storedmapper.annotation.DbProgramCacheable;
+import io.storedmapper.annotation.DbProgramCoalesced;
+import io.storedmapper.annotation.DbProgramName;
+import io.storedmapper.annotation.DbProgramRetry;
+import io.storedmapper.annotation.DbProgramStatement;
+import io.storedmapper.spi.DbProgramBinder;
+
+import java.lang.reflect.Field;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * DBプログラムクラスごとのコンパイル済みメタデータ。
+ *
+ * <p>クラス階層の走査、アノテーションの読み取り、順序のソート、フィールドアクセサの解決は
+ * クラスごとに一度だけ行われ、結果は{@link ClassValue}にキャッシュされます。
+ * インスタンスは不変で、スレッドセーフです。</p>
+ *
+ * <p>{@link io.storedmapper.processor.DbProgramProcessor}が生成した{@link DbProgramBinder}がある場合は、
+ * アノテーションを解析せずにバインダーの定義から構築します。</p>
+ *
+ * <pre>{@code
+ * var descriptor = ProgramDescriptor.of(param);
+ * for (var slot : descriptor.getInputParameters()) {
+ *     Object value = slot.getValue(param);
+ * }
+ * }</pre>
+ *
+ * @since 1.1.0
+ */
+public final class ProgramDescriptor {
+
+    private static final ClassValue<ProgramDescriptor> CACHE = new ClassValue<>() {
+        @Override
+        protected ProgramDescriptor computeValue(Class<?> type) {
+            return build(type);
+        }
+    };
+
+    private final Class<?> programType;
+    private final DbProgramName programName;
+    private final DbProgramCacheable cacheable;
+    private final boolean coalesced;
+    private final DbProgramStatement statementSettings;
+    private final DbProgramRetry retry;
+    private final List<ParameterSlot> parameters;
+    private final List<ParameterSlot> inputParameters;
+    private final List<ParameterSlot> outputParameters;
+    private final List<Field> inputFields;
+    private final List<Field> outputFields;
+    private final List<Field> allFields;
+    private final List<String> inputPlaceholders;
+    private final List<String> allPlaceholders;
+
+    private ProgramDescriptor(Class<?> programType, List<ParameterSlot> slots) {
+        this.programType = programType;
+        this.programName = programType.getAnnotation(DbProgramName.class);
+        this.cacheable = programType.getAnnotation(DbProgramCacheable.class);
+        this.coalesced = programType.isAnnotationPresent(DbProgramCoalesced.class);
+        this.statementSettings = programType.getAnnotation(DbProgramStatement.class);
+        this.retry = programType.getAnnotation(DbProgramRetry.class);
+        this.parameters = Collections.unmodifiableList(slots);
+        this.inputParameters = slots.stream().filter(ParameterSlot::isInput).toList();
+        this.outputParameters = slots.stream().filter(ParameterSlot::isOutput).toList();
+        this.inputFields = inputParameters.stream().map(ParameterSlot::getField).toList();
+        this.outputFields = outputParameters.stream().map(ParameterSlot::getField).toList();
+        this.allFields = parameters.stream().map(ParameterSlot::getField).toList();
+        this.inputPlaceholders = Collections.nCopies(inputParameters.size(), "?");
+        this.allPlaceholders = Collections.nCopies(parameters.size(), "?");
+    }
+
+    private static ProgramDescriptor build(Class<?> programType) {
+        var binder = GeneratedBinders.find(programType);
+        if (binder != null) {
+            return new ProgramDescriptor(programType, slotsFromBinder(binder));
+        }
+        return new ProgramDescriptor(programType, slotsFromAnnotations(programType));
+    }
+
+    private static List<ParameterSlot> slotsFromAnnotations(Class<?> programType) {
+        var slots = new ArrayList<ParameterSlot>();
+        for (var field : collectParameterFields(programType)) {
+            var prop = field.getAnnotation(DbParameterProperty.class);
+            var direction = prop != null ? prop.direction() : ParameterDirection.INPUT;
+            var size = prop != null ? prop.size() : -1;
+            var typeName = prop != null ? prop.typeName() : "";
+            slots.add(new ParameterSlot(field, resolveParameterName(field), resolveParameterOrder(field),
+                    resolveSqlType(field, prop), direction, size, typeName));
+        }
+        // 安定ソートのため、順序未指定のフィールドは宣言順（サブクラス優先）のまま末尾に並ぶ
+        slots.sort(Comparator.comparingInt(ParameterSlot::getOrder));
+        return slots;
+    }
+
+    private static List<ParameterSlot> slotsFromBinder(DbProgramBinder binder) {
+        // 生成済みの定義はソート済みのため、フィールドの解決のみ行う
+        var slots = new ArrayList<ParameterSlot>();
+        for (var definition : binder.parameters()) {
+            Field field;
+            try {
+                field = definition.getDeclaringClass().getDeclaredField(definition.getFieldName());
+            } catch (NoSuchFieldException e) {
+                throw new IllegalStateException("Generated binder " + binder.getClass().getName()
+                        + " is out of date: field " + definition.getFieldName() + " not found. Please rebuild.", e);
+            }
+            slots.add(new ParameterSlot(field, definition.getName(), definition.getOrder(),
+                    definition.getSqlType(), definition.getDirection(), definition.getSize(),
+                    definition.getTypeName()));
+        }
+        return slots;
+    }
+
+    /**
+     * 指定されたクラスのディスクリプタを取得します。
+     *
+     * @param programType DBプログラムクラス
+     * @return ディスクリプタ
+     */
+    public static ProgramDescriptor of(Class<?> programType) {
+        return CACHE.get(programType);
+    }
+
+    /**
+     * パラメータオブジェクトのクラスのディスクリプタを取得します。
+     *
+     * @param param パラメータオブジェクト
+     * @return ディスクリプタ
+     */
+    public static ProgramDescriptor of(DbProgram param) {
+        return CACHE.get(param.getClass());
+    }
+
+    public Class<?> getProgramType() {
+        return programType;
+    }
+
+    /**
+     * {@link DbProgramName}アノテーションを返します。
+     *
+     * @return DbProgramNameアノテーション（未設定の場合は{@code null}）
+     */
+    public DbProgramName getProgramName() {
+        return programName;
+    }
+
+    /**
+     * {@link DbProgramCacheable}アノテーションを返します。
+     *
+     * @return DbProgramCacheableアノテーション（未設定の場合は{@code null}）
+     */
+    public DbProgramCacheable getCacheable() {
+        return cacheable;
+    }
+
+    /**
+     * {@link DbProgramCoalesced}が付与されているかを返します。
+     *
+     * @return 同時に実行された同一の呼び出しをまとめる場合は{@code true}
+     */
+    public boolean isCoalesced() {
+        return coalesced;
+    }
+
+    /**
+     * {@link DbProgramStatement}アノテーションを返します。
+     *
+     * @return DbProgramStatementアノテーション（未設定の場合は{@code null}）
+     */
+    public DbProgramStatement getStatementSettings() {
+        return statementSettings;
+    }
+
+    /**
+     * {@link DbProgramRetry}アノテーションを返します。
+     *
+     * @return DbProgramRetryアノテーション（未設定の場合は{@code null}）
+     */
+    public DbProgramRetry getRetry() {
+        return retry;
+    }
+
+    /**
+     * すべてのパラメータを{@code @DbParameterOrder}順で返します。
+     *
+     * @return パラメータのリスト
+     */
+    public List<ParameterSlot> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * INPUTおよびINPUT_OUTPUTパラメータを{@code @DbParameterOrder}順で返します。
+     *
+     * @return 入力パラメータのリスト
+     */
+    public List<ParameterSlot> getInputParameters() {
+        return inputParameters;
+    }
+
+    /**
+     * OUTPUTおよびINPUT_OUTPUTパラメータを返します。
+     *
+     * @return 出力パラメータのリスト
+     */
+    public List<ParameterSlot> getOutputParameters() {
+        return outputParameters;
+    }
+
+    public List<Field> getInputFields() {
+        return inputFields;
+    }
+
+    public List<Field> getOutputFields() {
+        return outputFields;
+    }
+
+    public List<Field> getAllFields() {
+        return allFields;
+    }
+
+    /**
+     * 入力パラメータ数分のSQLプレースホルダーを返します。
+     *
+     * @return プレースホルダーのリスト（各要素は"?"）
+     */
+    public List<String> getInputPlaceholders() {
+        return inputPlaceholders;
+    }
+
+    /**
+     * OUTPUTパラメータを含むすべてのパラメータ数分のSQLプレースホルダーを返します。
+     *
+     * @return プレースホルダーのリスト（各要素は"?"）
+     */
+    public List<String> getAllPlaceholders() {
+        return allPlaceholders;
+    }
+
+    /**
+     * OUTPUTパラメータを持つかどうかを返します。
+     *
+     * @return OUTPUT/INPUT_OUTPUTパラメータがある場合は{@code true}
+     */
+    public boolean hasOutputParameters() {
+        return !outputParameters.isEmpty();
+    }
+
+    /**
+     * 入力パラメータの値を配列として構築します。
+     *
+     * @param param パラメータオブジェクト
+     * @return パラメータ値の配列
+     */
+    public Object[] getInputValues(DbProgram param) {
+        var values = new Object[inputParameters.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = inputParameters.get(i).getValue(param);
+        }
+        return values;
+    }
+
+    /**
+     * 入力パラメータの値を型付きのセッターで文にバインドします。
+     *
+     * @param ps バインド先の文
+     * @param param パラメータオブジェクト
+     * @throws SQLException バインドに失敗した場合
+     */
+    public void bindInputs(PreparedStatement ps, DbProgram param) throws SQLException {
+        for (int i = 0; i < inputParameters.size(); i++) {
+            inputParameters.get(i).bind(ps, i + 1, param);
+        }
+    }
+
+    /**
+     * フィールドに対応するパラメータを返します。
+     *
+     * @param field フィールド
+     * @return パラメータ（パラメータフィールドでない場合は{@code null}）
+     */
+    public ParameterSlot findParameter(Field field) {
+        for (var slot : parameters) {
+            if (slot.getField().equals(field)) {
+                return slot;
+            }
+        }
+        return null;
+    }
+
+    private static List<Field> collectParameterFields(Class<?> type) {
+        var fields = new ArrayList<Field>();
+        Class<?> clazz = type;
+        while (clazz != null && clazz != Object.class) {
+            for (var field : clazz.getDeclaredFields()) {
+                // DbParameterOrderまたはDbParameterPropertyのアノテーションを持つフィールドのみ
+                if (field.isAnnotationPresent(DbParameterOrder.class)
+                        || field.isAnnotationPresent(DbParameterProperty.class)) {
+                    fields.add(field);
+                }
+            }
+            clazz = clazz.getSuperclass();
+        }
+        return fields;
+    }
+
+    private static String resolveParameterName(Field field) {
+        var nameAnnotation = field.getAnnotation(DbParameterName.class);
+        if (nameAnnotation != null) {
+            return nameAnnotation.value();
+        }
+        return field.getName();
+    }
+
+    private static int resolveParameterOrder(Field field) {
+        var orderAnnotation = field.getAnnotation(DbParameterOrder.class);
+        if (orderAnnotation != null) {
+            return orderAnnotation.value();
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    private static int resolveSqlType(Field field, DbParameterProperty prop) {
+        if (prop != null && prop.sqlType() != Integer.MIN_VALUE) {
+            return prop.sqlType();
+        }
+        return inferSqlType(field.getType().getName());
+    }
+
+    /**
+     * フィールド型からSQLタイプを推定します。
+     *
+     * <p>アノテーションプロセッサからも使用するため、型は名前で受け取ります。</p>
+     *
+     * @param typeName 型の完全修飾名（プリミティブ型は{@code int}などのキーワード）
+     * @return {@link Types}の定数
+     */
+    public static int inferSqlType(String typeName) {
+        return switch (typeName) {
+            case "java.lang.String" -> Types.VARCHAR;
+            case "java.lang.Integer", "int" -> Types.INTEGER;
+            case "java.lang.Long", "long" -> Types.BIGINT;
+            case "java.lang.Boolean", "boolean" -> Types.BOOLEAN;
+            case "java.sql.Timestamp", "java.time.LocalDateTime" -> Types.TIMESTAMP;
+            case "java.sql.Date", "java.time.LocalDate" -> Types.DATE;
+            case "java.util.List", "java.util.Collection", "java.util.Set" -> Types.ARRAY;
+            case "java.sql.ResultSet" -> Types.REF_CURSOR;
+            default -> Types.OTHER;
+        };
+    }
+}
@@ -0,0 +1,256 @@
+package io.storedmapper.internal;
+
+import io.storedmapper.DbProgram;
+import io.storedmapper.DbProgramMapperOptions;
+import io.storedmapper.DbProgramWithErrorBase;
+import io.storedmapper.ExecuteResult;
+
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * デッドロック・タイムアウト時の再実行と、その統計情報。
+ *
+ * <p>待機時間は「Full Jitter」方式で、{@code min(maxBackoff, initialBackoff * multiplier^(n-1))}を上限とする
+ * 0以上の乱数です。再実行の前に入力パラメータの値を最初の実行前の値に戻すため、
+ * INPUT_OUTPUTパラメータも同じ値で再実行されます。</p>
+ *
+ * <p>例外によるデッドロックは、Springの{@link PessimisticLockingFailureException}、または
+ * SQLSTATE {@code 40001}・{@code 40P01}、ベンダーコード 1205（SQL Server）・1213（MySQL）で判定します。
+ * タイムアウトは{@link QueryTimeoutException}、またはロック待ちタイムアウトの
+ * ベンダーコード 1222（SQL Server）・SQLSTATE {@code 55P03}（PostgreSQL）で判定します。</p>
+ *
+ * @since 1.1.0
+ */
+public final class ProgramRetry {
+
+    private static final Map<Class<?>, Counters> STATISTICS = new ConcurrentHashMap<>();
+
+    private ProgramRetry() {
+    }
+
+    /**
+     * 再実行の対象であれば、デッドロック・タイムアウトで失敗した呼び出しを再実行します。
+     *
+     * @param <T> 結果の型
+     * @param descriptor プログラムのディスクリプタ
+     * @param param パラメータオブジェクト
+     * @param function テーブル値関数・スカラー値関数の場合は{@code true}
+     * @param remainingNanos 呼び出しの期限までの残り時間（ナノ秒、期限がない場合は{@link Long#MAX_VALUE}）
+     * @param call 呼び出し
+     * @return 呼び出しの結果
+     */
+    public static <T> T execute(ProgramDescriptor descriptor, DbProgram param, boolean function,
+                                LongSupplier remainingNanos, Supplier<T> call) {
+        var annotation = descriptor.getRetry();
+        var policy = DbProgramMapperOptions.getRetryPolicy();
+        if (annotation == null && !(function && policy.isRetryFunctions())) {
+            return call.get();
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return call.get();
+        }
+        var maxAttempts = annotation != null && annotation.maxAttempts() >= 0
+                ? annotation.maxAttempts() : policy.getMaxAttempts();
+        var initialNanos = annotation != null && annotation.initialBackoffMillis() >= 0
+                ? TimeUnit.MILLISECONDS.toNanos(annotation.initialBackoffMillis()) : policy.getInitialBackoff().toNanos();
+        var maxNanos = annotation != null && annotation.maxBackoffMillis() >= 0
+                ? TimeUnit.MILLISECONDS.toNanos(annotation.maxBackoffMillis()) : policy.getMaxBackoff().toNanos();
+        var onDeadlock = annotation == null || annotation.onDeadlock();
+        var onTimeout = annotation == null || annotation.onTimeout();
+        var inputs = descriptor.getInputValues(param);
+
+        for (int attempt = 1; ; attempt++) {
+            T result;
+            try {
+                result = call.get();
+            } catch (RuntimeException e) {
+                if (attempt < maxAttempts && isRetryable(e, onDeadlock, onTimeout)
+                        && backoff(descriptor, attempt, initialNanos, maxNanos, policy.getMultiplier(), remainingNanos)) {
+                    restoreInputs(descriptor, param, inputs);
+                    continue;
+                }
+                if (attempt > 1) {
+                    counters(descriptor).exhausted.increment();
+                }
+                throw e;
+            }
+            var retryable = isRetryable(result, param, onDeadlock, onTimeout);
+            if (retryable && attempt < maxAttempts
+                    && backoff(descriptor, attempt, initialNanos, maxNanos, policy.getMultiplier(), remainingNanos)) {
+                restoreInputs(descriptor, param, inputs);
+                continue;
+            }
+            if (attempt > 1) {
+                (retryable ? counters(descriptor).exhausted : counters(descriptor).recovered).increment();
+            }
+            return result;
+        }
+    }
+
+    /**
+     * プログラムの統計情報を返します。
+     *
+     * @param programType DBプログラムクラス
+     * @return 統計情報（再実行が発生していない場合は{@code null}）
+     */
+    public static Statistics getStatistics(Class<?> programType) {
+        var counters = STATISTICS.get(programType);
+        return counters != null ? counters.snapshot() : null;
+    }
+
+    /**
+     * 再実行が発生したすべてのプログラムの統計情報を返します。
+     *
+     * @return プログラムクラスごとの統計情報
+     */
+    public static Map<Class<?>, Statistics> getAllStatistics() {
+        var result = new LinkedHashMap<Class<?>, Statistics>();
+        STATISTICS.forEach((type, counters) -> result.put(type, counters.snapshot()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * 統計情報をクリアします。
+     */
+    public static void clear() {
+        STATISTICS.clear();
+    }
+
+    // --- private methods ---
+
+    private static boolean isRetryable(Object result, DbProgram param, boolean onDeadlock, boolean onTimeout) {
+        if (result instanceof ExecuteResult executeResult
+                && ((onDeadlock && executeResult.isDeadlockError()) || (onTimeout && executeResult.isTimeoutError()))) {
+            return true;
+        }
+        if (param instanceof DbProgramWithErrorBase withError && withError.getSqlErrorCd() != null) {
+            var errorCodes = DbProgramMapperOptions.getErrorCodes();
+            var code = withError.getSqlErrorCd();
+            return (onDeadlock && code.equals(errorCodes.getDeadlock()))
+                    || (onTimeout && code.equals(errorCodes.getTimeout()));
+        }
+        return false;
+    }
+
+    private static boolean isRetryable(RuntimeException e, boolean onDeadlock, boolean onTimeout) {
+        if (onDeadlock && e instanceof PessimisticLockingFailureException) {
+            return true;
+        }
+        if (onTimeout && e instanceof QueryTimeoutException) {
+            return true;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql) {
+                var state = sql.getSQLState();
+                var code = sql.getErrorCode();
+                if (onDeadlock && ("40001".equals(state) || "40P01".equals(state) || code == 1205 || code == 1213)) {
+                    return true;
+                }
+                if (onTimeout && ("55P03".equals(state) || code == 1222)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean backoff(ProgramDescriptor descriptor, int attempt, long initialNanos, long maxNanos,
+                                   double multiplier, LongSupplier remainingNanos) {
+        var cap = (long) Math.min(maxNanos, initialNanos * Math.pow(multiplier, attempt - 1));
+        var sleep = cap > 0 ? ThreadLocalRandom.current().nextLong(cap + 1) : 0;
+        // 待機後に期限が残らない場合は再実行しない
+        if (sleep >= remainingNanos.getAsLong()) {
+            return false;
+        }
+        counters(descriptor).retries.increment();
+        try {
+            TimeUnit.NANOSECONDS.sleep(sleep);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void restoreInputs(ProgramDescriptor descriptor, DbProgram param, Object[] inputs) {
+        var slots = descriptor.getInputParameters();
+        for (int i = 0; i < inputs.length; i++) {
+            slots.get(i).setValue(param, inputs[i]);
+        }
+    }
+
+    private static Counters counters(ProgramDescriptor descriptor) {
+        return STATISTICS.computeIfAbsent(descriptor.getProgramType(), type -> new Counters());
+    }
+
+    private static final class Counters {
+        final LongAdder retries = new LongAdder();
+        final LongAdder recovered = new LongAdder();
+        final LongAdder exhausted = new LongAdder();
+
+        Statistics snapshot() {
+            return new Statistics(retries.sum(), recovered.sum(), exhausted.sum());
+        }
+    }
+
+    /**
+     * 再実行の統計情報。
+     */
+    public static final class Statistics {
+        private final long retryCount;
+        private final long recoveredCount;
+        private final long exhaustedCount;
+
+        Statistics(long retryCount, long recoveredCount, long exhaustedCount) {
+            this.retryCount = retryCount;
+            this.recoveredCount = recoveredCount;
+            this.exhaustedCount = exhaustedCount;
+        }
+
+        /**
+         * 再実行の回数を返します。
+         *
+         * @return 再実行の回数
+         */
+        public long getRetryCount() {
+            return retryCount;
+        }
+
+        /**
+         * 再実行により成功した呼び出し数を返します。
+         *
+         * @return 再実行により成功した呼び出し数
+         */
+        public long getRecoveredCount() {
+            return recoveredCount;
+        }
+
+        /**
+         * 再実行しても成功しなかった呼び出し数を返します。
+         *
+         * @return 再実行しても成功しなかった呼び出し数
+         */
+        public long getExhaustedCount() {
+            return exhaustedCount;
+        }
+
+        @Override
+        public String toString() {
+            return "ProgramRetry[retries=" + retryCount + ", recovered=" + recoveredCount
+                    + ", exhausted=" + exhaustedCount + "]";
+        }
+    }
+}
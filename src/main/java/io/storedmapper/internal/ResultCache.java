@@ -0,0 +1,461 @@
+package io.storedmapper.internal;
+
+import io.storedmapper.DbProgram;
+import io.storedmapper.annotation.DbProgramCacheable;
+import io.storedmapper.annotation.DbProgramInvalidates;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * {@link DbProgramCacheable}が付与されたプログラムの結果キャッシュ。
+ *
+ * <p>プログラムクラスごとに{@link DbProgramCacheable#maxEntries()}件を上限とするLRUキャッシュを持ち、
+ * SQL種別・RowMapper（結果クラスの場合は{@code IndexedRowMapperFactory}のインスタンス）・ORDER BY句・
+ * 入力パラメータの値をキーとします。結果のリストは変更できないリストとして保持されます。</p>
+ *
+ * <p>キャッシュした値はヒットした呼び出しにそのまま返されるため、結果（リストの場合は各要素）は
+ * 不変の型に限ります。不変の型は、プリミティブ型のラッパー・{@code String}・{@code BigDecimal}・
+ * {@code BigInteger}・{@code UUID}・{@code java.time}の型・列挙型と、コンポーネントがすべて不変の型である
+ * レコードです。結果クラスを指定した呼び出しは、SQLを実行する前に結果クラスを検証し、
+ * それ以外（POJOや{@code java.sql.Timestamp}など）の場合は結果が空でも{@link IllegalArgumentException}で
+ * 拒否します。カスタムRowMapperの結果は、キャッシュへの登録時に値の型で検証します。</p>
+ *
+ * <p>カスタムRowMapperを使用する場合は、同じインスタンスを再利用した呼び出しのみがヒットします。</p>
+ *
+ * <p>{@link DbProgramInvalidates}が付与されたプロシージャの実行後は、
+ * {@link #invalidationFor(ProgramDescriptor, DbProgram)}で対象のエントリを削除します。
+ * 削除のたびにプログラムの世代を進め、削除より前に開始した読み込みの結果は登録しません。
+ * 世代を進める前に{@link InFlightCalls}の実行中の呼び出しを切り離し、削除後の呼び出しが
+ * 削除前に開始した読み込みの結果を共有して新しい世代で登録することを防ぎます。
+ * 削除した時刻は{@link #isInvalidatedWithin(Class, Duration)}で確認でき、読み取りレプリカを使用する場合は
+ * 削除後の再読み込みをプライマリで行う判断に使用されます。</p>
+ *
+ * @since 1.1.0
+ */
+public final class ResultCache {
+
+    private static final Map<Class<?>, Region> REGIONS = new ConcurrentHashMap<>();
+
+    private static final ClassValue<List<InvalidationRule>> RULES = new ClassValue<>() {
+        @Override
+        protected List<InvalidationRule> computeValue(Class<?> type) {
+            return buildRules(type);
+        }
+    };
+
+    /** nullの結果を表す値 */
+    private static final Object NULL_VALUE = new Object();
+
+    /** レコード・列挙型・{@code java.time}以外の不変の値型 */
+    private static final Set<Class<?>> VALUE_TYPES = Set.of(String.class, Boolean.class, Character.class,
+            Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class,
+            BigDecimal.class, BigInteger.class, UUID.class);
+
+    private static final ClassValue<Boolean> IMMUTABLE = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return isImmutable(type);
+        }
+    };
+
+    private ResultCache() {
+    }
+
+    /**
+     * キャッシュ済みの結果を返します。未登録の場合は読み込んで登録します。
+     *
+     * <p>プログラムに{@link DbProgramCacheable}が付与されていない場合は常に読み込みます。</p>
+     *
+     * @param <T> 結果の型
+     * @param descriptor プログラムのディスクリプタ
+     * @param kind SQL文の種別
+     * @param mapping 結果のマッピング（RowMapperまたは結果クラス）
+     * @throws IllegalArgumentException 結果クラスが不変の型でない場合
+     * @param orderBy ORDER BY句（なしの場合は{@code null}）
+     * @param param パラメータオブジェクト
+     * @param loader 結果の読み込み処理
+     * @return 結果
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T get(ProgramDescriptor descriptor, SqlCache.Kind kind, Object mapping, String orderBy,
+                            DbProgram param, Supplier<T> loader) {
+        var cacheable = descriptor.getCacheable();
+        if (cacheable == null) {
+            return loader.get();
+        }
+        if (mapping instanceof Class<?> resultType) {
+            // 結果が空の場合も誤りに気付けるよう、読み込み前に結果クラスを検証する
+            requireImmutable(descriptor, resultType);
+        }
+        var region = REGIONS.computeIfAbsent(descriptor.getProgramType(), type -> new Region(cacheable));
+        var key = new CallKey(descriptor.getProgramType(), kind, mapping, orderBy,
+                descriptor.getInputValues(param));
+        var cached = region.get(key);
+        if (cached != null) {
+            return cached == NULL_VALUE ? null : (T) cached;
+        }
+        // 読み込み中に削除された場合は、削除前の値を登録しない
+        var generation = region.generation();
+        var value = freeze(loader.get());
+        requireImmutable(descriptor, value);
+        region.put(key, value == null ? NULL_VALUE : value, generation);
+        return value;
+    }
+
+    /**
+     * プログラムの統計情報を返します。
+     *
+     * @param programType DBプログラムクラス
+     * @return 統計情報（キャッシュが使用されていない場合は{@code null}）
+     */
+    public static Statistics getStatistics(Class<?> programType) {
+        var region = REGIONS.get(programType);
+        return region != null ? region.statistics() : null;
+    }
+
+    /**
+     * 指定した時間内にプログラムのキャッシュエントリが削除されたかどうかを返します。
+     *
+     * @param programType DBプログラムクラス
+     * @param window 現在からさかのぼる時間
+     * @return 時間内に削除された場合は{@code true}
+     */
+    public static boolean isInvalidatedWithin(Class<?> programType, Duration window) {
+        var region = REGIONS.get(programType);
+        return region != null && region.isInvalidatedWithin(window.toNanos());
+    }
+
+    /**
+     * キャッシュが使用されているすべてのプログラムの統計情報を返します。
+     *
+     * @return プログラムクラスごとの統計情報
+     */
+    public static Map<Class<?>, Statistics> getAllStatistics() {
+        var result = new LinkedHashMap<Class<?>, Statistics>();
+        REGIONS.forEach((type, region) -> result.put(type, region.statistics()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * プログラムのキャッシュエントリをすべて削除します。
+     *
+     * @param programType DBプログラムクラス
+     */
+    public static void invalidate(Class<?> programType) {
+        InFlightCalls.detach(programType);
+        var region = REGIONS.get(programType);
+        if (region != null) {
+            region.clear();
+        }
+    }
+
+    /**
+     * 指定したパラメータの値が一致するエントリを削除します。
+     *
+     * @param programType DBプログラムクラス
+     * @param parameterValues パラメータ名（{@code @DbParameterName}の値またはフィールド名）と値
+     */
+    public static void invalidate(Class<?> programType, Map<String, ?> parameterValues) {
+        InFlightCalls.detach(programType);
+        var region = REGIONS.get(programType);
+        if (region == null) {
+            return;
+        }
+        var inputs = ProgramDescriptor.of(programType).getInputParameters();
+        var indexes = new int[parameterValues.size()];
+        var values = new Object[parameterValues.size()];
+        int i = 0;
+        for (var entry : parameterValues.entrySet()) {
+            indexes[i] = indexOf(inputs, entry.getKey(), programType);
+            values[i] = entry.getValue();
+            i++;
+        }
+        region.removeMatching(indexes, values);
+    }
+
+    /**
+     * プロシージャの実行後に削除するエントリを、現在のパラメータの値で確定します。
+     *
+     * @param descriptor 実行したプロシージャのディスクリプタ
+     * @param param パラメータオブジェクト
+     * @return 削除処理（{@link DbProgramInvalidates}が付与されていない場合は{@code null}）
+     */
+    public static Runnable invalidationFor(ProgramDescriptor descriptor, DbProgram param) {
+        var rules = RULES.get(descriptor.getProgramType());
+        if (rules.isEmpty()) {
+            return null;
+        }
+        var snapshots = new ArrayList<Runnable>(rules.size());
+        for (var rule : rules) {
+            var values = new Object[rule.sourceSlots().length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = rule.sourceSlots()[i].getValue(param);
+            }
+            snapshots.add(() -> {
+                InFlightCalls.detach(rule.target());
+                var region = REGIONS.get(rule.target());
+                if (region != null) {
+                    region.removeMatching(rule.targetIndexes(), values);
+                }
+            });
+        }
+        return () -> snapshots.forEach(Runnable::run);
+    }
+
+    private static List<InvalidationRule> buildRules(Class<?> type) {
+        var annotations = type.getAnnotationsByType(DbProgramInvalidates.class);
+        if (annotations.length == 0) {
+            return List.of();
+        }
+        var sourceSlots = ProgramDescriptor.of(type).getParameters();
+        var rules = new ArrayList<InvalidationRule>(annotations.length);
+        for (var annotation : annotations) {
+            var target = annotation.value();
+            var targetInputs = ProgramDescriptor.of(target).getInputParameters();
+            var indexes = new int[annotation.match().length];
+            var slots = new ParameterSlot[annotation.match().length];
+            for (int i = 0; i < indexes.length; i++) {
+                var match = annotation.match()[i];
+                var separator = match.indexOf('=');
+                var targetName = separator < 0 ? match.trim() : match.substring(0, separator).trim();
+                var sourceName = separator < 0 ? targetName : match.substring(separator + 1).trim();
+                indexes[i] = indexOf(targetInputs, targetName, target);
+                slots[i] = sourceSlots.get(indexOf(sourceSlots, sourceName, type));
+            }
+            rules.add(new InvalidationRule(target, indexes, slots));
+        }
+        return List.copyOf(rules);
+    }
+
+    private static int indexOf(List<ParameterSlot> slots, String name, Class<?> programType) {
+        for (int i = 0; i < slots.size(); i++) {
+            var slot = slots.get(i);
+            if (slot.getName().equals(name) || slot.getField().getName().equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Parameter '" + name + "' is not a parameter of "
+                + programType.getName() + ".");
+    }
+
+    /**
+     * キャッシュと統計情報をクリアします。
+     */
+    public static void clear() {
+        REGIONS.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T freeze(T value) {
+        // 読み込んだリストは呼び出し元に渡る前のため、ラップのみで外部からの変更を防げる
+        if (value instanceof List<?> list) {
+            return (T) Collections.unmodifiableList(list);
+        }
+        return value;
+    }
+
+    private static void requireImmutable(ProgramDescriptor descriptor, Object value) {
+        if (value instanceof List<?> list) {
+            for (var element : list) {
+                requireImmutable(descriptor, element);
+            }
+        } else if (value != null) {
+            requireImmutable(descriptor, value.getClass());
+        }
+    }
+
+    private static void requireImmutable(ProgramDescriptor descriptor, Class<?> type) {
+        if (!IMMUTABLE.get(type)) {
+            throw new IllegalArgumentException("Result type " + type.getName() + " of @DbProgramCacheable "
+                    + descriptor.getProgramType().getName()
+                    + " must be immutable (a record of immutable components or a value type).");
+        }
+    }
+
+    private static boolean isImmutable(Class<?> type) {
+        if (type.isPrimitive() || VALUE_TYPES.contains(type) || Enum.class.isAssignableFrom(type)
+                || type.getPackageName().equals("java.time")) {
+            return true;
+        }
+        if (!type.isRecord()) {
+            return false;
+        }
+        for (var component : type.getRecordComponents()) {
+            if (component.getType() != type && !IMMUTABLE.get(component.getType())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * プログラム1件分のLRUキャッシュ。
+     */
+    private static final class Region {
+        private final long ttlNanos;
+        private final LinkedHashMap<CallKey, Entry> entries;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+        private long generation;
+        // 削除前は十分に過去の時刻として扱う
+        private volatile long invalidatedAt = System.nanoTime() - Long.MAX_VALUE / 2;
+
+        Region(DbProgramCacheable cacheable) {
+            if (cacheable.maxEntries() <= 0) {
+                throw new IllegalArgumentException("maxEntries of @DbProgramCacheable must be positive.");
+            }
+            if (cacheable.ttl() < 0) {
+                throw new IllegalArgumentException("ttl of @DbProgramCacheable must not be negative.");
+            }
+            var maxEntries = cacheable.maxEntries();
+            this.ttlNanos = cacheable.ttl() == 0 ? 0 : cacheable.unit().toNanos(cacheable.ttl());
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<CallKey, Entry> eldest) {
+                    if (size() > maxEntries) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        Object get(CallKey key) {
+            var now = System.nanoTime();
+            synchronized (this) {
+                var entry = entries.get(key);
+                if (entry != null && (ttlNanos == 0 || now - entry.createdAt() < ttlNanos)) {
+                    hits.increment();
+                    return entry.value();
+                }
+                if (entry != null) {
+                    entries.remove(key);
+                }
+            }
+            misses.increment();
+            return null;
+        }
+
+        synchronized long generation() {
+            return generation;
+        }
+
+        /**
+         * 読み込み開始時の世代から削除が行われていない場合のみ登録します。
+         */
+        synchronized void put(CallKey key, Object value, long loadGeneration) {
+            if (generation == loadGeneration) {
+                entries.put(key, new Entry(value, System.nanoTime()));
+            }
+        }
+
+        synchronized void clear() {
+            generation++;
+            invalidatedAt = System.nanoTime();
+            entries.clear();
+        }
+
+        synchronized void removeMatching(int[] indexes, Object[] values) {
+            generation++;
+            invalidatedAt = System.nanoTime();
+            if (indexes.length == 0) {
+                entries.clear();
+                return;
+            }
+            entries.keySet().removeIf(key -> key.matches(indexes, values));
+        }
+
+        boolean isInvalidatedWithin(long windowNanos) {
+            return System.nanoTime() - invalidatedAt < windowNanos;
+        }
+
+        Statistics statistics() {
+            int size;
+            synchronized (this) {
+                size = entries.size();
+            }
+            return new Statistics(size, hits.sum(), misses.sum(), evictions.sum());
+        }
+    }
+
+    private record Entry(Object value, long createdAt) {
+    }
+
+    /**
+     * {@link DbProgramInvalidates}1件分の解決済みの削除ルール。
+     *
+     * @param target 削除対象のプログラムクラス
+     * @param targetIndexes 比較する削除対象の入力パラメータの位置
+     * @param sourceSlots 比較する値を持つ実行プロシージャのパラメータ
+     */
+    private record InvalidationRule(Class<?> target, int[] targetIndexes, ParameterSlot[] sourceSlots) {
+    }
+
+    /**
+     * 結果キャッシュの統計情報。
+     */
+    public static final class Statistics {
+        private final int size;
+        private final long hitCount;
+        private final long missCount;
+        private final long evictionCount;
+
+        Statistics(int size, long hitCount, long missCount, long evictionCount) {
+            this.size = size;
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        /**
+         * 上限を超えたために削除されたエントリ数を返します。
+         *
+         * @return 削除されたエントリ数
+         */
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        /**
+         * ヒット率を返します。
+         *
+         * @return ヒット率（0.0〜1.0）。参照がない場合は0.0
+         */
+        public double getHitRate() {
+            var total = hitCount + missCount;
+            return total == 0 ? 0.0 : (double) hitCount / total;
+        }
+
+        @Override
+        public String toString() {
+            return "ResultCache[size=" + size + ", hits=" + hitCount + ", misses=" + missCount
+                    + ", evictions=" + evictionCount + "]";
+        }
+    }
+}
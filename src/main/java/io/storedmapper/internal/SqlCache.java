@@ -0,0 +1,192 @@
+package io.storedmapper.internal;
+
+import io.storedmapper.DbProgramMapperOptions;
+import io.storedmapper.dialect.DbDialect;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 生成済みSQL文のキャッシュ。
+ *
+ * <p>プログラムクラス・SQL種別・方言・スキーマ・ORDER BY句ごとに同一の{@link String}インスタンスを返すため、
+ * ドライバ側のステートメントキャッシュ（pgjdbc、mssql-jdbc、Connector/J）が確実にヒットします。</p>
+ *
+ * <p>エントリ数は{@link DbProgramMapperOptions#getSqlCacheMaxSize()}を上限とするLRUで、
+ * 上限を超えると最も長く参照されていないSQL文から削除します。
+ * プログラムごとのORDER BY句のバリエーション数は
+ * {@link DbProgramMapperOptions#getSqlCacheMaxOrderByVariants()}で制限され、
+ * 上限を超えたORDER BY句のSQL文はキャッシュせず、呼び出しごとに生成します。
+ * 方言はクラスで識別し、設定の変更時にはキャッシュ全体をクリアします。</p>
+ *
+ * @since 1.1.0
+ */
+public final class SqlCache {
+
+    private static final Object LOCK = new Object();
+
+    /** プログラムごとのキャッシュ済みのORDER BY句のバリエーション数（{@link #LOCK}で保護） */
+    private static final Map<Class<?>, Integer> ORDER_BY_VARIANTS = new HashMap<>();
+
+    /** アクセス順のLRU（{@link #LOCK}で保護） */
+    private static final LinkedHashMap<Key, String> CACHE = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, String> eldest) {
+            if (size() <= DbProgramMapperOptions.getSqlCacheMaxSize()) {
+                return false;
+            }
+            releaseOrderByVariant(eldest.getKey());
+            return true;
+        }
+    };
+
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+
+    private SqlCache() {
+    }
+
+    /**
+     * SQL文の種別。
+     */
+    public enum Kind {
+        /** テーブル値関数のSELECT文 */
+        TABLE_FUNCTION,
+        /** 先頭1行に制限したテーブル値関数のSELECT文 */
+        TABLE_FUNCTION_FIRST_ROW,
+        /** 一意性の確認用に2行に制限したテーブル値関数のSELECT文 */
+        TABLE_FUNCTION_SINGLE_ROW,
+        /** スカラー値関数のSELECT文 */
+        SCALAR_FUNCTION,
+        /** ストアドプロシージャのCALL文 */
+        STORED_PROCEDURE,
+        /** CallableStatement用のCALL文 */
+        CALLABLE_STATEMENT
+    }
+
+    /**
+     * キャッシュ済みのSQL文を返します。未登録の場合は生成して登録します。
+     *
+     * @param programType DBプログラムクラス
+     * @param kind SQL文の種別
+     * @param schema 解決済みのスキーマ名
+     * @param orderByExpression ORDER BY句（なしの場合は{@code null}）
+     * @param factory SQL文の生成処理
+     * @return SQL文
+     */
+    static String get(Class<?> programType, Kind kind, String schema, String orderByExpression,
+                      Supplier<String> factory) {
+        var key = new Key(programType, kind, DbProgramMapperOptions.getDialect().getClass(), schema,
+                orderByExpression);
+        synchronized (LOCK) {
+            var sql = CACHE.get(key);
+            if (sql != null) {
+                HITS.increment();
+                return sql;
+            }
+        }
+        MISSES.increment();
+        var sql = factory.get();
+        synchronized (LOCK) {
+            var existing = CACHE.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            if (orderByExpression != null && !reserveOrderByVariant(programType)) {
+                return sql;
+            }
+            CACHE.put(key, sql);
+        }
+        return sql;
+    }
+
+    /**
+     * キャッシュの統計情報を返します。
+     *
+     * @return 統計情報
+     */
+    public static Statistics getStatistics() {
+        int size;
+        synchronized (LOCK) {
+            size = CACHE.size();
+        }
+        return new Statistics(size, HITS.sum(), MISSES.sum());
+    }
+
+    /**
+     * キャッシュと統計情報をクリアします。
+     */
+    public static void clear() {
+        synchronized (LOCK) {
+            CACHE.clear();
+            ORDER_BY_VARIANTS.clear();
+        }
+        HITS.reset();
+        MISSES.reset();
+    }
+
+    private static boolean reserveOrderByVariant(Class<?> programType) {
+        var current = ORDER_BY_VARIANTS.getOrDefault(programType, 0);
+        if (current >= DbProgramMapperOptions.getSqlCacheMaxOrderByVariants()) {
+            return false;
+        }
+        ORDER_BY_VARIANTS.put(programType, current + 1);
+        return true;
+    }
+
+    private static void releaseOrderByVariant(Key key) {
+        if (key.orderByExpression() != null) {
+            // 削除したORDER BY句の分だけ、新しいバリエーションをキャッシュできるようにする
+            ORDER_BY_VARIANTS.computeIfPresent(key.programType(), (type, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private record Key(Class<?> programType, Kind kind, Class<? extends DbDialect> dialect, String schema,
+                       String orderByExpression) {
+    }
+
+    /**
+     * SQLキャッシュの統計情報。
+     */
+    public static final class Statistics {
+        private final int size;
+        private final long hitCount;
+        private final long missCount;
+
+        Statistics(int size, long hitCount, long missCount) {
+            this.size = size;
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        /**
+         * ヒット率を返します。
+         *
+         * @return ヒット率（0.0〜1.0）。参照がない場合は0.0
+         */
+        public double getHitRate() {
+            var total = hitCount + missCount;
+            return total == 0 ? 0.0 : (double) hitCount / total;
+        }
+
+        @Override
+        public String toString() {
+            return "SqlCache[size=" + size + ", hits=" + hitCount + ", misses=" + missCount + "]";
+        }
+    }
+}
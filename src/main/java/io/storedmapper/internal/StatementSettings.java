@@ -0,0 +1,147 @@
+package io.storedmapper.internal;
+
+import io.storedmapper.annotation.DbProgramStatement;
+
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link DbProgramStatement}に基づくステートメント設定と、フェッチサイズの自動調整。
+ *
+ * <p>{@link DbProgramStatement#adaptiveFetchSize()}が有効なプログラムは、テーブル値関数の行数の
+ * 指数移動平均をプログラムクラスごとに記録し、平均行数に1を加えた値（終端の確認を同じ往復で行うため）を
+ * フェッチサイズとします。上限は{@link DbProgramStatement#fetchSize()}、未指定の場合は
+ * {@value #DEFAULT_MAX_ADAPTIVE_FETCH_SIZE}です。</p>
+ *
+ * @since 1.1.0
+ */
+public final class StatementSettings {
+
+    /** 自動調整のフェッチサイズの上限のデフォルト */
+    public static final int DEFAULT_MAX_ADAPTIVE_FETCH_SIZE = 1_000;
+
+    /** 移動平均で直近の行数に与える重み */
+    private static final double SMOOTHING = 0.2;
+
+    private static final Map<Class<?>, RowCount> ROW_COUNTS = new ConcurrentHashMap<>();
+
+    private StatementSettings() {
+    }
+
+    /**
+     * 最大行数・クエリタイムアウト・フェッチサイズをステートメントに設定します。
+     *
+     * @param stmt 設定するステートメント
+     * @param descriptor プログラムのディスクリプタ
+     * @param dataSource トランザクションのタイムアウトの確認に使用するDataSource
+     * @throws SQLException 設定に失敗した場合
+     */
+    public static void apply(Statement stmt, ProgramDescriptor descriptor, DataSource dataSource)
+            throws SQLException {
+        applyLimits(stmt, descriptor, dataSource);
+        var fetchSize = fetchSizeFor(descriptor);
+        if (fetchSize >= 0) {
+            stmt.setFetchSize(fetchSize);
+        }
+    }
+
+    /**
+     * 最大行数とクエリタイムアウトのみをステートメントに設定します。
+     * フェッチサイズを方言が決定するストリーミングで使用します。
+     *
+     * @param stmt 設定するステートメント
+     * @param descriptor プログラムのディスクリプタ
+     * @param dataSource トランザクションのタイムアウトの確認に使用するDataSource
+     * @throws SQLException 設定に失敗した場合
+     */
+    public static void applyLimits(Statement stmt, ProgramDescriptor descriptor, DataSource dataSource)
+            throws SQLException {
+        var settings = descriptor.getStatementSettings();
+        if (settings == null) {
+            return;
+        }
+        if (settings.maxRows() >= 0) {
+            stmt.setMaxRows(settings.maxRows());
+        }
+        if (settings.queryTimeout() >= 0) {
+            DataSourceUtils.applyTimeout(stmt, dataSource, settings.queryTimeout());
+        }
+    }
+
+    /**
+     * プログラムのフェッチサイズを返します。
+     *
+     * @param descriptor プログラムのディスクリプタ
+     * @return フェッチサイズ（指定がない場合は{@code -1}）
+     */
+    public static int fetchSizeFor(ProgramDescriptor descriptor) {
+        var settings = descriptor.getStatementSettings();
+        if (settings == null) {
+            return -1;
+        }
+        if (settings.adaptiveFetchSize()) {
+            var rowCount = ROW_COUNTS.get(descriptor.getProgramType());
+            if (rowCount != null) {
+                var max = settings.fetchSize() > 0 ? settings.fetchSize() : DEFAULT_MAX_ADAPTIVE_FETCH_SIZE;
+                if (settings.maxRows() > 0) {
+                    max = Math.min(max, settings.maxRows());
+                }
+                return (int) Math.min(max, (long) Math.ceil(rowCount.average()) + 1);
+            }
+        }
+        return settings.fetchSize();
+    }
+
+    /**
+     * テーブル値関数で取得した行数を記録します。
+     * 自動調整が有効でないプログラムの場合は何もしません。
+     *
+     * @param descriptor プログラムのディスクリプタ
+     * @param rows 取得した行数
+     */
+    public static void recordRowCount(ProgramDescriptor descriptor, int rows) {
+        var settings = descriptor.getStatementSettings();
+        if (settings == null || !settings.adaptiveFetchSize()) {
+            return;
+        }
+        ROW_COUNTS.computeIfAbsent(descriptor.getProgramType(), type -> new RowCount()).record(rows);
+    }
+
+    /**
+     * 記録された平均行数を返します。
+     *
+     * @param programType DBプログラムクラス
+     * @return 平均行数（記録がない場合は{@code -1}）
+     */
+    public static double getAverageRowCount(Class<?> programType) {
+        var rowCount = ROW_COUNTS.get(programType);
+        return rowCount != null ? rowCount.average() : -1;
+    }
+
+    /**
+     * 記録された行数をクリアします。
+     */
+    public static void clear() {
+        ROW_COUNTS.clear();
+    }
+
+    /**
+     * プログラム1件分の行数の指数移動平均。
+     */
+    private static final class RowCount {
+        private double average = -1;
+
+        synchronized void record(int rows) {
+            average = average < 0 ? rows : average + SMOOTHING * (rows - average);
+        }
+
+        synchronized double average() {
+            return average;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package io.storedmapper.internal;
+
+import io.storedmapper.DbProgram;
+
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * フィールド型ごとのJDBCバインド/読み取り方法。
+ *
+ * <p>{@link ParameterSlot}の構築時にフィールド型から一度だけ選択され、
+ * {@code setObject}/{@code getObject}を経由せず型付きのセッター・ゲッターを使用します。
+ * 該当しない型は{@link StatementCreatorUtils}と{@code getObject}にフォールバックします。</p>
+ *
+ * <p>フィールドへのアクセスは{@link #valueType()}に変換済みのゲッター/セッターを{@code invokeExact}で呼び出すため、
+ * 呼び出しごとの型の変換やプリミティブ値のボクシングは発生しません。</p>
+ */
+enum ValueBinder {
+
+    STRING(Object.class) {
+        @Override
+        void bind(MethodHandle getter, DbProgram param, PreparedStatement ps, int index) throws Throwable {
+            var value = (String) (Object) getter.invokeExact(param);
+            if (value == null) {
+                ps.setNull(index, Types.VARCHAR);
+            } else {
+                ps.setString(index, value);
+            }
+        }
+
+        @Override
+        void read(MethodHandle setter, DbProgram param, CallableStatement cs, int index) throws Throwable {
+            setter.invokeExact(param, (Object) cs.getString(index));
+        }
+    },
+
+    INT(int.class) {
+        @Override
+        void bind(MethodHandle getter, DbProgram param, PreparedStatement ps, int index) throws Throwable {
+            ps.setInt(index, (int) getter.invokeExact(param));
+        }
+
+        @Override
+        void read(MethodHandle setter, DbProgram param, CallableStatement cs, int index) throws Throwable {
+            setter.invokeExact(param, cs.getInt(index));
+        }
+    },
+
+    INTEGER(Object.class) {
+        @Override
+        void bind(MethodHandle getter, DbProgram param, PreparedStatement ps, int index) throws Throwable {
+            var value = (Integer) (Object) getter.invokeExact(param);
+            if (value == null) {
+                ps.setNull(index, Types.INTEGER);
+            } else {
+                ps.setInt(index, value);
+            }
+        }
+
+        @Override
+        void read(MethodHandle setter, DbProgram param, CallableStatement cs, int index) throws Throwable {
+            int value = cs.getInt(index);
+            setter.invokeExact(param, (Object) (cs.wasNull() ? null : Integer.valueOf(value)));
+        }
+    },
+
+    PRIMITIVE_LONG(long.class) {
+        @Override
+        void bind(MethodHandle getter, DbProgram param, PreparedStatement ps, int index) throws Throwable {
+            ps.setLong(index, (long) getter.invokeExact(param));
+        }
+
+        @Override
+        void read(MethodHandle setter, DbProgram param, CallableStatement cs, int index) throws Throwable {
+            setter.invokeExact(param, cs.getLong(index));
+        }
+    },
+
+    LONG(Object.class) {
+        @Override
+        void bind(MethodHandle getter, DbProgram param, PreparedStatement ps, int index) throws Throwable {
+            var value = (Long) (Object) getter.invokeExact(param);
+            if (value == null) {
+                ps.setNull(index, Types.BIGINT);
+            } else {
+                ps.setLong(index, value);
+            }
+        }
+
+        @Override
+        void read(MethodHandle setter, DbProgram param, CallableStatement cs, int index) throws Throwable {
+            long value = cs.getLong(index);
+            setter.invokeExact(param, (Object) (cs.wasNull() ? null : Long.valueOf(value)));
+        }
+    },
+
+    PRIMITIVE_BOOLEAN(boolean.class) {
+        @Override
+        void bind(MethodHandle getter, DbProgram param, PreparedStatement ps, int index) throws Throwable {
+            ps.setBoolean(index, (boolean) getter.invokeExact(param));
+        }
+
+        @Override
+        void read(MethodHandle setter, DbProgram param, CallableStatement cs, int index) throws Throwable {
+            setter.invokeExact(param, cs.getBoolean(index));
+        }
+    },
+
+    BOOLEAN(Object.class) {
+        @Override
+        void bind(MethodHandle getter, DbProgram param, PreparedStatement ps, int index) throws Throwable {
+            var value = (Boolean) (Object) getter.invokeExact(param);
+            if (value == null) {
+                ps.setNull(index, Types.BOOLEAN);
+            } else {
+                ps.setBoolean(index, value);
+            }
+        }
+
+        @Override
+        void read(MethodHandle setter, DbProgram param, CallableStatement cs, int index) throws Throwable {
+            boolean value = cs.getBoolean(index);
+            setter.invokeExact(param, (Object) (cs.wasNull() ? null : Boolean.valueOf(value)));
+        }
+    },
+
+    OBJECT(Object.class) {
+        @Override
+        void bind(MethodHandle getter, DbProgram param, PreparedStatement ps, int index) throws Throwable {
+            StatementCreatorUtils.setParameterValue(ps, index, SqlTypeValue.TYPE_UNKNOWN, (Object) getter.invokeExact(param));
+        }
+
+        @Override
+        void read(MethodHandle setter, DbProgram param, CallableStatement cs, int index) throws Throwable {
+            setter.invokeExact(param, (Object) cs.getObject(index));
+        }
+    };
+
+    private final Class<?> valueType;
+
+    ValueBinder(Class<?> valueType) {
+        this.valueType = valueType;
+    }
+
+    /**
+     * アクセサの値の型を返します。
+     *
+     * <p>{@link ParameterSlot}はフィールドのゲッター/セッターをこの型に変換したうえで渡し、
+     * 各バインド方法は同じ型で{@code invokeExact}します。</p>
+     *
+     * @return プリミティブ型のフィールドはその型、それ以外は{@link Object}
+     */
+    Class<?> valueType() {
+        return valueType;
+    }
+
+    /**
+     * フィールドの値を文にバインドします。
+     */
+    abstract void bind(MethodHandle getter, DbProgram param, PreparedStatement ps, int index) throws Throwable;
+
+    /**
+     * OUTPUTパラメータの値をフィールドに書き戻します。
+     */
+    abstract void read(MethodHandle setter, DbProgram param, CallableStatement cs, int index) throws Throwable;
+
+    /**
+     * フィールド型に対応するバインド方法を返します。
+     *
+     * @param type フィールド型
+     * @return バインド方法
+     */
+    static ValueBinder forType(Class<?> type) {
+        if (type == String.class) return STRING;
+        if (type == int.class) return INT;
+        if (type == Integer.class) return INTEGER;
+        if (type == long.class) return PRIMITIVE_LONG;
+        if (type == Long.class) return LONG;
+        if (type == boolean.class) return PRIMITIVE_BOOLEAN;
+        if (type == Boolean.class) return BOOLEAN;
+        return OBJECT;
+    }
+}
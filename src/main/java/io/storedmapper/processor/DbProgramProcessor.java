@@ -0,0 +1,349 @@
+package io.storedmapper.processor;
+
+import io.storedmapper.ParameterDirection;
+import io.storedmapper.annotation.DbParameterName;
+import io.storedmapper.annotation.DbParameterOrder;
+import io.storedmapper.annotation.DbParameterProperty;
+import io.storedmapper.annotation.DbProgramName;
+import io.storedmapper.internal.DbProgramValidator;
+import io.storedmapper.internal.ProgramDescriptor;
+import io.storedmapper.spi.DbProgramBinder;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@link DbProgramName}が付与されたクラスの{@link DbProgramBinder}を生成するアノテーションプロセッサ。
+ *
+ * <p>{@link DbProgramValidator}と同等の検証（プログラム名・スキーマ名の不正文字、
+ * {@code @DbParameterOrder}の重複）をコンパイルエラーとして報告し、
+ * パラメータ定義をソート済みで保持するバインダークラスを生成します。
+ * 生成したバインダーは{@code META-INF/services}に登録され（既存の登録は保持）、実行時は
+ * {@link ProgramDescriptor}がアノテーション解析の代わりに使用します。</p>
+ *
+ * <p>自動では有効にならないため、コンパイラオプションで明示的に指定してください。</p>
+ *
+ * <pre>{@code
+ * <plugin>
+ *     <groupId>org.apache.maven.plugins</groupId>
+ *     <artifactId>maven-compiler-plugin</artifactId>
+ *     <configuration>
+ *         <annotationProcessors>
+ *             <annotationProcessor>io.storedmapper.processor.DbProgramProcessor</annotationProcessor>
+ *         </annotationProcessors>
+ *     </configuration>
+ * </plugin>
+ * }</pre>
+ *
+ * @since 1.1.0
+ */
+@SupportedAnnotationTypes("io.storedmapper.annotation.DbProgramName")
+public class DbProgramProcessor extends AbstractProcessor {
+
+    /** 生成クラス名の接尾辞 */
+    static final String BINDER_SUFFIX = "_DbProgramBinder";
+
+    private final Set<String> generatedBinders = new LinkedHashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (var element : roundEnv.getElementsAnnotatedWith(DbProgramName.class)) {
+            if (element.getKind() != ElementKind.CLASS || element.getModifiers().contains(Modifier.ABSTRACT)) {
+                continue;
+            }
+            var type = (TypeElement) element;
+            var parameters = collectParameters(type);
+            if (validate(type, parameters) && isAccessible(type, parameters)) {
+                writeBinder(type, parameters);
+            }
+        }
+        if (roundEnv.processingOver() && !generatedBinders.isEmpty()) {
+            writeServiceFile();
+        }
+        return false;
+    }
+
+    // --- 検証 ---
+
+    private boolean validate(TypeElement type, List<Parameter> parameters) {
+        var annotation = type.getAnnotation(DbProgramName.class);
+        var valid = true;
+
+        var programName = annotation.value();
+        if (programName.isBlank()) {
+            error(type, "DbProgramName value is empty.");
+            valid = false;
+        } else if (DbProgramValidator.containsInvalidCharacters(programName)) {
+            error(type, "Program name '" + programName + "' contains invalid characters.");
+            valid = false;
+        }
+
+        var schema = annotation.schema();
+        if (!schema.isEmpty() && DbProgramValidator.containsInvalidCharacters(schema)) {
+            error(type, "Schema name '" + schema + "' contains invalid characters.");
+            valid = false;
+        }
+
+        var orderValues = new HashSet<Integer>();
+        for (var parameter : parameters) {
+            if (parameter.field.getAnnotation(DbParameterOrder.class) != null && !orderValues.add(parameter.order)) {
+                error(parameter.field.getEnclosingElement().equals(type) ? parameter.field : type,
+                        "DbParameterOrder value " + parameter.order + " is duplicated.");
+                valid = false;
+            }
+            if (parameter.direction != ParameterDirection.INPUT && isCollection(parameter.field.asType())) {
+                error(parameter.field.getEnclosingElement().equals(type) ? parameter.field : type,
+                        "Collection parameter '" + parameter.name + "' must be an INPUT parameter.");
+                valid = false;
+            }
+        }
+        return valid;
+    }
+
+    private boolean isCollection(TypeMirror type) {
+        var types = processingEnv.getTypeUtils();
+        var collection = processingEnv.getElementUtils().getTypeElement("java.util.Collection");
+        return type.getKind() == TypeKind.DECLARED
+                && types.isAssignable(types.erasure(type), types.erasure(collection.asType()));
+    }
+
+    /**
+     * 生成クラスから参照できないクラスが含まれる場合は生成をスキップし、実行時の解析に任せます。
+     */
+    private boolean isAccessible(TypeElement type, List<Parameter> parameters) {
+        var packageElement = packageOf(type);
+        if (!isAccessibleFrom(type, packageElement)) {
+            note(type, "Binder not generated because the class is not accessible from its package.");
+            return false;
+        }
+        for (var parameter : parameters) {
+            var declaringType = (TypeElement) parameter.field.getEnclosingElement();
+            if (!isAccessibleFrom(declaringType, packageElement)) {
+                note(type, "Binder not generated because " + declaringType.getQualifiedName()
+                        + " is not accessible from " + packageElement.getQualifiedName() + ".");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isAccessibleFrom(TypeElement type, PackageElement packageElement) {
+        Element current = type;
+        while (current instanceof TypeElement) {
+            var modifiers = current.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            if (!modifiers.contains(Modifier.PUBLIC) && !packageOf(current).equals(packageElement)) {
+                return false;
+            }
+            current = current.getEnclosingElement();
+        }
+        return true;
+    }
+
+    // --- パラメータ解析 ---
+
+    private List<Parameter> collectParameters(TypeElement type) {
+        var parameters = new ArrayList<Parameter>();
+        TypeElement current = type;
+        while (current != null && !current.getQualifiedName().contentEquals("java.lang.Object")) {
+            for (var field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                if (field.getAnnotation(DbParameterOrder.class) != null
+                        || field.getAnnotation(DbParameterProperty.class) != null) {
+                    parameters.add(new Parameter(field));
+                }
+            }
+            current = superclassOf(current);
+        }
+        // 実行時の解析と同じく、順序未指定のフィールドは宣言順（サブクラス優先）のまま末尾に並ぶ
+        parameters.sort(Comparator.comparingInt(p -> p.order));
+        return parameters;
+    }
+
+    private TypeElement superclassOf(TypeElement type) {
+        var superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        return (TypeElement) ((DeclaredType) superclass).asElement();
+    }
+
+    private static String typeName(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return type.toString();
+        }
+        if (type.getKind() == TypeKind.DECLARED) {
+            return ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+        }
+        return type.toString();
+    }
+
+    // --- コード生成 ---
+
+    private void writeBinder(TypeElement type, List<Parameter> parameters) {
+        var packageName = packageOf(type).getQualifiedName().toString();
+        var binderName = binderSimpleName(type);
+        var qualifiedBinderName = packageName.isEmpty() ? binderName : packageName + "." + binderName;
+
+        var sb = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            sb.append("package ").append(packageName).append(";\n\n");
+        }
+        sb.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+        sb.append("public final class ").append(binderName)
+                .append(" implements io.storedmapper.spi.DbProgramBinder {\n\n");
+        sb.append("    private static final java.util.List<io.storedmapper.spi.DbParameterDefinition> PARAMETERS"
+                + " = java.util.List.of(");
+        for (int i = 0; i < parameters.size(); i++) {
+            var parameter = parameters.get(i);
+            var declaringType = (TypeElement) parameter.field.getEnclosingElement();
+            sb.append(i == 0 ? "\n" : ",\n");
+            sb.append("            new io.storedmapper.spi.DbParameterDefinition(")
+                    .append(declaringType.getQualifiedName()).append(".class, ")
+                    .append(stringLiteral(parameter.field.getSimpleName().toString())).append(", ")
+                    .append(stringLiteral(parameter.name)).append(", ")
+                    .append(intLiteral(parameter.order)).append(", ")
+                    .append(intLiteral(parameter.sqlType)).append(", ")
+                    .append("io.storedmapper.ParameterDirection.").append(parameter.direction.name()).append(", ")
+                    .append(parameter.size).append(", ")
+                    .append(stringLiteral(parameter.typeName)).append(")");
+        }
+        sb.append(");\n\n");
+        sb.append("    @Override\n");
+        sb.append("    public Class<? extends io.storedmapper.DbProgram> programType() {\n");
+        sb.append("        return ").append(type.getQualifiedName()).append(".class;\n");
+        sb.append("    }\n\n");
+        sb.append("    @Override\n");
+        sb.append("    public java.util.List<io.storedmapper.spi.DbParameterDefinition> parameters() {\n");
+        sb.append("        return PARAMETERS;\n");
+        sb.append("    }\n");
+        sb.append("}\n");
+
+        try {
+            var file = processingEnv.getFiler().createSourceFile(qualifiedBinderName, type);
+            try (Writer writer = file.openWriter()) {
+                writer.write(sb.toString());
+            }
+            generatedBinders.add(qualifiedBinderName);
+        } catch (IOException e) {
+            error(type, "Failed to generate " + qualifiedBinderName + ": " + e.getMessage());
+        }
+    }
+
+    private void writeServiceFile() {
+        var resourceName = "META-INF/services/" + DbProgramBinder.class.getName();
+        // インクリメンタルコンパイルでは今回生成していないバインダーの登録も残す
+        var binders = new LinkedHashSet<String>();
+        try {
+            var existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", resourceName);
+            try (var reader = new BufferedReader(existing.openReader(true))) {
+                reader.lines()
+                        .map(String::strip)
+                        .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                        .forEach(binders::add);
+            }
+        } catch (IOException e) {
+            // 登録済みのバインダーがない
+        }
+        binders.addAll(generatedBinders);
+        try {
+            var file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", resourceName);
+            try (Writer writer = file.openWriter()) {
+                for (var binder : binders) {
+                    writer.write(binder);
+                    writer.write("\n");
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to write " + resourceName + ": " + e.getMessage());
+        }
+    }
+
+    static String binderSimpleName(TypeElement type) {
+        var names = new ArrayList<String>();
+        Element current = type;
+        while (current instanceof TypeElement) {
+            names.addFirst(current.getSimpleName().toString());
+            current = current.getEnclosingElement();
+        }
+        return String.join("_", names) + BINDER_SUFFIX;
+    }
+
+    private PackageElement packageOf(Element element) {
+        return processingEnv.getElementUtils().getPackageOf(element);
+    }
+
+    private static String stringLiteral(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static String intLiteral(int value) {
+        return value == Integer.MAX_VALUE ? "Integer.MAX_VALUE" : Integer.toString(value);
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private void note(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, message, element);
+    }
+
+    /**
+     * コンパイル時に解決したパラメータ定義。
+     */
+    private static final class Parameter {
+        private final VariableElement field;
+        private final String name;
+        private final int order;
+        private final int sqlType;
+        private final ParameterDirection direction;
+        private final int size;
+        private final String typeName;
+
+        Parameter(VariableElement field) {
+            this.field = field;
+            var nameAnnotation = field.getAnnotation(DbParameterName.class);
+            this.name = nameAnnotation != null ? nameAnnotation.value() : field.getSimpleName().toString();
+            var orderAnnotation = field.getAnnotation(DbParameterOrder.class);
+            this.order = orderAnnotation != null ? orderAnnotation.value() : Integer.MAX_VALUE;
+            var prop = field.getAnnotation(DbParameterProperty.class);
+            this.sqlType = prop != null && prop.sqlType() != Integer.MIN_VALUE
+                    ? prop.sqlType()
+                    : ProgramDescriptor.inferSqlType(typeName(field.asType()));
+            this.direction = prop != null ? prop.direction() : ParameterDirection.INPUT;
+            this.size = prop != null ? prop.size() : -1;
+            this.typeName = prop != null ? prop.typeName() : "";
+        }
+    }
+}
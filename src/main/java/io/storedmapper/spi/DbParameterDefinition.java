@@ -0,0 +1,87 @@
+package io.storedmapper.spi;
+
+import io.storedmapper.ParameterDirection;
+
+/**
+ * {@link DbProgramBinder}が提供する1パラメータ分の定義。
+ *
+ * <p>値はコンパイル時に{@code @DbParameterOrder}、{@code @DbParameterName}、
+ * {@code @DbParameterProperty}から解決済みです。</p>
+ *
+ * @since 1.1.0
+ */
+public final class DbParameterDefinition {
+
+    private final Class<?> declaringClass;
+    private final String fieldName;
+    private final String name;
+    private final int order;
+    private final int sqlType;
+    private final ParameterDirection direction;
+    private final int size;
+    private final String typeName;
+
+    public DbParameterDefinition(Class<?> declaringClass, String fieldName, String name, int order,
+                                 int sqlType, ParameterDirection direction, int size) {
+        this(declaringClass, fieldName, name, order, sqlType, direction, size, "");
+    }
+
+    public DbParameterDefinition(Class<?> declaringClass, String fieldName, String name, int order,
+                                 int sqlType, ParameterDirection direction, int size, String typeName) {
+        this.declaringClass = declaringClass;
+        this.fieldName = fieldName;
+        this.name = name;
+        this.order = order;
+        this.sqlType = sqlType;
+        this.direction = direction;
+        this.size = size;
+        this.typeName = typeName;
+    }
+
+    /**
+     * フィールドを宣言しているクラスを返します。
+     *
+     * @return 宣言クラス
+     */
+    public Class<?> getDeclaringClass() {
+        return declaringClass;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    /**
+     * SQLパラメータ名を返します。
+     *
+     * @return SQLパラメータ名
+     */
+    public String getName() {
+        return name;
+    }
+
+    public int getOrder() {
+        return order;
+    }
+
+    public int getSqlType() {
+        return sqlType;
+    }
+
+    public ParameterDirection getDirection() {
+        return direction;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * コレクションパラメータのデータベース型名を返します。
+     *
+     * @return データベース型名（未指定の場合は空文字列）
+     */
+    public String getTypeName() {
+        return typeName;
+    }
+}
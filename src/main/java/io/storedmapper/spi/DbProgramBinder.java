@@ -0,0 +1,32 @@
+package io.storedmapper.spi;
+
+import io.storedmapper.DbProgram;
+
+import java.util.List;
+
+/**
+ * DBプログラムクラスのパラメータ定義を提供するバインダー。
+ *
+ * <p>通常は{@link io.storedmapper.processor.DbProgramProcessor}によってコンパイル時に生成され、
+ * {@code META-INF/services}に登録されます。実行時はプログラムクラスと同じクラスローダーから
+ * 生成クラス名で読み込まれ、バインダーがあるクラスは、
+ * 実行時のアノテーション解析を行わずにパラメータ定義が構築されます。</p>
+ *
+ * @since 1.1.0
+ */
+public interface DbProgramBinder {
+
+    /**
+     * 対象のDBプログラムクラスを返します。
+     *
+     * @return DBプログラムクラス
+     */
+    Class<? extends DbProgram> programType();
+
+    /**
+     * パラメータ定義を{@code @DbParameterOrder}順で返します。
+     *
+     * @return パラメータ定義のリスト
+     */
+    List<DbParameterDefinition> parameters();
+}
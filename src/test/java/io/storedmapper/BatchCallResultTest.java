@@ -0,0 +1,32 @@
+package io.storedmapper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchCallResultTest {
+
+    @Test
+    void hasError_shouldReflectErrorCount() {
+        var result = new BatchCallResult(List.of(new ExecuteResult(1, null), new ExecuteResult(0, 1)), 1, false);
+        assertTrue(result.hasError());
+        assertEquals(2, result.getExecutedCount());
+        assertFalse(result.isStopped());
+    }
+
+    @Test
+    void getResults_shouldBeDefensiveCopy() {
+        var results = new ArrayList<ExecuteResult>();
+        results.add(new ExecuteResult(1, null));
+        var result = new BatchCallResult(results, 0, false);
+
+        results.clear();
+
+        assertEquals(1, result.getExecutedCount());
+        assertFalse(result.hasError());
+        assertThrows(UnsupportedOperationException.class, () -> result.getResults().clear());
+    }
+}
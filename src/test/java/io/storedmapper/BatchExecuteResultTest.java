@@ -0,0 +1,25 @@
+package io.storedmapper;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchExecuteResultTest {
+
+    @Test
+    void getTotalAffectedRows_shouldSumKnownCounts() {
+        var result = new BatchExecuteResult(new int[]{1, Statement.SUCCESS_NO_INFO, 3});
+        assertEquals(4, result.getTotalAffectedRows());
+        assertEquals(3, result.size());
+        assertEquals(Statement.SUCCESS_NO_INFO, result.getAffectedRows(1));
+    }
+
+    @Test
+    void getTotalAffectedRows_shouldReturnZeroWhenEmpty() {
+        var result = new BatchExecuteResult(new int[0]);
+        assertEquals(0, result.getTotalAffectedRows());
+        assertEquals(0, result.size());
+    }
+}
@@ -0,0 +1,288 @@
+package io.storedmapper;
+
+import io.storedmapper.annotation.DbParameterOrder;
+import io.storedmapper.annotation.DbProgramCacheable;
+import io.storedmapper.annotation.DbProgramCoalesced;
+import io.storedmapper.annotation.DbProgramName;
+import io.storedmapper.internal.InFlightCalls;
+import io.storedmapper.internal.ProgramDescriptor;
+import io.storedmapper.internal.ResultCache;
+import io.storedmapper.internal.SqlCache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InFlightCallsTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+
+    @BeforeEach
+    void setUp() {
+        DbProgramMapperOptions.reset();
+        ResultCache.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        threads.close();
+        DbProgramMapperOptions.reset();
+        ResultCache.clear();
+    }
+
+    // --- テスト用パラメータクラス ---
+
+    @DbProgramName("fn_get_stock")
+    @DbProgramCoalesced
+    static class GetStockParam extends DbProgramBase {
+        @DbParameterOrder(1) private String itemCd;
+
+        GetStockParam(String itemCd) {
+            this.itemCd = itemCd;
+        }
+    }
+
+    @DbProgramName("fn_get_stock")
+    @DbProgramCoalesced
+    @DbProgramCacheable
+    static class GetCachedStockParam extends DbProgramBase {
+        @DbParameterOrder(1) private String itemCd;
+
+        GetCachedStockParam(String itemCd) {
+            this.itemCd = itemCd;
+        }
+    }
+
+    @DbProgramName("fn_get_price")
+    static class GetPriceParam extends DbProgramBase {
+        @DbParameterOrder(1) private String itemCd;
+
+        GetPriceParam(String itemCd) {
+            this.itemCd = itemCd;
+        }
+    }
+
+    // --- テスト ---
+
+    @Test
+    void get_shouldShareResultOfRunningCall() throws Exception {
+        var leader = async(new GetStockParam("A001"), this::blockingLoad);
+        awaitLoads(1);
+        var followers = new ArrayList<CompletableFuture<List<String>>>();
+        for (int i = 0; i < 3; i++) {
+            followers.add(async(new GetStockParam("A001"), this::load));
+        }
+        awaitShared(3);
+        release.countDown();
+
+        var result = leader.get(5, TimeUnit.SECONDS);
+        for (var follower : followers) {
+            assertSame(result, follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertThrows(UnsupportedOperationException.class, () -> result.add("x"));
+    }
+
+    @Test
+    void get_shouldShareExceptionOfRunningCall() throws Exception {
+        var leader = async(new GetStockParam("A001"), () -> {
+            blockingLoad();
+            throw new TransientDataAccessResourceException("connection reset");
+        });
+        awaitLoads(1);
+        var follower = async(new GetStockParam("A001"), this::load);
+        awaitShared(1);
+        release.countDown();
+
+        var leaderError = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        var followerError = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TransientDataAccessResourceException.class, leaderError.getCause());
+        assertSame(leaderError.getCause(), followerError.getCause());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_shouldStopWaitingAtFollowerDeadline() throws Exception {
+        var leader = async(new GetStockParam("A001"), this::blockingLoad);
+        awaitLoads(1);
+
+        assertThrows(QueryTimeoutException.class,
+                () -> query(new GetStockParam("A001"), TimeUnit.MILLISECONDS.toNanos(20), this::load));
+
+        assertEquals(1, loads.get());
+        release.countDown();
+        leader.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void get_shouldStopWaitingWhenFollowerIsInterrupted() throws Exception {
+        var leader = async(new GetStockParam("A001"), this::blockingLoad);
+        awaitLoads(1);
+        var interrupted = new AtomicBoolean();
+        var follower = CompletableFuture.supplyAsync(() -> {
+            Thread.currentThread().interrupt();
+            try {
+                return query(new GetStockParam("A001"), this::load);
+            } finally {
+                interrupted.set(Thread.currentThread().isInterrupted());
+            }
+        }, threads);
+
+        var error = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(CancellationException.class, error.getCause());
+        assertTrue(interrupted.get());
+        release.countDown();
+        leader.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void get_shouldLoadAgainWhenLeaderTimesOut() throws Exception {
+        var leader = async(new GetStockParam("A001"), () -> {
+            blockingLoad();
+            throw new QueryTimeoutException("leader deadline exceeded");
+        });
+        awaitLoads(1);
+        var follower = async(new GetStockParam("A001"), this::load);
+        awaitShared(1);
+        release.countDown();
+
+        var leaderError = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(QueryTimeoutException.class, leaderError.getCause());
+        assertEquals(List.of("row"), follower.get(5, TimeUnit.SECONDS));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_shouldNotShareCallStartedBeforeInvalidation() throws Exception {
+        var leader = CompletableFuture.supplyAsync(
+                () -> cached(new GetCachedStockParam("A001"), this::blockingLoad), threads);
+        awaitLoads(1);
+
+        ResultCache.invalidate(GetCachedStockParam.class);
+        // 削除前に開始した呼び出しを共有せず、自身で読み込む
+        var joined = cached(new GetCachedStockParam("A001"), this::load);
+        release.countDown();
+        leader.get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, loads.get());
+        assertSame(joined, cached(new GetCachedStockParam("A001"), this::load));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_shouldLoadAgainAfterCompletion() {
+        query(new GetStockParam("A001"), this::load);
+        query(new GetStockParam("A001"), this::load);
+        assertEquals(2, loads.get());
+        assertEquals(0, InFlightCalls.getSharedCount(GetStockParam.class));
+    }
+
+    @Test
+    void get_shouldNotShareDifferentParameters() throws Exception {
+        var leader = async(new GetStockParam("A001"), this::blockingLoad);
+        awaitLoads(1);
+
+        query(new GetStockParam("B002"), this::load);
+
+        assertEquals(2, loads.get());
+        release.countDown();
+        leader.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void get_shouldNotShareInsideTransaction() throws Exception {
+        var leader = async(new GetStockParam("A001"), this::blockingLoad);
+        awaitLoads(1);
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            query(new GetStockParam("A001"), this::load);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        assertEquals(2, loads.get());
+        release.countDown();
+        leader.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void get_shouldNotShareWithoutAnnotation() throws Exception {
+        var leader = async(new GetPriceParam("A001"), this::blockingLoad);
+        awaitLoads(1);
+
+        query(new GetPriceParam("A001"), this::load);
+
+        assertEquals(2, loads.get());
+        release.countDown();
+        leader.get(5, TimeUnit.SECONDS);
+    }
+
+    private List<String> query(DbProgram param, Supplier<List<String>> loader) {
+        return query(param, Long.MAX_VALUE, loader);
+    }
+
+    private List<String> query(DbProgram param, long remainingNanos, Supplier<List<String>> loader) {
+        return InFlightCalls.get(ProgramDescriptor.of(param), SqlCache.Kind.TABLE_FUNCTION, String.class, null,
+                param, () -> remainingNanos, loader);
+    }
+
+    private List<String> cached(DbProgram param, Supplier<List<String>> loader) {
+        return ResultCache.get(ProgramDescriptor.of(param), SqlCache.Kind.TABLE_FUNCTION, String.class, null,
+                param, () -> query(param, loader));
+    }
+
+    private CompletableFuture<List<String>> async(DbProgram param, Supplier<List<String>> loader) {
+        return CompletableFuture.supplyAsync(() -> query(param, loader), threads);
+    }
+
+    private List<String> load() {
+        loads.incrementAndGet();
+        return new ArrayList<>(List.of("row"));
+    }
+
+    private List<String> blockingLoad() {
+        var result = load();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+
+    private void awaitLoads(int expected) throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (loads.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void awaitShared(long expected) throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (InFlightCalls.getSharedCount(GetStockParam.class) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+}
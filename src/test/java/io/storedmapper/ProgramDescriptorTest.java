@@ -0,0 +1,256 @@
+package io.storedmapper;
+
+import io.storedmapper.annotation.DbParameterName;
+import io.storedmapper.annotation.DbParameterOrder;
+import io.storedmapper.annotation.DbParameterProperty;
+import io.storedmapper.annotation.DbProgramName;
+import io.storedmapper.dialect.DbDialect;
+import io.storedmapper.internal.ParameterSlot;
+import io.storedmapper.internal.ProgramDescriptor;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProgramDescriptorTest {
+
+    // --- テスト用パラメータクラス ---
+
+    @DbProgramName("sp_update_user")
+    static class UpdateUserParam extends DbProgramWithErrorBase {
+        @DbParameterOrder(2) private String name;
+        @DbParameterOrder(1) @DbParameterName("p_user_id") private UUID userId;
+
+        UpdateUserParam(UUID userId, String name) {
+            this.userId = userId;
+            this.name = name;
+        }
+    }
+
+    @DbProgramName("sp_in_out")
+    static class InOutParam extends DbProgramBase {
+        @DbParameterOrder(1)
+        @DbParameterProperty(direction = ParameterDirection.INPUT_OUTPUT)
+        private Long counter;
+    }
+
+    @DbProgramName("sp_archive_tasks")
+    static class ArchiveTasksParam extends DbProgramBase {
+        @DbParameterOrder(1)
+        @DbParameterProperty(typeName = "dbo.IdList")
+        private java.util.List<Integer> taskIds;
+
+        ArchiveTasksParam(java.util.List<Integer> taskIds) {
+            this.taskIds = taskIds;
+        }
+    }
+
+    @DbProgramName("sp_invalid")
+    static class OutputCollectionParam extends DbProgramBase {
+        @DbParameterOrder(1)
+        @DbParameterProperty(direction = ParameterDirection.OUTPUT)
+        private java.util.List<Integer> ids;
+    }
+
+    @DbProgramName("sp_rename_item")
+    static class RenameItemParam extends DbProgramBase {
+        @DbParameterOrder(1)
+        @DbParameterProperty(sqlType = Types.CHAR)
+        private String itemCd;
+        @DbParameterOrder(2)
+        @DbParameterProperty(sqlType = Types.NVARCHAR)
+        private String name;
+        @DbParameterOrder(3)
+        @DbParameterProperty(sqlType = Types.TIMESTAMP)
+        private java.time.LocalDateTime renamedAt;
+
+        RenameItemParam(String itemCd, String name, java.time.LocalDateTime renamedAt) {
+            this.itemCd = itemCd;
+            this.name = name;
+            this.renamedAt = renamedAt;
+        }
+    }
+
+    @DbProgramName("sp_open_tasks")
+    static class OpenTasksParam extends DbProgramBase {
+        @DbParameterOrder(1) private Integer ownerId;
+        @DbParameterOrder(2)
+        @DbParameterProperty(direction = ParameterDirection.OUTPUT)
+        private java.sql.ResultSet tasks;
+    }
+
+    @DbProgramName("sp_count_items")
+    static class CountItemsParam extends DbProgramBase {
+        @DbParameterOrder(1)
+        @DbParameterProperty(direction = ParameterDirection.INPUT_OUTPUT)
+        private int limit;
+        @DbParameterOrder(2)
+        @DbParameterProperty(direction = ParameterDirection.INPUT_OUTPUT)
+        private long total;
+        @DbParameterOrder(3)
+        @DbParameterProperty(direction = ParameterDirection.INPUT_OUTPUT)
+        private boolean truncated;
+        @DbParameterOrder(4)
+        @DbParameterProperty(direction = ParameterDirection.INPUT_OUTPUT)
+        private Boolean archived;
+    }
+
+    // --- テスト ---
+
+    @Test
+    void of_shouldReturnSameInstanceForSameClass() {
+        var first = ProgramDescriptor.of(UpdateUserParam.class);
+        var second = ProgramDescriptor.of(new UpdateUserParam(UUID.randomUUID(), "test"));
+        assertSame(first, second);
+    }
+
+    @Test
+    void getParameters_shouldBeOrderedWithOutputsLast() {
+        var descriptor = ProgramDescriptor.of(UpdateUserParam.class);
+        var names = descriptor.getParameters().stream().map(ParameterSlot::getName).toList();
+        assertEquals(java.util.List.of("p_user_id", "name", "sqlErrorCd", "progressMessage"), names);
+    }
+
+    @Test
+    void slots_shouldResolveSqlTypeAndDirection() {
+        var descriptor = ProgramDescriptor.of(UpdateUserParam.class);
+        var userId = descriptor.getParameters().get(0);
+        var progressMessage = descriptor.getParameters().get(3);
+
+        assertEquals(Types.OTHER, userId.getSqlType());
+        assertEquals(ParameterDirection.INPUT, userId.getDirection());
+        assertEquals(Types.VARCHAR, progressMessage.getSqlType());
+        assertEquals(ParameterDirection.OUTPUT, progressMessage.getDirection());
+        assertEquals(4000, progressMessage.getSize());
+    }
+
+    @Test
+    void inputOutputSlot_shouldAppearInBothLists() {
+        var descriptor = ProgramDescriptor.of(InOutParam.class);
+        assertEquals(1, descriptor.getInputParameters().size());
+        assertEquals(1, descriptor.getOutputParameters().size());
+        assertEquals(Types.BIGINT, descriptor.getInputParameters().getFirst().getSqlType());
+    }
+
+    @Test
+    void getInputValues_shouldReturnOrderedValues() {
+        var userId = UUID.randomUUID();
+        var descriptor = ProgramDescriptor.of(UpdateUserParam.class);
+        var values = descriptor.getInputValues(new UpdateUserParam(userId, "test"));
+        assertArrayEquals(new Object[]{userId, "test"}, values);
+    }
+
+    @Test
+    void bindInputs_shouldUseTypedSetters() throws Exception {
+        var userId = UUID.randomUUID();
+        var descriptor = ProgramDescriptor.of(UpdateUserParam.class);
+        var ps = mock(PreparedStatement.class);
+
+        descriptor.bindInputs(ps, new UpdateUserParam(userId, null));
+
+        verify(ps).setObject(1, userId);
+        verify(ps).setNull(2, Types.VARCHAR);
+    }
+
+    @Test
+    void bindInputs_shouldUseDeclaredSqlType() throws Exception {
+        var renamedAt = java.time.LocalDateTime.of(2026, 1, 1, 9, 0);
+        var descriptor = ProgramDescriptor.of(RenameItemParam.class);
+        var ps = mock(PreparedStatement.class);
+
+        descriptor.bindInputs(ps, new RenameItemParam("A001", null, renamedAt));
+
+        verify(ps).setObject(1, "A001", Types.CHAR);
+        verify(ps).setNull(2, Types.NVARCHAR);
+        verify(ps).setObject(3, renamedAt, Types.TIMESTAMP);
+        verify(ps, never()).setString(anyInt(), anyString());
+    }
+
+    @Test
+    void primitiveSlots_shouldBindAndReadWithTypedAccessors() throws Exception {
+        var param = new CountItemsParam();
+        var descriptor = ProgramDescriptor.of(CountItemsParam.class);
+        var slots = descriptor.getOutputParameters();
+        slots.get(0).setValue(param, 10);
+        slots.get(1).setValue(param, 20L);
+        slots.get(2).setValue(param, true);
+        var ps = mock(PreparedStatement.class);
+
+        descriptor.bindInputs(ps, param);
+
+        verify(ps).setInt(1, 10);
+        verify(ps).setLong(2, 20L);
+        verify(ps).setBoolean(3, true);
+        verify(ps).setNull(4, Types.BOOLEAN);
+
+        var cs = mock(CallableStatement.class);
+        when(cs.getInt(1)).thenReturn(5);
+        when(cs.getLong(2)).thenReturn(7L);
+        when(cs.getBoolean(3)).thenReturn(false);
+        when(cs.getBoolean(4)).thenReturn(true);
+        for (int i = 0; i < slots.size(); i++) {
+            slots.get(i).read(cs, i + 1, param);
+        }
+
+        assertEquals(5, slots.get(0).getValue(param));
+        assertEquals(7L, slots.get(1).getValue(param));
+        assertEquals(false, slots.get(2).getValue(param));
+        assertEquals(true, slots.get(3).getValue(param));
+    }
+
+    @Test
+    void setValue_shouldWriteThroughVarHandle() {
+        var param = new InOutParam();
+        var slot = ProgramDescriptor.of(InOutParam.class).getOutputParameters().getFirst();
+        slot.setValue(param, 42L);
+        assertEquals(42L, slot.getValue(param));
+    }
+
+    @Test
+    void getParameters_shouldBeUnmodifiable() {
+        var descriptor = ProgramDescriptor.of(UpdateUserParam.class);
+        assertThrows(UnsupportedOperationException.class, () -> descriptor.getParameters().clear());
+        assertThrows(UnsupportedOperationException.class, () -> descriptor.getInputParameters().clear());
+    }
+
+    @Test
+    void collectionSlot_shouldBindThroughDialect() throws Exception {
+        var dialect = mock(DbDialect.class);
+        DbProgramMapperOptions.configure(config -> config.setDialect(dialect));
+        try {
+            var ids = java.util.List.of(1, 2, 3);
+            var descriptor = ProgramDescriptor.of(ArchiveTasksParam.class);
+            var slot = descriptor.getParameters().getFirst();
+            var ps = mock(PreparedStatement.class);
+
+            descriptor.bindInputs(ps, new ArchiveTasksParam(ids));
+
+            assertTrue(slot.isCollection());
+            assertEquals(Types.ARRAY, slot.getSqlType());
+            verify(dialect).bindCollection(ps, 1, ids, "dbo.IdList");
+        } finally {
+            DbProgramMapperOptions.reset();
+        }
+    }
+
+    @Test
+    void collectionSlot_shouldRejectOutputDirection() {
+        assertThrows(IllegalArgumentException.class, () -> ProgramDescriptor.of(OutputCollectionParam.class));
+    }
+
+    @Test
+    void cursorSlot_shouldInferRefCursor() {
+        var descriptor = ProgramDescriptor.of(OpenTasksParam.class);
+        var tasks = descriptor.getOutputParameters().getFirst();
+        assertTrue(tasks.isCursor());
+        assertEquals(Types.REF_CURSOR, tasks.getSqlType());
+        assertFalse(descriptor.getInputParameters().getFirst().isCursor());
+    }
+}
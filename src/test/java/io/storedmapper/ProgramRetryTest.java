@@ -0,0 +1,237 @@
+package io.storedmapper;
+
+import io.storedmapper.annotation.DbParameterOrder;
+import io.storedmapper.annotation.DbParameterProperty;
+import io.storedmapper.annotation.DbProgramName;
+import io.storedmapper.annotation.DbProgramRetry;
+import io.storedmapper.internal.ProgramDescriptor;
+import io.storedmapper.internal.ProgramRetry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProgramRetryTest {
+
+    private static final int DEADLOCK = 1205;
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        DbProgramMapperOptions.reset();
+        DbProgramMapperOptions.configure(config -> {
+            var errorCodes = new DbErrorCodes();
+            errorCodes.setDeadlock(DEADLOCK);
+            config.setErrorCodes(errorCodes);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        DbProgramMapperOptions.reset();
+    }
+
+    // --- テスト用パラメータクラス ---
+
+    @DbProgramName("sp_upsert_stock")
+    @DbProgramRetry(initialBackoffMillis = 0)
+    static class UpsertStockParam extends DbProgramBase {
+        @DbParameterOrder(1) private String itemCd;
+        @DbParameterOrder(2)
+        @DbParameterProperty(direction = ParameterDirection.INPUT_OUTPUT)
+        private Integer quantity;
+
+        UpsertStockParam(String itemCd, Integer quantity) {
+            this.itemCd = itemCd;
+            this.quantity = quantity;
+        }
+    }
+
+    @DbProgramName("sp_insert_stock")
+    static class InsertStockParam extends DbProgramBase {
+        @DbParameterOrder(1) private String itemCd;
+
+        InsertStockParam(String itemCd) {
+            this.itemCd = itemCd;
+        }
+    }
+
+    @DbProgramName("sp_move_stock")
+    @DbProgramRetry(initialBackoffMillis = 0, onDeadlock = false)
+    static class MoveStockParam extends DbProgramBase {
+        @DbParameterOrder(1) private String itemCd;
+
+        MoveStockParam(String itemCd) {
+            this.itemCd = itemCd;
+        }
+    }
+
+    // --- テスト ---
+
+    @Test
+    void execute_shouldRetryDeadlockReturnCode() {
+        var param = new UpsertStockParam("A001", 5);
+
+        var result = execute(param, false, () -> returning(calls.incrementAndGet() < 3 ? DEADLOCK : 0));
+
+        assertEquals(0, result.getReturnCode());
+        assertEquals(3, calls.get());
+        var statistics = ProgramRetry.getStatistics(UpsertStockParam.class);
+        assertEquals(2, statistics.getRetryCount());
+        assertEquals(1, statistics.getRecoveredCount());
+        assertEquals(0, statistics.getExhaustedCount());
+    }
+
+    @Test
+    void execute_shouldRestoreInputOutputValuesBeforeRetry() {
+        var param = new UpsertStockParam("A001", 5);
+        var quantities = new ArrayList<Integer>();
+
+        execute(param, false, () -> {
+            quantities.add(param.quantity);
+            // 1回目の実行でINPUT_OUTPUTパラメータが書き換えられる
+            param.quantity = 99;
+            return returning(calls.incrementAndGet() < 2 ? DEADLOCK : 0);
+        });
+
+        assertEquals(List.of(5, 5), quantities);
+        assertEquals(99, param.quantity);
+    }
+
+    @Test
+    void execute_shouldRetryLockExceptions() {
+        var result = execute(new UpsertStockParam("A001", 5), false, () -> {
+            switch (calls.incrementAndGet()) {
+                case 1 -> throw new CannotAcquireLockException("lock");
+                case 2 -> throw new UncategorizedSQLException("call", "sql",
+                        new SQLException("deadlock victim", "S0001", DEADLOCK));
+                default -> {
+                    return returning(0);
+                }
+            }
+        });
+
+        assertEquals(0, result.getReturnCode());
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void execute_shouldNotRetryOtherExceptions() {
+        assertThrows(DataIntegrityViolationException.class, () -> execute(new UpsertStockParam("A001", 5), false,
+                () -> {
+                    calls.incrementAndGet();
+                    throw new DataIntegrityViolationException("duplicate");
+                }));
+
+        assertEquals(1, calls.get());
+        assertNull(ProgramRetry.getStatistics(UpsertStockParam.class));
+    }
+
+    @Test
+    void execute_shouldCountExhaustedCalls() {
+        var result = execute(new UpsertStockParam("A001", 5), false, () -> {
+            calls.incrementAndGet();
+            return returning(DEADLOCK);
+        });
+
+        assertTrue(result.isDeadlockError());
+        assertEquals(3, calls.get());
+        var statistics = ProgramRetry.getStatistics(UpsertStockParam.class);
+        assertEquals(2, statistics.getRetryCount());
+        assertEquals(1, statistics.getExhaustedCount());
+    }
+
+    @Test
+    void execute_shouldNotRetryProcedureWithoutAnnotation() {
+        DbProgramMapperOptions.configure(config -> {
+            var policy = new DbRetryPolicy();
+            policy.setRetryFunctions(true);
+            config.setRetryPolicy(policy);
+        });
+
+        execute(new InsertStockParam("A001"), false, () -> returning(calls.incrementAndGet() < 2 ? DEADLOCK : 0));
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_shouldRetryFunctionsWhenEnabledGlobally() {
+        DbProgramMapperOptions.configure(config -> {
+            var policy = new DbRetryPolicy();
+            policy.setInitialBackoff(Duration.ZERO);
+            policy.setRetryFunctions(true);
+            config.setRetryPolicy(policy);
+        });
+
+        var result = ProgramRetry.execute(ProgramDescriptor.of(InsertStockParam.class), new InsertStockParam("A001"),
+                true, () -> Long.MAX_VALUE, () -> {
+                    if (calls.incrementAndGet() < 2) {
+                        throw new CannotAcquireLockException("lock");
+                    }
+                    return List.of(1);
+                });
+
+        assertEquals(List.of(1), result);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void execute_shouldNotRetryInsideTransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        execute(new UpsertStockParam("A001", 5), false, () -> returning(calls.incrementAndGet() < 2 ? DEADLOCK : 0));
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_shouldRespectDisabledOutcome() {
+        execute(new MoveStockParam("A001"), false, () -> returning(calls.incrementAndGet() < 2 ? DEADLOCK : 0));
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_shouldNotRetryWhenDeadlockLeavesNoTime() {
+        var param = new UpsertStockParam("A001", 5);
+
+        ProgramRetry.execute(ProgramDescriptor.of(param), param, false, () -> 0L,
+                () -> returning(calls.incrementAndGet() < 2 ? DEADLOCK : 0));
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void configure_shouldRejectInvalidRetryPolicy() {
+        var policy = new DbRetryPolicy();
+        policy.setMaxAttempts(0);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> DbProgramMapperOptions.configure(config -> config.setRetryPolicy(policy)));
+    }
+
+    private ExecuteResult execute(DbProgram param, boolean function, Supplier<ExecuteResult> call) {
+        return ProgramRetry.execute(ProgramDescriptor.of(param), param, function, () -> Long.MAX_VALUE, call);
+    }
+
+    private static ExecuteResult returning(int returnCode) {
+        var result = new ExecuteResult();
+        result.setReturnCode(returnCode);
+        return result;
+    }
+}
@@ -0,0 +1,310 @@
+package io.storedmapper;
+
+import io.storedmapper.annotation.DbParameterOrder;
+import io.storedmapper.annotation.DbProgramCacheable;
+import io.storedmapper.annotation.DbProgramInvalidates;
+import io.storedmapper.annotation.DbProgramName;
+import io.storedmapper.internal.ProgramDescriptor;
+import io.storedmapper.internal.ResultCache;
+import io.storedmapper.internal.SqlCache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        DbProgramMapperOptions.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        DbProgramMapperOptions.reset();
+    }
+
+    // --- テスト用パラメータクラス ---
+
+    @DbProgramName("fn_get_prefectures")
+    @DbProgramCacheable(maxEntries = 2)
+    static class GetPrefecturesParam extends DbProgramBase {
+        @DbParameterOrder(1) private String region;
+
+        GetPrefecturesParam(String region) {
+            this.region = region;
+        }
+    }
+
+    @DbProgramName("fn_get_rate")
+    @DbProgramCacheable(ttl = 1, unit = TimeUnit.NANOSECONDS)
+    static class GetRateParam extends DbProgramBase {
+        @DbParameterOrder(1) private String currency;
+
+        GetRateParam(String currency) {
+            this.currency = currency;
+        }
+    }
+
+    @DbProgramName("fn_get_order")
+    @DbProgramCacheable
+    static class GetOrderParam extends DbProgramBase {
+        @DbParameterOrder(1) private Integer orderId;
+        @DbParameterOrder(2) private String locale;
+
+        GetOrderParam(Integer orderId, String locale) {
+            this.orderId = orderId;
+            this.locale = locale;
+        }
+    }
+
+    @DbProgramName("sp_update_order")
+    @DbProgramInvalidates(value = GetOrderParam.class, match = "orderId=id")
+    @DbProgramInvalidates(GetPrefecturesParam.class)
+    static class UpdateOrderParam extends DbProgramBase {
+        @DbParameterOrder(1) private Integer id;
+
+        UpdateOrderParam(Integer id) {
+            this.id = id;
+        }
+    }
+
+    @DbProgramName("sp_invalid")
+    @DbProgramInvalidates(value = GetOrderParam.class, match = "unknown")
+    static class InvalidMatchParam extends DbProgramBase {
+        @DbParameterOrder(1) private Integer unknown;
+    }
+
+    record Prefecture(String code, String name) {
+    }
+
+    record PrefectureGroup(String region, List<String> codes) {
+    }
+
+    static class MutablePrefecture {
+        String name;
+    }
+
+    @DbProgramName("fn_get_tasks")
+    static class GetTasksParam extends DbProgramBase {
+        @DbParameterOrder(1) private Integer userId;
+    }
+
+    // --- テスト ---
+
+    @Test
+    void get_shouldReturnCachedResultForSameParameters() {
+        var first = query(new GetPrefecturesParam("kanto"));
+        var second = query(new GetPrefecturesParam("kanto"));
+        query(new GetPrefecturesParam("kinki"));
+
+        assertSame(first, second);
+        assertEquals(2, loads.get());
+        var stats = ResultCache.getStatistics(GetPrefecturesParam.class);
+        assertEquals(2, stats.getSize());
+        assertEquals(1, stats.getHitCount());
+        assertEquals(2, stats.getMissCount());
+    }
+
+    @Test
+    void get_shouldReturnUnmodifiableList() {
+        var result = query(new GetPrefecturesParam("kanto"));
+        assertThrows(UnsupportedOperationException.class, () -> result.add("x"));
+    }
+
+    @Test
+    void get_shouldAcceptRecordsOfImmutableComponents() {
+        var param = new GetPrefecturesParam("kanto");
+        var result = ResultCache.get(ProgramDescriptor.of(param), SqlCache.Kind.TABLE_FUNCTION, Prefecture.class,
+                null, param, () -> List.of(new Prefecture("13", "Tokyo")));
+        assertEquals(List.of(new Prefecture("13", "Tokyo")), result);
+    }
+
+    @Test
+    void get_shouldRejectMutableResultTypes() {
+        var param = new GetPrefecturesParam("kanto");
+        var descriptor = ProgramDescriptor.of(param);
+        // カスタムRowMapperは結果の型が分からないため、読み込んだ値で検証する
+        RowMapper<Object> rowMapper = (rs, rowNum) -> null;
+
+        assertThrows(IllegalArgumentException.class, () -> ResultCache.get(descriptor, SqlCache.Kind.TABLE_FUNCTION,
+                rowMapper, null, param, () -> List.of(new MutablePrefecture())));
+        assertThrows(IllegalArgumentException.class, () -> ResultCache.get(descriptor, SqlCache.Kind.TABLE_FUNCTION,
+                rowMapper, null, param, () -> List.of(new PrefectureGroup("kanto", List.of("13")))));
+        assertEquals(0, ResultCache.getStatistics(GetPrefecturesParam.class).getSize());
+    }
+
+    @Test
+    void get_shouldRejectMutableResultClassBeforeLoading() {
+        var param = new GetPrefecturesParam("kanto");
+        var loads = new AtomicInteger();
+
+        assertThrows(IllegalArgumentException.class, () -> ResultCache.get(ProgramDescriptor.of(param),
+                SqlCache.Kind.TABLE_FUNCTION, MutablePrefecture.class, null, param, () -> {
+                    loads.incrementAndGet();
+                    return List.of();
+                }));
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void get_shouldCacheNullResult() {
+        var param = new GetPrefecturesParam("none");
+        var descriptor = ProgramDescriptor.of(param);
+        for (int i = 0; i < 2; i++) {
+            var value = ResultCache.get(descriptor, SqlCache.Kind.SCALAR_FUNCTION, Integer.class, null, param, () -> {
+                loads.incrementAndGet();
+                return (Integer) null;
+            });
+            assertNull(value);
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_shouldEvictLeastRecentlyUsedEntry() {
+        query(new GetPrefecturesParam("kanto"));
+        query(new GetPrefecturesParam("kinki"));
+        query(new GetPrefecturesParam("kanto"));
+        query(new GetPrefecturesParam("tohoku"));
+        query(new GetPrefecturesParam("kanto"));
+        query(new GetPrefecturesParam("kinki"));
+
+        // kanto は参照され続けたため残り、kinki は削除されて再読み込みされる
+        assertEquals(4, loads.get());
+        assertEquals(2, ResultCache.getStatistics(GetPrefecturesParam.class).getEvictionCount());
+    }
+
+    @Test
+    void get_shouldReloadExpiredEntry() throws Exception {
+        query(new GetRateParam("USD"));
+        Thread.sleep(1);
+        query(new GetRateParam("USD"));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_shouldDistinguishKindAndOrderBy() {
+        var param = new GetPrefecturesParam("kanto");
+        var descriptor = ProgramDescriptor.of(param);
+        ResultCache.get(descriptor, SqlCache.Kind.TABLE_FUNCTION, String.class, null, param, this::load);
+        ResultCache.get(descriptor, SqlCache.Kind.TABLE_FUNCTION, String.class, "name", param, this::load);
+        ResultCache.get(descriptor, SqlCache.Kind.TABLE_FUNCTION_FIRST_ROW, String.class, null, param, this::load);
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void get_shouldNotCacheWithoutAnnotation() {
+        var param = new GetTasksParam();
+        var descriptor = ProgramDescriptor.of(param);
+        ResultCache.get(descriptor, SqlCache.Kind.TABLE_FUNCTION, String.class, null, param, this::load);
+        ResultCache.get(descriptor, SqlCache.Kind.TABLE_FUNCTION, String.class, null, param, this::load);
+        assertEquals(2, loads.get());
+        assertNull(ResultCache.getStatistics(GetTasksParam.class));
+    }
+
+    @Test
+    void invalidate_shouldRemoveEntriesOfProgram() {
+        query(new GetPrefecturesParam("kanto"));
+        ResultCache.invalidate(GetPrefecturesParam.class);
+        query(new GetPrefecturesParam("kanto"));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void reset_shouldClearCache() {
+        query(new GetPrefecturesParam("kanto"));
+        DbProgramMapperOptions.reset();
+        assertTrue(ResultCache.getAllStatistics().isEmpty());
+    }
+
+    @Test
+    void invalidationFor_shouldRemoveMatchingEntriesAndWholePrograms() {
+        query(new GetOrderParam(1, "ja"));
+        query(new GetOrderParam(1, "en"));
+        query(new GetOrderParam(2, "ja"));
+        query(new GetPrefecturesParam("kanto"));
+
+        var param = new UpdateOrderParam(1);
+        ResultCache.invalidationFor(ProgramDescriptor.of(param), param).run();
+
+        assertEquals(1, ResultCache.getStatistics(GetOrderParam.class).getSize());
+        assertEquals(0, ResultCache.getStatistics(GetPrefecturesParam.class).getSize());
+        query(new GetOrderParam(2, "ja"));
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void get_shouldNotStoreResultLoadedBeforeInvalidation() throws Exception {
+        query(new GetOrderParam(2, "ja"));
+        var loading = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var param = new GetOrderParam(1, "ja");
+        var stale = CompletableFuture.supplyAsync(() -> ResultCache.get(ProgramDescriptor.of(param),
+                SqlCache.Kind.TABLE_FUNCTION, String.class, null, param, () -> {
+                    loading.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return List.of("before update");
+                }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        var update = new UpdateOrderParam(1);
+        ResultCache.invalidationFor(ProgramDescriptor.of(update), update).run();
+        release.countDown();
+
+        assertEquals(List.of("before update"), stale.get(5, TimeUnit.SECONDS));
+        assertEquals(1, ResultCache.getStatistics(GetOrderParam.class).getSize());
+        query(new GetOrderParam(1, "ja"));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidationFor_shouldReturnNullWithoutAnnotation() {
+        var param = new GetTasksParam();
+        assertNull(ResultCache.invalidationFor(ProgramDescriptor.of(param), param));
+    }
+
+    @Test
+    void invalidationFor_shouldRejectUnknownParameter() {
+        var param = new InvalidMatchParam();
+        assertThrows(IllegalArgumentException.class,
+                () -> ResultCache.invalidationFor(ProgramDescriptor.of(param), param));
+    }
+
+    @Test
+    void invalidate_shouldRemoveEntriesMatchingParameterValues() {
+        query(new GetOrderParam(1, "ja"));
+        query(new GetOrderParam(1, "en"));
+
+        ResultCache.invalidate(GetOrderParam.class, Map.of("orderId", 1, "locale", "en"));
+
+        assertEquals(1, ResultCache.getStatistics(GetOrderParam.class).getSize());
+    }
+
+    private List<String> query(DbProgram param) {
+        return ResultCache.get(ProgramDescriptor.of(param), SqlCache.Kind.TABLE_FUNCTION, String.class, null,
+                param, this::load);
+    }
+
+    private List<String> load() {
+        loads.incrementAndGet();
+        return new ArrayList<>(List.of("row"));
+    }
+}
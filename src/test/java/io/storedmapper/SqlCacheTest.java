@@ -0,0 +1,124 @@
+package io.storedmapper;
+
+import io.storedmapper.annotation.DbParameterOrder;
+import io.storedmapper.annotation.DbProgramName;
+import io.storedmapper.dialect.PostgreSqlDialect;
+import io.storedmapper.internal.DbProgramHelper;
+import io.storedmapper.internal.SqlCache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlCacheTest {
+
+    @BeforeEach
+    void setUp() {
+        DbProgramMapperOptions.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        DbProgramMapperOptions.reset();
+    }
+
+    // --- テスト用パラメータクラス ---
+
+    @DbProgramName("fn_get_tasks")
+    static class GetTasksParam extends DbProgramBase {
+        @DbParameterOrder(1) private Integer userId;
+    }
+
+    // --- テスト ---
+
+    @Test
+    void createTableFunctionQuery_shouldReturnSameInstance() {
+        var param = new GetTasksParam();
+        var annotation = DbProgramHelper.getDbProgramNameAnnotation(param);
+
+        var first = DbProgramHelper.createTableFunctionQuery(annotation, param, null);
+        var second = DbProgramHelper.createTableFunctionQuery(annotation, param, null);
+
+        assertSame(first, second);
+        var statistics = SqlCache.getStatistics();
+        assertEquals(1, statistics.getSize());
+        assertEquals(1, statistics.getHitCount());
+        assertEquals(1, statistics.getMissCount());
+        assertEquals(0.5, statistics.getHitRate());
+    }
+
+    @Test
+    void createTableFunctionQuery_shouldSeparateOrderByVariants() {
+        var param = new GetTasksParam();
+        var annotation = DbProgramHelper.getDbProgramNameAnnotation(param);
+
+        var asc = DbProgramHelper.createTableFunctionQuery(annotation, param, "id ASC");
+        var desc = DbProgramHelper.createTableFunctionQuery(annotation, param, "id DESC");
+
+        assertEquals("SELECT * FROM [dbo].[fn_get_tasks](?) ORDER BY id ASC", asc);
+        assertEquals("SELECT * FROM [dbo].[fn_get_tasks](?) ORDER BY id DESC", desc);
+        assertEquals(2, SqlCache.getStatistics().getSize());
+    }
+
+    @Test
+    void orderByVariants_shouldBeCappedPerProgram() {
+        DbProgramMapperOptions.configure(config -> config.setSqlCacheMaxOrderByVariants(1));
+        var param = new GetTasksParam();
+        var annotation = DbProgramHelper.getDbProgramNameAnnotation(param);
+
+        DbProgramHelper.createTableFunctionQuery(annotation, param, "id ASC");
+        var sql = DbProgramHelper.createTableFunctionQuery(annotation, param, "id DESC");
+
+        assertEquals("SELECT * FROM [dbo].[fn_get_tasks](?) ORDER BY id DESC", sql);
+        assertEquals(1, SqlCache.getStatistics().getSize());
+    }
+
+    @Test
+    void maxSize_shouldEvictLeastRecentlyUsed() {
+        DbProgramMapperOptions.configure(config -> config.setSqlCacheMaxSize(2));
+        var param = new GetTasksParam();
+        var annotation = DbProgramHelper.getDbProgramNameAnnotation(param);
+
+        var table = DbProgramHelper.createTableFunctionQuery(annotation, param, null);
+        var scalar = DbProgramHelper.createScalarFunctionQuery(annotation, param);
+        DbProgramHelper.createTableFunctionQuery(annotation, param, null);
+        DbProgramHelper.createTableFunctionQuery(annotation, param, "id ASC");
+
+        assertEquals(2, SqlCache.getStatistics().getSize());
+        assertSame(table, DbProgramHelper.createTableFunctionQuery(annotation, param, null));
+        assertNotSame(scalar, DbProgramHelper.createScalarFunctionQuery(annotation, param));
+    }
+
+    @Test
+    void maxSize_shouldReleaseOrderByVariantOfEvictedEntry() {
+        DbProgramMapperOptions.configure(config -> {
+            config.setSqlCacheMaxSize(1);
+            config.setSqlCacheMaxOrderByVariants(1);
+        });
+        var param = new GetTasksParam();
+        var annotation = DbProgramHelper.getDbProgramNameAnnotation(param);
+
+        DbProgramHelper.createTableFunctionQuery(annotation, param, "id ASC");
+        DbProgramHelper.createScalarFunctionQuery(annotation, param);
+        var desc = DbProgramHelper.createTableFunctionQuery(annotation, param, "id DESC");
+
+        assertSame(desc, DbProgramHelper.createTableFunctionQuery(annotation, param, "id DESC"));
+    }
+
+    @Test
+    void configure_shouldInvalidateCachedSql() {
+        var param = new GetTasksParam();
+        var annotation = DbProgramHelper.getDbProgramNameAnnotation(param);
+        DbProgramHelper.createScalarFunctionQuery(annotation, param);
+
+        DbProgramMapperOptions.configure(config -> {
+            config.setDialect(new PostgreSqlDialect());
+            config.setDefaultSchema("public");
+        });
+
+        assertEquals(0, SqlCache.getStatistics().getSize());
+        assertEquals("SELECT \"public\".\"fn_get_tasks\"(?)", DbProgramHelper.createScalarFunctionQuery(annotation, param));
+    }
+}
@@ -0,0 +1,127 @@
+package io.storedmapper;
+
+import io.storedmapper.annotation.DbParameterOrder;
+import io.storedmapper.annotation.DbProgramName;
+import io.storedmapper.annotation.DbProgramStatement;
+import io.storedmapper.internal.ProgramDescriptor;
+import io.storedmapper.internal.StatementSettings;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StatementSettingsTest {
+
+    @BeforeEach
+    void setUp() {
+        DbProgramMapperOptions.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        DbProgramMapperOptions.reset();
+    }
+
+    // --- テスト用パラメータクラス ---
+
+    @DbProgramName("fn_get_status")
+    @DbProgramStatement(fetchSize = 10, maxRows = 100, queryTimeout = 2)
+    static class GetStatusParam extends DbProgramBase {
+        @DbParameterOrder(1) private String locale;
+    }
+
+    @DbProgramName("fn_export_orders")
+    @DbProgramStatement(fetchSize = 500, adaptiveFetchSize = true)
+    static class ExportOrdersParam extends DbProgramBase {
+        @DbParameterOrder(1) private Integer year;
+    }
+
+    @DbProgramName("fn_get_recent_orders")
+    @DbProgramStatement(maxRows = 50, adaptiveFetchSize = true)
+    static class GetRecentOrdersParam extends DbProgramBase {
+        @DbParameterOrder(1) private Integer customerId;
+    }
+
+    @DbProgramName("fn_get_tasks")
+    static class GetTasksParam extends DbProgramBase {
+        @DbParameterOrder(1) private Integer userId;
+    }
+
+    // --- テスト ---
+
+    @Test
+    void apply_shouldSetAnnotatedValues() throws Exception {
+        var stmt = mock(Statement.class);
+
+        StatementSettings.apply(stmt, ProgramDescriptor.of(GetStatusParam.class), null);
+
+        verify(stmt).setFetchSize(10);
+        verify(stmt).setMaxRows(100);
+        verify(stmt).setQueryTimeout(2);
+    }
+
+    @Test
+    void apply_shouldKeepTemplateSettingsWithoutAnnotation() throws Exception {
+        var stmt = mock(Statement.class);
+
+        StatementSettings.apply(stmt, ProgramDescriptor.of(GetTasksParam.class), null);
+
+        verifyNoInteractions(stmt);
+    }
+
+    @Test
+    void applyLimits_shouldNotSetFetchSize() throws Exception {
+        var stmt = mock(Statement.class);
+
+        StatementSettings.applyLimits(stmt, ProgramDescriptor.of(GetStatusParam.class), null);
+
+        verify(stmt, never()).setFetchSize(anyInt());
+        verify(stmt).setMaxRows(100);
+    }
+
+    @Test
+    void fetchSizeFor_shouldFollowAverageRowCount() {
+        var descriptor = ProgramDescriptor.of(ExportOrdersParam.class);
+        assertEquals(500, StatementSettings.fetchSizeFor(descriptor));
+
+        StatementSettings.recordRowCount(descriptor, 20);
+        assertEquals(21, StatementSettings.fetchSizeFor(descriptor));
+
+        // 指数移動平均：20 + 0.2 * (70 - 20) = 30
+        StatementSettings.recordRowCount(descriptor, 70);
+        assertEquals(30.0, StatementSettings.getAverageRowCount(ExportOrdersParam.class), 1e-9);
+        assertEquals(31, StatementSettings.fetchSizeFor(descriptor));
+
+        StatementSettings.recordRowCount(descriptor, 100_000);
+        assertEquals(500, StatementSettings.fetchSizeFor(descriptor));
+    }
+
+    @Test
+    void fetchSizeFor_shouldBeLimitedByMaxRows() {
+        var descriptor = ProgramDescriptor.of(GetRecentOrdersParam.class);
+        assertEquals(-1, StatementSettings.fetchSizeFor(descriptor));
+
+        StatementSettings.recordRowCount(descriptor, 5_000);
+
+        assertEquals(50, StatementSettings.fetchSizeFor(descriptor));
+    }
+
+    @Test
+    void recordRowCount_shouldIgnoreProgramWithoutAdaptiveFetchSize() {
+        StatementSettings.recordRowCount(ProgramDescriptor.of(GetStatusParam.class), 10);
+        assertEquals(-1, StatementSettings.getAverageRowCount(GetStatusParam.class));
+    }
+
+    @Test
+    void reset_shouldClearRowCounts() {
+        StatementSettings.recordRowCount(ProgramDescriptor.of(ExportOrdersParam.class), 10);
+        DbProgramMapperOptions.reset();
+        assertEquals(-1, StatementSettings.getAverageRowCount(ExportOrdersParam.class));
+    }
+}
@@ -3,9 +3,11 @@ package io.storedmapper.dialect;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.sql.PreparedStatement;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
 
 class MySqlDialectTest {
 
@@ -48,4 +50,48 @@ class MySqlDialectTest {
                 "`mydb`.`sp_update`", List.of("?", "?"));
         assertEquals("CALL `mydb`.`sp_update`(?,?)", sql);
     }
+
+    @Test
+    void createCallableStatementCall_shouldGenerateCallableSyntax() {
+        var sql = dialect.createCallableStatementCall(
+                "`mydb`.`sp_update`", List.of("?", "?"));
+        assertEquals("CALL `mydb`.`sp_update`(?,?)", sql);
+    }
+
+    @Test
+    void supportsReturnValue_shouldReturnFalse() {
+        assertFalse(dialect.supportsReturnValue());
+    }
+
+    @Test
+    void configureStreaming_shouldUseRowByRowFetch() throws Exception {
+        var ps = mock(PreparedStatement.class);
+        dialect.configureStreaming(ps, 500);
+        verify(ps).setFetchSize(Integer.MIN_VALUE);
+        assertFalse(dialect.requiresManualCommitForStreaming());
+    }
+
+    @Test
+    void createLimitedTableFunctionQuery_shouldAppendLimit() {
+        var sql = dialect.createLimitedTableFunctionQuery(
+                "`mydb`.`fn_get_users`", List.of("?"), "id ASC", 1);
+        assertEquals("SELECT * FROM `mydb`.`fn_get_users`(?) ORDER BY id ASC LIMIT 1", sql);
+    }
+
+    @Test
+    void bindCollection_shouldBindJsonArrayOfObjects() throws Exception {
+        var ps = mock(PreparedStatement.class);
+        dialect.bindCollection(ps, 1, List.of(new TaskRow(1, "a\"b"), new TaskRow(2, null)), "");
+        verify(ps).setString(1, "[{\"id\":1,\"name\":\"a\\\"b\"},{\"id\":2,\"name\":null}]");
+    }
+
+    @Test
+    void bindCollection_shouldBindJsonArrayOfScalars() throws Exception {
+        var ps = mock(PreparedStatement.class);
+        dialect.bindCollection(ps, 2, List.of(1, 2, 3), "");
+        verify(ps).setString(2, "[1,2,3]");
+    }
+
+    record TaskRow(int id, String name) {
+    }
 }
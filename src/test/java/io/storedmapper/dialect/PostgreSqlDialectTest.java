@@ -3,9 +3,14 @@ package io.storedmapper.dialect;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Types;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
 
 class PostgreSqlDialectTest {
 
@@ -62,4 +67,73 @@ class PostgreSqlDialectTest {
                 "\"public\".\"sp_update\"", List.of("?", "?"));
         assertEquals("CALL \"public\".\"sp_update\"(?,?)", sql);
     }
+
+    @Test
+    void createCallableStatementCall_shouldGenerateCallableSyntax() {
+        var sql = dialect.createCallableStatementCall(
+                "\"public\".\"sp_update\"", List.of("?", "?"));
+        assertEquals("CALL \"public\".\"sp_update\"(?,?)", sql);
+    }
+
+    @Test
+    void supportsReturnValue_shouldReturnFalse() {
+        assertFalse(dialect.supportsReturnValue());
+    }
+
+    @Test
+    void configureStreaming_shouldUseFetchSizeAndRequireManualCommit() throws Exception {
+        var ps = mock(PreparedStatement.class);
+        dialect.configureStreaming(ps, 500);
+        verify(ps).setFetchSize(500);
+        assertTrue(dialect.requiresManualCommitForStreaming());
+    }
+
+    @Test
+    void cursor_shouldRegisterAsOtherAndFetchForwardByName() {
+        assertEquals(Types.OTHER, dialect.getRefCursorSqlType());
+        assertEquals("FETCH FORWARD 500 FROM \"<unnamed portal 1>\"",
+                dialect.createCursorFetchQuery("<unnamed portal 1>", 500));
+        assertEquals("FETCH FORWARD 10 FROM \"a\"\"b\"", dialect.createCursorFetchQuery("a\"b", 10));
+    }
+
+    @Test
+    void createLimitedTableFunctionQuery_shouldAppendLimit() {
+        var sql = dialect.createLimitedTableFunctionQuery(
+                "\"public\".\"fn_get_users\"", List.of("?"), "id ASC", 1);
+        assertEquals("SELECT * FROM \"public\".\"fn_get_users\"(?) ORDER BY id ASC LIMIT 1", sql);
+    }
+
+    @Test
+    void bindCollection_shouldInferArrayElementType() throws Exception {
+        var ps = mock(PreparedStatement.class);
+        var connection = mock(Connection.class);
+        var array = mock(Array.class);
+        when(ps.getConnection()).thenReturn(connection);
+        when(connection.createArrayOf("int4", new Object[]{1, 2})).thenReturn(array);
+
+        dialect.bindCollection(ps, 1, List.of(1, 2), "");
+
+        verify(ps).setArray(1, array);
+    }
+
+    @Test
+    void bindCollection_shouldConvertRowsToCompositeLiterals() throws Exception {
+        var ps = mock(PreparedStatement.class);
+        var connection = mock(Connection.class);
+        when(ps.getConnection()).thenReturn(connection);
+
+        dialect.bindCollection(ps, 1, List.of(new TaskRow(1, "a\"b"), new TaskRow(2, null)), "task_row");
+
+        verify(connection).createArrayOf("task_row", new Object[]{"(\"1\",\"a\\\"b\")", "(\"2\",)"});
+    }
+
+    @Test
+    void bindCollection_shouldRequireTypeNameForRows() {
+        var ps = mock(PreparedStatement.class);
+        assertThrows(IllegalArgumentException.class,
+                () -> dialect.bindCollection(ps, 1, List.of(new TaskRow(1, "a")), ""));
+    }
+
+    record TaskRow(int id, String name) {
+    }
 }
@@ -1,11 +1,20 @@
 package io.storedmapper.dialect;
 
+import com.microsoft.sqlserver.jdbc.ISQLServerPreparedStatement;
+import com.microsoft.sqlserver.jdbc.SQLServerDataTable;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
+import java.sql.PreparedStatement;
+import java.sql.Types;
 import java.util.List;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 class SqlServerDialectTest {
 
@@ -48,4 +57,68 @@ class SqlServerDialectTest {
                 "[dbo].[sp_update]", List.of("?", "?"));
         assertEquals("{call [dbo].[sp_update](?,?)}", sql);
     }
+
+    @Test
+    void createCallableStatementCall_shouldGenerateCallableSyntax() {
+        var sql = dialect.createCallableStatementCall(
+                "[dbo].[sp_update]", List.of("?", "?"));
+        assertEquals("{? = call [dbo].[sp_update](?,?)}", sql);
+    }
+
+    @Test
+    void supportsReturnValue_shouldReturnTrue() {
+        assertTrue(dialect.supportsReturnValue());
+    }
+
+    @Test
+    void createLimitedTableFunctionQuery_shouldUseTop() {
+        var sql = dialect.createLimitedTableFunctionQuery(
+                "[dbo].[fn_get_users]", List.of("?"), "id ASC", 1);
+        assertEquals("SELECT TOP (1) * FROM [dbo].[fn_get_users](?) ORDER BY id ASC", sql);
+    }
+
+    @Test
+    void bindCollection_shouldBindTableValuedParameter() throws Exception {
+        var ps = mock(PreparedStatement.class);
+        var sqlServerPs = mock(ISQLServerPreparedStatement.class);
+        when(ps.unwrap(ISQLServerPreparedStatement.class)).thenReturn(sqlServerPs);
+        var id = UUID.randomUUID();
+
+        dialect.bindCollection(ps, 1, List.of(new TaskRow(id, 3, "a"), new TaskRow(id, null, "b")), "dbo.TaskList");
+
+        var captor = ArgumentCaptor.forClass(SQLServerDataTable.class);
+        verify(sqlServerPs).setStructured(eq(1), eq("dbo.TaskList"), captor.capture());
+        var metadata = captor.getValue().getColumnMetadata();
+        assertEquals(Types.CHAR, metadata.get(0).getColumnType());
+        assertEquals(Types.INTEGER, metadata.get(1).getColumnType());
+        assertEquals(Types.NVARCHAR, metadata.get(2).getColumnType());
+        var firstRow = captor.getValue().getIterator().next().getValue();
+        assertArrayEquals(new Object[]{id.toString(), 3, "a"}, firstRow);
+    }
+
+    @Test
+    void bindCollection_shouldSendEmptyTableForEmptyCollection() throws Exception {
+        var ps = mock(PreparedStatement.class);
+        var sqlServerPs = mock(ISQLServerPreparedStatement.class);
+        when(ps.unwrap(ISQLServerPreparedStatement.class)).thenReturn(sqlServerPs);
+
+        dialect.bindCollection(ps, 1, List.of(), "dbo.IdList");
+
+        verify(sqlServerPs).setStructured(1, "dbo.IdList", (SQLServerDataTable) null);
+    }
+
+    @Test
+    void bindCollection_shouldRequireTypeName() {
+        var ps = mock(PreparedStatement.class);
+        assertThrows(IllegalArgumentException.class, () -> dialect.bindCollection(ps, 1, List.of(1), ""));
+    }
+
+    record TaskRow(UUID id, Integer priority, String name) {
+    }
+
+    @Test
+    void cursor_shouldUseJdbcRefCursorWithoutFetchQuery() {
+        assertEquals(Types.REF_CURSOR, dialect.getRefCursorSqlType());
+        assertNull(dialect.createCursorFetchQuery("c", 100));
+    }
 }
@@ -0,0 +1,211 @@
+package io.storedmapper.executor;
+
+import io.storedmapper.DbProgramBase;
+import io.storedmapper.DbProgramMapperOptions;
+import io.storedmapper.annotation.DbParameterOrder;
+import io.storedmapper.annotation.DbProgramName;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AsyncDbProgramExecutorTest {
+
+    private DataSource dataSource;
+    private Connection connection;
+    private PreparedStatement ps;
+    private ResultSet rs;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DbProgramMapperOptions.reset();
+        dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        ps = mock(PreparedStatement.class);
+        rs = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(ps);
+    }
+
+    @AfterEach
+    void tearDown() {
+        DbProgramMapperOptions.reset();
+    }
+
+    // --- テスト用パラメータクラス ---
+
+    @DbProgramName("fn_get_task_ids")
+    static class GetTaskIdsParam extends DbProgramBase {
+        @DbParameterOrder(1) private Integer ownerId;
+
+        GetTaskIdsParam(Integer ownerId) {
+            this.ownerId = ownerId;
+        }
+    }
+
+    public abstract static class PooledDataSource implements DataSource {
+        public int getMaximumPoolSize() {
+            return 4;
+        }
+    }
+
+    // --- テスト ---
+
+    @Test
+    void query_shouldRunOnVirtualThread() throws Exception {
+        var threads = new CopyOnWriteArrayList<Thread>();
+        when(ps.executeQuery()).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread());
+            return rs;
+        });
+        when(rs.next()).thenReturn(true, true, false);
+        when(rs.getInt(1)).thenReturn(1, 2);
+        var executor = new AsyncDbProgramExecutor(new JdbcTemplate(dataSource), 2);
+
+        var ids = executor.query(new GetTaskIdsParam(7), (r, n) -> r.getInt(1)).get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(1, 2), ids);
+        assertTrue(threads.getFirst().isVirtual());
+        verify(ps).setInt(1, 7);
+        assertEquals(2, executor.availablePermits());
+    }
+
+    @Test
+    void submit_shouldQueueCallsBeyondMaxConcurrency() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        when(ps.executeQuery()).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return rs;
+        });
+        var executor = new AsyncDbProgramExecutor(new JdbcTemplate(dataSource), 1);
+
+        var first = executor.query(new GetTaskIdsParam(1), (r, n) -> r.getInt(1));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        var second = executor.query(new GetTaskIdsParam(2), (r, n) -> r.getInt(1));
+        Thread.sleep(100);
+
+        assertFalse(second.isDone());
+        verify(connection, times(1)).prepareStatement(anyString());
+        release.countDown();
+        assertEquals(List.of(), first.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(), second.get(5, TimeUnit.SECONDS));
+        verify(connection, times(2)).prepareStatement(anyString());
+    }
+
+    @Test
+    void cancel_shouldCancelRunningStatement() throws Exception {
+        var started = new CountDownLatch(1);
+        var cancelled = new CountDownLatch(1);
+        when(ps.executeQuery()).thenAnswer(invocation -> {
+            started.countDown();
+            cancelled.await(5, TimeUnit.SECONDS);
+            throw new SQLException("canceling statement due to user request", "57014");
+        });
+        doAnswer(invocation -> {
+            cancelled.countDown();
+            return null;
+        }).when(ps).cancel();
+        var executor = new AsyncDbProgramExecutor(new JdbcTemplate(dataSource), 1);
+
+        var future = executor.query(new GetTaskIdsParam(1), (r, n) -> r.getInt(1));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        future.cancel(true);
+
+        assertThrows(CancellationException.class, future::join);
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+        verify(ps).cancel();
+        waitForPermits(executor, 1);
+    }
+
+    @Test
+    void orTimeout_shouldCancelRunningStatement() throws Exception {
+        var cancelled = new CountDownLatch(1);
+        when(ps.executeQuery()).thenAnswer(invocation -> {
+            cancelled.await(5, TimeUnit.SECONDS);
+            throw new SQLException("canceling statement due to user request", "57014");
+        });
+        doAnswer(invocation -> {
+            cancelled.countDown();
+            return null;
+        }).when(ps).cancel();
+        var executor = new AsyncDbProgramExecutor(new JdbcTemplate(dataSource), 1);
+
+        var future = executor.executeScalar(new GetTaskIdsParam(1), Integer.class).orTimeout(100, TimeUnit.MILLISECONDS);
+
+        var error = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(TimeoutException.class, error.getCause());
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+        waitForPermits(executor, 1);
+    }
+
+    @Test
+    void cancel_shouldNotStartQueuedCall() throws Exception {
+        var release = new CountDownLatch(1);
+        when(ps.executeQuery()).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return rs;
+        });
+        var executor = new AsyncDbProgramExecutor(new JdbcTemplate(dataSource), 1);
+
+        var first = executor.query(new GetTaskIdsParam(1), (r, n) -> r.getInt(1));
+        var queued = executor.query(new GetTaskIdsParam(2), (r, n) -> r.getInt(1));
+        queued.cancel(true);
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+
+        assertTrue(queued.isCancelled());
+        waitForPermits(executor, 1);
+        verify(ps, never()).setInt(1, 2);
+    }
+
+    @Test
+    void detectPoolSize_shouldReadPoolMaximum() {
+        var pooled = mock(PooledDataSource.class, withSettings().defaultAnswer(CALLS_REAL_METHODS));
+        assertEquals(4, ConnectionLimits.detectPoolSize(pooled));
+        assertEquals(ConnectionLimits.DEFAULT_MAX_CONCURRENCY, ConnectionLimits.detectPoolSize(dataSource));
+    }
+
+    @Test
+    void constructor_shouldRejectConflictingConcurrencyForSameDataSource() {
+        var executor = new AsyncDbProgramExecutor(new JdbcTemplate(dataSource), 3);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new AsyncDbProgramExecutor(new JdbcTemplate(dataSource), 5));
+        assertEquals(3, new AsyncDbProgramExecutor(new JdbcTemplate(dataSource), 3).availablePermits());
+        assertEquals(3, new AsyncDbProgramExecutor(new JdbcTemplate(dataSource), 0).availablePermits());
+        assertEquals(3, executor.availablePermits());
+    }
+
+    @Test
+    void constructor_shouldRejectNegativeConcurrency() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AsyncDbProgramExecutor(new JdbcTemplate(dataSource), -1));
+    }
+
+    private static void waitForPermits(AsyncDbProgramExecutor executor, int expected) throws InterruptedException {
+        for (int i = 0; i < 100 && executor.availablePermits() != expected; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, executor.availablePermits());
+    }
+}
@@ -0,0 +1,225 @@
+package io.storedmapper.executor;
+
+import io.storedmapper.DbProgramBase;
+import io.storedmapper.DbProgramMapperOptions;
+import io.storedmapper.annotation.DbParameterOrder;
+import io.storedmapper.annotation.DbProgramName;
+import io.storedmapper.dialect.MySqlDialect;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BatchLoaderTest {
+
+    private DataSource dataSource;
+    private PreparedStatement ps;
+    private ResultSet rs;
+    private DbProgramExecutor executor;
+    private final RowMapper<TaskRow> rowMapper = (r, n) -> new TaskRow(r.getInt(1), r.getString(2));
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DbProgramMapperOptions.configure(config -> config.setDialect(new MySqlDialect()));
+        dataSource = mock(DataSource.class);
+        var connection = mock(Connection.class);
+        ps = mock(PreparedStatement.class);
+        rs = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(ps);
+        when(ps.executeQuery()).thenReturn(rs);
+        executor = new DbProgramExecutor(new JdbcTemplate(dataSource));
+    }
+
+    @AfterEach
+    void tearDown() {
+        DbProgramMapperOptions.reset();
+    }
+
+    // --- テスト用パラメータクラス ---
+
+    record TaskRow(Integer id, String title) {
+    }
+
+    @DbProgramName("fn_get_tasks_by_ids")
+    static class GetTasksByIdsParam extends DbProgramBase {
+        @DbParameterOrder(1) private String locale = "ja";
+        @DbParameterOrder(2) private List<Integer> taskIds;
+    }
+
+    @DbProgramName("fn_get_tasks_by_ids")
+    static class SetKeyParam extends DbProgramBase {
+        @DbParameterOrder(1) private Set<Integer> taskIds;
+    }
+
+    @DbProgramName("fn_get_task")
+    static class GetTaskParam extends DbProgramBase {
+        @DbParameterOrder(1) private Integer taskId;
+    }
+
+    // --- テスト ---
+
+    @Test
+    void dispatch_shouldQueryOnceAndDistributeRowsByKey() throws Exception {
+        when(rs.next()).thenReturn(true, true, false);
+        when(rs.getInt(1)).thenReturn(3, 1);
+        when(rs.getString(2)).thenReturn("c", "a");
+        var loader = executor.batchLoader(GetTasksByIdsParam::new, rowMapper, TaskRow::id, Duration.ZERO);
+
+        var first = loader.load(1);
+        var second = loader.load(2);
+        var third = loader.load(3);
+        var duplicate = loader.load(1);
+        loader.dispatch();
+
+        assertEquals("a", first.get(5, TimeUnit.SECONDS).title());
+        assertNull(second.get(5, TimeUnit.SECONDS));
+        assertEquals("c", third.get(5, TimeUnit.SECONDS).title());
+        assertSame(first, duplicate);
+        verify(ps, times(1)).executeQuery();
+        verify(ps).setString(1, "ja");
+        verify(ps).setString(2, "[1,2,3]");
+    }
+
+    @Test
+    void load_shouldDispatchAfterWindow() throws Exception {
+        when(rs.next()).thenReturn(true, false);
+        when(rs.getInt(1)).thenReturn(5);
+        var loader = executor.batchLoader(GetTasksByIdsParam::new, rowMapper, TaskRow::id, Duration.ofMillis(20));
+
+        var results = loader.loadAll(List.of(5, 6)).get(5, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList(new TaskRow(5, null), null), results);
+        verify(ps, times(1)).executeQuery();
+    }
+
+    @Test
+    void load_shouldDispatchWhenMaxKeysReached() throws Exception {
+        DbProgramMapperOptions.configure(config -> config.setBatchLoaderMaxKeys(2));
+        when(rs.next()).thenReturn(false);
+        var loader = executor.batchLoader(SetKeyParam::new, rowMapper, TaskRow::id, Duration.ZERO);
+
+        var first = loader.load(1);
+        var second = loader.load(2);
+
+        assertNull(first.get(5, TimeUnit.SECONDS));
+        assertNull(second.get(5, TimeUnit.SECONDS));
+        verify(ps).setString(1, "[1,2]");
+    }
+
+    @Test
+    void load_shouldNotDispatchNextBatchWithTimerOfFlushedBatch() throws Exception {
+        DbProgramMapperOptions.configure(config -> config.setBatchLoaderMaxKeys(2));
+        when(rs.next()).thenReturn(false);
+        var loader = executor.batchLoader(SetKeyParam::new, rowMapper, TaskRow::id, Duration.ofMillis(300));
+
+        loader.load(1);
+        loader.load(2).get(5, TimeUnit.SECONDS);
+        Thread.sleep(150);
+        var third = loader.load(3);
+        // 最初のバッチのタイマーが経過しても、次のバッチは自身の待機時間まで実行されない
+        Thread.sleep(200);
+
+        assertFalse(third.isDone());
+        assertNull(third.get(5, TimeUnit.SECONDS));
+        verify(ps).setString(1, "[3]");
+    }
+
+    @Test
+    void load_shouldCarryDeadlineOverToFlushedBatch() throws Exception {
+        DbProgramMapperOptions.configure(config -> config.setBatchLoaderMaxKeys(2));
+        when(rs.next()).thenReturn(false);
+        var loader = executor.batchLoader(SetKeyParam::new, rowMapper, TaskRow::id, Duration.ZERO);
+
+        CompletableFuture<TaskRow> second;
+        try (var ignored = Deadline.start(Duration.ofSeconds(30))) {
+            loader.load(1);
+            second = loader.load(2);
+        }
+
+        assertNull(second.get(5, TimeUnit.SECONDS));
+        verify(ps).setQueryTimeout(30);
+    }
+
+    @Test
+    void load_shouldWaitForConnectionSlotOfDataSource() throws Exception {
+        DbProgramMapperOptions.configure(config -> config.setBatchLoaderMaxKeys(2));
+        when(rs.next()).thenReturn(false);
+        var permits = ConnectionLimits.of(dataSource, 1);
+        var loader = executor.batchLoader(SetKeyParam::new, rowMapper, TaskRow::id, Duration.ZERO);
+
+        permits.acquire();
+        CompletableFuture<TaskRow> second;
+        try {
+            loader.load(1);
+            second = loader.load(2);
+            Thread.sleep(100);
+
+            assertFalse(second.isDone());
+            verify(ps, never()).executeQuery();
+        } finally {
+            permits.release();
+        }
+
+        assertNull(second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, permits.availablePermits());
+    }
+
+    @Test
+    void dispatch_shouldCompleteAllWithFailure() throws Exception {
+        when(ps.executeQuery()).thenThrow(new SQLException("Invalid object name", "42S02"));
+        var loader = executor.batchLoader(GetTasksByIdsParam::new, rowMapper, TaskRow::id, Duration.ZERO);
+
+        var first = loader.load(1);
+        var second = loader.load(2);
+        loader.dispatch();
+
+        assertInstanceOf(DataAccessException.class, assertThrows(Exception.class, first::join).getCause());
+        assertInstanceOf(DataAccessException.class, assertThrows(Exception.class, second::join).getCause());
+    }
+
+    @Test
+    void close_shouldDispatchPendingKeysAndRejectNewKeys() throws Exception {
+        when(rs.next()).thenReturn(false);
+        var loader = executor.batchLoader(GetTasksByIdsParam::new, rowMapper, TaskRow::id, Duration.ZERO);
+        var pending = loader.load(1);
+
+        loader.close();
+
+        assertTrue(pending.isDone());
+        assertThrows(IllegalStateException.class, () -> loader.load(2));
+    }
+
+    @Test
+    void load_shouldRejectProgramWithoutCollectionParameter() {
+        var created = new AtomicInteger();
+        var loader = executor.batchLoader(() -> {
+            created.incrementAndGet();
+            return new GetTaskParam();
+        }, rowMapper, TaskRow::id, Duration.ZERO);
+
+        // 生成処理はローダーの作成時には呼び出されない
+        assertEquals(0, created.get());
+        assertThrows(IllegalArgumentException.class, () -> loader.load(1));
+    }
+}
@@ -0,0 +1,466 @@
+package io.storedmapper.executor;
+
+import io.storedmapper.DbProgramBase;
+import io.storedmapper.DbProgramMapperOptions;
+import io.storedmapper.DbProgramWithErrorBase;
+import io.storedmapper.ParameterDirection;
+import io.storedmapper.annotation.DbParameterOrder;
+import io.storedmapper.annotation.DbParameterProperty;
+import io.storedmapper.annotation.DbProgramCacheable;
+import io.storedmapper.annotation.DbProgramInvalidates;
+import io.storedmapper.annotation.DbProgramName;
+import io.storedmapper.annotation.DbProgramRetry;
+import io.storedmapper.annotation.DbProgramStatement;
+import io.storedmapper.dialect.PostgreSqlDialect;
+import io.storedmapper.internal.ProgramRetry;
+import io.storedmapper.internal.ResultCache;
+import io.storedmapper.internal.StatementSettings;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DbProgramExecutorTest {
+
+    private Connection connection;
+    private PreparedStatement ps;
+    private ResultSet rs;
+    private DbProgramExecutor executor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DbProgramMapperOptions.reset();
+        var dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        ps = mock(PreparedStatement.class);
+        rs = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(ps);
+        when(ps.executeQuery()).thenReturn(rs);
+        executor = new DbProgramExecutor(new JdbcTemplate(dataSource));
+    }
+
+    @AfterEach
+    void tearDown() {
+        DbProgramMapperOptions.reset();
+    }
+
+    // --- テスト用パラメータクラス ---
+
+    @DbProgramName("fn_get_status_names")
+    @DbProgramCacheable
+    static class GetStatusNamesParam extends DbProgramBase {
+        @DbParameterOrder(1) private String locale;
+
+        GetStatusNamesParam(String locale) {
+            this.locale = locale;
+        }
+    }
+
+    @DbProgramName("fn_export_tasks")
+    @DbProgramStatement(fetchSize = 200, queryTimeout = 30, adaptiveFetchSize = true)
+    static class ExportTasksParam extends DbProgramBase {
+        @DbParameterOrder(1) private Integer year;
+
+        ExportTasksParam(Integer year) {
+            this.year = year;
+        }
+    }
+
+    @DbProgramName("sp_rebuild_index")
+    @DbProgramStatement(queryTimeout = 600)
+    static class RebuildIndexParam extends DbProgramBase {
+    }
+
+    @DbProgramName("sp_rename_status")
+    @DbProgramInvalidates(value = GetStatusNamesParam.class, match = "locale")
+    static class RenameStatusParam extends DbProgramWithErrorBase {
+        @DbParameterOrder(1) private String locale;
+
+        RenameStatusParam(String locale) {
+            this.locale = locale;
+        }
+    }
+
+    @DbProgramName("sp_open_tasks")
+    static class OpenTasksParam extends DbProgramBase {
+        @DbParameterOrder(1) private Integer ownerId;
+        @DbParameterOrder(2)
+        @DbParameterProperty(direction = ParameterDirection.OUTPUT)
+        private ResultSet tasks;
+
+        OpenTasksParam(Integer ownerId) {
+            this.ownerId = ownerId;
+        }
+    }
+
+    @DbProgramName("fn_get_task")
+    static class GetTaskParam extends DbProgramBase {
+        @DbParameterOrder(1) private Integer taskId;
+
+        GetTaskParam(Integer taskId) {
+            this.taskId = taskId;
+        }
+    }
+
+    @DbProgramName("fn_get_task")
+    @DbProgramRetry(initialBackoffMillis = 0)
+    static class GetTaskRetryParam extends DbProgramBase {
+        @DbParameterOrder(1) private Integer taskId;
+
+        GetTaskRetryParam(Integer taskId) {
+            this.taskId = taskId;
+        }
+    }
+
+    @DbProgramName("sp_insert_task")
+    static class InsertTaskParam extends DbProgramBase {
+        @DbParameterOrder(1) private String name;
+
+        InsertTaskParam(String name) {
+            this.name = name;
+        }
+    }
+
+    @DbProgramName("sp_insert_tag")
+    static class InsertTagParam extends DbProgramBase {
+        @DbParameterOrder(1) private String tag;
+
+        InsertTagParam(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    @DbProgramName("sp_update_task")
+    static class UpdateTaskParam extends DbProgramWithErrorBase {
+        @DbParameterOrder(1) private Integer taskId;
+
+        UpdateTaskParam(Integer taskId) {
+            this.taskId = taskId;
+        }
+    }
+
+    // --- テスト ---
+
+    @Test
+    void queryFirstOrDefault_shouldLimitSqlAndStatementToOneRow() throws Exception {
+        when(rs.next()).thenReturn(true, false);
+        when(rs.getInt(1)).thenReturn(42);
+
+        var result = executor.queryFirstOrDefault(new GetTaskParam(1), (r, n) -> r.getInt(1), "id DESC");
+
+        assertEquals(42, result);
+        verify(connection).prepareStatement("SELECT TOP (1) * FROM [dbo].[fn_get_task](?) ORDER BY id DESC");
+        verify(ps).setMaxRows(1);
+        verify(ps).setFetchSize(1);
+        verify(ps).setInt(1, 1);
+    }
+
+    @Test
+    void queryFirstOrDefault_shouldReturnNullWhenEmpty() throws Exception {
+        when(rs.next()).thenReturn(false);
+        assertNull(executor.queryFirstOrDefault(new GetTaskParam(1), (r, n) -> r.getInt(1)));
+    }
+
+    @Test
+    void querySingle_shouldReturnSingleRow() throws Exception {
+        when(rs.next()).thenReturn(true, false);
+        when(rs.getInt(1)).thenReturn(7);
+
+        Integer result = executor.querySingle(new GetTaskParam(1), (r, n) -> r.getInt(1));
+
+        assertEquals(7, result);
+        verify(connection).prepareStatement("SELECT TOP (2) * FROM [dbo].[fn_get_task](?)");
+        verify(ps).setMaxRows(2);
+    }
+
+    @Test
+    void querySingle_shouldRetryAfterDeadlock() throws Exception {
+        when(ps.executeQuery())
+                .thenThrow(new SQLException("Transaction was deadlocked", "40001", 1205))
+                .thenReturn(rs);
+        when(rs.next()).thenReturn(true, false);
+        when(rs.getInt(1)).thenReturn(7);
+
+        Integer result = executor.querySingle(new GetTaskRetryParam(1), (r, n) -> r.getInt(1));
+
+        assertEquals(7, result);
+        verify(ps, times(2)).executeQuery();
+        assertEquals(1, ProgramRetry.getStatistics(GetTaskRetryParam.class).getRecoveredCount());
+    }
+
+    @Test
+    void querySingle_shouldFailWhenMoreThanOneRow() throws Exception {
+        when(rs.next()).thenReturn(true, true, false);
+
+        var ex = assertThrows(IncorrectResultSizeDataAccessException.class,
+                () -> executor.querySingle(new GetTaskParam(1), (r, n) -> r.getInt(1)));
+        assertEquals(2, ex.getActualSize());
+    }
+
+    @Test
+    void querySingle_shouldFailWhenEmpty() throws Exception {
+        when(rs.next()).thenReturn(false);
+
+        assertThrows(EmptyResultDataAccessException.class,
+                () -> executor.querySingle(new GetTaskParam(1), (r, n) -> r.getInt(1)));
+    }
+
+    @Test
+    void executeBatch_shouldBatchPerProgramClassAndKeepInputOrder() throws Exception {
+        var metaData = mock(DatabaseMetaData.class);
+        when(metaData.supportsBatchUpdates()).thenReturn(true);
+        when(connection.getMetaData()).thenReturn(metaData);
+        var taskPs = mock(PreparedStatement.class);
+        var tagPs = mock(PreparedStatement.class);
+        when(connection.prepareStatement("{call [dbo].[sp_insert_task](?)}")).thenReturn(taskPs);
+        when(connection.prepareStatement("{call [dbo].[sp_insert_tag](?)}")).thenReturn(tagPs);
+        when(taskPs.getConnection()).thenReturn(connection);
+        when(tagPs.getConnection()).thenReturn(connection);
+        when(taskPs.executeBatch()).thenReturn(new int[]{1, 2});
+        when(tagPs.executeBatch()).thenReturn(new int[]{5});
+
+        var result = executor.executeBatch(List.of(
+                new InsertTaskParam("a"), new InsertTagParam("x"), new InsertTaskParam("b")));
+
+        assertArrayEquals(new int[]{1, 5, 2}, result.getAffectedRows());
+        assertEquals(8, result.getTotalAffectedRows());
+        verify(taskPs).setString(1, "a");
+        verify(taskPs).setString(1, "b");
+        verify(taskPs, times(2)).addBatch();
+        verify(tagPs).setString(1, "x");
+    }
+
+    @Test
+    void executeBatch_shouldReturnEmptyResultForEmptyList() {
+        assertEquals(0, executor.executeBatch(List.of()).size());
+    }
+
+    @Test
+    void executeBatchWithOutputs_shouldReuseOneCallableStatementAndWriteBackOutputs() throws Exception {
+        var cs = mock(CallableStatement.class);
+        when(connection.prepareCall("{? = call [dbo].[sp_update_task](?,?,?)}")).thenReturn(cs);
+        when(cs.getUpdateCount()).thenReturn(1, -1, 1, -1);
+        when(cs.getInt(3)).thenReturn(0, 50001);
+        when(cs.getString(4)).thenReturn("ok", "locked");
+        var first = new UpdateTaskParam(1);
+        var second = new UpdateTaskParam(2);
+
+        var result = executor.executeBatchWithOutputs(List.of(first, second));
+
+        assertEquals(2, result.getExecutedCount());
+        assertEquals(1, result.getErrorCount());
+        assertFalse(result.isStopped());
+        assertEquals("ok", first.getProgressMessage());
+        assertEquals(50001, second.getSqlErrorCd());
+        verify(connection, times(1)).prepareCall(anyString());
+        verify(cs).setInt(2, 1);
+        verify(cs).setInt(2, 2);
+        verify(cs).close();
+    }
+
+    @Test
+    void executeBatchWithOutputs_shouldStopAtFirstSqlError() throws Exception {
+        var cs = mock(CallableStatement.class);
+        when(connection.prepareCall(anyString())).thenReturn(cs);
+        when(cs.getUpdateCount()).thenReturn(-1);
+        when(cs.getInt(3)).thenReturn(50001);
+
+        var result = executor.executeBatchWithOutputs(
+                List.of(new UpdateTaskParam(1), new UpdateTaskParam(2), new UpdateTaskParam(3)), true);
+
+        assertTrue(result.isStopped());
+        assertEquals(1, result.getExecutedCount());
+        assertEquals(1, result.getErrorCount());
+        verify(cs, times(1)).execute();
+    }
+
+    @Test
+    void executeBatch_shouldRunOutputProceduresOnOneConnection() throws Exception {
+        var cs = mock(CallableStatement.class);
+        when(connection.prepareCall(anyString())).thenReturn(cs);
+        when(cs.getUpdateCount()).thenReturn(3, -1, 4, -1);
+
+        var result = executor.executeBatch(List.of(new UpdateTaskParam(1), new UpdateTaskParam(2)));
+
+        assertArrayEquals(new int[]{3, 4}, result.getAffectedRows());
+        verify(connection, times(1)).prepareCall(anyString());
+    }
+
+    @Test
+    void executeWithCursors_shouldFetchPostgreSqlCursorInChunksInsideTransaction() throws Exception {
+        DbProgramMapperOptions.configure(config -> config.setDialect(new PostgreSqlDialect()));
+        var outputs = mock(ResultSet.class);
+        var fetch = mock(Statement.class);
+        var firstChunk = mock(ResultSet.class);
+        var lastChunk = mock(ResultSet.class);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.createStatement()).thenReturn(fetch);
+        // ドライバはrefcursorの列をカーソル名の文字列として返す
+        when(ps.executeQuery()).thenReturn(outputs);
+        when(outputs.next()).thenReturn(true, false);
+        when(outputs.getString(1)).thenReturn("<unnamed portal 1>");
+        when(fetch.executeQuery("FETCH FORWARD 2 FROM \"<unnamed portal 1>\"")).thenReturn(firstChunk, lastChunk);
+        when(firstChunk.next()).thenReturn(true, true, false);
+        when(firstChunk.getInt(1)).thenReturn(1, 2);
+        when(lastChunk.next()).thenReturn(true, false);
+        when(lastChunk.getInt(1)).thenReturn(3);
+
+        List<Integer> ids = executor.executeWithCursors(new OpenTasksParam(7), 2, cursors -> {
+            try (var tasks = cursors.stream("tasks", (r, n) -> r.getInt(1))) {
+                return tasks.collect(Collectors.toList());
+            }
+        });
+
+        assertEquals(List.of(1, 2, 3), ids);
+        verify(connection, never()).prepareCall(anyString());
+        verify(ps).setInt(1, 7);
+        verify(ps).setNull(2, Types.OTHER);
+        verify(outputs, never()).getObject(1);
+        verify(fetch, times(2)).executeQuery(anyString());
+        var order = inOrder(connection);
+        order.verify(connection).setAutoCommit(false);
+        order.verify(connection).commit();
+        order.verify(connection).setAutoCommit(true);
+        verify(fetch).close();
+        verify(ps).close();
+    }
+
+    @Test
+    void executeWithCursors_shouldRollbackWhenCallbackFails() throws Exception {
+        DbProgramMapperOptions.configure(config -> config.setDialect(new PostgreSqlDialect()));
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(ps.executeQuery()).thenReturn(rs);
+
+        assertThrows(IllegalStateException.class, () -> executor.executeWithCursors(new OpenTasksParam(7), cursors -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        verify(connection).rollback();
+        verify(connection, never()).commit();
+        verify(connection).setAutoCommit(true);
+    }
+
+    @Test
+    void executeWithCursor_shouldReadDriverResultSetWithFetchSize() throws Exception {
+        var cs = mock(CallableStatement.class);
+        var cursor = mock(ResultSet.class);
+        when(connection.prepareCall(anyString())).thenReturn(cs);
+        when(cs.getUpdateCount()).thenReturn(-1);
+        when(cs.getObject(3)).thenReturn(cursor);
+        when(cursor.next()).thenReturn(true, true, false);
+        when(cursor.getInt(1)).thenReturn(10, 20);
+
+        long sum = executor.executeWithCursor(new OpenTasksParam(7), (r, n) -> r.getInt(1),
+                tasks -> tasks.mapToLong(Integer::longValue).sum());
+
+        assertEquals(30L, sum);
+        verify(cs).registerOutParameter(3, Types.REF_CURSOR);
+        verify(cursor).setFetchSize(DbProgramMapperOptions.getStreamFetchSize());
+        verify(cursor).close();
+        verify(connection, never()).setAutoCommit(anyBoolean());
+    }
+
+    @Test
+    void query_shouldServeCacheableProgramFromCache() throws Exception {
+        when(rs.next()).thenReturn(true, false);
+        when(rs.getString(1)).thenReturn("open");
+
+        RowMapper<String> rowMapper = (r, n) -> r.getString(1);
+
+        var first = executor.query(new GetStatusNamesParam("ja"), rowMapper);
+        var second = executor.query(new GetStatusNamesParam("ja"), rowMapper);
+
+        assertEquals(List.of("open"), second);
+        assertSame(first, second);
+        assertThrows(UnsupportedOperationException.class, () -> second.add("closed"));
+        verify(ps, times(1)).executeQuery();
+        assertEquals(1, ResultCache.getStatistics(GetStatusNamesParam.class).getHitCount());
+    }
+
+    @Test
+    void execute_shouldInvalidateCachedResultsAfterSuccess() throws Exception {
+        var cs = mock(CallableStatement.class);
+        when(connection.prepareCall(anyString())).thenReturn(cs);
+        when(cs.getUpdateCount()).thenReturn(-1);
+        when(cs.getInt(3)).thenReturn(50001, 0);
+        RowMapper<String> rowMapper = (r, n) -> r.getString(1);
+        executor.query(new GetStatusNamesParam("ja"), rowMapper);
+        executor.query(new GetStatusNamesParam("en"), rowMapper);
+
+        // SQLエラーの場合は削除しない
+        executor.execute(new RenameStatusParam("ja"));
+        assertEquals(2, ResultCache.getStatistics(GetStatusNamesParam.class).getSize());
+
+        executor.execute(new RenameStatusParam("ja"));
+        assertEquals(1, ResultCache.getStatistics(GetStatusNamesParam.class).getSize());
+    }
+
+    @Test
+    void execute_shouldInvalidateAgainAfterTransactionCompletes() throws Exception {
+        var cs = mock(CallableStatement.class);
+        when(connection.prepareCall(anyString())).thenReturn(cs);
+        when(cs.getUpdateCount()).thenReturn(-1);
+        RowMapper<String> rowMapper = (r, n) -> r.getString(1);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            executor.execute(new RenameStatusParam("ja"));
+            executor.query(new GetStatusNamesParam("ja"), rowMapper);
+            assertEquals(1, ResultCache.getStatistics(GetStatusNamesParam.class).getSize());
+
+            for (var synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(0);
+            }
+            assertEquals(0, ResultCache.getStatistics(GetStatusNamesParam.class).getSize());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void query_shouldApplyProgramStatementSettingsAndLearnFetchSize() throws Exception {
+        when(rs.next()).thenReturn(true, true, true, false, true, true, true, false);
+        RowMapper<String> rowMapper = (r, n) -> r.getString(1);
+
+        executor.query(new ExportTasksParam(2024), rowMapper);
+        executor.query(new ExportTasksParam(2024), rowMapper);
+
+        verify(ps).setFetchSize(200);
+        verify(ps).setFetchSize(4);
+        verify(ps, times(2)).setQueryTimeout(30);
+        assertEquals(3.0, StatementSettings.getAverageRowCount(ExportTasksParam.class), 1e-9);
+    }
+
+    @Test
+    void execute_shouldApplyProgramQueryTimeout() throws Exception {
+        var cs = mock(CallableStatement.class);
+        when(connection.prepareCall(anyString())).thenReturn(cs);
+        when(cs.getUpdateCount()).thenReturn(-1);
+
+        executor.execute(new RebuildIndexParam());
+
+        verify(cs).setQueryTimeout(600);
+        verify(cs, never()).setFetchSize(anyInt());
+    }
+}
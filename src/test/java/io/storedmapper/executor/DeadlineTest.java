@@ -0,0 +1,165 @@
+package io.storedmapper.executor;
+
+import io.storedmapper.DbProgramBase;
+import io.storedmapper.DbProgramMapperOptions;
+import io.storedmapper.annotation.DbParameterOrder;
+import io.storedmapper.annotation.DbProgramName;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DeadlineTest {
+
+    private DataSource dataSource;
+    private PreparedStatement ps;
+    private ResultSet rs;
+    private CountDownLatch cancelled;
+    private DbProgramExecutor executor;
+    private final RowMapper<Integer> rowMapper = (r, n) -> r.getInt(1);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DbProgramMapperOptions.reset();
+        dataSource = mock(DataSource.class);
+        var connection = mock(Connection.class);
+        ps = mock(PreparedStatement.class);
+        rs = mock(ResultSet.class);
+        cancelled = new CountDownLatch(1);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(ps);
+        when(ps.executeQuery()).thenReturn(rs);
+        doAnswer(invocation -> {
+            cancelled.countDown();
+            return null;
+        }).when(ps).cancel();
+        executor = new DbProgramExecutor(new JdbcTemplate(dataSource));
+    }
+
+    @AfterEach
+    void tearDown() {
+        DbProgramMapperOptions.reset();
+    }
+
+    // --- テスト用パラメータクラス ---
+
+    @DbProgramName("fn_get_task_ids")
+    static class GetTaskIdsParam extends DbProgramBase {
+        @DbParameterOrder(1) private Integer ownerId;
+
+        GetTaskIdsParam(Integer ownerId) {
+            this.ownerId = ownerId;
+        }
+    }
+
+    // --- テスト ---
+
+    @Test
+    void within_shouldSetRemainingTimeAsQueryTimeout() throws Exception {
+        Deadline.within(Duration.ofMillis(2_500), () -> executor.query(new GetTaskIdsParam(1), rowMapper));
+
+        verify(ps).setQueryTimeout(3);
+        assertNull(Deadline.current());
+    }
+
+    @Test
+    void within_shouldKeepShorterQueryTimeout() throws Exception {
+        when(ps.getQueryTimeout()).thenReturn(1);
+
+        Deadline.within(Duration.ofSeconds(30), () -> executor.query(new GetTaskIdsParam(1), rowMapper));
+
+        verify(ps, never()).setQueryTimeout(anyInt());
+    }
+
+    @Test
+    void within_shouldFailWithoutExecutingAfterDeadline() throws Exception {
+        assertThrows(QueryTimeoutException.class,
+                () -> Deadline.within(Duration.ZERO, () -> executor.query(new GetTaskIdsParam(1), rowMapper)));
+
+        verify(ps, never()).executeQuery();
+    }
+
+    @Test
+    void within_shouldCancelStatementWhenDeadlineExceeded() throws Exception {
+        blockUntilCancelled();
+
+        var error = assertThrows(QueryTimeoutException.class, () -> Deadline.within(Duration.ofMillis(100),
+                () -> executor.query(new GetTaskIdsParam(1), rowMapper)));
+
+        assertInstanceOf(DataAccessException.class, error.getCause());
+        verify(ps).cancel();
+    }
+
+    @Test
+    void start_shouldCancelStatementWhenThreadInterrupted() throws Exception {
+        blockUntilCancelled();
+        var failure = new AtomicReference<Throwable>();
+        var worker = Thread.ofPlatform().start(() -> {
+            try (var deadline = Deadline.start(Duration.ofSeconds(30))) {
+                executor.query(new GetTaskIdsParam(1), rowMapper);
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+        verify(ps, timeout(5_000)).executeQuery();
+
+        worker.interrupt();
+
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+        worker.join(5_000);
+        assertInstanceOf(DataAccessException.class, failure.get());
+    }
+
+    @Test
+    void start_shouldNotExtendOuterDeadline() {
+        try (var outer = Deadline.start(Duration.ofSeconds(1))) {
+            try (var inner = Deadline.start(Duration.ofMinutes(10))) {
+                assertSame(inner, Deadline.current());
+                assertTrue(inner.remaining().compareTo(Duration.ofSeconds(1)) <= 0);
+            }
+            assertSame(outer, Deadline.current());
+        }
+        assertNull(Deadline.current());
+    }
+
+    @Test
+    void async_shouldInheritCallerDeadline() throws Exception {
+        var async = new AsyncDbProgramExecutor(new JdbcTemplate(dataSource), 2);
+
+        try (var deadline = Deadline.start(Duration.ofSeconds(4))) {
+            async.query(new GetTaskIdsParam(1), rowMapper).get(5, TimeUnit.SECONDS);
+        }
+
+        verify(ps).setQueryTimeout(4);
+    }
+
+    private void blockUntilCancelled() throws SQLException {
+        // JDBCドライバーと同様に割り込みに反応せず、割り込み状態も保持したまま待機する
+        when(ps.executeQuery()).thenAnswer(invocation -> {
+            var limit = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (cancelled.getCount() > 0 && System.nanoTime() < limit) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+            throw new SQLException("canceling statement due to user request", "57014");
+        });
+    }
+}
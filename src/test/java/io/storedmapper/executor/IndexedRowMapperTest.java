@@ -0,0 +1,200 @@
+package io.storedmapper.executor;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.dao.TypeMismatchDataAccessException;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class IndexedRowMapperTest {
+
+    // --- テスト用結果クラス ---
+
+    record TaskRecord(long taskId, String taskName, Integer priority) {
+    }
+
+    enum TaskStatus { OPEN, DONE }
+
+    record TaskEvent(TaskStatus status, LocalDateTime occurredAt) {
+    }
+
+    public static class TaskStatusDto {
+        private TaskStatus status;
+        private LocalDateTime updatedAt;
+
+        public TaskStatus getStatus() { return status; }
+        public void setStatus(TaskStatus status) { this.status = status; }
+        public LocalDateTime getUpdatedAt() { return updatedAt; }
+        public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    }
+
+    public static class TaskDto {
+        private int taskId;
+        private String taskName;
+
+        public int getTaskId() { return taskId; }
+        public void setTaskId(int taskId) { this.taskId = taskId; }
+        public String getTaskName() { return taskName; }
+        public void setTaskName(String taskName) { this.taskName = taskName; }
+    }
+
+    private static ResultSet resultSet(String... labels) throws Exception {
+        var metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(labels.length);
+        for (int i = 0; i < labels.length; i++) {
+            when(metaData.getColumnLabel(i + 1)).thenReturn(labels[i]);
+        }
+        var rs = mock(ResultSet.class);
+        when(rs.getMetaData()).thenReturn(metaData);
+        return rs;
+    }
+
+    // --- テスト ---
+
+    @Test
+    void forType_shouldReturnSameInstanceForSameClass() {
+        assertSame(IndexedRowMapperFactory.forType(TaskDto.class), IndexedRowMapperFactory.forType(TaskDto.class));
+    }
+
+    @Test
+    void mapRow_shouldConstructRecordFromSnakeCaseColumns() throws Exception {
+        var rs = resultSet("task_name", "TASK_ID", "priority");
+        when(rs.getString(1)).thenReturn("write docs");
+        when(rs.getLong(2)).thenReturn(7L);
+        when(rs.getInt(3)).thenReturn(0);
+        when(rs.wasNull()).thenReturn(false, true);
+
+        var task = IndexedRowMapperFactory.forType(TaskRecord.class).mapRow(rs, 0);
+
+        assertEquals(new TaskRecord(7L, "write docs", null), task);
+    }
+
+    @Test
+    void mapRow_shouldUseDefaultForMissingPrimitiveComponent() throws Exception {
+        var rs = resultSet("task_name");
+        when(rs.getString(1)).thenReturn("orphan");
+
+        var task = IndexedRowMapperFactory.forType(TaskRecord.class).mapRow(rs, 0);
+
+        assertEquals(new TaskRecord(0L, "orphan", null), task);
+    }
+
+    @Test
+    void mapRow_shouldPopulatePojoAndIgnoreUnknownColumns() throws Exception {
+        var rs = resultSet("task_id", "task_name", "created_by");
+        when(rs.getInt(1)).thenReturn(3);
+        when(rs.getString(2)).thenReturn("review");
+
+        var task = IndexedRowMapperFactory.forType(TaskDto.class).mapRow(rs, 0);
+
+        assertEquals(3, task.getTaskId());
+        assertEquals("review", task.getTaskName());
+        verify(rs, never()).getObject(3);
+    }
+
+    @Test
+    void mapRow_shouldSkipNullForPrimitiveProperty() throws Exception {
+        var rs = resultSet("task_id", "task_name");
+        when(rs.getInt(1)).thenReturn(0);
+        when(rs.wasNull()).thenReturn(true);
+
+        var task = IndexedRowMapperFactory.forType(TaskDto.class).mapRow(rs, 0);
+
+        assertEquals(0, task.getTaskId());
+        assertNull(task.getTaskName());
+    }
+
+    @Test
+    void forExecution_shouldResolveColumnsOncePerResultSet() throws Exception {
+        var mapper = IndexedRowMapperFactory.forType(TaskDto.class).forExecution();
+        var rs = resultSet("task_id", "task_name");
+
+        mapper.mapRow(rs, 0);
+        mapper.mapRow(rs, 1);
+        mapper.mapRow(rs, 2);
+
+        verify(rs, times(1)).getMetaData();
+    }
+
+    @Test
+    void mapRow_shouldMapInterleavedResultSetsWithDifferentColumns() throws Exception {
+        var mapper = IndexedRowMapperFactory.forType(TaskDto.class);
+        var byId = resultSet("task_id", "task_name");
+        when(byId.getInt(1)).thenReturn(1);
+        when(byId.getString(2)).thenReturn("first");
+        var byName = resultSet("task_name", "task_id");
+        when(byName.getString(1)).thenReturn("second");
+        when(byName.getInt(2)).thenReturn(2);
+
+        var first = mapper.mapRow(byId, 0);
+        var second = mapper.mapRow(byName, 0);
+        var third = mapper.mapRow(byId, 1);
+
+        assertEquals("first", first.getTaskName());
+        assertEquals(2, second.getTaskId());
+        assertEquals("second", second.getTaskName());
+        assertEquals(1, third.getTaskId());
+    }
+
+    @Test
+    void mapRow_shouldConvertEnumAndTimestampForRecord() throws Exception {
+        var occurredAt = LocalDateTime.of(2024, 4, 1, 9, 30);
+        var rs = resultSet("status", "occurred_at");
+        when(rs.getObject(1)).thenReturn("DONE");
+        when(rs.getObject(2, LocalDateTime.class)).thenThrow(new SQLFeatureNotSupportedException());
+        when(rs.getTimestamp(2)).thenReturn(Timestamp.valueOf(occurredAt));
+
+        var event = IndexedRowMapperFactory.forType(TaskEvent.class).mapRow(rs, 0);
+
+        assertEquals(new TaskEvent(TaskStatus.DONE, occurredAt), event);
+    }
+
+    @Test
+    void mapRow_shouldConvertEnumOrdinalAndTimestampForPojo() throws Exception {
+        var updatedAt = LocalDateTime.of(2024, 4, 1, 9, 30);
+        var rs = resultSet("status", "updated_at");
+        when(rs.getObject(1)).thenReturn(1);
+        when(rs.getObject(2, LocalDateTime.class)).thenThrow(new SQLFeatureNotSupportedException());
+        when(rs.getTimestamp(2)).thenReturn(Timestamp.valueOf(updatedAt));
+
+        var dto = IndexedRowMapperFactory.forType(TaskStatusDto.class).mapRow(rs, 0);
+
+        assertEquals(TaskStatus.DONE, dto.getStatus());
+        assertEquals(updatedAt, dto.getUpdatedAt());
+    }
+
+    @Test
+    void mapRow_shouldRejectUnconvertibleValue() throws Exception {
+        var rs = resultSet("status");
+        when(rs.getObject(1)).thenReturn("ARCHIVED");
+
+        assertThrows(TypeMismatchDataAccessException.class,
+                () -> IndexedRowMapperFactory.forType(TaskStatusDto.class).mapRow(rs, 0));
+    }
+
+    @Test
+    void mapRow_shouldReadFirstColumnForSimpleType() throws Exception {
+        var rs = resultSet("count");
+        when(rs.getLong(1)).thenReturn(12L);
+
+        assertEquals(12L, IndexedRowMapperFactory.forType(Long.class).mapRow(rs, 0));
+    }
+
+    @Test
+    void forType_shouldRejectPojoWithoutNoArgConstructor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> IndexedRowMapperFactory.forType(NoDefaultConstructor.class));
+    }
+
+    public static class NoDefaultConstructor {
+        public NoDefaultConstructor(String value) {
+        }
+    }
+}
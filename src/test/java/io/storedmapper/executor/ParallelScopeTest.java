@@ -0,0 +1,157 @@
+package io.storedmapper.executor;
+
+import io.storedmapper.DbProgramBase;
+import io.storedmapper.DbProgramMapperOptions;
+import io.storedmapper.annotation.DbParameterOrder;
+import io.storedmapper.annotation.DbProgramName;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ParallelScopeTest {
+
+    private PreparedStatement ps;
+    private CountDownLatch cancelled;
+    private AsyncDbProgramExecutor executor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DbProgramMapperOptions.reset();
+        var dataSource = mock(DataSource.class);
+        var connection = mock(Connection.class);
+        ps = mock(PreparedStatement.class);
+        cancelled = new CountDownLatch(1);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(ps);
+        // キャンセルされるまで応答しないクエリ
+        when(ps.executeQuery()).thenAnswer(invocation -> {
+            cancelled.await(5, TimeUnit.SECONDS);
+            throw new SQLException("canceling statement due to user request", "57014");
+        });
+        doAnswer(invocation -> {
+            cancelled.countDown();
+            return null;
+        }).when(ps).cancel();
+        executor = new AsyncDbProgramExecutor(new JdbcTemplate(dataSource), 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        DbProgramMapperOptions.reset();
+    }
+
+    // --- テスト用パラメータクラス ---
+
+    @DbProgramName("fn_get_task_ids")
+    static class GetTaskIdsParam extends DbProgramBase {
+        @DbParameterOrder(1) private Integer ownerId;
+
+        GetTaskIdsParam(Integer ownerId) {
+            this.ownerId = ownerId;
+        }
+    }
+
+    // --- テスト ---
+
+    @Test
+    void all_shouldRunConcurrentlyAndKeepOrder() {
+        var barrier = new CyclicBarrier(3);
+        Function<Integer, Function<DbProgramExecutor, Integer>> call = value -> e -> {
+            try {
+                // 3件が同時に実行されていなければ待機がタイムアウトする
+                barrier.await(5, TimeUnit.SECONDS);
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+            return value;
+        };
+
+        var results = executor.all(call.apply(1), call.apply(2), call.apply(3));
+
+        assertEquals(List.of(1, 2, 3), results);
+    }
+
+    @Test
+    void join_shouldReturnTypedResults() {
+        try (var scope = executor.parallel()) {
+            var name = scope.fork(e -> "tasks");
+            var count = scope.fork(e -> 42);
+            scope.join();
+
+            assertEquals("tasks", name.get());
+            assertEquals(42, count.get());
+        }
+    }
+
+    @Test
+    void join_shouldFailFastAndCancelSiblings() throws Exception {
+        try (var scope = executor.parallel()) {
+            var slow = scope.query(new GetTaskIdsParam(1), Integer.class);
+            scope.fork(e -> {
+                throw new DataIntegrityViolationException("duplicate");
+            });
+
+            var error = assertThrows(DataIntegrityViolationException.class, scope::join);
+
+            assertEquals("duplicate", error.getMessage());
+            assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+            assertTrue(slow.toFuture().isCancelled());
+            assertThrows(IllegalStateException.class, slow::get);
+        }
+    }
+
+    @Test
+    void join_shouldCancelAllWhenTimeoutElapses() throws Exception {
+        try (var scope = executor.parallel()) {
+            var slow = scope.query(new GetTaskIdsParam(1), Integer.class);
+
+            assertThrows(QueryTimeoutException.class, () -> scope.join(Duration.ofMillis(100)));
+
+            assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+            assertTrue(slow.isDone());
+        }
+    }
+
+    @Test
+    void all_shouldApplyTimeout() {
+        List<Function<DbProgramExecutor, List<Integer>>> actions =
+                Arrays.asList(e -> e.query(new GetTaskIdsParam(1), Integer.class), e -> List.of(1));
+
+        assertThrows(QueryTimeoutException.class, () -> executor.all(actions, Duration.ofMillis(100)));
+    }
+
+    @Test
+    void get_shouldFailBeforeJoin() {
+        try (var scope = executor.parallel()) {
+            var slow = scope.query(new GetTaskIdsParam(1), Integer.class);
+            assertThrows(IllegalStateException.class, slow::get);
+        }
+    }
+
+    @Test
+    void fork_shouldFailAfterClose() {
+        var scope = executor.parallel();
+        scope.close();
+        assertThrows(IllegalStateException.class, () -> scope.fork(e -> 1));
+    }
+}
@@ -0,0 +1,175 @@
+package io.storedmapper.executor;
+
+import io.storedmapper.DbProgramMapperOptions;
+import io.storedmapper.DbProgramWithErrorBase;
+import io.storedmapper.annotation.DbParameterOrder;
+import io.storedmapper.annotation.DbProgramName;
+import io.storedmapper.dialect.PostgreSqlDialect;
+import io.storedmapper.internal.ProgramDescriptor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProgramCallTest {
+
+    @BeforeEach
+    void setUp() {
+        DbProgramMapperOptions.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        DbProgramMapperOptions.reset();
+    }
+
+    // --- テスト用パラメータクラス ---
+
+    @DbProgramName("sp_update_user")
+    static class UpdateUserParam extends DbProgramWithErrorBase {
+        @DbParameterOrder(1) private Integer userId;
+        @DbParameterOrder(2) private String name;
+
+        UpdateUserParam(Integer userId, String name) {
+            this.userId = userId;
+            this.name = name;
+        }
+    }
+
+    // --- テスト ---
+
+    @Test
+    void of_shouldIncludeReturnValueForSqlServer() {
+        var param = new UpdateUserParam(1, "test");
+        var call = ProgramCall.of(param, ProgramDescriptor.of(param));
+        assertEquals("{? = call [dbo].[sp_update_user](?,?,?,?)}", call.getSql());
+    }
+
+    @Test
+    void of_shouldOmitReturnValueForPostgreSql() {
+        DbProgramMapperOptions.configure(config -> {
+            config.setDialect(new PostgreSqlDialect());
+            config.setDefaultSchema("public");
+        });
+        var param = new UpdateUserParam(1, "test");
+        var call = ProgramCall.of(param, ProgramDescriptor.of(param));
+        assertEquals("CALL \"public\".\"sp_update_user\"(?,?,?,?)", call.getSql());
+    }
+
+    @Test
+    void bind_shouldRegisterParametersByIndex() throws Exception {
+        var param = new UpdateUserParam(1, "test");
+        var call = ProgramCall.of(param, ProgramDescriptor.of(param));
+        var cs = mock(CallableStatement.class);
+
+        call.bind(cs, param);
+
+        verify(cs).registerOutParameter(1, Types.INTEGER);
+        verify(cs).setInt(2, 1);
+        verify(cs).setString(3, "test");
+        verify(cs).registerOutParameter(4, Types.INTEGER);
+        verify(cs).registerOutParameter(5, Types.VARCHAR);
+    }
+
+    @Test
+    void execute_shouldWriteBackOutputsAndReturnCode() throws Exception {
+        var param = new UpdateUserParam(1, "test");
+        var call = ProgramCall.of(param, ProgramDescriptor.of(param));
+        var cs = mock(CallableStatement.class);
+        when(cs.execute()).thenReturn(false);
+        when(cs.getUpdateCount()).thenReturn(1, -1);
+        when(cs.getInt(1)).thenReturn(3);
+        when(cs.getInt(4)).thenReturn(9);
+        when(cs.getString(5)).thenReturn("failed");
+
+        var result = call.execute(cs, param);
+
+        assertEquals(1, result.getAffectedRows());
+        assertEquals(3, result.getReturnCode());
+        assertEquals(9, param.getSqlErrorCd());
+        assertEquals("failed", param.getProgressMessage());
+    }
+
+    @Test
+    void executeForCursorNames_shouldPassNullForOutputsAndReadThemFromRow() throws Exception {
+        DbProgramMapperOptions.configure(config -> config.setDialect(new PostgreSqlDialect()));
+        var param = new UpdateUserParam(1, "test");
+        var call = ProgramCall.of(param, ProgramDescriptor.of(param));
+        var ps = mock(PreparedStatement.class);
+        var row = mock(ResultSet.class);
+        when(ps.executeQuery()).thenReturn(row);
+        when(row.next()).thenReturn(true);
+        when(row.getInt(1)).thenReturn(9);
+        when(row.getString(2)).thenReturn("failed");
+
+        var cursorNames = call.executeForCursorNames(ps, param);
+
+        assertTrue(cursorNames.isEmpty());
+        verify(ps).setInt(1, 1);
+        verify(ps).setString(2, "test");
+        verify(ps).setNull(3, Types.INTEGER);
+        verify(ps).setNull(4, Types.VARCHAR);
+        assertEquals(9, param.getSqlErrorCd());
+        assertEquals("failed", param.getProgressMessage());
+        verify(row).close();
+    }
+
+    @Test
+    void executeMulti_shouldMapEachResultSetAndReadOutputsLast() throws Exception {
+        var param = new UpdateUserParam(1, "test");
+        var call = ProgramCall.of(param, ProgramDescriptor.of(param));
+        var cs = mock(CallableStatement.class);
+        var first = mock(ResultSet.class);
+        var second = mock(ResultSet.class);
+        var third = mock(ResultSet.class);
+        when(cs.execute()).thenReturn(true);
+        when(cs.getResultSet()).thenReturn(first, second, third);
+        when(cs.getMoreResults()).thenReturn(true, false, true, false);
+        when(cs.getUpdateCount()).thenReturn(2, -1);
+        when(first.next()).thenReturn(true, true, false);
+        when(first.getString(1)).thenReturn("a", "b");
+        when(second.next()).thenReturn(true, false);
+        when(second.getInt(1)).thenReturn(10);
+        when(cs.getInt(1)).thenReturn(0);
+
+        RowMapper<String> names = (rs, n) -> rs.getString(1);
+        RowMapper<Integer> counts = (rs, n) -> rs.getInt(1);
+        var result = call.executeMulti(cs, param, List.of(names, counts));
+
+        assertEquals(List.of("a", "b"), result.getResultSet(0));
+        assertEquals(List.of(10), result.getResultSet(1));
+        assertEquals(2, result.getResultSetCount());
+        assertEquals(2, result.getAffectedRows());
+        assertEquals(0, result.getReturnCode());
+        verify(third).close();
+        verify(third, never()).next();
+        var order = inOrder(cs);
+        order.verify(cs, times(3)).getResultSet();
+        order.verify(cs).getInt(1);
+    }
+
+    @Test
+    void executeMulti_shouldReturnEmptyListsForMissingResultSets() throws Exception {
+        var param = new UpdateUserParam(1, "test");
+        var call = ProgramCall.of(param, ProgramDescriptor.of(param));
+        var cs = mock(CallableStatement.class);
+        when(cs.execute()).thenReturn(false);
+        when(cs.getUpdateCount()).thenReturn(-1);
+
+        var result = call.executeMulti(cs, param, List.of((rs, n) -> rs.getString(1)));
+
+        assertEquals(1, result.getResultSetCount());
+        assertTrue(result.getResultSet(0).isEmpty());
+    }
+}
@@ -0,0 +1,404 @@
+package io.storedmapper.executor;
+
+import io.storedmapper.DbProgramBase;
+import io.storedmapper.DbProgramMapperOptions;
+import io.storedmapper.annotation.DbParameterOrder;
+import io.storedmapper.annotation.DbProgramCacheable;
+import io.storedmapper.annotation.DbProgramInvalidates;
+import io.storedmapper.annotation.DbProgramName;
+import io.storedmapper.internal.ResultCache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReadReplicasTest {
+
+    private DataSource primary;
+    private DataSource replica1;
+    private DataSource replica2;
+    private ReadReplicas replicas;
+    private DbProgramExecutor executor;
+    private final RowMapper<Integer> rowMapper = (r, n) -> r.getInt(1);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DbProgramMapperOptions.reset();
+        ResultCache.clear();
+        primary = mockDataSource();
+        replica1 = mockDataSource();
+        replica2 = mockDataSource();
+        replicas = new ReadReplicas(List.of(new JdbcTemplate(replica1), new JdbcTemplate(replica2)));
+        replicas.setLagCheckInterval(Duration.ZERO);
+        executor = new DbProgramExecutor(new JdbcTemplate(primary), replicas);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        DbProgramMapperOptions.reset();
+        ResultCache.clear();
+    }
+
+    // --- テスト用パラメータクラス ---
+
+    @DbProgramName("fn_get_order_ids")
+    static class GetOrderIdsParam extends DbProgramBase {
+        @DbParameterOrder(1) private Integer customerId;
+
+        GetOrderIdsParam(Integer customerId) {
+            this.customerId = customerId;
+        }
+    }
+
+    @DbProgramName(value = "fn_get_balance", readOnly = false)
+    static class GetBalanceParam extends DbProgramBase {
+        @DbParameterOrder(1) private Integer customerId;
+
+        GetBalanceParam(Integer customerId) {
+            this.customerId = customerId;
+        }
+    }
+
+    @DbProgramName("sp_close_order")
+    static class CloseOrderParam extends DbProgramBase {
+        @DbParameterOrder(1) private Integer orderId;
+
+        CloseOrderParam(Integer orderId) {
+            this.orderId = orderId;
+        }
+    }
+
+    @DbProgramName("fn_get_order_status")
+    @DbProgramCacheable
+    static class GetOrderStatusParam extends DbProgramBase {
+        @DbParameterOrder(1) private Integer orderId;
+
+        GetOrderStatusParam(Integer orderId) {
+            this.orderId = orderId;
+        }
+    }
+
+    @DbProgramName("sp_update_order_status")
+    @DbProgramInvalidates(value = GetOrderStatusParam.class, match = "orderId")
+    static class UpdateOrderStatusParam extends DbProgramBase {
+        @DbParameterOrder(1) private Integer orderId;
+
+        UpdateOrderStatusParam(Integer orderId) {
+            this.orderId = orderId;
+        }
+    }
+
+    // --- テスト ---
+
+    @Test
+    void query_shouldRouteToReplicasInTurn() throws Exception {
+        executor.query(new GetOrderIdsParam(1), rowMapper);
+        executor.queryFirstOrDefault(new GetOrderIdsParam(1), rowMapper);
+
+        verify(replica1).getConnection();
+        verify(replica2).getConnection();
+        verify(primary, never()).getConnection();
+        assertEquals(1, replicas.getStatistics().get(0).getRoutedCount());
+    }
+
+    @Test
+    void execute_shouldRunOnPrimary() throws Exception {
+        executor.execute(new CloseOrderParam(1));
+
+        verify(primary).getConnection();
+        verify(replica1, never()).getConnection();
+        verify(replica2, never()).getConnection();
+    }
+
+    @Test
+    void query_shouldRunOnPrimaryWhenNotReadOnly() throws Exception {
+        executor.query(new GetBalanceParam(1), rowMapper);
+
+        verify(primary).getConnection();
+        verify(replica1, never()).getConnection();
+    }
+
+    @Test
+    void query_shouldRunOnPrimaryInsideTransaction() throws Exception {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        executor.query(new GetOrderIdsParam(1), rowMapper);
+
+        verify(primary).getConnection();
+        verify(replica1, never()).getConnection();
+    }
+
+    @Test
+    void query_shouldFallBackToPrimaryAndSkipFailedReplica() throws Exception {
+        when(replica1.getConnection()).thenThrow(new SQLException("Connection refused", "08001"));
+
+        executor.query(new GetOrderIdsParam(1), rowMapper);
+        executor.query(new GetOrderIdsParam(1), rowMapper);
+        executor.query(new GetOrderIdsParam(1), rowMapper);
+
+        verify(replica1, times(1)).getConnection();
+        verify(replica2, times(2)).getConnection();
+        verify(primary, times(1)).getConnection();
+        assertEquals(1, replicas.getFallbackCount());
+        assertFalse(replicas.getStatistics().get(0).isAvailable());
+        assertEquals(1, replicas.getStatistics().get(0).getFailureCount());
+    }
+
+    @Test
+    void query_shouldKeepReplicaAvailableWhenStatementIsCanceled() throws Exception {
+        var connection = replica1.getConnection();
+        when(connection.prepareStatement(anyString()).executeQuery())
+                .thenThrow(new SQLException("canceling statement due to statement timeout", "57014"));
+
+        assertThrows(DataAccessException.class, () -> executor.query(new GetOrderIdsParam(1), rowMapper));
+
+        verify(primary, never()).getConnection();
+        assertEquals(0, replicas.getFallbackCount());
+        assertTrue(replicas.getStatistics().get(0).isAvailable());
+        assertEquals(0, replicas.getStatistics().get(0).getFailureCount());
+    }
+
+    @Test
+    void query_shouldFallBackWhenConnectionIsLostDuringCall() throws Exception {
+        var connection = replica1.getConnection();
+        when(connection.prepareStatement(anyString()).executeQuery())
+                .thenThrow(new SQLException("An I/O error occurred while sending to the backend.", "08006"));
+
+        executor.query(new GetOrderIdsParam(1), rowMapper);
+
+        verify(primary).getConnection();
+        assertEquals(1, replicas.getFallbackCount());
+        assertFalse(replicas.getStatistics().get(0).isAvailable());
+    }
+
+    @Test
+    void query_shouldFailWithoutFallback() throws Exception {
+        replicas.setFallbackToPrimary(false);
+        when(replica1.getConnection()).thenThrow(new SQLException("Connection refused", "08001"));
+
+        assertThrows(DataAccessResourceFailureException.class,
+                () -> executor.query(new GetOrderIdsParam(1), rowMapper));
+
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    void query_shouldSkipReplicasBehindMaxLag() throws Exception {
+        replicas.setMaxLag(Duration.ofSeconds(5));
+        replicas.setLagProbe(replica -> replica.getDataSource() == replica1
+                ? Duration.ofSeconds(30) : Duration.ofSeconds(1));
+        awaitLagChecked();
+
+        executor.query(new GetOrderIdsParam(1), rowMapper);
+        executor.query(new GetOrderIdsParam(1), rowMapper);
+
+        verify(replica1, never()).getConnection();
+        verify(replica2, times(2)).getConnection();
+        assertEquals(Duration.ofSeconds(30), replicas.getStatistics().get(0).getLag());
+    }
+
+    @Test
+    void query_shouldFallBackToPrimaryWhenLagIsUnknown() throws Exception {
+        replicas.setMaxLag(Duration.ofSeconds(5));
+        replicas.setLagProbe(replica -> null);
+
+        executor.query(new GetOrderIdsParam(1), rowMapper);
+
+        verify(primary).getConnection();
+        assertEquals(1, replicas.getFallbackCount());
+    }
+
+    @Test
+    void query_shouldNotWaitForLagProbe() throws Exception {
+        var release = new CountDownLatch(1);
+        replicas.setMaxLag(Duration.ofSeconds(5));
+        replicas.setLagProbe(replica -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Duration.ZERO;
+        });
+
+        try {
+            assertTimeout(Duration.ofSeconds(1), () -> executor.query(new GetOrderIdsParam(1), rowMapper));
+        } finally {
+            release.countDown();
+        }
+
+        verify(primary).getConnection();
+    }
+
+    @Test
+    void query_shouldSkipReplicaWhenLagProbeCannotConnect() throws Exception {
+        replicas.setMaxLag(Duration.ofSeconds(5));
+        replicas.setLagProbe(replica -> {
+            if (replica.getDataSource() == replica1) {
+                throw new CannotGetJdbcConnectionException("Connection is not available, request timed out");
+            }
+            return Duration.ZERO;
+        });
+
+        executor.query(new GetOrderIdsParam(1), rowMapper);
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (replicas.getStatistics().get(0).isAvailable() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+
+        assertFalse(replicas.getStatistics().get(0).isAvailable());
+        assertEquals(1, replicas.getStatistics().get(0).getFailureCount());
+    }
+
+    @Test
+    void query_shouldPreferReplicaWithLeastOutstandingCalls() throws Exception {
+        replicas.setLoadBalancing(ReadReplicas.LoadBalancing.LEAST_OUTSTANDING);
+
+        try (var stream = executor.queryForStream(new GetOrderIdsParam(1), rowMapper)) {
+            executor.query(new GetOrderIdsParam(1), rowMapper);
+            executor.query(new GetOrderIdsParam(1), rowMapper);
+
+            assertEquals(1, replicas.getStatistics().get(0).getOutstanding());
+        }
+
+        verify(replica1, times(1)).getConnection();
+        verify(replica2, times(2)).getConnection();
+        assertEquals(0, replicas.getStatistics().get(0).getOutstanding());
+    }
+
+    @Test
+    void query_shouldReloadInvalidatedCacheFromPrimaryWithinMaxLag() throws Exception {
+        replicas.setMaxLag(Duration.ofSeconds(5));
+        replicas.setLagProbe(replica -> Duration.ofSeconds(1));
+        awaitLagChecked();
+        var routed = routedCount();
+        var fallbacks = replicas.getFallbackCount();
+
+        executor.query(new GetOrderStatusParam(1), rowMapper);
+        executor.execute(new UpdateOrderStatusParam(1));
+        executor.query(new GetOrderStatusParam(1), rowMapper);
+        executor.query(new GetOrderStatusParam(1), rowMapper);
+
+        // 最初の読み込みのみレプリカ、削除後の再読み込みはプライマリで実行してキャッシュする
+        assertEquals(routed + 1, routedCount());
+        verify(primary, times(2)).getConnection();
+        assertEquals(fallbacks, replicas.getFallbackCount());
+    }
+
+    @Test
+    void query_shouldReadCacheableProgramFromPrimaryWithoutMaxLag() throws Exception {
+        executor.query(new GetOrderStatusParam(1), rowMapper);
+
+        verify(replica1, never()).getConnection();
+        verify(primary).getConnection();
+        assertEquals(1, replicas.getFallbackCount());
+    }
+
+    @Test
+    void constructor_shouldRejectMaxLagWithoutLagProbe() {
+        replicas.setMaxLag(Duration.ofSeconds(5));
+
+        assertThrows(IllegalStateException.class, () -> new DbProgramExecutor(new JdbcTemplate(primary), replicas));
+    }
+
+    @Test
+    void query_shouldFallBackToPrimaryWhenLagProbeIsRemoved() throws Exception {
+        replicas.setMaxLag(Duration.ofSeconds(5));
+        replicas.setLagProbe(replica -> Duration.ofSeconds(1));
+        executor = new DbProgramExecutor(new JdbcTemplate(primary), replicas);
+        replicas.setLagProbe(null);
+
+        executor.query(new GetOrderIdsParam(1), rowMapper);
+
+        verify(primary).getConnection();
+        assertEquals(1, replicas.getFallbackCount());
+    }
+
+    @Test
+    void asyncQuery_shouldRouteToReplicas() throws Exception {
+        var async = new AsyncDbProgramExecutor(new JdbcTemplate(primary), 1, replicas);
+
+        async.query(new GetOrderIdsParam(1), rowMapper).get(5, TimeUnit.SECONDS);
+
+        verify(replica1).getConnection();
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    void asyncQuery_shouldCancelStatementOnReplica() throws Exception {
+        var started = new CountDownLatch(1);
+        var cancelled = new CountDownLatch(1);
+        var ps = replica1.getConnection().prepareStatement("");
+        when(ps.executeQuery()).thenAnswer(invocation -> {
+            started.countDown();
+            cancelled.await(5, TimeUnit.SECONDS);
+            throw new SQLException("canceling statement due to user request", "57014");
+        });
+        doAnswer(invocation -> {
+            cancelled.countDown();
+            return null;
+        }).when(ps).cancel();
+        var async = new AsyncDbProgramExecutor(new JdbcTemplate(primary), 1, replicas);
+
+        var future = async.query(new GetOrderIdsParam(1), rowMapper);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        future.cancel(true);
+
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+        verify(ps).cancel();
+    }
+
+    /**
+     * すべてのレプリカの遅延を確認するまで呼び出しを繰り返します（確認前の呼び出しはプライマリで実行されます）。
+     */
+    private void awaitLagChecked() throws Exception {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (replicas.getStatistics().stream().anyMatch(statistics -> statistics.getLag() == null)
+                && System.nanoTime() < deadline) {
+            executor.query(new GetOrderIdsParam(0), rowMapper);
+            Thread.sleep(1);
+        }
+        clearInvocations(primary, replica1, replica2);
+    }
+
+    private long routedCount() {
+        return replicas.getStatistics().stream().mapToLong(ReadReplicas.Statistics::getRoutedCount).sum();
+    }
+
+    private static DataSource mockDataSource() throws SQLException {
+        var dataSource = mock(DataSource.class);
+        var connection = mock(Connection.class);
+        var ps = mock(PreparedStatement.class);
+        var cs = mock(CallableStatement.class);
+        var rs = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(ps);
+        when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(ps);
+        when(connection.prepareCall(anyString())).thenReturn(cs);
+        when(cs.getUpdateCount()).thenReturn(-1);
+        when(ps.executeQuery()).thenReturn(rs);
+        return dataSource;
+    }
+}
@@ -0,0 +1,111 @@
+package io.storedmapper.executor;
+
+import io.storedmapper.DbProgramBase;
+import io.storedmapper.DbProgramMapperOptions;
+import io.storedmapper.annotation.DbParameterOrder;
+import io.storedmapper.annotation.DbProgramName;
+import io.storedmapper.dialect.PostgreSqlDialect;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StreamingQueryTest {
+
+    private Connection connection;
+    private PreparedStatement ps;
+    private ResultSet rs;
+    private DbProgramExecutor executor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DbProgramMapperOptions.reset();
+        var dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        ps = mock(PreparedStatement.class);
+        rs = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(ps);
+        when(ps.executeQuery()).thenReturn(rs);
+        when(rs.next()).thenReturn(true, true, true, false);
+        when(rs.getInt(1)).thenReturn(1, 2, 3);
+        executor = new DbProgramExecutor(new JdbcTemplate(dataSource));
+    }
+
+    @AfterEach
+    void tearDown() {
+        DbProgramMapperOptions.reset();
+    }
+
+    // --- テスト用パラメータクラス ---
+
+    @DbProgramName("fn_get_tasks")
+    static class GetTasksParam extends DbProgramBase {
+        @DbParameterOrder(1) private Integer projectId;
+
+        GetTasksParam(Integer projectId) {
+            this.projectId = projectId;
+        }
+    }
+
+    // --- テスト ---
+
+    @Test
+    void queryForStream_shouldReadRowsLazilyAndReleaseOnClose() throws Exception {
+        try (var stream = executor.queryForStream(new GetTasksParam(10), (r, n) -> r.getInt(1), 250)) {
+            verify(ps).setFetchSize(250);
+            verify(ps).setInt(1, 10);
+            verify(rs, never()).next();
+            assertEquals(java.util.List.of(1, 2, 3), stream.toList());
+        }
+
+        verify(rs).close();
+        verify(ps).close();
+        verify(connection).close();
+    }
+
+    @Test
+    void queryEach_shouldDisableAutoCommitForPostgreSqlAndRestoreIt() throws Exception {
+        DbProgramMapperOptions.configure(config -> config.setDialect(new PostgreSqlDialect()));
+        when(connection.getAutoCommit()).thenReturn(true);
+        var values = new ArrayList<Integer>();
+
+        executor.queryEach(new GetTasksParam(10), (r, n) -> r.getInt(1), values::add);
+
+        assertEquals(java.util.List.of(1, 2, 3), values);
+        var order = inOrder(connection, ps);
+        order.verify(connection).setAutoCommit(false);
+        order.verify(ps).setFetchSize(DbProgramMapperOptions.DEFAULT_STREAM_FETCH_SIZE);
+        order.verify(connection).commit();
+        order.verify(connection).setAutoCommit(true);
+        order.verify(connection).close();
+    }
+
+    @Test
+    void queryEach_shouldReleaseConnectionWhenCallbackFails() throws Exception {
+        assertThrows(IllegalStateException.class, () -> executor.queryEach(new GetTasksParam(10),
+                (r, n) -> r.getInt(1), value -> {
+                    throw new IllegalStateException("boom");
+                }));
+
+        verify(rs).close();
+        verify(connection).close();
+    }
+
+    @Test
+    void queryForStream_shouldRejectNonPositiveFetchSize() {
+        assertThrows(IllegalArgumentException.class,
+                () -> executor.queryForStream(new GetTasksParam(10), (r, n) -> r.getInt(1), 0));
+    }
+}
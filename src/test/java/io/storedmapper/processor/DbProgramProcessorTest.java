@@ -0,0 +1,189 @@
+package io.storedmapper.processor;
+
+import io.storedmapper.internal.ParameterSlot;
+import io.storedmapper.internal.ProgramDescriptor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.net.URI;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DbProgramProcessorTest {
+
+    @TempDir
+    Path outputDir;
+
+    @Test
+    void process_shouldGenerateBinderAndServiceFile() throws Exception {
+        var diagnostics = compile("sample.UpdateUserParam", """
+                package sample;
+
+                import io.storedmapper.DbProgramWithErrorBase;
+                import io.storedmapper.annotation.DbParameterName;
+                import io.storedmapper.annotation.DbParameterOrder;
+                import io.storedmapper.annotation.DbProgramName;
+
+                @DbProgramName(value = "sp_update_user", schema = "sales")
+                public class UpdateUserParam extends DbProgramWithErrorBase {
+                    @DbParameterOrder(2) private String name;
+                    @DbParameterOrder(1) @DbParameterName("p_user_id") private Integer userId;
+                }
+                """);
+
+        assertTrue(errors(diagnostics).isEmpty(), () -> errors(diagnostics).toString());
+        assertTrue(Files.exists(outputDir.resolve("sample/UpdateUserParam_DbProgramBinder.java")));
+        var services = Files.readString(outputDir.resolve("META-INF/services/io.storedmapper.spi.DbProgramBinder"));
+        assertEquals("sample.UpdateUserParam_DbProgramBinder", services.trim());
+
+        try (var loader = new URLClassLoader(new java.net.URL[]{outputDir.toUri().toURL()}, getClass().getClassLoader())) {
+            var type = loader.loadClass("sample.UpdateUserParam");
+            var names = ProgramDescriptor.of(type).getParameters().stream().map(ParameterSlot::getName).toList();
+            assertEquals(List.of("p_user_id", "name", "sqlErrorCd", "progressMessage"), names);
+        }
+    }
+
+    @Test
+    void process_shouldKeepExistingServiceEntriesOnIncrementalCompile() throws Exception {
+        compile("sample.GetUserParam", """
+                package sample;
+
+                import io.storedmapper.DbProgramBase;
+                import io.storedmapper.annotation.DbParameterOrder;
+                import io.storedmapper.annotation.DbProgramName;
+
+                @DbProgramName("fn_get_user")
+                public class GetUserParam extends DbProgramBase {
+                    @DbParameterOrder(1) private Integer userId;
+                }
+                """);
+        var diagnostics = compile("sample.Outer", """
+                package sample;
+
+                import io.storedmapper.DbProgramBase;
+                import io.storedmapper.annotation.DbParameterOrder;
+                import io.storedmapper.annotation.DbProgramName;
+
+                public class Outer {
+                    @DbProgramName("fn_get_role")
+                    public static class GetRoleParam extends DbProgramBase {
+                        @DbParameterOrder(1) private Integer roleId;
+                    }
+                }
+                """);
+
+        assertTrue(errors(diagnostics).isEmpty(), () -> errors(diagnostics).toString());
+        var services = Files.readAllLines(outputDir.resolve("META-INF/services/io.storedmapper.spi.DbProgramBinder"));
+        assertEquals(List.of("sample.GetUserParam_DbProgramBinder", "sample.Outer_GetRoleParam_DbProgramBinder"),
+                services);
+
+        try (var loader = new URLClassLoader(new java.net.URL[]{outputDir.toUri().toURL()}, getClass().getClassLoader())) {
+            var type = loader.loadClass("sample.Outer$GetRoleParam");
+            assertEquals(List.of("roleId"),
+                    ProgramDescriptor.of(type).getParameters().stream().map(ParameterSlot::getName).toList());
+        }
+    }
+
+    @Test
+    void process_shouldReportDuplicateParameterOrder() throws Exception {
+        var diagnostics = compile("sample.DuplicateOrderParam", """
+                package sample;
+
+                import io.storedmapper.DbProgramBase;
+                import io.storedmapper.annotation.DbParameterOrder;
+                import io.storedmapper.annotation.DbProgramName;
+
+                @DbProgramName("sp_duplicate_order")
+                public class DuplicateOrderParam extends DbProgramBase {
+                    @DbParameterOrder(1) private String name;
+                    @DbParameterOrder(1) private String email;
+                }
+                """);
+
+        var errors = errors(diagnostics);
+        assertEquals(1, errors.size());
+        assertTrue(errors.getFirst().contains("DbParameterOrder value 1 is duplicated."));
+        assertFalse(Files.exists(outputDir.resolve("sample/DuplicateOrderParam_DbProgramBinder.java")));
+    }
+
+    @Test
+    void process_shouldReportInvalidNames() throws Exception {
+        var diagnostics = compile("sample.InvalidNameParam", """
+                package sample;
+
+                import io.storedmapper.DbProgramBase;
+                import io.storedmapper.annotation.DbProgramName;
+
+                @DbProgramName(value = "sp_valid; DROP TABLE users", schema = "schema'")
+                public class InvalidNameParam extends DbProgramBase {
+                }
+                """);
+
+        var errors = errors(diagnostics);
+        assertEquals(2, errors.size());
+        assertTrue(errors.get(0).contains("Program name"));
+        assertTrue(errors.get(1).contains("Schema name"));
+    }
+
+    @Test
+    void process_shouldReportOutputCollectionParameter() throws Exception {
+        var diagnostics = compile("sample.OutputCollectionParam", """
+                package sample;
+
+                import io.storedmapper.DbProgramBase;
+                import io.storedmapper.ParameterDirection;
+                import io.storedmapper.annotation.DbParameterOrder;
+                import io.storedmapper.annotation.DbParameterProperty;
+                import io.storedmapper.annotation.DbProgramName;
+
+                import java.util.List;
+
+                @DbProgramName("sp_output_collection")
+                public class OutputCollectionParam extends DbProgramBase {
+                    @DbParameterOrder(1)
+                    @DbParameterProperty(direction = ParameterDirection.OUTPUT, typeName = "dbo.IdList")
+                    private List<Integer> ids;
+                }
+                """);
+
+        var errors = errors(diagnostics);
+        assertEquals(1, errors.size());
+        assertTrue(errors.getFirst().contains("Collection parameter 'ids' must be an INPUT parameter."));
+    }
+
+    private List<Diagnostic<? extends JavaFileObject>> compile(String className, String source) throws Exception {
+        var compiler = ToolProvider.getSystemJavaCompiler();
+        var diagnostics = new DiagnosticCollector<JavaFileObject>();
+        var file = new SimpleJavaFileObject(
+                URI.create("string:///" + className.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        var options = List.of(
+                "-classpath", System.getProperty("java.class.path"),
+                "-processor", DbProgramProcessor.class.getName(),
+                "-d", outputDir.toString(),
+                "-s", outputDir.toString());
+        compiler.getTask(null, null, diagnostics, options, null, List.of(file)).call();
+        return diagnostics.getDiagnostics();
+    }
+
+    private static List<String> errors(List<Diagnostic<? extends JavaFileObject>> diagnostics) {
+        return diagnostics.stream()
+                .filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+                .map(d -> d.getMessage(null))
+                .toList();
+    }
+}